@@ -0,0 +1,56 @@
+package com.oumana.benchmark;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.oumana.TwitterAccessLayerApplication;
+
+/**
+ * Boots the application against a fresh in-memory H2 database, with SQL
+ * logging off so it does not skew the measurements and the statistics
+ * checkpoint in a temporary file so no run restores another's counts.
+ */
+public final class BenchmarkContext {
+
+	private BenchmarkContext() {
+	}
+
+	public static ConfigurableApplicationContext start(String... properties) {
+		return start(WebApplicationType.NONE, properties);
+	}
+
+	/**
+	 * Same, with the embedded web server on a random port, available as
+	 * local.server.port.
+	 */
+	public static ConfigurableApplicationContext startServer(String... properties) {
+		List<String> withPort = new ArrayList<>(List.of("server.port=0"));
+		withPort.addAll(List.of(properties));
+		return start(WebApplicationType.SERVLET, withPort.toArray(new String[0]));
+	}
+
+	private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... properties) {
+		String run = UUID.randomUUID().toString();
+		List<String> defaults = new ArrayList<>(List.of(
+				"spring.datasource.url=jdbc:h2:mem:bench-" + run + ";DB_CLOSE_DELAY=-1",
+				"spring.jpa.show-sql=false",
+				"spring.main.banner-mode=off",
+				"logging.level.root=WARN",
+				"tweets.stats.checkpoint-file=" + Path.of(System.getProperty("java.io.tmpdir"), "bench-" + run + ".stats")));
+		defaults.addAll(List.of(properties));
+		// as command line arguments, since default properties lose to application.properties
+		String[] arguments = new String[defaults.size()];
+		for (int i = 0; i < arguments.length; i++) {
+			arguments[i] = "--" + defaults.get(i);
+		}
+		return new SpringApplicationBuilder(TwitterAccessLayerApplication.class)
+				.web(webApplicationType)
+				.run(arguments);
+	}
+}
@@ -0,0 +1,319 @@
+package com.oumana.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.oumana.entity.Tweet;
+import com.oumana.service.TweetService;
+
+/**
+ * End-to-end load test of the HTTP API. Seeds embedded H2 with synthetic
+ * tweets, starts the application on a random port and runs closed-loop
+ * workers that each send a weighted mix of create, get-by-id, list, user
+ * timeline and text search requests. Requests sent during the warmup are
+ * not recorded; throughput and latency percentiles per endpoint are printed
+ * and written as JSON.
+ *
+ * Options are key=value arguments: tweets, users, concurrency, warmup,
+ * duration, mix (for example create=10,get=40,list=20,user=20,search=10)
+ * and out. Arguments starting with -- are passed to the application, for
+ * example --tweets.async.threads=platform.
+ */
+public class LoadTest {
+
+	enum Endpoint {
+		CREATE, GET, LIST, USER, SEARCH
+	}
+
+	private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+	static {
+		DEFAULTS.put("tweets", "1000000");
+		DEFAULTS.put("users", "10000");
+		DEFAULTS.put("concurrency", "32");
+		DEFAULTS.put("warmup", "10s");
+		DEFAULTS.put("duration", "60s");
+		DEFAULTS.put("mix", "create=10,get=40,list=20,user=20,search=10");
+		DEFAULTS.put("out", "benchmarks/load-result.json");
+	}
+
+	private final Map<String, String> options;
+	private final List<String> properties;
+	private final int tweets;
+	private final int users;
+	private final int concurrency;
+	private final Duration warmup;
+	private final Duration duration;
+	private final Endpoint[] mix;
+	private final Path out;
+	private HttpClient httpClient;
+	private ObjectMapper objectMapper;
+	private String baseUrl;
+	private long firstId;
+	private long lastId;
+
+	LoadTest(Map<String, String> options, List<String> properties) {
+		this.options = options;
+		this.properties = properties;
+		this.tweets = Integer.parseInt(options.get("tweets"));
+		this.users = Integer.parseInt(options.get("users"));
+		this.concurrency = Integer.parseInt(options.get("concurrency"));
+		this.warmup = DurationStyle.detectAndParse(options.get("warmup"));
+		this.duration = DurationStyle.detectAndParse(options.get("duration"));
+		this.mix = mix(options.get("mix"));
+		this.out = Path.of(options.get("out"));
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+		List<String> properties = new ArrayList<>();
+		for (String arg : args) {
+			if (arg.startsWith("--")) {
+				properties.add(arg.substring(2));
+				continue;
+			}
+			int separator = arg.indexOf('=');
+			if (separator < 0 || !DEFAULTS.containsKey(arg.substring(0, separator))) {
+				throw new IllegalArgumentException("Unknown option '" + arg + "', expected key=value with one of "
+						+ DEFAULTS.keySet());
+			}
+			options.put(arg.substring(0, separator), arg.substring(separator + 1));
+		}
+		new LoadTest(options, properties).run();
+	}
+
+	void run() throws Exception {
+		try (ConfigurableApplicationContext context = BenchmarkContext.startServer(properties.toArray(new String[0]))) {
+			baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/v1/api";
+			objectMapper = context.getBean(ObjectMapper.class);
+			seed(context.getBean(TweetService.class));
+			httpClient = HttpClient.newBuilder()
+					.version(HttpClient.Version.HTTP_1_1)
+					.connectTimeout(Duration.ofSeconds(5))
+					.build();
+			List<Worker> workers = drive();
+			Map<String, Object> report = report(workers);
+			Files.createDirectories(out.toAbsolutePath().getParent());
+			new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), report);
+			System.out.printf("Report written to %s%n", out);
+		}
+	}
+
+	private void seed(TweetService tweetService) {
+		TweetDataGenerator generator = new TweetDataGenerator(42, users);
+		long start = System.nanoTime();
+		for (int seeded = 0; seeded < tweets; seeded += TweetService.MAX_BATCH_SIZE) {
+			List<Tweet> batch = generator.next(Math.min(TweetService.MAX_BATCH_SIZE, tweets - seeded));
+			tweetService.saveTweets(batch);
+			if (seeded == 0) {
+				firstId = batch.get(0).getId();
+			}
+			lastId = batch.get(batch.size() - 1).getId();
+			if ((seeded / TweetService.MAX_BATCH_SIZE) % 100 == 99) {
+				System.out.printf("Seeded %d of %d tweets%n", seeded + batch.size(), tweets);
+			}
+		}
+		System.out.printf("Seeded %d tweets by %d users in %d s%n", tweets, users,
+				TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+	}
+
+	private List<Worker> drive() throws Exception {
+		long recordFrom = System.nanoTime() + warmup.toNanos();
+		long stopAt = recordFrom + duration.toNanos();
+		SplittableRandom random = new SplittableRandom(7);
+		List<Worker> workers = new ArrayList<>(concurrency);
+		for (int i = 0; i < concurrency; i++) {
+			workers.add(new Worker(random.split(), new TweetDataGenerator(1000 + i, users), recordFrom, stopAt));
+		}
+		System.out.printf("Running %d workers for %s after a %s warmup%n", concurrency, duration, warmup);
+		ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+		try {
+			List<Future<?>> running = new ArrayList<>(concurrency);
+			for (Worker worker : workers) {
+				running.add(executor.submit(worker));
+			}
+			for (Future<?> future : running) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return workers;
+	}
+
+	private Map<String, Object> report(List<Worker> workers) {
+		Map<String, Map<String, Object>> endpoints = new LinkedHashMap<>();
+		Histogram all = new Histogram(3);
+		long allErrors = 0;
+		System.out.printf("%-8s %10s %8s %10s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s",
+				"p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+		for (Endpoint endpoint : Endpoint.values()) {
+			Histogram latencies = new Histogram(3);
+			long errors = 0;
+			for (Worker worker : workers) {
+				latencies.add(worker.latencies.get(endpoint));
+				errors += worker.errors.get(endpoint)[0];
+			}
+			if (latencies.getTotalCount() + errors == 0) {
+				continue;
+			}
+			all.add(latencies);
+			allErrors += errors;
+			endpoints.put(endpoint.name().toLowerCase(Locale.ROOT), summary(latencies, errors));
+		}
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("timestamp", Instant.now().toString());
+		report.put("java", System.getProperty("java.version"));
+		report.put("options", options);
+		report.put("properties", properties);
+		report.put("endpoints", endpoints);
+		report.put("all", summary(all, allErrors));
+		print("all", summary(all, allErrors));
+		endpoints.forEach((endpoint, summary) -> print(endpoint, summary));
+		return report;
+	}
+
+	/**
+	 * Latencies are recorded in microseconds and reported in milliseconds.
+	 */
+	private Map<String, Object> summary(Histogram latencies, long errors) {
+		Map<String, Object> summary = new LinkedHashMap<>();
+		summary.put("requests", latencies.getTotalCount());
+		summary.put("errors", errors);
+		summary.put("throughput", latencies.getTotalCount() / (duration.toNanos() / 1e9));
+		summary.put("meanMs", latencies.getMean() / 1000);
+		summary.put("p50Ms", latencies.getValueAtPercentile(50) / 1000.0);
+		summary.put("p90Ms", latencies.getValueAtPercentile(90) / 1000.0);
+		summary.put("p99Ms", latencies.getValueAtPercentile(99) / 1000.0);
+		summary.put("p999Ms", latencies.getValueAtPercentile(99.9) / 1000.0);
+		summary.put("maxMs", latencies.getMaxValue() / 1000.0);
+		return summary;
+	}
+
+	private static void print(String endpoint, Map<String, Object> summary) {
+		System.out.printf("%-8s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", endpoint, summary.get("requests"),
+				summary.get("errors"), summary.get("throughput"), summary.get("p50Ms"), summary.get("p90Ms"),
+				summary.get("p99Ms"), summary.get("p999Ms"), summary.get("maxMs"));
+	}
+
+	/**
+	 * Expands the weights into a table to draw endpoints from.
+	 */
+	static Endpoint[] mix(String weights) {
+		List<Endpoint> table = new ArrayList<>();
+		for (String weight : weights.split(",")) {
+			String[] parts = weight.trim().split("=");
+			Endpoint endpoint = Endpoint.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+			for (int i = Integer.parseInt(parts[1].trim()); i > 0; i--) {
+				table.add(endpoint);
+			}
+		}
+		if (table.isEmpty()) {
+			throw new IllegalArgumentException("The mix '" + weights + "' has no positive weight");
+		}
+		return table.toArray(new Endpoint[0]);
+	}
+
+	private final class Worker implements Runnable {
+		private final SplittableRandom random;
+		private final TweetDataGenerator generator;
+		private final long recordFrom;
+		private final long stopAt;
+		private final Map<Endpoint, Histogram> latencies = new EnumMap<>(Endpoint.class);
+		private final Map<Endpoint, long[]> errors = new EnumMap<>(Endpoint.class);
+
+		Worker(SplittableRandom random, TweetDataGenerator generator, long recordFrom, long stopAt) {
+			this.random = random;
+			this.generator = generator;
+			this.recordFrom = recordFrom;
+			this.stopAt = stopAt;
+			for (Endpoint endpoint : Endpoint.values()) {
+				latencies.put(endpoint, new Histogram(3));
+				errors.put(endpoint, new long[1]);
+			}
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				Endpoint endpoint = mix[random.nextInt(mix.length)];
+				HttpRequest request = request(endpoint);
+				long start = System.nanoTime();
+				if (start >= stopAt) {
+					return;
+				}
+				boolean ok;
+				try {
+					int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+					ok = status / 100 == 2;
+				} catch (IOException e) {
+					ok = false;
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				long end = System.nanoTime();
+				if (start < recordFrom) {
+					continue;
+				}
+				if (ok) {
+					latencies.get(endpoint).recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(end - start)));
+				} else {
+					errors.get(endpoint)[0]++;
+				}
+			}
+		}
+
+		private HttpRequest request(Endpoint endpoint) {
+			switch (endpoint) {
+			case CREATE:
+				try {
+					return HttpRequest.newBuilder(URI.create(baseUrl + "/tweets"))
+							.header("Content-Type", "application/json")
+							.POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(generator.next())))
+							.build();
+				} catch (IOException e) {
+					throw new IllegalStateException(e);
+				}
+			case GET:
+				return get("/tweets/" + (firstId + random.nextLong(lastId - firstId + 1)));
+			case LIST:
+				return get("/tweets?limit=20");
+			case USER:
+				return get("/users/" + generator.username() + "/tweets?limit=20");
+			default:
+				return get("/tweets/search?q=" + URLEncoder.encode(generator.word(), StandardCharsets.UTF_8));
+			}
+		}
+
+		private HttpRequest get(String path) {
+			return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+		}
+	}
+}
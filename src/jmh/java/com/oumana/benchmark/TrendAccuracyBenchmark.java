@@ -0,0 +1,158 @@
+package com.oumana.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oumana.dto.Trend;
+import com.oumana.trends.TrendTracker;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Trend counting with the sketches against exact counts in a map. Setup
+ * feeds the same texts to both and prints the top-K recall, the count error
+ * of the reported trends and the memory each side holds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrendAccuracyBenchmark {
+
+	private static final int TEXTS = 200_000;
+	private static final int TOP = 10;
+
+	@Param({ "10000", "1000000" })
+	public int distinctTags;
+
+	private String[] texts;
+	private String[][] terms;
+	private TrendTracker tracker;
+	private Map<String, Integer> exact;
+	private int next;
+
+	@Setup
+	public void setup() {
+		TweetDataGenerator generator = new TweetDataGenerator(42, distinctTags);
+		texts = new String[TEXTS];
+		terms = new String[TEXTS][];
+		for (int i = 0; i < TEXTS; i++) {
+			String[] tags = new String[1 + i % 3];
+			StringBuilder text = new StringBuilder(plainWord(generator));
+			for (int j = 0; j < tags.length; j++) {
+				// distinct within a text, as the tracker counts a term once per tweet
+				do {
+					tags[j] = generator.hashtag();
+				} while (Arrays.asList(tags).subList(0, j).contains(tags[j]));
+				text.append(' ').append(tags[j]).append(' ').append(plainWord(generator));
+			}
+			texts[i] = text.toString();
+			terms[i] = tags;
+		}
+		tracker = new TrendTracker(new String[] { "24h" }, 12, 2048, 4, TOP, Duration.ofSeconds(1));
+		exact = new HashMap<>();
+		for (int i = 0; i < TEXTS; i++) {
+			tracker.record(texts[i]);
+			countExact(terms[i]);
+		}
+		tracker.refresh();
+		report();
+	}
+
+	@Benchmark
+	public int recordSketch() {
+		int i = next++ % TEXTS;
+		tracker.record(texts[i]);
+		return i;
+	}
+
+	@Benchmark
+	public int recordExact() {
+		int i = next++ % TEXTS;
+		countExact(terms[i]);
+		return i;
+	}
+
+	@Benchmark
+	public List<Trend> topSketch() {
+		return tracker.top(null);
+	}
+
+	@Benchmark
+	public List<Trend> topExact() {
+		return exactTop();
+	}
+
+	// the vocabulary has a few tags of its own, which would only reach the sketches
+	private static String plainWord(TweetDataGenerator generator) {
+		String word = generator.word();
+		while (word.startsWith("#") || word.startsWith("@")) {
+			word = generator.word();
+		}
+		return word;
+	}
+
+	private void countExact(String[] tags) {
+		for (String tag : tags) {
+			exact.merge(tag, 1, Integer::sum);
+		}
+	}
+
+	private List<Trend> exactTop() {
+		PriorityQueue<Map.Entry<String, Integer>> top = new PriorityQueue<>(TOP + 1, Map.Entry.comparingByValue());
+		for (Map.Entry<String, Integer> count : exact.entrySet()) {
+			top.add(count);
+			if (top.size() > TOP) {
+				top.poll();
+			}
+		}
+		List<Trend> trends = new ArrayList<>(TOP);
+		while (!top.isEmpty()) {
+			Map.Entry<String, Integer> count = top.poll();
+			trends.add(0, new Trend(count.getKey(), count.getValue()));
+		}
+		return trends;
+	}
+
+	private void report() {
+		List<Trend> estimated = tracker.top(null);
+		List<String> exactTerms = new ArrayList<>();
+		for (Trend trend : exactTop()) {
+			exactTerms.add(trend.getTerm());
+		}
+		int found = 0;
+		double error = 0;
+		for (Trend trend : estimated) {
+			if (exactTerms.contains(trend.getTerm())) {
+				found++;
+			}
+			int count = exact.getOrDefault(trend.getTerm(), 0);
+			error += (trend.getCount() - count) / (double) Math.max(1, count);
+		}
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		tracker.bindTo(meterRegistry);
+		System.out.printf("%d distinct tags: top-%d recall %.2f, mean count error %.3f%%, sketches %d KB, exact map %d entries%n",
+				distinctTags, TOP, found / (double) TOP, 100 * error / Math.max(1, estimated.size()),
+				(long) meterRegistry.get("tweets.trends.bytes").gauge().value() / 1024, exact.size());
+	}
+}
@@ -0,0 +1,106 @@
+package com.oumana.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.oumana.entity.Tweet;
+
+/**
+ * Deterministic synthetic tweets. Authors follow a Zipf-like distribution so
+ * a few users own most of the tweets, like a real timeline workload.
+ */
+public class TweetDataGenerator {
+
+	private static final String[] WORDS = { "spring", "boot", "java", "tweet", "timeline", "cache", "index",
+			"search", "query", "latency", "throughput", "database", "stream", "hello", "world", "today", "release",
+			"bug", "fix", "deploy", "coffee", "weekend", "music", "news", "sports", "travel", "code", "review",
+			"#java", "#spring", "@oscar_umana", "#news" };
+
+	private final SplittableRandom random;
+	private final int users;
+	private final double[] cumulativeWeights;
+
+	public TweetDataGenerator(long seed, int users) {
+		this.random = new SplittableRandom(seed);
+		this.users = users;
+		this.cumulativeWeights = new double[users];
+		double total = 0;
+		for (int i = 0; i < users; i++) {
+			total += 1.0 / (i + 1);
+			cumulativeWeights[i] = total;
+		}
+		for (int i = 0; i < users; i++) {
+			cumulativeWeights[i] /= total;
+		}
+	}
+
+	public Tweet next() {
+		String username = username(nextUser());
+		return Tweet.builder()
+				.name("User " + username)
+				.username(username)
+				.profileImgUrl("https://img.example.com/" + username + ".png")
+				.imgUrl(random.nextInt(4) == 0 ? "https://img.example.com/media/" + random.nextInt(1_000_000) : null)
+				.createdAt(LocalDate.now().minusDays(random.nextInt(365)))
+				.text(text(5 + random.nextInt(20)))
+				.build();
+	}
+
+	public List<Tweet> next(int count) {
+		List<Tweet> tweets = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			tweets.add(next());
+		}
+		return tweets;
+	}
+
+	public String word() {
+		return WORDS[random.nextInt(WORDS.length)];
+	}
+
+	/**
+	 * A hashtag out of one per user, skewed like the authors.
+	 */
+	public String hashtag() {
+		return "#tag_" + nextUser();
+	}
+
+	/**
+	 * The username of an author drawn with the same skew as tweets are.
+	 */
+	public String username() {
+		return username(nextUser());
+	}
+
+	public static String username(int user) {
+		return "user_" + user;
+	}
+
+	private int nextUser() {
+		double sample = random.nextDouble();
+		int low = 0;
+		int high = users - 1;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (cumulativeWeights[middle] < sample) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private String text(int words) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < words; i++) {
+			if (i > 0) {
+				text.append(' ');
+			}
+			text.append(word());
+		}
+		return text.length() > 255 ? text.substring(0, 255) : text.toString();
+	}
+}
@@ -0,0 +1,72 @@
+package com.oumana.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.oumana.dto.TweetSearchResult;
+import com.oumana.entity.Tweet;
+import com.oumana.repository.TweetStore;
+import com.oumana.service.TweetService;
+
+/**
+ * LIKE '%term%' scans against the inverted index at growing table sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TweetRepositoryBenchmark {
+
+	@Param({ "1000", "10000", "100000" })
+	public int tweets;
+
+	@Param({ "latency" })
+	public String term;
+
+	private ConfigurableApplicationContext context;
+	private TweetStore tweetRepository;
+	private TweetService tweetService;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		context = BenchmarkContext.start();
+		tweetRepository = context.getBean(TweetStore.class);
+		tweetService = context.getBean(TweetService.class);
+		TweetDataGenerator generator = new TweetDataGenerator(42, 1000);
+		for (int seeded = 0; seeded < tweets; seeded += TweetService.MAX_BATCH_SIZE) {
+			tweetService.saveTweets(generator.next(Math.min(TweetService.MAX_BATCH_SIZE, tweets - seeded)));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<Tweet> findTweetsLikeText() {
+		return tweetRepository.findTweetsLikeText(term);
+	}
+
+	@Benchmark
+	public TweetSearchResult<Tweet> searchTweets() {
+		return tweetService.searchTweets(term, "and", 0, TweetService.DEFAULT_PAGE_SIZE);
+	}
+}
@@ -0,0 +1,87 @@
+package com.oumana.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.oumana.entity.Tweet;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TweetSerializationBenchmark {
+
+	private static final TypeReference<List<Tweet>> TWEET_LIST = new TypeReference<List<Tweet>>() {
+	};
+
+	@Param({ "20", "100" })
+	public int pageSize;
+
+	@Param({ "json", "cbor", "smile" })
+	public String format;
+
+	private ObjectMapper objectMapper;
+	private Tweet tweet;
+	private List<Tweet> tweets;
+	private byte[] encodedTweets;
+
+	@Setup
+	public void setup() throws IOException {
+		// matches the JSON mapper Spring Boot configures and the binary ones WebConfig configures the same way
+		Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		if (format.equals("cbor")) {
+			objectMapper = Jackson2ObjectMapperBuilder.cbor().build();
+		} else if (format.equals("smile")) {
+			objectMapper = Jackson2ObjectMapperBuilder.smile().build();
+		} else {
+			objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		}
+		builder.configure(objectMapper);
+		TweetDataGenerator generator = new TweetDataGenerator(42, 100);
+		tweet = generator.next();
+		tweet.setId(1L);
+		tweets = generator.next(pageSize);
+		for (int i = 0; i < tweets.size(); i++) {
+			tweets.get(i).setId((long) i + 2);
+		}
+		encodedTweets = objectMapper.writeValueAsBytes(tweets);
+		System.out.printf("%s: %d bytes per tweet, %d bytes per page of %d%n", format,
+				objectMapper.writeValueAsBytes(tweet).length, encodedTweets.length, pageSize);
+	}
+
+	@Benchmark
+	public List<Tweet> deserializeTweetList() throws IOException {
+		return objectMapper.readValue(encodedTweets, TWEET_LIST);
+	}
+
+	@Benchmark
+	public byte[] serializeTweet() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(tweet);
+	}
+
+	@Benchmark
+	public byte[] serializeTweetList() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(tweets);
+	}
+}
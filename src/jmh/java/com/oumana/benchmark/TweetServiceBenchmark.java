@@ -0,0 +1,80 @@
+package com.oumana.benchmark;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.oumana.dto.TweetPage;
+import com.oumana.entity.Tweet;
+import com.oumana.service.TweetService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TweetServiceBenchmark {
+
+	@Param({ "1000", "10000" })
+	public int tweets;
+
+	private ConfigurableApplicationContext context;
+	private TweetService tweetService;
+	private TweetDataGenerator generator;
+	private SplittableRandom random;
+	private long firstId;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		context = BenchmarkContext.start();
+		tweetService = context.getBean(TweetService.class);
+		generator = new TweetDataGenerator(42, 1000);
+		random = new SplittableRandom(7);
+		List<Tweet> seed = generator.next(tweets);
+		for (int i = 0; i < seed.size(); i += TweetService.MAX_BATCH_SIZE) {
+			tweetService.saveTweets(seed.subList(i, Math.min(seed.size(), i + TweetService.MAX_BATCH_SIZE)));
+		}
+		firstId = seed.get(0).getId();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Tweet saveTweet() {
+		return tweetService.saveTweet(generator.next());
+	}
+
+	@Benchmark
+	public Tweet getTweetById() {
+		return tweetService.getTweetById(firstId + random.nextInt(tweets));
+	}
+
+	@Benchmark
+	public List<Tweet> getAllTweets() {
+		return tweetService.getAllTweets();
+	}
+
+	@Benchmark
+	public TweetPage<Tweet> getTweetPage() {
+		return tweetService.getTweetPage(null, TweetService.DEFAULT_PAGE_SIZE);
+	}
+}
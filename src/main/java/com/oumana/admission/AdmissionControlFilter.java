@@ -0,0 +1,148 @@
+package com.oumana.admission;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Rejects API requests up front instead of letting them queue for Tomcat
+ * threads and JDBC connections. A client over its token bucket gets 429, a
+ * request beyond its endpoint class's concurrency limit gets 503, both with
+ * Retry-After and without touching the controller. Permits of async requests
+ * are returned when the async request completes.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+	private final Map<EndpointClass, ConcurrencyLimiter> limiters;
+	private final ClientRateLimiter clientRateLimiter;
+	private final String clientHeader;
+	private final Duration retryAfter;
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 * @param clientRateLimiter null to admit every client at any rate
+	 */
+	public AdmissionControlFilter(Map<EndpointClass, ConcurrencyLimiter> limiters,
+			ClientRateLimiter clientRateLimiter, String clientHeader, Duration retryAfter,
+			MeterRegistry meterRegistry) {
+		this.limiters = new EnumMap<>(EndpointClass.class);
+		this.limiters.putAll(limiters);
+		this.clientRateLimiter = clientRateLimiter;
+		this.clientHeader = clientHeader;
+		this.retryAfter = retryAfter;
+		this.meterRegistry = meterRegistry;
+		this.limiters.forEach((endpoint, limiter) -> {
+			Gauge.builder("tweets.admission.limit", limiter, ConcurrencyLimiter::getLimit)
+				.tag("endpoint", endpoint.key())
+				.register(meterRegistry);
+			Gauge.builder("tweets.admission.inflight", limiter, ConcurrencyLimiter::getInflight)
+				.tag("endpoint", endpoint.key())
+				.register(meterRegistry);
+		});
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		EndpointClass endpoint = EndpointClass.of(request);
+		ConcurrencyLimiter limiter = endpoint == null ? null : limiters.get(endpoint);
+		if (limiter == null) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		if (clientRateLimiter != null) {
+			long wait = clientRateLimiter.tryTake(clientKey(request));
+			if (wait > 0) {
+				reject(response, HttpStatus.TOO_MANY_REQUESTS, Duration.ofNanos(wait), endpoint, "rate");
+				return;
+			}
+		}
+		if (!limiter.tryAcquire()) {
+			reject(response, HttpStatus.SERVICE_UNAVAILABLE, retryAfter, endpoint, "concurrency");
+			return;
+		}
+		long start = System.nanoTime();
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			if (request.isAsyncStarted()) {
+				request.getAsyncContext().addListener(new Release(limiter, start));
+			} else {
+				limiter.release(System.nanoTime() - start, false);
+			}
+		}
+	}
+
+	private String clientKey(HttpServletRequest request) {
+		String client = request.getHeader(clientHeader);
+		return client == null || client.isBlank() ? request.getRemoteAddr() : client;
+	}
+
+	private void reject(HttpServletResponse response, HttpStatus status, Duration wait, EndpointClass endpoint,
+			String reason) {
+		// whole seconds, rounded up so a client that honours it is not rejected again
+		long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait.toNanos() + TimeUnit.SECONDS.toNanos(1) - 1));
+		response.setStatus(status.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+		Counter.builder("tweets.admission.rejected")
+			.tag("endpoint", endpoint.key())
+			.tag("reason", reason)
+			.register(meterRegistry)
+			.increment();
+	}
+
+	private static final class Release implements AsyncListener {
+		private final ConcurrencyLimiter limiter;
+		private final long start;
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		Release(ConcurrencyLimiter limiter, long start) {
+			this.limiter = limiter;
+			this.start = start;
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+			release(false);
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			release(true);
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+			release(false);
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+			event.getAsyncContext().addListener(this);
+		}
+
+		private void release(boolean dropped) {
+			if (released.compareAndSet(false, true)) {
+				limiter.release(System.nanoTime() - start, dropped);
+			}
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package com.oumana.admission;
+
+import java.time.Duration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Fixed-rate token bucket per client key. Buckets refill lazily from the
+ * clock when a client takes a token and are forgotten after a while without
+ * requests, so idle clients cost nothing.
+ */
+public class ClientRateLimiter {
+
+	private final double tokensPerNano;
+	private final double burst;
+	private final Cache<String, Bucket> buckets;
+
+	public ClientRateLimiter(double ratePerSecond, int burst, long maximumClients) {
+		this.tokensPerNano = ratePerSecond / Duration.ofSeconds(1).toNanos();
+		this.burst = Math.max(1, burst);
+		this.buckets = Caffeine.newBuilder()
+			.maximumSize(maximumClients)
+			.expireAfterAccess(Duration.ofMinutes(10))
+			.build();
+	}
+
+	/**
+	 * Takes a token for the client and returns 0, or, when the bucket is
+	 * empty, the nanoseconds until the next token.
+	 */
+	public long tryTake(String client) {
+		long now = System.nanoTime();
+		return buckets.get(client, key -> new Bucket(burst, now)).take(now);
+	}
+
+	private final class Bucket {
+		private double tokens;
+		private long refilledAt;
+
+		Bucket(double tokens, long refilledAt) {
+			this.tokens = tokens;
+			this.refilledAt = refilledAt;
+		}
+
+		synchronized long take(long now) {
+			tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+			refilledAt = now;
+			if (tokens >= 1) {
+				tokens--;
+				return 0;
+			}
+			return (long) Math.ceil((1 - tokens) / tokensPerNano);
+		}
+	}
+}
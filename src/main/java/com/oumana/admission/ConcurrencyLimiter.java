@@ -0,0 +1,93 @@
+package com.oumana.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the requests in flight at a limit that follows latency, after the
+ * gradient limit of Netflix's concurrency-limits. A fast moving average of
+ * latency is compared with a slow one: when the fast one rises above the
+ * baseline, requests are queueing somewhere behind us and the limit shrinks
+ * in proportion; while latency holds it grows by about its square root. The
+ * limit settles near the concurrency the backend sustains without queueing.
+ * With equal minimum and maximum the limit is fixed.
+ */
+public class ConcurrencyLimiter {
+
+	private static final double SHORT_WEIGHT = 0.1;
+	private static final double LONG_WEIGHT = 0.01;
+	private static final double SMOOTHING = 0.2;
+	private static final double BACKOFF = 0.9;
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final double tolerance;
+	private final AtomicInteger inflight = new AtomicInteger();
+	private volatile int limit;
+	// guarded by this
+	private double estimate;
+	private double shortLatency;
+	private double longLatency;
+
+	public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.tolerance = tolerance;
+		this.estimate = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+		this.limit = (int) estimate;
+	}
+
+	public boolean tryAcquire() {
+		while (true) {
+			int current = inflight.get();
+			if (current >= limit) {
+				return false;
+			}
+			if (inflight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Returns a permit. A dropped request, one that timed out, backs the
+	 * limit off instead of contributing a latency sample.
+	 */
+	public void release(long latencyNanos, boolean dropped) {
+		int inflightAtEnd = inflight.getAndDecrement();
+		if (minLimit == maxLimit) {
+			return;
+		}
+		synchronized (this) {
+			if (dropped) {
+				update(estimate * BACKOFF);
+				return;
+			}
+			shortLatency = shortLatency == 0 ? latencyNanos : shortLatency + SHORT_WEIGHT * (latencyNanos - shortLatency);
+			longLatency = longLatency == 0 ? latencyNanos : longLatency + LONG_WEIGHT * (latencyNanos - longLatency);
+			if (longLatency > 2 * shortLatency) {
+				// latency dropped for good, let the baseline follow faster
+				longLatency *= 0.95;
+			}
+			double gradient = Math.max(0.5, Math.min(1.0, tolerance * longLatency / shortLatency));
+			double next = estimate * gradient + Math.sqrt(estimate);
+			if (inflightAtEnd < estimate / 2) {
+				// not using the limit says nothing about whether it could be higher
+				next = Math.min(next, estimate);
+			}
+			update(estimate * (1 - SMOOTHING) + next * SMOOTHING);
+		}
+	}
+
+	public int getLimit() {
+		return limit;
+	}
+
+	public int getInflight() {
+		return inflight.get();
+	}
+
+	private void update(double value) {
+		estimate = Math.max(minLimit, Math.min(maxLimit, value));
+		limit = (int) estimate;
+	}
+}
@@ -0,0 +1,38 @@
+package com.oumana.admission;
+
+import java.util.Locale;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Groups of endpoints that get their own concurrency limit, so a burst of
+ * exports or searches cannot take the capacity reads and writes need.
+ */
+public enum EndpointClass {
+	READ, WRITE, SEARCH, EXPORT;
+
+	private static final String API = "/v1/api/";
+
+	/**
+	 * Class of the request, or null for requests that are not admitted
+	 * here: anything outside the API and the event stream, which limits its
+	 * own subscribers.
+	 */
+	public static EndpointClass of(HttpServletRequest request) {
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		if (!path.startsWith(API) || path.endsWith("/stream")) {
+			return null;
+		}
+		if (path.endsWith("/search")) {
+			return SEARCH;
+		}
+		if (path.endsWith("/export")) {
+			return EXPORT;
+		}
+		return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()) ? READ : WRITE;
+	}
+
+	public String key() {
+		return name().toLowerCase(Locale.ROOT);
+	}
+}
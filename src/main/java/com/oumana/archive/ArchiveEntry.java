@@ -0,0 +1,20 @@
+package com.oumana.archive;
+
+import java.time.LocalDate;
+
+import com.oumana.repository.TimelineEntry;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Timeline key of an archived tweet, read from a segment's user directory
+ * without inflating the tweet itself.
+ */
+@Getter
+@AllArgsConstructor
+public class ArchiveEntry implements TimelineEntry {
+	private final Long id;
+	private final String username;
+	private final LocalDate createdAt;
+}
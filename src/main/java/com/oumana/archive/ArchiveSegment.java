@@ -0,0 +1,407 @@
+package com.oumana.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+import com.oumana.entity.Tweet;
+import com.oumana.repository.TweetRecordCodec;
+
+/**
+ * One immutable archive file. Tweets are stored in id order in deflated
+ * blocks, found through a sparse index of the first and last id of each
+ * block, and a per-user directory of (createdAt, id) entries answers timeline
+ * windows without inflating anything. The file is memory-mapped and blocks
+ * are inflated straight from the mapping, so compressed bytes are never
+ * copied onto the heap.
+ *
+ * <pre>
+ * header     magic, format, tweets, blocks, users, minId, maxId, section offsets
+ * blocks     deflated records in {@link TweetRecordCodec} form
+ * index      per block: firstId, lastId, offset, length, raw length
+ * directory  per user, by name: name, first entry, entry count
+ * entries    per user, newest first: createdAt epoch day, id
+ * </pre>
+ */
+public final class ArchiveSegment {
+
+	static final int MAGIC = 0x54574152;
+	static final int FORMAT = 1;
+	private static final int HEADER_SIZE = 64;
+	private static final int INDEX_ENTRY_SIZE = 32;
+	private static final int TIMELINE_ENTRY_SIZE = 12;
+	private static final Comparator<Tweet> NEWEST_FIRST = Comparator.comparing(Tweet::getCreatedAt)
+		.thenComparing(Tweet::getId)
+		.reversed();
+
+	private final Path path;
+	private final ByteBuffer buffer;
+	private final int count;
+	private final long[] firstIds;
+	private final long[] lastIds;
+	private final int[] blockOffsets;
+	private final int[] blockLengths;
+	private final int[] rawLengths;
+	// username -> first entry, entry count
+	private final Map<String, int[]> users;
+	private final int entriesOffset;
+
+	private ArchiveSegment(Path path, ByteBuffer buffer) {
+		this.path = path;
+		this.buffer = buffer;
+		if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+			throw new IllegalStateException(path + " is not an archive segment");
+		}
+		this.count = buffer.getInt(8);
+		int blocks = buffer.getInt(12);
+		int userCount = buffer.getInt(16);
+		int indexOffset = (int) buffer.getLong(40);
+		int directoryOffset = (int) buffer.getLong(48);
+		this.entriesOffset = (int) buffer.getLong(56);
+		this.firstIds = new long[blocks];
+		this.lastIds = new long[blocks];
+		this.blockOffsets = new int[blocks];
+		this.blockLengths = new int[blocks];
+		this.rawLengths = new int[blocks];
+		for (int block = 0; block < blocks; block++) {
+			int entry = indexOffset + block * INDEX_ENTRY_SIZE;
+			firstIds[block] = buffer.getLong(entry);
+			lastIds[block] = buffer.getLong(entry + 8);
+			blockOffsets[block] = (int) buffer.getLong(entry + 16);
+			blockLengths[block] = buffer.getInt(entry + 24);
+			rawLengths[block] = buffer.getInt(entry + 28);
+		}
+		this.users = new HashMap<>(userCount * 2);
+		int position = directoryOffset;
+		for (int user = 0; user < userCount; user++) {
+			int length = Short.toUnsignedInt(buffer.getShort(position));
+			byte[] name = new byte[length];
+			ByteBuffer view = buffer.duplicate();
+			view.position(position + 2);
+			view.get(name);
+			position += 2 + length;
+			users.put(new String(name, StandardCharsets.UTF_8),
+					new int[] { buffer.getInt(position), buffer.getInt(position + 4) });
+			position += 8;
+		}
+	}
+
+	public static ArchiveSegment open(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			// the mapping outlives the channel
+			return new ArchiveSegment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * Writes the tweets to a new segment file, synced and renamed into place
+	 * so a crash never leaves a partial segment under {@code path}.
+	 */
+	public static ArchiveSegment write(Path path, Collection<Tweet> tweets, int blockSize) throws IOException {
+		if (tweets.isEmpty()) {
+			throw new IllegalArgumentException("An archive segment needs at least one tweet");
+		}
+		List<Tweet> sorted = new ArrayList<>(tweets);
+		sorted.sort(Comparator.comparing(Tweet::getId));
+
+		List<byte[]> blocks = new ArrayList<>();
+		List<Integer> rawSizes = new ArrayList<>();
+		Deflater deflater = new Deflater();
+		try {
+			for (int start = 0; start < sorted.size(); start += blockSize) {
+				ByteArrayOutputStream raw = new ByteArrayOutputStream();
+				DataOutputStream records = new DataOutputStream(raw);
+				for (Tweet tweet : sorted.subList(start, Math.min(start + blockSize, sorted.size()))) {
+					TweetRecordCodec.write(records, tweet);
+				}
+				ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+				try (DeflaterOutputStream out = new DeflaterOutputStream(compressed, deflater)) {
+					raw.writeTo(out);
+				}
+				deflater.reset();
+				blocks.add(compressed.toByteArray());
+				rawSizes.add(raw.size());
+			}
+		} finally {
+			deflater.end();
+		}
+
+		Map<String, List<Tweet>> timelines = new TreeMap<>();
+		for (Tweet tweet : sorted) {
+			if (tweet.getUsername() != null && tweet.getCreatedAt() != null) {
+				timelines.computeIfAbsent(tweet.getUsername(), key -> new ArrayList<>()).add(tweet);
+			}
+		}
+		long indexOffset = HEADER_SIZE;
+		for (byte[] block : blocks) {
+			indexOffset += block.length;
+		}
+		long directoryOffset = indexOffset + (long) blocks.size() * INDEX_ENTRY_SIZE;
+		long entriesOffset = directoryOffset;
+		for (String username : timelines.keySet()) {
+			entriesOffset += 2 + username.getBytes(StandardCharsets.UTF_8).length + 8;
+		}
+
+		Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+			// not closed itself, closing it would close the channel before the sync
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT);
+			out.writeInt(sorted.size());
+			out.writeInt(blocks.size());
+			out.writeInt(timelines.size());
+			out.writeInt(0);
+			out.writeLong(sorted.get(0).getId());
+			out.writeLong(sorted.get(sorted.size() - 1).getId());
+			out.writeLong(indexOffset);
+			out.writeLong(directoryOffset);
+			out.writeLong(entriesOffset);
+			for (byte[] block : blocks) {
+				out.write(block);
+			}
+			long offset = HEADER_SIZE;
+			for (int block = 0; block < blocks.size(); block++) {
+				int last = Math.min((block + 1) * blockSize, sorted.size()) - 1;
+				out.writeLong(sorted.get(block * blockSize).getId());
+				out.writeLong(sorted.get(last).getId());
+				out.writeLong(offset);
+				out.writeInt(blocks.get(block).length);
+				out.writeInt(rawSizes.get(block));
+				offset += blocks.get(block).length;
+			}
+			int entry = 0;
+			for (Map.Entry<String, List<Tweet>> timeline : timelines.entrySet()) {
+				byte[] name = timeline.getKey().getBytes(StandardCharsets.UTF_8);
+				out.writeShort(name.length);
+				out.write(name);
+				out.writeInt(entry);
+				out.writeInt(timeline.getValue().size());
+				entry += timeline.getValue().size();
+			}
+			for (List<Tweet> timeline : timelines.values()) {
+				timeline.sort(NEWEST_FIRST);
+				for (Tweet tweet : timeline) {
+					out.writeInt((int) tweet.getCreatedAt().toEpochDay());
+					out.writeLong(tweet.getId());
+				}
+			}
+			out.flush();
+			channel.force(true);
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(temporary);
+			throw e;
+		}
+		Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+		return open(path);
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	public int size() {
+		return count;
+	}
+
+	public Tweet find(long id) {
+		int block = blockOf(id);
+		if (block < 0) {
+			return null;
+		}
+		ByteBuffer records = inflate(block);
+		while (records.hasRemaining()) {
+			long recordId = records.getLong(records.position());
+			if (recordId == id) {
+				return TweetRecordCodec.read(records);
+			}
+			if (recordId > id) {
+				return null;
+			}
+			TweetRecordCodec.skip(records);
+		}
+		return null;
+	}
+
+	/**
+	 * Adds the tweets with the given ids to {@code found}, inflating each
+	 * block at most once.
+	 */
+	public void findAll(Collection<Long> ids, Map<Long, Tweet> found) {
+		Map<Integer, List<Long>> byBlock = new TreeMap<>();
+		for (Long id : ids) {
+			int block = blockOf(id);
+			if (block >= 0) {
+				byBlock.computeIfAbsent(block, key -> new ArrayList<>()).add(id);
+			}
+		}
+		for (Map.Entry<Integer, List<Long>> block : byBlock.entrySet()) {
+			List<Long> wanted = block.getValue();
+			ByteBuffer records = inflate(block.getKey());
+			while (records.hasRemaining()) {
+				if (wanted.contains(records.getLong(records.position()))) {
+					Tweet tweet = TweetRecordCodec.read(records);
+					found.put(tweet.getId(), tweet);
+				} else {
+					TweetRecordCodec.skip(records);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tweets with {@code afterId < id < beforeId}, newest first; either bound
+	 * may be null. Blocks entirely outside the range are never inflated.
+	 */
+	public List<Tweet> findLatest(Long beforeId, Long afterId, int limit) {
+		List<Tweet> tweets = new ArrayList<>();
+		for (int block = firstIds.length - 1; block >= 0 && tweets.size() < limit; block--) {
+			if (afterId != null && lastIds[block] <= afterId) {
+				break;
+			}
+			if (beforeId != null && firstIds[block] >= beforeId) {
+				continue;
+			}
+			List<Tweet> inBlock = new ArrayList<>();
+			ByteBuffer records = inflate(block);
+			while (records.hasRemaining()) {
+				long id = records.getLong(records.position());
+				if ((beforeId == null || id < beforeId) && (afterId == null || id > afterId)) {
+					inBlock.add(TweetRecordCodec.read(records));
+				} else {
+					TweetRecordCodec.skip(records);
+				}
+			}
+			for (int i = inBlock.size() - 1; i >= 0 && tweets.size() < limit; i--) {
+				tweets.add(inBlock.get(i));
+			}
+		}
+		return tweets;
+	}
+
+	/**
+	 * Timeline keys of one user strictly between the two (createdAt, id)
+	 * bounds, newest first, read from the directory alone. A null bound is
+	 * open.
+	 */
+	public List<ArchiveEntry> findTimeline(String username, LocalDate beforeCreatedAt, Long beforeId,
+			LocalDate afterCreatedAt, Long afterId, int limit) {
+		int[] range = users.get(username);
+		if (range == null) {
+			return List.of();
+		}
+		int start = 0;
+		if (beforeId != null) {
+			// first entry strictly older than the before key
+			int low = 0;
+			int high = range[1];
+			long beforeDay = beforeCreatedAt.toEpochDay();
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (compare(entryDay(range, middle), entryId(range, middle), beforeDay, beforeId) < 0) {
+					high = middle;
+				} else {
+					low = middle + 1;
+				}
+			}
+			start = low;
+		}
+		List<ArchiveEntry> entries = new ArrayList<>();
+		for (int i = start; i < range[1] && entries.size() < limit; i++) {
+			int day = entryDay(range, i);
+			long id = entryId(range, i);
+			if (afterId != null && compare(day, id, afterCreatedAt.toEpochDay(), afterId) <= 0) {
+				break;
+			}
+			entries.add(new ArchiveEntry(id, username, LocalDate.ofEpochDay(day)));
+		}
+		return entries;
+	}
+
+	public void forEach(Consumer<Tweet> action) {
+		for (int block = 0; block < firstIds.length; block++) {
+			ByteBuffer records = inflate(block);
+			while (records.hasRemaining()) {
+				action.accept(TweetRecordCodec.read(records));
+			}
+		}
+	}
+
+	public void forEachEntry(Consumer<ArchiveEntry> action) {
+		for (Map.Entry<String, int[]> user : users.entrySet()) {
+			int[] range = user.getValue();
+			for (int i = 0; i < range[1]; i++) {
+				action.accept(new ArchiveEntry(entryId(range, i), user.getKey(), LocalDate.ofEpochDay(entryDay(range, i))));
+			}
+		}
+	}
+
+	private int blockOf(long id) {
+		int low = 0;
+		int high = firstIds.length - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			if (firstIds[middle] <= id) {
+				low = middle + 1;
+			} else {
+				high = middle - 1;
+			}
+		}
+		return high >= 0 && id <= lastIds[high] ? high : -1;
+	}
+
+	private ByteBuffer inflate(int block) {
+		ByteBuffer input = buffer.duplicate();
+		input.position(blockOffsets[block]).limit(blockOffsets[block] + blockLengths[block]);
+		ByteBuffer output = ByteBuffer.allocate(rawLengths[block]);
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(input);
+			while (output.hasRemaining() && !inflater.finished()) {
+				if (inflater.inflate(output) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new IllegalStateException("Block " + block + " of " + path + " is truncated");
+				}
+			}
+		} catch (DataFormatException e) {
+			throw new IllegalStateException("Block " + block + " of " + path + " is corrupt", e);
+		} finally {
+			inflater.end();
+		}
+		output.flip();
+		return output;
+	}
+
+	private int entryDay(int[] range, int index) {
+		return buffer.getInt(entriesOffset + (range[0] + index) * TIMELINE_ENTRY_SIZE);
+	}
+
+	private long entryId(int[] range, int index) {
+		return buffer.getLong(entriesOffset + (range[0] + index) * TIMELINE_ENTRY_SIZE + 4);
+	}
+
+	private static int compare(long day, long id, long otherDay, long otherId) {
+		return day != otherDay ? Long.compare(day, otherDay) : Long.compare(id, otherId);
+	}
+}
@@ -0,0 +1,209 @@
+package com.oumana.archive;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.oumana.entity.Tweet;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cold tier for tweets moved out of the table by {@link TweetArchiver}: a
+ * directory of immutable {@link ArchiveSegment} files, all opened at startup.
+ * Segments are searched newest first, so when a tweet was archived twice
+ * (a pass that wrote its segment but failed to delete the rows) the later
+ * copy wins. Archived tweets are read-only.
+ */
+@Slf4j
+@Component
+public class TweetArchive implements MeterBinder {
+
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".seg";
+	private static final Comparator<ArchiveEntry> NEWEST_FIRST = Comparator.comparing(ArchiveEntry::getCreatedAt)
+		.thenComparing(ArchiveEntry::getId)
+		.reversed();
+
+	private final Path directory;
+	private final int blockSize;
+	// newest first, replaced as a whole when a segment is added
+	private volatile List<ArchiveSegment> segments;
+	private long nextSequence;
+
+	public TweetArchive(@Value("${tweets.archive.dir:data/archive}") Path directory,
+			@Value("${tweets.archive.block-size:128}") int blockSize) throws IOException {
+		this.directory = directory;
+		this.blockSize = blockSize;
+		List<ArchiveSegment> opened = new ArrayList<>();
+		if (Files.isDirectory(directory)) {
+			List<Path> files = new ArrayList<>();
+			try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*")) {
+				entries.forEach(files::add);
+			}
+			files.sort(Comparator.reverseOrder());
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				if (!name.endsWith(SEGMENT_SUFFIX)) {
+					// left behind by a pass that did not finish writing
+					Files.delete(file);
+					continue;
+				}
+				opened.add(ArchiveSegment.open(file));
+				nextSequence = Math.max(nextSequence, sequence(name) + 1);
+			}
+		}
+		this.segments = List.copyOf(opened);
+		log.info("Opened {} archive segments with {} tweets from {}", opened.size(), size(), directory);
+	}
+
+	/**
+	 * Writes the tweets to a new segment and makes them readable. The caller
+	 * removes them from the table afterwards.
+	 */
+	public synchronized ArchiveSegment append(Collection<Tweet> tweets) throws IOException {
+		Files.createDirectories(directory);
+		Path path = directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX));
+		ArchiveSegment segment = ArchiveSegment.write(path, tweets, blockSize);
+		nextSequence++;
+		List<ArchiveSegment> updated = new ArrayList<>(segments.size() + 1);
+		updated.add(segment);
+		updated.addAll(segments);
+		segments = List.copyOf(updated);
+		return segment;
+	}
+
+	public Optional<Tweet> findById(long id) {
+		for (ArchiveSegment segment : segments) {
+			Tweet tweet = segment.find(id);
+			if (tweet != null) {
+				return Optional.of(tweet);
+			}
+		}
+		return Optional.empty();
+	}
+
+	public List<Tweet> findAllById(Collection<Long> ids) {
+		Map<Long, Tweet> found = new HashMap<>();
+		Set<Long> missing = new HashSet<>(ids);
+		for (ArchiveSegment segment : segments) {
+			if (missing.isEmpty()) {
+				break;
+			}
+			segment.findAll(missing, found);
+			missing.removeAll(found.keySet());
+		}
+		return new ArrayList<>(found.values());
+	}
+
+	/**
+	 * Archived tweets with {@code afterId < id < beforeId}, newest first; a
+	 * null bound is open.
+	 */
+	public List<Tweet> findLatest(Long beforeId, Long afterId, int limit) {
+		Map<Long, Tweet> tweets = new LinkedHashMap<>();
+		for (ArchiveSegment segment : segments) {
+			segment.findLatest(beforeId, afterId, limit).forEach(tweet -> tweets.putIfAbsent(tweet.getId(), tweet));
+		}
+		List<Tweet> latest = new ArrayList<>(tweets.values());
+		latest.sort(Comparator.comparing(Tweet::getId).reversed());
+		return latest.size() > limit ? latest.subList(0, limit) : latest;
+	}
+
+	/**
+	 * Archived tweets of one user strictly between the two (createdAt, id)
+	 * keys, newest first. Keys are merged from the segment directories and
+	 * only the tweets that make the cut are inflated.
+	 */
+	public List<Tweet> findTimeline(String username, LocalDate beforeCreatedAt, Long beforeId,
+			LocalDate afterCreatedAt, Long afterId, int limit) {
+		Map<Long, ArchiveEntry> entries = new LinkedHashMap<>();
+		for (ArchiveSegment segment : segments) {
+			segment.findTimeline(username, beforeCreatedAt, beforeId, afterCreatedAt, afterId, limit)
+				.forEach(entry -> entries.putIfAbsent(entry.getId(), entry));
+		}
+		if (entries.isEmpty()) {
+			return List.of();
+		}
+		List<ArchiveEntry> keys = new ArrayList<>(entries.values());
+		keys.sort(NEWEST_FIRST);
+		List<Long> ids = new ArrayList<>(Math.min(limit, keys.size()));
+		for (ArchiveEntry key : keys.subList(0, Math.min(limit, keys.size()))) {
+			ids.add(key.getId());
+		}
+		Map<Long, Tweet> byId = new HashMap<>();
+		findAllById(ids).forEach(tweet -> byId.put(tweet.getId(), tweet));
+		List<Tweet> tweets = new ArrayList<>(ids.size());
+		for (Long id : ids) {
+			Tweet tweet = byId.get(id);
+			if (tweet != null) {
+				tweets.add(tweet);
+			}
+		}
+		return tweets;
+	}
+
+	/**
+	 * Visits every archived tweet, oldest segment first so a later copy of a
+	 * tweet is seen last.
+	 */
+	public void forEach(Consumer<Tweet> action) {
+		List<ArchiveSegment> current = segments;
+		for (int i = current.size() - 1; i >= 0; i--) {
+			current.get(i).forEach(action);
+		}
+	}
+
+	/**
+	 * Visits the timeline key of every archived tweet without inflating any
+	 * block.
+	 */
+	public void forEachEntry(Consumer<ArchiveEntry> action) {
+		List<ArchiveSegment> current = segments;
+		for (int i = current.size() - 1; i >= 0; i--) {
+			current.get(i).forEachEntry(action);
+		}
+	}
+
+	public int segmentCount() {
+		return segments.size();
+	}
+
+	public long size() {
+		long size = 0;
+		for (ArchiveSegment segment : segments) {
+			size += segment.size();
+		}
+		return size;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("tweets.archive.segments", this, TweetArchive::segmentCount).register(registry);
+		Gauge.builder("tweets.archive.tweets", this, TweetArchive::size).register(registry);
+	}
+
+	private static long sequence(String name) {
+		return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+	}
+}
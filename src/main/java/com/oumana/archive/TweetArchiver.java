@@ -0,0 +1,133 @@
+package com.oumana.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oumana.entity.Tweet;
+import com.oumana.repository.TweetStore;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Background job moving tweets created more than {@code maxAge} ago from the
+ * table into {@link TweetArchive} segments. Each batch is read with row
+ * locks, written to a new segment and deleted in one transaction, so an
+ * update racing the archiver either commits before the batch is read or
+ * finds the row gone. Deleting archived rows publishes no events: caches and
+ * the search index keep them and reads fall through to the archive.
+ */
+@Slf4j
+public class TweetArchiver implements MeterBinder {
+
+	private final TweetStore tweetRepository;
+	private final TweetArchive tweetArchive;
+	private final TransactionTemplate transactionTemplate;
+	private final Duration maxAge;
+	private final int segmentSize;
+	private final Duration interval;
+	private final AtomicLong archived = new AtomicLong();
+	private ScheduledExecutorService scheduler;
+
+	public TweetArchiver(TweetStore tweetRepository, TweetArchive tweetArchive,
+			TransactionTemplate transactionTemplate, Duration maxAge, int segmentSize, Duration interval) {
+		if (segmentSize < 1) {
+			throw new IllegalArgumentException("tweets.archive.segment-size must be positive");
+		}
+		this.tweetRepository = tweetRepository;
+		this.tweetArchive = tweetArchive;
+		this.transactionTemplate = transactionTemplate;
+		this.maxAge = maxAge;
+		this.segmentSize = segmentSize;
+		this.interval = interval;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void start() {
+		if (scheduler != null) {
+			return;
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "tweet-archiver");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::runPass, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public synchronized void stop() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+
+	/**
+	 * Archives everything older than the cutoff, one segment per batch, and
+	 * returns the number of tweets moved.
+	 */
+	public int archive() {
+		LocalDate cutoff = LocalDate.now().minusDays(maxAge.toDays());
+		int total = 0;
+		int moved;
+		do {
+			moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+			total += moved;
+		} while (moved == segmentSize);
+		return total;
+	}
+
+	private int archiveBatch(LocalDate cutoff) {
+		List<Tweet> tweets = tweetRepository.findArchivable(cutoff, PageRequest.of(0, segmentSize));
+		if (tweets.isEmpty()) {
+			return 0;
+		}
+		try {
+			tweetArchive.append(tweets);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		List<Long> ids = new ArrayList<>(tweets.size());
+		for (Tweet tweet : tweets) {
+			ids.add(tweet.getId());
+		}
+		tweetRepository.bulkDeleteByIds(ids);
+		archived.addAndGet(tweets.size());
+		return tweets.size();
+	}
+
+	private void runPass() {
+		try {
+			int moved = archive();
+			if (moved > 0) {
+				log.info("Archived {} tweets older than {} days", moved, maxAge.toDays());
+			}
+		} catch (RuntimeException e) {
+			log.warn("Archive pass failed", e);
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("tweets.archive.moved", archived, AtomicLong::get).register(registry);
+	}
+}
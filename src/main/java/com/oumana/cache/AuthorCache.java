@@ -0,0 +1,84 @@
+package com.oumana.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.oumana.entity.Author;
+import com.oumana.repository.AuthorRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Size and TTL bounded cache of authors by username. Misses for a whole page
+ * are loaded with one query, and users without an author row are cached as
+ * empty values. Cached authors are shared and must not be modified.
+ */
+@Component
+public class AuthorCache implements MeterBinder {
+
+	private final LoadingCache<String, Optional<Author>> cache;
+
+	public AuthorCache(AuthorRepository authorRepository,
+			@Value("${tweets.authors.cache.maximum-size:10000}") long maximumSize,
+			@Value("${tweets.authors.cache.ttl:10m}") Duration ttl) {
+		this.cache = Caffeine.newBuilder()
+			.maximumSize(maximumSize)
+			.expireAfterWrite(ttl)
+			.recordStats()
+			.build(new CacheLoader<String, Optional<Author>>() {
+				@Override
+				public Optional<Author> load(String username) {
+					return authorRepository.findById(username).map(AuthorCache::copy);
+				}
+
+				@Override
+				public Map<String, Optional<Author>> loadAll(Iterable<? extends String> usernames) {
+					Map<String, Optional<Author>> authors = new HashMap<>();
+					for (String username : usernames) {
+						authors.put(username, Optional.empty());
+					}
+					authorRepository.findAllById(authors.keySet())
+						.forEach(author -> authors.put(author.getUsername(), Optional.of(copy(author))));
+					return authors;
+				}
+			});
+	}
+
+	public Author get(String username) {
+		return cache.get(username).orElse(null);
+	}
+
+	public Map<String, Author> getAll(Collection<String> usernames) {
+		Map<String, Author> authors = new HashMap<>();
+		cache.getAll(usernames).forEach((username, author) -> author.ifPresent(value -> authors.put(username, value)));
+		return authors;
+	}
+
+	public void put(Author author) {
+		cache.put(author.getUsername(), Optional.of(copy(author)));
+	}
+
+	public void invalidate(String username) {
+		cache.invalidate(username);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, "authors");
+	}
+
+	private static Author copy(Author author) {
+		return author.toBuilder().build();
+	}
+}
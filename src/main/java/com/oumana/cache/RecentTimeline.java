@@ -0,0 +1,129 @@
+package com.oumana.cache;
+
+/**
+ * Bounded newest-first ring of one user's tweet ids, ordered by (createdAt
+ * epoch day, id) descending. Ids and days live in parallel primitive arrays
+ * that start small and double up to the configured capacity.
+ */
+final class RecentTimeline {
+
+	private static final int INITIAL_CAPACITY = 8;
+
+	private final int maxCapacity;
+	private long[] ids;
+	private int[] days;
+	private int head;
+	private int size;
+	// true while nothing has been dropped, i.e. the ring holds the user's whole timeline
+	private boolean complete = true;
+
+	RecentTimeline(int maxCapacity) {
+		this.maxCapacity = maxCapacity;
+		int capacity = Math.min(INITIAL_CAPACITY, maxCapacity);
+		this.ids = new long[capacity];
+		this.days = new int[capacity];
+	}
+
+	synchronized void add(long id, int day) {
+		int position = 0;
+		while (position < size && isNewer(day(position), id(position), day, id)) {
+			position++;
+		}
+		if (position < size && id(position) == id) {
+			return;
+		}
+		if (position == size && !complete) {
+			// older than everything held, with dropped tweets possibly in between
+			return;
+		}
+		if (size == ids.length && ids.length < maxCapacity) {
+			grow();
+		}
+		if (size == ids.length) {
+			complete = false;
+			if (position == size) {
+				return;
+			}
+			size--;
+		}
+		head = physical(-1);
+		for (int i = 0; i < position; i++) {
+			set(i, id(i + 1), day(i + 1));
+		}
+		set(position, id, day);
+		size++;
+	}
+
+	synchronized void remove(long id) {
+		for (int position = 0; position < size; position++) {
+			if (id(position) == id) {
+				for (int i = position; i < size - 1; i++) {
+					set(i, id(i + 1), day(i + 1));
+				}
+				size--;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns up to {@code limit} ids older than the given key (or from the
+	 * newest when {@code beforeId} is null), or null when the ring cannot tell
+	 * whether older tweets exist beyond what it holds.
+	 */
+	synchronized long[] page(Integer beforeDay, Long beforeId, int limit) {
+		int start = 0;
+		if (beforeId != null) {
+			while (start < size && !isNewer(beforeDay, beforeId, day(start), id(start))) {
+				start++;
+			}
+		}
+		int available = size - start;
+		if (available < limit && !complete) {
+			return null;
+		}
+		long[] page = new long[Math.min(available, limit)];
+		for (int i = 0; i < page.length; i++) {
+			page[i] = id(start + i);
+		}
+		return page;
+	}
+
+	synchronized int size() {
+		return size;
+	}
+
+	private static boolean isNewer(int day, long id, int otherDay, long otherId) {
+		return day > otherDay || (day == otherDay && id > otherId);
+	}
+
+	private void grow() {
+		int capacity = Math.min(ids.length * 2, maxCapacity);
+		long[] grownIds = new long[capacity];
+		int[] grownDays = new int[capacity];
+		for (int i = 0; i < size; i++) {
+			grownIds[i] = id(i);
+			grownDays[i] = day(i);
+		}
+		ids = grownIds;
+		days = grownDays;
+		head = 0;
+	}
+
+	private int physical(int position) {
+		return Math.floorMod(head + position, ids.length);
+	}
+
+	private long id(int position) {
+		return ids[physical(position)];
+	}
+
+	private int day(int position) {
+		return days[physical(position)];
+	}
+
+	private void set(int position, long id, int day) {
+		ids[physical(position)] = id;
+		days[physical(position)] = day;
+	}
+}
@@ -0,0 +1,117 @@
+package com.oumana.cache;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.oumana.archive.TweetArchive;
+import com.oumana.entity.Tweet;
+import com.oumana.event.TweetDeletedEvent;
+import com.oumana.event.TweetSavedEvent;
+import com.oumana.repository.TimelineEntry;
+import com.oumana.repository.TweetStore;
+
+/**
+ * Keeps each user's most recent tweet ids so the first timeline pages can be
+ * answered without re-running the timeline query. Maintained on write from
+ * tweet events and warmed from the database and the archive index once the
+ * application is ready; until then every lookup misses.
+ */
+@Component
+public class RecentTimelineCache {
+
+	private static final int WARM_UP_CHUNK = 5000;
+
+	private final TweetStore tweetRepository;
+	private final TweetArchive tweetArchive;
+	private final int capacity;
+	private final Map<String, RecentTimeline> timelines = new ConcurrentHashMap<>();
+	private volatile boolean ready;
+
+	public RecentTimelineCache(TweetStore tweetRepository, TweetArchive tweetArchive,
+			@Value("${tweets.timeline.capacity:200}") int capacity) {
+		this.tweetRepository = tweetRepository;
+		this.tweetArchive = tweetArchive;
+		this.capacity = capacity;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmUp() {
+		long lastId = Long.MIN_VALUE;
+		List<TimelineEntry> chunk = tweetRepository.findTimelineEntriesAfter(lastId, PageRequest.of(0, WARM_UP_CHUNK));
+		while (!chunk.isEmpty()) {
+			for (TimelineEntry entry : chunk) {
+				add(entry.getUsername(), entry.getId(), entry.getCreatedAt());
+			}
+			lastId = chunk.get(chunk.size() - 1).getId();
+			chunk = tweetRepository.findTimelineEntriesAfter(lastId, PageRequest.of(0, WARM_UP_CHUNK));
+		}
+		// archived tweets still belong to their timelines, otherwise a ring would wrongly claim to be complete
+		tweetArchive.forEachEntry(entry -> add(entry.getUsername(), entry.getId(), entry.getCreatedAt()));
+		ready = true;
+	}
+
+	@EventListener
+	public void onTweetSaved(TweetSavedEvent event) {
+		Tweet tweet = event.getTweet();
+		add(tweet.getUsername(), tweet.getId(), tweet.getCreatedAt());
+	}
+
+	@EventListener
+	public void onTweetDeleted(TweetDeletedEvent event) {
+		if (event.getUsername() == null) {
+			return;
+		}
+		RecentTimeline timeline = timelines.get(event.getUsername());
+		if (timeline != null) {
+			timeline.remove(event.getId());
+		}
+	}
+
+	/**
+	 * Drops ids a reader could not find, so they stop shortening the windows
+	 * they fall in.
+	 */
+	public void evict(String username, Collection<Long> ids) {
+		RecentTimeline timeline = timelines.get(username);
+		if (timeline != null) {
+			ids.forEach(timeline::remove);
+		}
+	}
+
+	/**
+	 * Returns the ids of the requested window newest first, or null when the
+	 * window reaches past what is held and the caller has to query the table.
+	 */
+	public long[] page(String username, LocalDate beforeCreatedAt, Long beforeId, int limit) {
+		if (!ready) {
+			return null;
+		}
+		RecentTimeline timeline = timelines.get(username);
+		if (timeline == null) {
+			return new long[0];
+		}
+		Integer beforeDay = beforeCreatedAt == null ? null : (int) beforeCreatedAt.toEpochDay();
+		return timeline.page(beforeDay, beforeId, limit);
+	}
+
+	public int users() {
+		return timelines.size();
+	}
+
+	private void add(String username, Long id, LocalDate createdAt) {
+		if (username == null || id == null || createdAt == null) {
+			return;
+		}
+		timelines.computeIfAbsent(username, key -> new RecentTimeline(capacity))
+			.add(id, (int) createdAt.toEpochDay());
+	}
+}
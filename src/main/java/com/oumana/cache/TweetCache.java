@@ -0,0 +1,84 @@
+package com.oumana.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.oumana.entity.Tweet;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Size and TTL bounded (W-TinyLFU) cache of single tweets by id. Missing ids
+ * are cached as empty values with a shorter TTL. Callers always get their own
+ * copy, so mutating a returned tweet never leaks into the cache.
+ */
+@Component
+public class TweetCache implements MeterBinder {
+
+	private final Cache<Long, Optional<Tweet>> cache;
+
+	public TweetCache(@Value("${tweets.cache.maximum-size:10000}") long maximumSize,
+			@Value("${tweets.cache.ttl:10m}") Duration ttl,
+			@Value("${tweets.cache.negative-ttl:30s}") Duration negativeTtl) {
+		this.cache = Caffeine.newBuilder()
+			.maximumSize(maximumSize)
+			.expireAfter(new Expiry<Long, Optional<Tweet>>() {
+				@Override
+				public long expireAfterCreate(Long id, Optional<Tweet> tweet, long currentTime) {
+					return (tweet.isPresent() ? ttl : negativeTtl).toNanos();
+				}
+
+				@Override
+				public long expireAfterUpdate(Long id, Optional<Tweet> tweet, long currentTime, long currentDuration) {
+					return expireAfterCreate(id, tweet, currentTime);
+				}
+
+				@Override
+				public long expireAfterRead(Long id, Optional<Tweet> tweet, long currentTime, long currentDuration) {
+					return currentDuration;
+				}
+			})
+			.recordStats()
+			.build();
+	}
+
+	public Optional<Tweet> get(long id, Function<Long, Optional<Tweet>> loader) {
+		return cache.get(id, loader).map(TweetCache::copy);
+	}
+
+	public Tweet getIfPresent(long id) {
+		Optional<Tweet> tweet = cache.getIfPresent(id);
+		return tweet == null ? null : tweet.map(TweetCache::copy).orElse(null);
+	}
+
+	public void put(Tweet tweet) {
+		cache.put(tweet.getId(), Optional.of(copy(tweet)));
+	}
+
+	public void invalidate(long id) {
+		cache.invalidate(id);
+	}
+
+	public CacheStats stats() {
+		return cache.stats();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, "tweets");
+	}
+
+	private static Tweet copy(Tweet tweet) {
+		return tweet.toBuilder().build();
+	}
+}
@@ -0,0 +1,57 @@
+package com.oumana.config;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.oumana.admission.AdmissionControlFilter;
+import com.oumana.admission.ClientRateLimiter;
+import com.oumana.admission.ConcurrencyLimiter;
+import com.oumana.admission.EndpointClass;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Limits are read per endpoint class from
+ * tweets.admission.{read,write,search,export}.{initial-limit,min-limit,max-limit}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tweets.admission.enabled", havingValue = "true")
+public class AdmissionConfig {
+
+	private static final Map<EndpointClass, int[]> DEFAULT_LIMITS = Map.of(
+			EndpointClass.READ, new int[] {100, 10, 400},
+			EndpointClass.WRITE, new int[] {50, 5, 200},
+			EndpointClass.SEARCH, new int[] {20, 2, 100},
+			EndpointClass.EXPORT, new int[] {4, 1, 8});
+
+	@Bean
+	public AdmissionControlFilter admissionControlFilter(Environment environment, MeterRegistry meterRegistry,
+			@Value("${tweets.admission.latency-tolerance:1.5}") double latencyTolerance,
+			@Value("${tweets.admission.retry-after:1s}") Duration retryAfter,
+			@Value("${tweets.admission.client.rate:0}") double clientRate,
+			@Value("${tweets.admission.client.burst:20}") int clientBurst,
+			@Value("${tweets.admission.client.header:X-Client-Id}") String clientHeader,
+			@Value("${tweets.admission.client.maximum-clients:100000}") long maximumClients) {
+		Map<EndpointClass, ConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+		for (EndpointClass endpoint : EndpointClass.values()) {
+			String prefix = "tweets.admission." + endpoint.key() + ".";
+			int[] defaults = DEFAULT_LIMITS.get(endpoint);
+			limiters.put(endpoint, new ConcurrencyLimiter(
+					environment.getProperty(prefix + "initial-limit", Integer.class, defaults[0]),
+					environment.getProperty(prefix + "min-limit", Integer.class, defaults[1]),
+					environment.getProperty(prefix + "max-limit", Integer.class, defaults[2]),
+					latencyTolerance));
+		}
+		ClientRateLimiter clientRateLimiter = clientRate > 0
+			? new ClientRateLimiter(clientRate, clientBurst, maximumClients)
+			: null;
+		return new AdmissionControlFilter(limiters, clientRateLimiter, clientHeader, retryAfter, meterRegistry);
+	}
+}
@@ -0,0 +1,27 @@
+package com.oumana.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oumana.archive.TweetArchive;
+import com.oumana.archive.TweetArchiver;
+import com.oumana.repository.TweetStore;
+
+@Configuration
+@ConditionalOnProperty(name = "tweets.archive.enabled", havingValue = "true")
+public class ArchiveConfig {
+
+	@Bean
+	public TweetArchiver tweetArchiver(TweetStore tweetRepository, TweetArchive tweetArchive,
+			TransactionTemplate transactionTemplate,
+			@Value("${tweets.archive.max-age:365d}") Duration maxAge,
+			@Value("${tweets.archive.segment-size:10000}") int segmentSize,
+			@Value("${tweets.archive.interval:1h}") Duration interval) {
+		return new TweetArchiver(tweetRepository, tweetArchive, transactionTemplate, maxAge, segmentSize, interval);
+	}
+}
@@ -0,0 +1,33 @@
+package com.oumana.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+import com.oumana.execution.RequestExecutor;
+import com.oumana.execution.ThreadModel;
+
+/**
+ * tweets.async.threads picks where TweetController work runs: caller (the
+ * servlet thread), platform or virtual. The pool defaults to the size of the
+ * connection pool, since every request needs a connection for its duration.
+ * Every TaskDecorator bean is applied to the work, in order.
+ */
+@Configuration
+public class AsyncConfig {
+
+	@Bean
+	public RequestExecutor requestExecutor(@Value("${tweets.async.threads:caller}") ThreadModel threadModel,
+			@Value("${tweets.async.pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int poolSize,
+			@Value("${tweets.async.queue-capacity:100}") int queueCapacity,
+			@Value("${tweets.async.timeout:10s}") Duration timeout,
+			ObjectProvider<TaskDecorator> taskDecorators) {
+		TaskDecorator taskDecorator = taskDecorators.orderedStream()
+			.reduce(task -> task, (first, then) -> task -> then.decorate(first.decorate(task)));
+		return new RequestExecutor(threadModel, poolSize, queueCapacity, timeout, taskDecorator);
+	}
+}
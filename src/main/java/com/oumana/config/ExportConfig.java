@@ -0,0 +1,50 @@
+package com.oumana.config;
+
+import java.time.Duration;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Async support for the export's StreamingResponseBody. A full-table export
+ * outlives the container's default async timeout (30s on Tomcat), so it gets
+ * tweets.export.timeout instead, 0 for none. It is written by a pool of
+ * tweets.export.threads with a bounded queue rather than Spring's default
+ * executor. DeferredResult and SseEmitter set timeouts of their own and do
+ * not use the pool.
+ */
+@Configuration
+public class ExportConfig implements WebMvcConfigurer {
+
+	private final long timeoutMillis;
+	private final ThreadPoolTaskExecutor exportExecutor = new ThreadPoolTaskExecutor();
+
+	public ExportConfig(@Value("${tweets.export.timeout:2h}") Duration timeout,
+			@Value("${tweets.export.threads:8}") int threads,
+			@Value("${tweets.export.queue-capacity:16}") int queueCapacity) {
+		this.timeoutMillis = timeout.toMillis();
+		exportExecutor.setCorePoolSize(threads);
+		exportExecutor.setMaxPoolSize(threads);
+		exportExecutor.setQueueCapacity(queueCapacity);
+		exportExecutor.setThreadNamePrefix("tweet-export-");
+		exportExecutor.setDaemon(true);
+		exportExecutor.initialize();
+	}
+
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		// passed on to AsyncContext.setTimeout, where 0 never expires
+		configurer.setDefaultTimeout(timeoutMillis);
+		configurer.setTaskExecutor(exportExecutor);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		exportExecutor.shutdown();
+	}
+}
@@ -0,0 +1,50 @@
+package com.oumana.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.social.twitter.api.impl.TwitterTemplate;
+
+import com.oumana.ingest.FileTweetSource;
+import com.oumana.ingest.TweetIngestionPipeline;
+import com.oumana.ingest.TweetSource;
+import com.oumana.ingest.TwitterStreamSource;
+import com.oumana.repository.TweetStore;
+import com.oumana.service.TweetService;
+
+@Configuration
+@ConditionalOnProperty(name = "tweets.ingest.enabled", havingValue = "true")
+public class IngestionConfig {
+
+	@Bean
+	@ConditionalOnProperty(name = "tweets.ingest.source", havingValue = "twitter", matchIfMissing = true)
+	public TweetSource twitterStreamSource(@Value("${tweets.ingest.twitter.consumer-key}") String consumerKey,
+			@Value("${tweets.ingest.twitter.consumer-secret}") String consumerSecret,
+			@Value("${tweets.ingest.twitter.access-token}") String accessToken,
+			@Value("${tweets.ingest.twitter.access-token-secret}") String accessTokenSecret,
+			@Value("${tweets.ingest.twitter.track:}") String track) {
+		return new TwitterStreamSource(new TwitterTemplate(consumerKey, consumerSecret, accessToken, accessTokenSecret),
+				track);
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "tweets.ingest.source", havingValue = "file")
+	public TweetSource fileTweetSource(@Value("${tweets.ingest.file.path}") Path path) {
+		return new FileTweetSource(path);
+	}
+
+	@Bean
+	public TweetIngestionPipeline tweetIngestionPipeline(TweetSource tweetSource, TweetService tweetService,
+			TweetStore tweetRepository,
+			@Value("${tweets.ingest.queue-capacity:10000}") int queueCapacity,
+			@Value("${tweets.ingest.batch-size:500}") int batchSize,
+			@Value("${tweets.ingest.linger:200ms}") Duration linger,
+			@Value("${tweets.ingest.dedupe-window:100000}") int dedupeWindow) {
+		return new TweetIngestionPipeline(tweetSource, tweetService, tweetRepository, queueCapacity, batchSize,
+				linger.toMillis(), dedupeWindow);
+	}
+}
@@ -0,0 +1,36 @@
+package com.oumana.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.oumana.memstore.ColumnarTweetStore;
+import com.oumana.memstore.InMemoryTweetRepository;
+import com.oumana.repository.TweetRepository;
+
+@Configuration
+@ConditionalOnProperty(name = "tweets.memstore.enabled", havingValue = "true")
+public class MemStoreConfig {
+
+	/**
+	 * A bean of its own and the one reporting the tweets.memstore.* gauges:
+	 * loading the repository is the first repository call, which creates the
+	 * meter registry, and the registry must not need the repository to bind.
+	 */
+	@Bean
+	public ColumnarTweetStore columnarTweetStore(@Value("${tweets.memstore.initial-capacity:100000}") int initialCapacity) {
+		return new ColumnarTweetStore(initialCapacity);
+	}
+
+	@Bean
+	@Primary
+	public InMemoryTweetRepository inMemoryTweetRepository(@Qualifier("tweetRepository") TweetRepository tweetRepository,
+			ColumnarTweetStore columnarTweetStore, PlatformTransactionManager transactionManager,
+			@Value("${tweets.memstore.load-batch-size:1000}") int loadBatchSize) {
+		return new InMemoryTweetRepository(tweetRepository, columnarTweetStore, transactionManager, loadBatchSize);
+	}
+}
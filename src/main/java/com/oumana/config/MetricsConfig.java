@@ -0,0 +1,25 @@
+package com.oumana.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.oumana.metrics.RequestStatisticsFilter;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class MetricsConfig {
+
+	@Bean
+	public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+		return new TimedAspect(meterRegistry);
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "tweets.metrics.request-statistics.enabled", havingValue = "true", matchIfMissing = true)
+	public RequestStatisticsFilter requestStatisticsFilter(MeterRegistry meterRegistry) {
+		return new RequestStatisticsFilter(meterRegistry);
+	}
+}
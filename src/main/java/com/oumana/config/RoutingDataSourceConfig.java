@@ -0,0 +1,118 @@
+package com.oumana.config;
+
+import java.time.Duration;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.oumana.routing.H2ReplicaSync;
+import com.oumana.routing.ReadWriteRoutingDataSource;
+import com.oumana.routing.ReadYourWrites;
+import com.oumana.routing.ReadYourWritesFilter;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * The primary pool is configured from spring.datasource.*, the replica pool
+ * from tweets.datasource.replica.* (jdbc-url, username, password and any
+ * other Hikari setting). Both report hikaricp.* metrics tagged with their
+ * pool name. With tweets.datasource.replica.sync-interval set, the replica
+ * is an H2 database kept in step with the primary by copying.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tweets.datasource.routing.enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("primary");
+		return dataSource;
+	}
+
+	@Bean
+	@ConfigurationProperties("tweets.datasource.replica")
+	public HikariDataSource replicaDataSource() {
+		HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setPoolName("replica");
+		return dataSource;
+	}
+
+	@Bean
+	public ReadWriteRoutingDataSource readWriteRoutingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+			@Qualifier("replicaDataSource") DataSource replica,
+			@Value("${tweets.datasource.routing.sticky-window:5s}") Duration stickyWindow,
+			@Value("${tweets.datasource.routing.maximum-clients:100000}") long maximumClients) {
+		return new ReadWriteRoutingDataSource(primary, replica, stickyWindow, maximumClients);
+	}
+
+	@Bean
+	@Primary
+	public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+		return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+	}
+
+	/**
+	 * Hibernate would otherwise hold a connection for the whole session, so a
+	 * request's later transactions would reuse whichever pool its first one
+	 * was routed to.
+	 */
+	@Bean
+	public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+		return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+				PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+	}
+
+	@Bean
+	public ReadYourWritesFilter readYourWritesFilter(
+			@Value("${tweets.datasource.routing.client-header:X-Client-Id}") String clientHeader) {
+		return new ReadYourWritesFilter(clientHeader);
+	}
+
+	@Bean
+	public TaskDecorator readYourWritesTaskDecorator() {
+		return ReadYourWrites::inheriting;
+	}
+
+	@Bean
+	@ConditionalOnProperty("tweets.datasource.replica.sync-interval")
+	public H2ReplicaSync h2ReplicaSync(@Qualifier("primaryDataSource") DataSource primary,
+			@Qualifier("replicaDataSource") DataSource replica,
+			@Value("${tweets.datasource.replica.sync-interval}") Duration interval) {
+		return new H2ReplicaSync(primary, replica, interval);
+	}
+
+	/**
+	 * Syncs once as soon as the entity manager factory has created the schema
+	 * in the primary, before any bean using it can read from the replica.
+	 */
+	@Bean
+	@ConditionalOnProperty("tweets.datasource.replica.sync-interval")
+	public static BeanPostProcessor h2ReplicaInitialSync(ObjectProvider<H2ReplicaSync> h2ReplicaSync) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof EntityManagerFactory) {
+					h2ReplicaSync.getObject().sync();
+				}
+				return bean;
+			}
+		};
+	}
+}
@@ -0,0 +1,42 @@
+package com.oumana.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Adds CBOR (application/cbor) and Smile (application/x-jackson-smile) as
+ * negotiable request and response formats. Their mappers are configured by
+ * Boot's builder, like the JSON mapper, so dates and features serialize
+ * identically, and sit after the JSON converter so JSON stays the default for
+ * Accept: *&#47;*.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+	private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+				|| converter instanceof MappingJackson2SmileHttpMessageConverter);
+		converters.add(new MappingJackson2CborHttpMessageConverter(configured(Jackson2ObjectMapperBuilder.cbor().build())));
+		converters.add(new MappingJackson2SmileHttpMessageConverter(configured(Jackson2ObjectMapperBuilder.smile().build())));
+	}
+
+	// configure() applies the builder's settings without touching its factory, so the JSON mapper is left as it is
+	private ObjectMapper configured(ObjectMapper objectMapper) {
+		objectMapperBuilder.configure(objectMapper);
+		return objectMapper;
+	}
+}
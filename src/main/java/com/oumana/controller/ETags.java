@@ -0,0 +1,102 @@
+package com.oumana.controller;
+
+import java.util.Objects;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.oumana.dto.TweetPage;
+import com.oumana.dto.TweetVersion;
+import com.oumana.entity.Tweet;
+
+/**
+ * Strong entity tags derived from tweet and author versions, so a tag changes
+ * exactly when one of the tweets it covers, or the profile shown with it, is
+ * written.
+ */
+final class ETags {
+
+	private ETags() {
+	}
+
+	static String of(long id, TweetVersion version) {
+		return "\"" + id + "-" + version.getVersion() + "-" + version.getAuthorVersion() + "\"";
+	}
+
+	static String of(Tweet tweet) {
+		return of(tweet.getId(), new TweetVersion(tweet.getVersion(), tweet.getAuthorVersion()));
+	}
+
+	static String of(TweetPage<Tweet> page) {
+		long hash = 1125899906842597L;
+		for (Tweet tweet : page.getTweets()) {
+			hash = 31 * hash + Objects.hashCode(tweet.getId());
+			hash = 31 * hash + tweet.getVersion();
+			hash = 31 * hash + tweet.getAuthorVersion();
+		}
+		if (page.getNextCursor() != null) {
+			hash = 31 * hash + page.getNextCursor().hashCode();
+		}
+		return "\"p" + Long.toHexString(hash) + "\"";
+	}
+
+	/**
+	 * Reads the versions out of a single strong tag issued for this tweet, or
+	 * returns null when the header is not one.
+	 */
+	static TweetVersion version(String header, long id) {
+		String tag = header.trim();
+		String prefix = "\"" + id + "-";
+		if (!tag.startsWith(prefix) || !tag.endsWith("\"")) {
+			return null;
+		}
+		String[] versions = tag.substring(prefix.length(), tag.length() - 1).split("-", -1);
+		if (versions.length != 2) {
+			return null;
+		}
+		try {
+			return new TweetVersion(Long.parseLong(versions[0]), Long.parseLong(versions[1]));
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Matches a request header value against a tag. If-None-Match uses weak
+	 * comparison, If-Match must compare strongly and never matches a W/ tag.
+	 */
+	static boolean matches(String header, String etag, boolean weak) {
+		for (String candidate : header.split(",")) {
+			candidate = candidate.trim();
+			if (candidate.equals("*")) {
+				return true;
+			}
+			if (candidate.startsWith("W/")) {
+				if (!weak) {
+					continue;
+				}
+				candidate = candidate.substring(2);
+			}
+			if (candidate.equals(etag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	static <T> ResponseEntity<T> ok(T body, String etag, String ifNoneMatch) {
+		if (ifNoneMatch != null && matches(ifNoneMatch, etag, true)) {
+			return notModified(etag);
+		}
+		HttpHeaders headers = new HttpHeaders();
+		headers.setETag(etag);
+		return new ResponseEntity<>(body, headers, HttpStatus.OK);
+	}
+
+	static <T> ResponseEntity<T> notModified(String etag) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setETag(etag);
+		return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+	}
+}
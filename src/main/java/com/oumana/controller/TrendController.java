@@ -0,0 +1,37 @@
+package com.oumana.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.oumana.dto.Trend;
+import com.oumana.exception.BadRequestException;
+import com.oumana.trends.TrendTracker;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/v1/api/trends")
+public class TrendController {
+
+	private final TrendTracker trendTracker;
+
+	/**
+	 * The top hashtags and mentions of a configured window, by default the
+	 * first one, as of the last refresh.
+	 */
+	@GetMapping
+	public ResponseEntity<List<Trend>> getTrends(@RequestParam(required = false) String window){
+		try {
+			return new ResponseEntity<>(trendTracker.top(window), HttpStatus.OK);
+		} catch (BadRequestException e) {
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+		}
+	}
+}
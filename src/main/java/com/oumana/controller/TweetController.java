@@ -2,59 +2,202 @@ package com.oumana.controller;
 
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import com.oumana.dto.TweetBatchResult;
+import com.oumana.dto.TweetPage;
+import com.oumana.dto.TweetPatch;
+import com.oumana.dto.TweetSearchResult;
+import com.oumana.dto.TweetVersion;
 import com.oumana.entity.Tweet;
+import com.oumana.exception.BadRequestException;
+import com.oumana.exception.ConflictException;
+import com.oumana.exception.PreconditionFailedException;
+import com.oumana.exception.ResourceNotFoundException;
+import com.oumana.execution.RequestExecutor;
 import com.oumana.service.TweetService;
 
 import lombok.RequiredArgsConstructor;
 
+/**
+ * Every handler hands its work to the {@link RequestExecutor}, which answers
+ * on the servlet thread or on its own threads depending on tweets.async.threads.
+ * Archived tweets are read-only: PUT, PATCH and DELETE answer 409 for them.
+ */
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/v1/api/tweets")
 public class TweetController {
 	
 	private final TweetService tweetService;
+	private final RequestExecutor requestExecutor;
 
 	@PostMapping
-	@ResponseStatus(code = HttpStatus.CREATED)
-	public Tweet createTweet(@RequestBody Tweet tweet){
-		return tweetService.saveTweet(tweet);
+	public DeferredResult<ResponseEntity<Tweet>> createTweet(@RequestBody Tweet tweet){
+		return requestExecutor.submitWrite(() -> new ResponseEntity<>(tweetService.saveTweet(tweet), HttpStatus.CREATED));
+	}
+	
+	@PostMapping("/batch")
+	public DeferredResult<ResponseEntity<TweetBatchResult>> createTweets(@RequestBody List<Tweet> tweets){
+		return requestExecutor.submitWrite(() -> {
+			try {
+				TweetBatchResult result = tweetService.saveTweets(tweets);
+				return new ResponseEntity<>(result, result.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS);
+			} catch (BadRequestException e) {
+				return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+			}
+		});
 	}
 	
 	@GetMapping
-	public List<Tweet> getAllTweets(){
-		return tweetService.getAllTweets();
+	public DeferredResult<ResponseEntity<TweetPage<?>>> getAllTweets(@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer limit,
+			@RequestParam(required = false) String fields,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+		return requestExecutor.submit(() -> {
+			try {
+				if (fields != null) {
+					return new ResponseEntity<>(tweetService.getTweetPage(cursor, limit, fields), HttpStatus.OK);
+				}
+				TweetPage<Tweet> page = tweetService.getTweetPage(cursor, limit);
+				return ETags.<TweetPage<?>>ok(page, ETags.of(page), ifNoneMatch);
+			} catch (BadRequestException e) {
+				return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+			}
+		});
+	}
+	
+	@GetMapping("/search")
+	public DeferredResult<ResponseEntity<TweetSearchResult<?>>> searchTweets(@RequestParam("q") String query,
+			@RequestParam(required = false) String operator,
+			@RequestParam(required = false) Integer page,
+			@RequestParam(required = false) Integer size,
+			@RequestParam(required = false) String fields){
+		return requestExecutor.submit(() -> {
+			try {
+				if (fields != null) {
+					return new ResponseEntity<>(tweetService.searchTweets(query, operator, page, size, fields), HttpStatus.OK);
+				}
+				return new ResponseEntity<>(tweetService.searchTweets(query, operator, page, size), HttpStatus.OK);
+			} catch (BadRequestException e) {
+				return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+			}
+		});
 	}
 	
 	@GetMapping("/{id}")
-	public ResponseEntity<Tweet> getTweetById(@PathVariable long id){
-		try {
-			return new ResponseEntity<>(tweetService.getTweetById(id), HttpStatus.OK);
-		} catch (Exception e) {
-			return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-		}
+	public DeferredResult<ResponseEntity<Tweet>> getTweetById(@PathVariable long id,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+		return requestExecutor.submit(() -> {
+			try {
+				if (ifNoneMatch != null) {
+					TweetVersion version = tweetService.getTweetVersion(id).orElse(null);
+					if (version != null && ETags.matches(ifNoneMatch, ETags.of(id, version), true)) {
+						return ETags.notModified(ETags.of(id, version));
+					}
+				}
+				Tweet tweet = tweetService.getTweetById(id);
+				return ETags.ok(tweet, ETags.of(tweet), null);
+			} catch (Exception e) {
+				return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+			}
+		});
 	}
 	
 	@PutMapping("/{id}")
-	public ResponseEntity<Tweet> updateTweet(@PathVariable long id, @RequestBody Tweet tweet){
-		try {
-			Tweet savedTweet = tweetService.getTweetById(id);
-			savedTweet.setText(tweet.getText());
-			savedTweet.setImgUrl(tweet.getImgUrl());
-			return new ResponseEntity<>(tweetService.updateTweet(savedTweet), HttpStatus.OK);
-		} catch (Exception e) {
-			return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-		}
+	public DeferredResult<ResponseEntity<Tweet>> updateTweet(@PathVariable long id, @RequestBody Tweet tweet,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+		return requestExecutor.submitWrite(() -> {
+			try {
+				Tweet savedTweet = tweetService.getTweetById(id);
+				if (ifMatch != null && !ETags.matches(ifMatch, ETags.of(savedTweet), false)) {
+					return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+				}
+				savedTweet.setText(tweet.getText());
+				savedTweet.setImgUrl(tweet.getImgUrl());
+				// the version read above goes back with the update, so a concurrent write fails the save instead of being overwritten
+				Tweet updatedTweet = tweetService.updateTweet(savedTweet);
+				return ETags.ok(updatedTweet, ETags.of(updatedTweet), null);
+			} catch (PreconditionFailedException e) {
+				return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+			} catch (ConflictException e) {
+				return new ResponseEntity<>(HttpStatus.CONFLICT);
+			} catch (Exception e) {
+				return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+			}
 		
+		});
+	}
+	
+	@PatchMapping("/{id}")
+	public DeferredResult<ResponseEntity<Void>> patchTweet(@PathVariable long id, @RequestBody TweetPatch patch,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+		return requestExecutor.submitWrite(() -> {
+			try {
+				TweetVersion expected = null;
+				if (ifMatch != null && !ifMatch.trim().equals("*")) {
+					expected = ETags.version(ifMatch, id);
+					if (expected == null) {
+						return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+					}
+				}
+				tweetService.patchTweet(id, patch, expected == null ? null : expected.getVersion());
+				HttpHeaders headers = new HttpHeaders();
+				if (expected != null) {
+					headers.setETag(ETags.of(id, new TweetVersion(expected.getVersion() + 1, expected.getAuthorVersion())));
+				}
+				return new ResponseEntity<>(headers, HttpStatus.NO_CONTENT);
+			} catch (BadRequestException e) {
+				return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+			} catch (PreconditionFailedException e) {
+				return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+			} catch (ConflictException e) {
+				return new ResponseEntity<>(HttpStatus.CONFLICT);
+			} catch (ResourceNotFoundException e) {
+				return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+			}
+		});
+	}
+	
+	@DeleteMapping("/{id}")
+	public DeferredResult<ResponseEntity<Void>> deleteTweet(@PathVariable long id){
+		return requestExecutor.submitWrite(() -> {
+			try {
+				tweetService.deleteTweet(id);
+				return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+			} catch (ConflictException e) {
+				return new ResponseEntity<>(HttpStatus.CONFLICT);
+			} catch (ResourceNotFoundException e) {
+				return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+			}
+		});
+	}
+	
+	@DeleteMapping
+	public DeferredResult<ResponseEntity<Void>> deleteTweets(@RequestParam List<Long> ids){
+		return requestExecutor.submitWrite(() -> {
+			try {
+				tweetService.deleteTweets(ids);
+				return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+			} catch (BadRequestException e) {
+				return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+			} catch (ConflictException e) {
+				return new ResponseEntity<>(HttpStatus.CONFLICT);
+			}
+		});
 	}
 }
@@ -0,0 +1,40 @@
+package com.oumana.controller;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.oumana.dto.TweetStats;
+import com.oumana.stats.TweetStatistics;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/v1/api/tweets")
+public class TweetStatsController {
+
+	private final TweetStatistics tweetStatistics;
+
+	/**
+	 * All counts, or with username and/or day only the counts for those keys.
+	 */
+	@GetMapping("/stats")
+	public ResponseEntity<TweetStats> getStats(@RequestParam(required = false) String username,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day){
+		if (username == null && day == null) {
+			return new ResponseEntity<>(new TweetStats(tweetStatistics.total(), tweetStatistics.undated(),
+					tweetStatistics.countsByUsername(), tweetStatistics.countsByDay()), HttpStatus.OK);
+		}
+		return new ResponseEntity<>(new TweetStats(tweetStatistics.total(), tweetStatistics.undated(),
+				username == null ? null : Map.of(username, tweetStatistics.countByUsername(username)),
+				day == null ? null : Map.of(day, tweetStatistics.countByDay(day))), HttpStatus.OK);
+	}
+}
@@ -0,0 +1,33 @@
+package com.oumana.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.oumana.exception.SubscriptionRejectedException;
+import com.oumana.stream.TweetStreamBroadcaster;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/v1/api/tweets")
+public class TweetStreamController {
+
+	private final TweetStreamBroadcaster tweetStreamBroadcaster;
+
+	@GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> streamTweets(@RequestParam(required = false) String username,
+			@RequestParam(required = false) String keyword){
+		try {
+			return new ResponseEntity<>(tweetStreamBroadcaster.subscribe(username, keyword), HttpStatus.OK);
+		} catch (SubscriptionRejectedException e) {
+			return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package com.oumana.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.oumana.dto.TweetPage;
+import com.oumana.entity.Tweet;
+import com.oumana.exception.BadRequestException;
+import com.oumana.service.TweetService;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/v1/api/users")
+public class UserController {
+
+	private final TweetService tweetService;
+
+	@GetMapping("/{username}/tweets")
+	public ResponseEntity<TweetPage<?>> getUserTimeline(@PathVariable String username,
+			@RequestParam(required = false) String before,
+			@RequestParam(required = false) Integer limit,
+			@RequestParam(required = false) String fields,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+		try {
+			if (fields != null) {
+				return new ResponseEntity<>(tweetService.getUserTimeline(username, before, limit, fields), HttpStatus.OK);
+			}
+			TweetPage<Tweet> page = tweetService.getUserTimeline(username, before, limit);
+			return ETags.<TweetPage<?>>ok(page, ETags.of(page), ifNoneMatch);
+		} catch (BadRequestException e) {
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package com.oumana.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class Trend {
+	// #hashtag or @mention, lowercased
+	private final String term;
+	// estimated, never below the exact count
+	private final long count;
+}
@@ -0,0 +1,24 @@
+package com.oumana.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TweetBatchItem {
+	public static final String CREATED = "created";
+	public static final String FAILED = "failed";
+
+	private final int index;
+	private final String status;
+	private final Long id;
+	private final String error;
+
+	public static TweetBatchItem created(int index, long id) {
+		return new TweetBatchItem(index, CREATED, id, null);
+	}
+
+	public static TweetBatchItem failed(int index, String error) {
+		return new TweetBatchItem(index, FAILED, null, error);
+	}
+}
@@ -0,0 +1,14 @@
+package com.oumana.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TweetBatchResult {
+	private final int created;
+	private final int failed;
+	private final List<TweetBatchItem> items;
+}
@@ -0,0 +1,85 @@
+package com.oumana.dto;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.oumana.entity.Tweet;
+import com.oumana.exception.BadRequestException;
+
+/**
+ * Tweet attributes a caller can select with {@code fields=}. The name is both
+ * the JSON property and the entity attribute, so a selection maps straight
+ * onto a projection query; author fields are the exception.
+ */
+public enum TweetField {
+	ID("id", Tweet::getId, false),
+	NAME("name", Tweet::getName, true),
+	USERNAME("username", Tweet::getUsername, false),
+	PROFILE_IMG_URL("profileImgUrl", Tweet::getProfileImgUrl, true),
+	CREATED_AT("createdAt", Tweet::getCreatedAt, false),
+	TEXT("text", Tweet::getText, false),
+	IMG_URL("imgUrl", Tweet::getImgUrl, false),
+	VERSION("version", Tweet::getVersion, false);
+
+	private final String attribute;
+	private final Function<Tweet, Object> getter;
+	private final boolean authorField;
+
+	TweetField(String attribute, Function<Tweet, Object> getter, boolean authorField) {
+		this.attribute = attribute;
+		this.getter = getter;
+		this.authorField = authorField;
+	}
+
+	public String getAttribute() {
+		return attribute;
+	}
+
+	/**
+	 * Whether the value lives on the author rather than the tweet row, so it
+	 * is filled in from the author cache instead of being selected.
+	 */
+	public boolean isAuthorField() {
+		return authorField;
+	}
+
+	public Object read(Tweet tweet) {
+		return getter.apply(tweet);
+	}
+
+	/**
+	 * Parses a comma-separated field list. The id is always selected because
+	 * cursors and cache lookups are keyed by it.
+	 */
+	public static Set<TweetField> parse(String fields) {
+		Set<TweetField> selected = EnumSet.of(ID);
+		for (String name : fields.split(",")) {
+			String trimmed = name.trim();
+			if (trimmed.isEmpty()) {
+				continue;
+			}
+			selected.add(byAttribute(trimmed));
+		}
+		return selected;
+	}
+
+	public static Map<String, Object> row(Tweet tweet, Set<TweetField> fields) {
+		Map<String, Object> row = new LinkedHashMap<>();
+		for (TweetField field : fields) {
+			row.put(field.attribute, field.read(tweet));
+		}
+		return row;
+	}
+
+	private static TweetField byAttribute(String attribute) {
+		for (TweetField field : values()) {
+			if (field.attribute.equals(attribute)) {
+				return field;
+			}
+		}
+		throw new BadRequestException("Unknown tweet field '" + attribute + "'");
+	}
+}
@@ -0,0 +1,17 @@
+package com.oumana.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One keyset page. Holds {@link com.oumana.entity.Tweet} entities, or field
+ * maps when the caller asked for a subset of fields.
+ */
+@Getter
+@AllArgsConstructor
+public class TweetPage<T> {
+	private final List<T> tweets;
+	private final String nextCursor;
+}
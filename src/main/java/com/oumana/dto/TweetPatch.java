@@ -0,0 +1,36 @@
+package com.oumana.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Partial update of a tweet. Only properties present in the request body are
+ * applied, so an explicit null clears a field while an absent one keeps it.
+ */
+@Getter
+@NoArgsConstructor
+public class TweetPatch {
+	private String text;
+	private String imgUrl;
+	// set by the setters only, never read from the body
+	@JsonIgnore
+	private boolean textSet;
+	@JsonIgnore
+	private boolean imgUrlSet;
+
+	public void setText(String text) {
+		this.text = text;
+		this.textSet = true;
+	}
+
+	public void setImgUrl(String imgUrl) {
+		this.imgUrl = imgUrl;
+		this.imgUrlSet = true;
+	}
+
+	public boolean isEmpty() {
+		return !textSet && !imgUrlSet;
+	}
+}
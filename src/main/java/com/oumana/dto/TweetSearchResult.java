@@ -0,0 +1,14 @@
+package com.oumana.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TweetSearchResult<T> {
+	private final List<T> tweets;
+	private final int total;
+	private final Integer nextPage;
+}
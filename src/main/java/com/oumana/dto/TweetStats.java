@@ -0,0 +1,20 @@
+package com.oumana.dto;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TweetStats {
+	private final long total;
+	// tweets without a createdAt, not part of byDay
+	private final long undated;
+	private final Map<String, Long> byUsername;
+	private final Map<LocalDate, Long> byDay;
+}
@@ -0,0 +1,15 @@
+package com.oumana.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * What a tweet's entity tag is derived from: its own version and the version
+ * of the author profile rendered with it.
+ */
+@Getter
+@AllArgsConstructor
+public class TweetVersion {
+	private final long version;
+	private final long authorVersion;
+}
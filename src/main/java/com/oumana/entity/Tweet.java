@@ -2,11 +2,19 @@ package com.oumana.entity;
 
 import java.time.LocalDate;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.persistence.Version;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,19 +25,50 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "tweets")
+@Table(name = "tweets", indexes = {
+		@Index(name = "idx_tweets_username_created_at_id", columnList = "username, createdAt, id")
+})
 public class Tweet {
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tweets_seq")
+	@SequenceGenerator(name = "tweets_seq", sequenceName = "tweets_seq", allocationSize = 50)
 	private Long id;
+	// author profile, stored once per user in authors and filled in by AuthorService
+	@Transient
 	private String name;
 	private String username;
+	@Transient
 	private String profileImgUrl;
+	@Transient
+	@JsonIgnore
+	private long authorVersion;
 	private LocalDate createdAt;
 	private String text;
 	private String imgUrl;
+	@JsonIgnore
+	@Column(unique = true)
+	private Long sourceId;
+	@Version
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	private long version;
+
+	// identity is the id, so the same row read twice compares equal whichever store loaded it
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (other == null || getClass() != other.getClass()) {
+			return false;
+		}
+		return id != null && id.equals(((Tweet) other).id);
+	}
 
+	@Override
+	public int hashCode() {
+		return getClass().hashCode();
+	}
 }
@@ -0,0 +1,14 @@
+package com.oumana.event;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TweetDeletedEvent {
+	private final long id;
+	private final String username;
+	private final LocalDate createdAt;
+}
@@ -0,0 +1,13 @@
+package com.oumana.event;
+
+import com.oumana.dto.TweetPatch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TweetPatchedEvent {
+	private final long id;
+	private final TweetPatch patch;
+}
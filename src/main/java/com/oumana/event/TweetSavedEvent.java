@@ -0,0 +1,20 @@
+package com.oumana.event;
+
+import com.oumana.entity.Tweet;
+import com.oumana.repository.TimelineEntry;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TweetSavedEvent {
+	private final Tweet tweet;
+	private final boolean created;
+	// author and day before an update, null for a created tweet
+	private final TimelineEntry previous;
+
+	public TweetSavedEvent(Tweet tweet, boolean created) {
+		this(tweet, created, null);
+	}
+}
@@ -0,0 +1,12 @@
+package com.oumana.exception;
+
+public class BadRequestException extends RuntimeException{
+	
+	public BadRequestException(String message) {
+		super(message);
+	}
+	
+	public BadRequestException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,12 @@
+package com.oumana.exception;
+
+public class SubscriptionRejectedException extends RuntimeException{
+	
+	public SubscriptionRejectedException(String message) {
+		super(message);
+	}
+	
+	public SubscriptionRejectedException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,183 @@
+package com.oumana.execution;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.oumana.metrics.RequestStatistics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Runs controller work on its own threads so the servlet thread goes back to
+ * the container while the request waits on the database. At most threads +
+ * queue-capacity requests are admitted at once, running or waiting; beyond
+ * that a request is answered 503 with Retry-After right away. A read not
+ * answered within the timeout gets 503 and its task is cancelled, as is the
+ * task of a read whose client went away; a running task is interrupted. A
+ * write submitted with {@link #submitWrite} may already have taken effect,
+ * so a timeout answers it 504 without Retry-After, and a write that has
+ * started is left to finish rather than interrupted.
+ * With {@link ThreadModel#CALLER} the work runs on the servlet thread and
+ * none of this applies. Request statistics follow the work to its thread;
+ * anything else thread-bound is carried by the task decorator.
+ */
+public class RequestExecutor implements MeterBinder {
+
+	private final ThreadModel threadModel;
+	private final ExecutorService executor;
+	private final Semaphore permits;
+	private final int maximumPermits;
+	private final long timeoutMillis;
+	private final TaskDecorator taskDecorator;
+	private final AtomicLong saturated = new AtomicLong();
+	private final AtomicLong timedOut = new AtomicLong();
+
+	public RequestExecutor(ThreadModel threadModel, int threads, int queueCapacity, Duration timeout) {
+		this(threadModel, threads, queueCapacity, timeout, task -> task);
+	}
+
+	public RequestExecutor(ThreadModel threadModel, int threads, int queueCapacity, Duration timeout,
+			TaskDecorator taskDecorator) {
+		this.threadModel = threadModel;
+		this.executor = executor(threadModel, threads);
+		this.maximumPermits = threads + queueCapacity;
+		this.permits = new Semaphore(maximumPermits);
+		this.timeoutMillis = timeout.toMillis();
+		this.taskDecorator = taskDecorator;
+	}
+
+	public ThreadModel getThreadModel() {
+		return threadModel;
+	}
+
+	/**
+	 * The response the work produces; exceptions it throws are handled by
+	 * Spring MVC as if the controller had thrown them. For idempotent work,
+	 * which a client can safely retry.
+	 */
+	public <T> DeferredResult<ResponseEntity<T>> submit(Supplier<ResponseEntity<T>> work) {
+		return submit(work, true);
+	}
+
+	/**
+	 * Like {@link #submit} for work that is not idempotent: POST, PUT, PATCH
+	 * and DELETE.
+	 */
+	public <T> DeferredResult<ResponseEntity<T>> submitWrite(Supplier<ResponseEntity<T>> work) {
+		return submit(work, false);
+	}
+
+	private <T> DeferredResult<ResponseEntity<T>> submit(Supplier<ResponseEntity<T>> work, boolean idempotent) {
+		if (executor == null) {
+			DeferredResult<ResponseEntity<T>> result = new DeferredResult<>();
+			complete(result, work);
+			return result;
+		}
+		DeferredResult<ResponseEntity<T>> result = new DeferredResult<>(timeoutMillis);
+		if (!permits.tryAcquire()) {
+			saturated.incrementAndGet();
+			result.setResult(unavailable());
+			return result;
+		}
+		Runnable run = RequestStatistics.inheriting(taskDecorator.decorate(() -> complete(result, work)));
+		FutureTask<Void> task = new FutureTask<>(run, null) {
+			@Override
+			protected void done() {
+				// once, whether the task ran, failed or was cancelled before it started
+				permits.release();
+			}
+		};
+		result.onTimeout(() -> {
+			timedOut.incrementAndGet();
+			// answered first, so whatever the task returns when it stops or finishes is ignored
+			result.setResult(idempotent ? unavailable() : new ResponseEntity<>(HttpStatus.GATEWAY_TIMEOUT));
+			task.cancel(idempotent);
+		});
+		result.onError(error -> task.cancel(idempotent));
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			task.cancel(false);
+			result.setResult(unavailable());
+		}
+		return result;
+	}
+
+	public void shutdown() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		if (executor == null) {
+			return;
+		}
+		Gauge.builder("tweets.async.inflight", permits, p -> maximumPermits - p.availablePermits())
+			.tag("threads", threadModel.name().toLowerCase(Locale.ROOT))
+			.register(registry);
+		FunctionCounter.builder("tweets.async.rejected", saturated, AtomicLong::get)
+			.tag("reason", "saturated")
+			.register(registry);
+		FunctionCounter.builder("tweets.async.rejected", timedOut, AtomicLong::get)
+			.tag("reason", "timeout")
+			.register(registry);
+	}
+
+	private static <T> void complete(DeferredResult<ResponseEntity<T>> result, Supplier<ResponseEntity<T>> work) {
+		try {
+			result.setResult(work.get());
+		} catch (RuntimeException | Error e) {
+			result.setErrorResult(e);
+		}
+	}
+
+	private static <T> ResponseEntity<T> unavailable() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.RETRY_AFTER, "1");
+		return new ResponseEntity<>(headers, HttpStatus.SERVICE_UNAVAILABLE);
+	}
+
+	private static ExecutorService executor(ThreadModel threadModel, int threads) {
+		switch (threadModel) {
+		case PLATFORM:
+			AtomicInteger counter = new AtomicInteger();
+			ThreadFactory threadFactory = runnable -> {
+				Thread thread = new Thread(runnable, "tweet-request-" + counter.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			};
+			return Executors.newFixedThreadPool(threads, threadFactory);
+		case VIRTUAL:
+			// looked up reflectively so the code still compiles and runs on Java 11
+			try {
+				return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			} catch (NoSuchMethodException e) {
+				throw new IllegalStateException("Virtual threads need Java 21 or later, running on " + Runtime.version());
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException("Virtual threads are not available on Java " + Runtime.version(), e);
+			}
+		default:
+			return null;
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package com.oumana.execution;
+
+/**
+ * Where {@link RequestExecutor} runs controller work.
+ */
+public enum ThreadModel {
+	/** On the servlet thread that received the request, as a blocking controller would. */
+	CALLER,
+	/** On a fixed pool of platform threads the size of the connection pool. */
+	PLATFORM,
+	/** On a new virtual thread per request, Java 21 and later. */
+	VIRTUAL
+}
@@ -0,0 +1,103 @@
+package com.oumana.ingest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.social.twitter.api.Entities;
+import org.springframework.social.twitter.api.MediaEntity;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.TwitterProfile;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Replays tweets from a newline-delimited JSON file, one object per line with
+ * id, text, createdAt (epoch millis), screenName, name, profileImageUrl and
+ * mediaUrl. Stands in for the streaming API in tests and local runs.
+ */
+@Slf4j
+public class FileTweetSource implements TweetSource {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper()
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+	private final Path path;
+	private volatile Thread reader;
+
+	public FileTweetSource(Path path) {
+		this.path = path;
+	}
+
+	@Override
+	public synchronized void start(Consumer<Tweet> sink) {
+		reader = new Thread(() -> replay(sink), "tweet-ingest-file-source");
+		reader.setDaemon(true);
+		reader.start();
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (reader != null) {
+			reader.interrupt();
+			reader = null;
+		}
+	}
+
+	void replay(Consumer<Tweet> sink) {
+		try (BufferedReader lines = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			String line;
+			while (!Thread.currentThread().isInterrupted() && (line = lines.readLine()) != null) {
+				if (line.isBlank()) {
+					continue;
+				}
+				try {
+					sink.accept(toTweet(MAPPER.readValue(line, FeedRecord.class)));
+				} catch (IOException e) {
+					log.warn("Skipping malformed feed line in {}: {}", path, e.getMessage());
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * The one place upstream tweets are built by hand. Every constructor of
+	 * the spring-social Tweet is deprecated in favour of JSON binding, which
+	 * a feed record does not go through.
+	 */
+	@SuppressWarnings("deprecation")
+	static Tweet toTweet(FeedRecord record) {
+		Date createdAt = record.createdAt == null ? null : new Date(record.createdAt);
+		Tweet tweet = new Tweet(record.id, record.text, createdAt, record.screenName, record.profileImageUrl, null, 0,
+				null, null);
+		tweet.setUser(new TwitterProfile(0, record.screenName, record.name, null, record.profileImageUrl, null, null,
+				null));
+		if (record.mediaUrl != null) {
+			MediaEntity media = new MediaEntity(0, record.mediaUrl, record.mediaUrl, null, null, null, "photo",
+					new int[0]);
+			tweet.setEntities(new Entities(List.of(), List.of(), List.of(), List.of(media)));
+		}
+		return tweet;
+	}
+
+	static class FeedRecord {
+		public long id;
+		public String text;
+		public Long createdAt;
+		public String screenName;
+		public String name;
+		public String profileImageUrl;
+		public String mediaUrl;
+	}
+}
@@ -0,0 +1,214 @@
+package com.oumana.ingest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.social.twitter.api.Tweet;
+
+import com.oumana.dto.TweetBatchItem;
+import com.oumana.dto.TweetBatchResult;
+import com.oumana.repository.TweetStore;
+import com.oumana.service.TweetService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Background ingestion: the source hands tweets to a bounded queue and blocks
+ * when it is full, a single writer thread drains it in batches, drops tweets
+ * whose upstream id was already seen and writes the rest through
+ * {@link TweetService#saveTweets}. REST request threads are never involved.
+ */
+@Slf4j
+public class TweetIngestionPipeline implements MeterBinder {
+
+	private final TweetSource source;
+	private final TweetService tweetService;
+	private final TweetStore tweetRepository;
+	private final BlockingQueue<Tweet> queue;
+	private final int batchSize;
+	private final long lingerMillis;
+	private final Set<Long> recentSourceIds;
+	private final AtomicLong received = new AtomicLong();
+	private final AtomicLong written = new AtomicLong();
+	private final AtomicLong duplicates = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private volatile long lastCreatedAtMillis;
+	private volatile boolean running;
+	private Thread writer;
+	private Timer batchTimer;
+
+	public TweetIngestionPipeline(TweetSource source, TweetService tweetService, TweetStore tweetRepository,
+			int queueCapacity, int batchSize, long lingerMillis, int dedupeWindow) {
+		if (batchSize < 1 || batchSize > TweetService.MAX_BATCH_SIZE) {
+			throw new IllegalArgumentException("tweets.ingest.batch-size must be between 1 and " + TweetService.MAX_BATCH_SIZE);
+		}
+		this.source = source;
+		this.tweetService = tweetService;
+		this.tweetRepository = tweetRepository;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		this.batchSize = batchSize;
+		this.lingerMillis = lingerMillis;
+		// only touched by the writer thread
+		this.recentSourceIds = Collections.newSetFromMap(new LinkedHashMap<Long, Boolean>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+				return size() > dedupeWindow;
+			}
+		});
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void start() {
+		if (running) {
+			return;
+		}
+		running = true;
+		writer = new Thread(this::writeLoop, "tweet-ingest-writer");
+		writer.setDaemon(true);
+		writer.start();
+		source.start(this::accept);
+	}
+
+	@PreDestroy
+	public synchronized void stop() {
+		if (!running) {
+			return;
+		}
+		source.stop();
+		running = false;
+		writer.interrupt();
+		try {
+			writer.join(TimeUnit.SECONDS.toMillis(10));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	void accept(Tweet tweet) {
+		try {
+			queue.put(tweet);
+			received.incrementAndGet();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Maps, dedupes and writes one batch, returning the number of tweets
+	 * created.
+	 */
+	int writeBatch(List<Tweet> batch) {
+		Map<Long, Tweet> fresh = new LinkedHashMap<>();
+		for (Tweet tweet : batch) {
+			if (recentSourceIds.contains(tweet.getId()) || fresh.putIfAbsent(tweet.getId(), tweet) != null) {
+				duplicates.incrementAndGet();
+			}
+		}
+		if (!fresh.isEmpty()) {
+			Set<Long> stored = new HashSet<>(tweetRepository.findExistingSourceIds(fresh.keySet()));
+			duplicates.addAndGet(stored.size());
+			recentSourceIds.addAll(stored);
+			fresh.keySet().removeAll(stored);
+		}
+		if (fresh.isEmpty()) {
+			return 0;
+		}
+
+		List<com.oumana.entity.Tweet> tweets = new ArrayList<>(fresh.size());
+		for (Tweet tweet : fresh.values()) {
+			tweets.add(TwitterTweetMapper.map(tweet));
+		}
+		TweetBatchResult result = batchTimer == null
+				? tweetService.saveTweets(tweets)
+				: batchTimer.record(() -> tweetService.saveTweets(tweets));
+		written.addAndGet(result.getCreated());
+		failed.addAndGet(result.getFailed());
+		// failed items were not stored, so they may come again and should be retried then
+		List<Long> sourceIds = new ArrayList<>(fresh.keySet());
+		for (TweetBatchItem item : result.getItems()) {
+			if (TweetBatchItem.CREATED.equals(item.getStatus())) {
+				recentSourceIds.add(sourceIds.get(item.getIndex()));
+			}
+		}
+		for (Tweet tweet : fresh.values()) {
+			if (tweet.getCreatedAt() != null && tweet.getCreatedAt().getTime() > lastCreatedAtMillis) {
+				lastCreatedAtMillis = tweet.getCreatedAt().getTime();
+			}
+		}
+		return result.getCreated();
+	}
+
+	private void writeLoop() {
+		List<Tweet> batch = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				Tweet first = queue.poll(lingerMillis, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, batchSize - 1);
+			} catch (InterruptedException e) {
+				if (!running) {
+					queue.drainTo(batch, batchSize);
+				}
+			}
+			if (batch.isEmpty()) {
+				continue;
+			}
+			try {
+				writeBatch(batch);
+			} catch (RuntimeException e) {
+				failed.addAndGet(batch.size());
+				log.warn("Dropping ingest batch of {} tweets", batch.size(), e);
+			}
+			batch.clear();
+		}
+	}
+
+	public int queued() {
+		return queue.size();
+	}
+
+	public long written() {
+		return written.get();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("tweets.ingest.received", received, AtomicLong::get).register(registry);
+		FunctionCounter.builder("tweets.ingest.written", written, AtomicLong::get).register(registry);
+		FunctionCounter.builder("tweets.ingest.duplicates", duplicates, AtomicLong::get).register(registry);
+		FunctionCounter.builder("tweets.ingest.failed", failed, AtomicLong::get).register(registry);
+		Gauge.builder("tweets.ingest.queue", queue, BlockingQueue::size).register(registry);
+		Gauge.builder("tweets.ingest.lag", this, TweetIngestionPipeline::lagSeconds)
+				.baseUnit("seconds")
+				.register(registry);
+		batchTimer = Timer.builder("tweets.ingest.batch").register(registry);
+	}
+
+	double lagSeconds() {
+		long last = lastCreatedAtMillis;
+		return last == 0 ? 0 : Math.max(0, System.currentTimeMillis() - last) / 1000.0;
+	}
+}
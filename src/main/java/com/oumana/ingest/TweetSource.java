@@ -0,0 +1,16 @@
+package com.oumana.ingest;
+
+import java.util.function.Consumer;
+
+import org.springframework.social.twitter.api.Tweet;
+
+/**
+ * Upstream feed of tweets. The sink blocks while the pipeline queue is full,
+ * which is how backpressure reaches the source.
+ */
+public interface TweetSource {
+
+	void start(Consumer<Tweet> sink);
+
+	void stop();
+}
@@ -0,0 +1,62 @@
+package com.oumana.ingest;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.social.twitter.api.Stream;
+import org.springframework.social.twitter.api.StreamDeleteEvent;
+import org.springframework.social.twitter.api.StreamListener;
+import org.springframework.social.twitter.api.StreamWarningEvent;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.Twitter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads the Twitter streaming API through spring-social-twitter: the sample
+ * stream, or the filter stream when track terms are configured.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TwitterStreamSource implements TweetSource {
+
+	private final Twitter twitter;
+	private final String track;
+	private Stream stream;
+
+	@Override
+	public synchronized void start(Consumer<Tweet> sink) {
+		List<StreamListener> listeners = List.of(new StreamListener() {
+			@Override
+			public void onTweet(Tweet tweet) {
+				sink.accept(tweet);
+			}
+
+			@Override
+			public void onDelete(StreamDeleteEvent deleteEvent) {
+			}
+
+			@Override
+			public void onLimit(int numberOfLimitedTweets) {
+				log.warn("Twitter stream limited, {} tweets were not delivered", numberOfLimitedTweets);
+			}
+
+			@Override
+			public void onWarning(StreamWarningEvent warningEvent) {
+				log.warn("Twitter stream warning: {}", warningEvent.getMessage());
+			}
+		});
+		stream = track == null || track.isBlank()
+				? twitter.streamingOperations().sample(listeners)
+				: twitter.streamingOperations().filter(track, listeners);
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (stream != null) {
+			stream.close();
+			stream = null;
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package com.oumana.ingest;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import org.springframework.social.twitter.api.MediaEntity;
+import org.springframework.social.twitter.api.TwitterProfile;
+
+import com.oumana.entity.Tweet;
+
+final class TwitterTweetMapper {
+
+	private TwitterTweetMapper() {
+	}
+
+	static Tweet map(org.springframework.social.twitter.api.Tweet source) {
+		TwitterProfile user = source.getUser();
+		String username = user != null && user.getScreenName() != null ? user.getScreenName() : source.getFromUser();
+		LocalDate createdAt = source.getCreatedAt() == null
+				? null
+				: source.getCreatedAt().toInstant().atZone(ZoneOffset.UTC).toLocalDate();
+		return Tweet.builder()
+				.sourceId(source.getId())
+				.username(username)
+				.name(user != null ? user.getName() : username)
+				.profileImgUrl(user != null && user.getProfileImageUrl() != null
+						? user.getProfileImageUrl()
+						: source.getProfileImageUrl())
+				.createdAt(createdAt)
+				.text(source.getText())
+				.imgUrl(mediaUrl(source))
+				.build();
+	}
+
+	private static String mediaUrl(org.springframework.social.twitter.api.Tweet source) {
+		if (source.getEntities() == null || source.getEntities().getMedia() == null
+				|| source.getEntities().getMedia().isEmpty()) {
+			return null;
+		}
+		MediaEntity media = source.getEntities().getMedia().get(0);
+		return media.getMediaSecureUrl() != null ? media.getMediaSecureUrl() : media.getMediaUrl();
+	}
+}
@@ -0,0 +1,501 @@
+package com.oumana.memstore;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import com.oumana.dto.TweetPatch;
+import com.oumana.entity.Tweet;
+import com.oumana.repository.TimelineEntry;
+import com.oumana.repository.TweetVersionEntry;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Tweets held in memory column by column instead of as entities. Each tweet
+ * is a row across primitive arrays: createdAt as an epoch day, the username
+ * as an index into a dictionary of interned names, text and image url as
+ * references into an off-heap {@link TextArena}. An open-addressing map finds
+ * the row of an id, a sorted id array gives the global order and a
+ * {@link UserTimeline} per user the timeline order. Reads decode rows into
+ * fresh {@link Tweet} instances.
+ */
+public class ColumnarTweetStore implements MeterBinder {
+
+	static final int NO_DAY = Integer.MIN_VALUE;
+
+	private static final long NO_SOURCE = Long.MIN_VALUE;
+	private static final int NO_USER = -1;
+	private static final int ROW_BYTES = 3 * Long.BYTES + 2 * Integer.BYTES + 2 * Long.BYTES;
+	private static final int TEXT_COMPACTION_MINIMUM = 1 << 20;
+
+	// HotSpot, 64-bit with compressed oops: a Tweet is 64 bytes, a boxed Long 16,
+	// a LocalDate 24, a String 24 plus a 16 byte array header, a HashMap node 32
+	// plus its share of the table at 0.75 load
+	private static final int TWEET_OBJECT = 64;
+	private static final int BOXED_LONG = 16;
+	private static final int LOCAL_DATE = 24;
+	private static final int STRING = 24;
+	private static final int ARRAY_HEADER = 16;
+	private static final int MAP_ENTRY = 32 + 6;
+	private static final int BOXED_INTEGER = 16;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final LongIntHashMap rows;
+	private final LongIntHashMap rowsBySource;
+	private final List<String> usernames = new ArrayList<>();
+	private final Map<String, Integer> usernameIds = new HashMap<>();
+	private final List<UserTimeline> timelines = new ArrayList<>();
+	private TextArena text;
+	private long[] ids;
+	private long[] versions;
+	private int[] days;
+	private long[] sourceIds;
+	private int[] users;
+	private long[] texts;
+	private long[] imgUrls;
+	private int rowCount;
+	private int[] freeRows = new int[16];
+	private int freeCount;
+	private long[] order;
+	private int size;
+
+	public ColumnarTweetStore(int initialCapacity) {
+		int capacity = Math.max(16, initialCapacity);
+		this.rows = new LongIntHashMap(capacity);
+		this.rowsBySource = new LongIntHashMap(16);
+		this.text = new TextArena((int) Math.min(1 << 30, capacity * 64L));
+		this.ids = new long[capacity];
+		this.versions = new long[capacity];
+		this.days = new int[capacity];
+		this.sourceIds = new long[capacity];
+		this.users = new int[capacity];
+		this.texts = new long[capacity];
+		this.imgUrls = new long[capacity];
+		this.order = new long[capacity];
+	}
+
+	/**
+	 * Inserts the tweet or replaces the stored row with the same id.
+	 */
+	public void put(Tweet tweet) {
+		write(() -> {
+			int row = rows.get(tweet.getId());
+			if (row == LongIntHashMap.MISSING) {
+				row = allocateRow();
+				rows.put(tweet.getId(), row);
+				insertOrder(tweet.getId());
+			} else {
+				unlink(row);
+			}
+			ids[row] = tweet.getId();
+			versions[row] = tweet.getVersion();
+			days[row] = tweet.getCreatedAt() == null ? NO_DAY : (int) tweet.getCreatedAt().toEpochDay();
+			sourceIds[row] = tweet.getSourceId() == null ? NO_SOURCE : tweet.getSourceId();
+			users[row] = intern(tweet.getUsername());
+			texts[row] = text.add(tweet.getText());
+			imgUrls[row] = text.add(tweet.getImgUrl());
+			link(row);
+			compactTextIfNeeded();
+			return null;
+		});
+	}
+
+	/**
+	 * Applies the patch the way the repository's UPDATE does, including the
+	 * version bump. Returns false when the id is not stored.
+	 */
+	public boolean patch(long id, TweetPatch patch) {
+		return write(() -> {
+			int row = rows.get(id);
+			if (row == LongIntHashMap.MISSING) {
+				return false;
+			}
+			if (patch.isTextSet()) {
+				text.release(texts[row]);
+				texts[row] = text.add(patch.getText());
+			}
+			if (patch.isImgUrlSet()) {
+				text.release(imgUrls[row]);
+				imgUrls[row] = text.add(patch.getImgUrl());
+			}
+			versions[row]++;
+			compactTextIfNeeded();
+			return true;
+		});
+	}
+
+	public boolean remove(long id) {
+		return removeAll(List.of(id)) > 0;
+	}
+
+	/**
+	 * Removes the ids with a single pass over the global order, so removing a
+	 * large batch does not shift the order array once per id.
+	 */
+	public int removeAll(Collection<Long> removed) {
+		return write(() -> {
+			Set<Long> gone = new HashSet<>();
+			for (Long id : removed) {
+				int row = rows.remove(id);
+				if (row != LongIntHashMap.MISSING) {
+					unlink(row);
+					freeRow(row);
+					gone.add(id);
+				}
+			}
+			if (!gone.isEmpty()) {
+				int kept = 0;
+				for (int i = 0; i < size; i++) {
+					if (!gone.contains(order[i])) {
+						order[kept++] = order[i];
+					}
+				}
+				size = kept;
+				compactTextIfNeeded();
+			}
+			return gone.size();
+		});
+	}
+
+	public void clear() {
+		write(() -> {
+			rows.clear();
+			rowsBySource.clear();
+			usernames.clear();
+			usernameIds.clear();
+			timelines.clear();
+			text = new TextArena((int) Math.min(Integer.MAX_VALUE, text.capacity()));
+			rowCount = 0;
+			freeCount = 0;
+			size = 0;
+			return null;
+		});
+	}
+
+	public Tweet get(long id) {
+		return read(() -> {
+			int row = rows.get(id);
+			return row == LongIntHashMap.MISSING ? null : decode(row);
+		});
+	}
+
+	public boolean contains(long id) {
+		return read(() -> rows.get(id) != LongIntHashMap.MISSING);
+	}
+
+	public Entry entry(long id) {
+		return read(() -> {
+			int row = rows.get(id);
+			return row == LongIntHashMap.MISSING ? null : entryOf(row);
+		});
+	}
+
+	public List<Tweet> getAll(Iterable<Long> requested) {
+		return read(() -> {
+			List<Tweet> tweets = new ArrayList<>();
+			for (Long id : requested) {
+				int row = rows.get(id);
+				if (row != LongIntHashMap.MISSING) {
+					tweets.add(decode(row));
+				}
+			}
+			return tweets;
+		});
+	}
+
+	public List<Entry> entries(Iterable<Long> requested) {
+		return read(() -> {
+			List<Entry> entries = new ArrayList<>();
+			for (Long id : requested) {
+				int row = rows.get(id);
+				if (row != LongIntHashMap.MISSING) {
+					entries.add(entryOf(row));
+				}
+			}
+			return entries;
+		});
+	}
+
+	/**
+	 * All tweets in id order.
+	 */
+	public List<Tweet> all() {
+		return read(() -> {
+			List<Tweet> tweets = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				tweets.add(decode(rows.get(order[i])));
+			}
+			return tweets;
+		});
+	}
+
+	/**
+	 * Newest first by id, optionally only ids below {@code beforeId}.
+	 */
+	public List<Tweet> latest(Long beforeId, int skip, int limit) {
+		return read(() -> {
+			int from = (beforeId == null ? size : firstNotBelow(beforeId)) - 1 - skip;
+			List<Tweet> tweets = new ArrayList<>(Math.max(0, Math.min(limit, from + 1)));
+			for (int i = from; i >= 0 && tweets.size() < limit; i--) {
+				tweets.add(decode(rows.get(order[i])));
+			}
+			return tweets;
+		});
+	}
+
+	/**
+	 * The user's tweets newest first by (createdAt, id), optionally only
+	 * those older than the given position. Dated only leaves out tweets
+	 * without createdAt, as the timeline queries do.
+	 */
+	public List<Tweet> timeline(String username, LocalDate beforeCreatedAt, Long beforeId, boolean datedOnly,
+			int skip, int limit) {
+		return read(() -> {
+			Integer user = usernameIds.get(username);
+			List<Tweet> tweets = new ArrayList<>();
+			if (user == null) {
+				return tweets;
+			}
+			UserTimeline timeline = timelines.get(user);
+			int from = beforeId == null ? 0
+				: timeline.position((int) beforeCreatedAt.toEpochDay(), beforeId - 1);
+			for (int i = from + skip; i < timeline.size() && tweets.size() < limit; i++) {
+				if (datedOnly && timeline.dayAt(i) == NO_DAY) {
+					break;
+				}
+				tweets.add(decode(rows.get(timeline.idAt(i))));
+			}
+			return tweets;
+		});
+	}
+
+	/**
+	 * Entries with ids above {@code afterId}, in id order.
+	 */
+	public List<Entry> entriesAfter(long afterId, int limit) {
+		return read(() -> {
+			List<Entry> entries = new ArrayList<>();
+			for (int i = firstNotBelow(afterId + 1); i < size && entries.size() < limit; i++) {
+				entries.add(entryOf(rows.get(order[i])));
+			}
+			return entries;
+		});
+	}
+
+	public List<Long> existingSourceIds(Collection<Long> requested) {
+		return read(() -> {
+			List<Long> existing = new ArrayList<>();
+			for (Long sourceId : requested) {
+				if (sourceId != null && rowsBySource.get(sourceId) != LongIntHashMap.MISSING) {
+					existing.add(sourceId);
+				}
+			}
+			return existing;
+		});
+	}
+
+	public int size() {
+		return read(() -> size);
+	}
+
+	/**
+	 * Heap and direct memory taken by the columns, indexes, dictionary and
+	 * text arena, counting allocated rather than used capacity.
+	 */
+	public long columnarBytes() {
+		return read(() -> {
+			long bytes = (long) ids.length * ROW_BYTES + (long) freeRows.length * Integer.BYTES
+					+ (long) order.length * Long.BYTES + rows.footprint() + rowsBySource.footprint() + text.capacity();
+			for (UserTimeline timeline : timelines) {
+				bytes += timeline.footprint();
+			}
+			for (String username : usernames) {
+				bytes += string(username.length()) + MAP_ENTRY + BOXED_INTEGER + Integer.BYTES;
+			}
+			return bytes;
+		});
+	}
+
+	/**
+	 * Estimate of the same tweets held as entities in a {@code HashMap<Long, Tweet>},
+	 * each with its own boxed id, LocalDate and strings.
+	 */
+	public long entityBytes() {
+		return read(() -> {
+			long bytes = 0;
+			for (int i = 0; i < size; i++) {
+				int row = rows.get(order[i]);
+				bytes += TWEET_OBJECT + BOXED_LONG + MAP_ENTRY;
+				bytes += days[row] == NO_DAY ? 0 : LOCAL_DATE;
+				bytes += sourceIds[row] == NO_SOURCE ? 0 : BOXED_LONG;
+				bytes += users[row] == NO_USER ? 0 : string(usernames.get(users[row]).length());
+				bytes += texts[row] == TextArena.NULL ? 0 : string(TextArena.length(texts[row]));
+				bytes += imgUrls[row] == TextArena.NULL ? 0 : string(TextArena.length(imgUrls[row]));
+			}
+			return bytes;
+		});
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("tweets.memstore.size", this, ColumnarTweetStore::size).register(registry);
+		Gauge.builder("tweets.memstore.bytes", this, ColumnarTweetStore::columnarBytes)
+			.tag("layout", "columnar")
+			.baseUnit("bytes")
+			.register(registry);
+		Gauge.builder("tweets.memstore.bytes", this, ColumnarTweetStore::entityBytes)
+			.tag("layout", "entity")
+			.baseUnit("bytes")
+			.register(registry);
+	}
+
+	private Tweet decode(int row) {
+		return Tweet.builder()
+			.id(ids[row])
+			.version(versions[row])
+			.createdAt(days[row] == NO_DAY ? null : LocalDate.ofEpochDay(days[row]))
+			.sourceId(sourceIds[row] == NO_SOURCE ? null : sourceIds[row])
+			.username(users[row] == NO_USER ? null : usernames.get(users[row]))
+			.text(text.get(texts[row]))
+			.imgUrl(text.get(imgUrls[row]))
+			.build();
+	}
+
+	private Entry entryOf(int row) {
+		return new Entry(ids[row], users[row] == NO_USER ? null : usernames.get(users[row]),
+				days[row] == NO_DAY ? null : LocalDate.ofEpochDay(days[row]), versions[row]);
+	}
+
+	private void link(int row) {
+		if (users[row] != NO_USER) {
+			timelines.get(users[row]).add(days[row], ids[row]);
+		}
+		if (sourceIds[row] != NO_SOURCE) {
+			rowsBySource.put(sourceIds[row], row);
+		}
+	}
+
+	private void unlink(int row) {
+		if (users[row] != NO_USER) {
+			timelines.get(users[row]).remove(days[row], ids[row]);
+		}
+		if (sourceIds[row] != NO_SOURCE) {
+			rowsBySource.remove(sourceIds[row]);
+		}
+		text.release(texts[row]);
+		text.release(imgUrls[row]);
+	}
+
+	private int intern(String username) {
+		if (username == null) {
+			return NO_USER;
+		}
+		Integer user = usernameIds.get(username);
+		if (user == null) {
+			user = usernames.size();
+			usernames.add(username);
+			usernameIds.put(username, user);
+			timelines.add(new UserTimeline());
+		}
+		return user;
+	}
+
+	private int allocateRow() {
+		if (freeCount > 0) {
+			return freeRows[--freeCount];
+		}
+		if (rowCount == ids.length) {
+			int capacity = rowCount * 2;
+			ids = Arrays.copyOf(ids, capacity);
+			versions = Arrays.copyOf(versions, capacity);
+			days = Arrays.copyOf(days, capacity);
+			sourceIds = Arrays.copyOf(sourceIds, capacity);
+			users = Arrays.copyOf(users, capacity);
+			texts = Arrays.copyOf(texts, capacity);
+			imgUrls = Arrays.copyOf(imgUrls, capacity);
+		}
+		return rowCount++;
+	}
+
+	private void freeRow(int row) {
+		if (freeCount == freeRows.length) {
+			freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+		}
+		freeRows[freeCount++] = row;
+	}
+
+	private void insertOrder(long id) {
+		if (size == order.length) {
+			order = Arrays.copyOf(order, size * 2);
+		}
+		// ids come from a sequence, so this is an append unless an older row is reloaded
+		int position = size == 0 || order[size - 1] < id ? size : firstNotBelow(id);
+		System.arraycopy(order, position, order, position + 1, size - position);
+		order[position] = id;
+		size++;
+	}
+
+	private int firstNotBelow(long id) {
+		int position = Arrays.binarySearch(order, 0, size, id);
+		return position >= 0 ? position : -position - 1;
+	}
+
+	private void compactTextIfNeeded() {
+		if (text.garbage() < TEXT_COMPACTION_MINIMUM || text.garbage() * 2 < text.used()) {
+			return;
+		}
+		TextArena compacted = new TextArena((int) Math.min(Integer.MAX_VALUE, (text.used() - text.garbage()) * 2));
+		for (int i = 0; i < size; i++) {
+			int row = rows.get(order[i]);
+			texts[row] = text.copyTo(compacted, texts[row]);
+			imgUrls[row] = text.copyTo(compacted, imgUrls[row]);
+		}
+		text = compacted;
+	}
+
+	private static long string(int length) {
+		return STRING + ((ARRAY_HEADER + length + 7) & ~7);
+	}
+
+	private <T> T read(Supplier<T> action) {
+		lock.readLock().lock();
+		try {
+			return action.get();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private <T> T write(Supplier<T> action) {
+		lock.writeLock().lock();
+		try {
+			return action.get();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Getter
+	@RequiredArgsConstructor
+	public static final class Entry implements TimelineEntry, TweetVersionEntry {
+		private final Long id;
+		private final String username;
+		private final LocalDate createdAt;
+		private final long version;
+	}
+}
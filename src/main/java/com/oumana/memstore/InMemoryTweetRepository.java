@@ -0,0 +1,412 @@
+package com.oumana.memstore;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityNotFoundException;
+
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oumana.dto.TweetField;
+import com.oumana.dto.TweetPatch;
+import com.oumana.entity.Tweet;
+import com.oumana.repository.TimelineEntry;
+import com.oumana.repository.TweetRepository;
+import com.oumana.repository.TweetVersionEntry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Front of the JPA repository that serves reads from memory. The whole table
+ * is loaded into a {@link ColumnarTweetStore} at startup; point, page,
+ * timeline and user reads are answered from it, and every write goes to the
+ * database first and is then applied to the store. Writes made inside a
+ * transaction are visible in memory right away; when the transaction
+ * completes the touched ids are reloaded from the database, which undoes a
+ * rollback and picks up versions assigned at flush. Queries the store has no
+ * index for go to the database.
+ */
+@Slf4j
+public class InMemoryTweetRepository implements TweetRepository {
+
+	private final TweetRepository tweetRepository;
+	private final ColumnarTweetStore store;
+	private final TransactionTemplate resync;
+	private final int loadBatchSize;
+
+	public InMemoryTweetRepository(TweetRepository tweetRepository, ColumnarTweetStore store,
+			PlatformTransactionManager transactionManager, int loadBatchSize) {
+		this.tweetRepository = tweetRepository;
+		this.store = store;
+		this.resync = new TransactionTemplate(transactionManager);
+		// read-write, so with replica routing it reads the rows just written from the primary
+		this.resync.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.loadBatchSize = loadBatchSize;
+	}
+
+	/**
+	 * Loads the table in id order, a keyset chunk at a time.
+	 */
+	@PostConstruct
+	public void load() {
+		long lastId = 0;
+		List<TimelineEntry> chunk = tweetRepository.findTimelineEntriesAfter(lastId, PageRequest.of(0, loadBatchSize));
+		while (!chunk.isEmpty()) {
+			List<Long> ids = new ArrayList<>(chunk.size());
+			chunk.forEach(entry -> ids.add(entry.getId()));
+			tweetRepository.findAllById(ids).forEach(store::put);
+			lastId = ids.get(ids.size() - 1);
+			chunk = tweetRepository.findTimelineEntriesAfter(lastId, PageRequest.of(0, loadBatchSize));
+		}
+		int size = store.size();
+		log.info("Loaded {} tweets into memory: {} bytes per tweet columnar, about {} as entities", size,
+				size == 0 ? 0 : store.columnarBytes() / size, size == 0 ? 0 : store.entityBytes() / size);
+	}
+
+	@Override
+	public <S extends Tweet> S save(S entity) {
+		S saved = tweetRepository.save(entity);
+		apply(saved);
+		return saved;
+	}
+
+	@Override
+	public <S extends Tweet> List<S> saveAll(Iterable<S> entities) {
+		List<S> saved = tweetRepository.saveAll(entities);
+		saved.forEach(this::apply);
+		return saved;
+	}
+
+	@Override
+	public <S extends Tweet> S saveAndFlush(S entity) {
+		S saved = tweetRepository.saveAndFlush(entity);
+		apply(saved);
+		return saved;
+	}
+
+	@Override
+	public <S extends Tweet> List<S> saveAllAndFlush(Iterable<S> entities) {
+		List<S> saved = tweetRepository.saveAllAndFlush(entities);
+		saved.forEach(this::apply);
+		return saved;
+	}
+
+	@Override
+	public void insertAll(List<Tweet> tweets) {
+		tweetRepository.insertAll(tweets);
+		tweets.forEach(this::apply);
+	}
+
+	@Override
+	public int patch(long id, TweetPatch patch, Long expectedVersion) {
+		int updated = tweetRepository.patch(id, patch, expectedVersion);
+		if (updated > 0) {
+			store.patch(id, patch);
+			touched(List.of(id));
+		}
+		return updated;
+	}
+
+	@Override
+	public void flush() {
+		tweetRepository.flush();
+	}
+
+	@Override
+	public Optional<Tweet> findById(Long id) {
+		return Optional.ofNullable(store.get(id));
+	}
+
+	@Override
+	public boolean existsById(Long id) {
+		return store.contains(id);
+	}
+
+	@Override
+	public long count() {
+		return store.size();
+	}
+
+	@Override
+	public List<Tweet> findAll() {
+		return store.all();
+	}
+
+	@Override
+	public List<Tweet> findAllById(Iterable<Long> ids) {
+		return store.getAll(ids);
+	}
+
+	@Override
+	public List<Tweet> findByUsername(String username) {
+		return store.timeline(username, null, null, false, 0, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public List<Tweet> findLatest(Pageable pageable) {
+		return store.latest(null, skip(pageable), limit(pageable));
+	}
+
+	@Override
+	public List<Tweet> findLatestBefore(long id, Pageable pageable) {
+		return store.latest(id, skip(pageable), limit(pageable));
+	}
+
+	@Override
+	public List<Tweet> findTimeline(String username, Pageable pageable) {
+		return store.timeline(username, null, null, true, skip(pageable), limit(pageable));
+	}
+
+	@Override
+	public List<Tweet> findTimelineBefore(String username, LocalDate createdAt, long id, Pageable pageable) {
+		return store.timeline(username, createdAt, id, true, skip(pageable), limit(pageable));
+	}
+
+	@Override
+	public List<TimelineEntry> findTimelineEntriesAfter(long id, Pageable pageable) {
+		return new ArrayList<>(store.entriesAfter(id, limit(pageable)));
+	}
+
+	@Override
+	public List<Long> findExistingSourceIds(Collection<Long> sourceIds) {
+		return store.existingSourceIds(sourceIds);
+	}
+
+	@Override
+	public Optional<TweetVersionEntry> findVersionById(long id) {
+		return Optional.ofNullable(store.entry(id));
+	}
+
+	@Override
+	public List<TimelineEntry> findTimelineEntriesByIds(Collection<Long> ids) {
+		return new ArrayList<>(store.entries(ids));
+	}
+
+	@Override
+	public List<Map<String, Object>> findLatestRows(Set<TweetField> fields, Long beforeId, int limit) {
+		return rows(store.latest(beforeId, 0, limit), fields);
+	}
+
+	@Override
+	public List<Map<String, Object>> findTimelineRows(String username, LocalDate beforeCreatedAt, Long beforeId,
+			Set<TweetField> fields, int limit) {
+		return rows(store.timeline(username, beforeCreatedAt, beforeId, true, 0, limit), fields);
+	}
+
+	@Override
+	public List<Map<String, Object>> findRowsByIds(Collection<Long> ids, Set<TweetField> fields) {
+		return rows(store.getAll(ids), fields);
+	}
+
+	@Override
+	public Tweet getById(Long id) {
+		return findById(id).orElseThrow(() -> new EntityNotFoundException("No tweet with id " + id));
+	}
+
+	@Override
+	@Deprecated
+	public Tweet getOne(Long id) {
+		return getById(id);
+	}
+
+	@Override
+	public int bulkDeleteByIds(Collection<Long> ids) {
+		int deleted = tweetRepository.bulkDeleteByIds(ids);
+		removed(ids);
+		return deleted;
+	}
+
+	@Override
+	public List<TimelineEntry> lockTimelineEntriesByIds(Collection<Long> ids) {
+		return tweetRepository.lockTimelineEntriesByIds(ids);
+	}
+
+	@Override
+	public void deleteById(Long id) {
+		tweetRepository.deleteById(id);
+		removed(List.of(id));
+	}
+
+	@Override
+	public void delete(Tweet entity) {
+		tweetRepository.delete(entity);
+		if (entity.getId() != null) {
+			removed(List.of(entity.getId()));
+		}
+	}
+
+	@Override
+	public void deleteAllById(Iterable<? extends Long> ids) {
+		tweetRepository.deleteAllById(ids);
+		removed(ids(ids));
+	}
+
+	@Override
+	public void deleteAll(Iterable<? extends Tweet> entities) {
+		tweetRepository.deleteAll(entities);
+		List<Long> ids = new ArrayList<>();
+		entities.forEach(tweet -> ids.add(tweet.getId()));
+		removed(ids);
+	}
+
+	@Override
+	public void deleteAll() {
+		tweetRepository.deleteAll();
+		store.clear();
+	}
+
+	@Override
+	public void deleteAllInBatch(Iterable<Tweet> entities) {
+		tweetRepository.deleteAllInBatch(entities);
+		List<Long> ids = new ArrayList<>();
+		entities.forEach(tweet -> ids.add(tweet.getId()));
+		removed(ids);
+	}
+
+	@Override
+	public void deleteAllByIdInBatch(Iterable<Long> ids) {
+		tweetRepository.deleteAllByIdInBatch(ids);
+		removed(ids(ids));
+	}
+
+	@Override
+	public void deleteAllInBatch() {
+		tweetRepository.deleteAllInBatch();
+		store.clear();
+	}
+
+	@Override
+	public List<Tweet> findTweetsLikeText(String text) {
+		return tweetRepository.findTweetsLikeText(text);
+	}
+
+	@Override
+	public List<Tweet> findArchivable(LocalDate cutoff, Pageable pageable) {
+		return tweetRepository.findArchivable(cutoff, pageable);
+	}
+
+	@Override
+	public Stream<Tweet> streamForExport(String username, LocalDate from, LocalDate to) {
+		return tweetRepository.streamForExport(username, from, to);
+	}
+
+	@Override
+	public List<Tweet> findAll(Sort sort) {
+		return tweetRepository.findAll(sort);
+	}
+
+	@Override
+	public Page<Tweet> findAll(Pageable pageable) {
+		return tweetRepository.findAll(pageable);
+	}
+
+	@Override
+	public <S extends Tweet> Optional<S> findOne(Example<S> example) {
+		return tweetRepository.findOne(example);
+	}
+
+	@Override
+	public <S extends Tweet> List<S> findAll(Example<S> example) {
+		return tweetRepository.findAll(example);
+	}
+
+	@Override
+	public <S extends Tweet> List<S> findAll(Example<S> example, Sort sort) {
+		return tweetRepository.findAll(example, sort);
+	}
+
+	@Override
+	public <S extends Tweet> Page<S> findAll(Example<S> example, Pageable pageable) {
+		return tweetRepository.findAll(example, pageable);
+	}
+
+	@Override
+	public <S extends Tweet> long count(Example<S> example) {
+		return tweetRepository.count(example);
+	}
+
+	@Override
+	public <S extends Tweet> boolean exists(Example<S> example) {
+		return tweetRepository.exists(example);
+	}
+
+	@Override
+	public <S extends Tweet, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+		return tweetRepository.findBy(example, queryFunction);
+	}
+
+	private void apply(Tweet tweet) {
+		store.put(tweet);
+		touched(List.of(tweet.getId()));
+	}
+
+	private void removed(Collection<Long> ids) {
+		store.removeAll(ids);
+		touched(ids);
+	}
+
+	/**
+	 * Reloads the ids from the database once the surrounding transaction, if
+	 * any, has completed either way.
+	 */
+	private void touched(Collection<Long> ids) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		Set<Long> pending = new LinkedHashSet<>(ids);
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				resync.executeWithoutResult(transaction -> {
+					Set<Long> missing = new LinkedHashSet<>(pending);
+					for (Tweet tweet : tweetRepository.findAllById(pending)) {
+						store.put(tweet);
+						missing.remove(tweet.getId());
+					}
+					store.removeAll(missing);
+				});
+			}
+		});
+	}
+
+	private static List<Long> ids(Iterable<? extends Long> ids) {
+		List<Long> list = new ArrayList<>();
+		ids.forEach(list::add);
+		return list;
+	}
+
+	private static List<Map<String, Object>> rows(List<Tweet> tweets, Set<TweetField> fields) {
+		List<Map<String, Object>> rows = new ArrayList<>(tweets.size());
+		for (Tweet tweet : tweets) {
+			rows.add(TweetField.row(tweet, fields));
+		}
+		return rows;
+	}
+
+	private static int skip(Pageable pageable) {
+		return pageable.isPaged() ? (int) pageable.getOffset() : 0;
+	}
+
+	private static int limit(Pageable pageable) {
+		return pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+	}
+}
@@ -0,0 +1,118 @@
+package com.oumana.memstore;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from long keys to int values: linear probing over two
+ * primitive arrays, backward-shift deletion instead of tombstones, and no
+ * boxing. {@link Long#MIN_VALUE} marks an empty slot and cannot be a key.
+ * Not thread-safe.
+ */
+final class LongIntHashMap {
+
+	static final int MISSING = -1;
+
+	private static final long EMPTY = Long.MIN_VALUE;
+
+	private long[] keys;
+	private int[] values;
+	private int mask;
+	private int size;
+
+	LongIntHashMap(int expectedSize) {
+		allocate(Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1);
+	}
+
+	int get(long key) {
+		for (int slot = slot(key);; slot = (slot + 1) & mask) {
+			if (keys[slot] == key) {
+				return values[slot];
+			}
+			if (keys[slot] == EMPTY) {
+				return MISSING;
+			}
+		}
+	}
+
+	/**
+	 * Maps the key to the value and returns the previous value, or
+	 * {@link #MISSING}.
+	 */
+	int put(long key, int value) {
+		int slot = slot(key);
+		for (; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+			if (keys[slot] == key) {
+				int previous = values[slot];
+				values[slot] = value;
+				return previous;
+			}
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		// keep the load factor at or below one half so probe runs stay short
+		if (++size * 2 > keys.length) {
+			rehash(keys.length * 2);
+		}
+		return MISSING;
+	}
+
+	int remove(long key) {
+		int slot = slot(key);
+		while (keys[slot] != key) {
+			if (keys[slot] == EMPTY) {
+				return MISSING;
+			}
+			slot = (slot + 1) & mask;
+		}
+		int previous = values[slot];
+		// pull later entries of the run back into the gap if that does not move them before their home slot
+		int gap = slot;
+		for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+			if (((next - slot(keys[next])) & mask) >= ((next - gap) & mask)) {
+				keys[gap] = keys[next];
+				values[gap] = values[next];
+				gap = next;
+			}
+		}
+		keys[gap] = EMPTY;
+		size--;
+		return previous;
+	}
+
+	void clear() {
+		Arrays.fill(keys, EMPTY);
+		size = 0;
+	}
+
+	int size() {
+		return size;
+	}
+
+	long footprint() {
+		return (long) keys.length * (Long.BYTES + Integer.BYTES);
+	}
+
+	private int slot(long key) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		allocate(capacity);
+		size = 0;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY) {
+				put(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new int[capacity];
+		mask = capacity - 1;
+		Arrays.fill(keys, EMPTY);
+	}
+}
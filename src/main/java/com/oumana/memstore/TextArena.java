@@ -0,0 +1,105 @@
+package com.oumana.memstore;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Append-only UTF-8 strings in a direct buffer, so tweet text sits outside
+ * the heap the collector traces. A reference packs offset and length into a
+ * long. Replaced strings stay behind as garbage until the owner copies the
+ * live ones into a fresh arena. Not thread-safe.
+ */
+final class TextArena {
+
+	static final long NULL = -1;
+
+	private ByteBuffer buffer;
+	private int end;
+	private long garbage;
+
+	TextArena(int initialCapacity) {
+		this.buffer = ByteBuffer.allocateDirect(Math.max(initialCapacity, 1024));
+	}
+
+	long add(String value) {
+		if (value == null) {
+			return NULL;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		if (end + (long) bytes.length > buffer.capacity()) {
+			grow(end + (long) bytes.length);
+		}
+		long reference = ((long) end << 32) | bytes.length;
+		at(buffer, end).put(bytes);
+		end += bytes.length;
+		return reference;
+	}
+
+	String get(long reference) {
+		if (reference == NULL) {
+			return null;
+		}
+		byte[] bytes = new byte[length(reference)];
+		at(buffer, (int) (reference >>> 32)).get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Copies the referenced string into the target arena and returns its
+	 * reference there.
+	 */
+	long copyTo(TextArena target, long reference) {
+		if (reference == NULL) {
+			return NULL;
+		}
+		int length = length(reference);
+		if (target.end + (long) length > target.buffer.capacity()) {
+			target.grow(target.end + (long) length);
+		}
+		long moved = ((long) target.end << 32) | length;
+		ByteBuffer source = at(buffer, (int) (reference >>> 32));
+		source.limit(source.position() + length);
+		at(target.buffer, target.end).put(source);
+		target.end += length;
+		return moved;
+	}
+
+	void release(long reference) {
+		if (reference != NULL) {
+			garbage += length(reference);
+		}
+	}
+
+	static int length(long reference) {
+		return reference == NULL ? 0 : (int) reference;
+	}
+
+	int used() {
+		return end;
+	}
+
+	long garbage() {
+		return garbage;
+	}
+
+	long capacity() {
+		return buffer.capacity();
+	}
+
+	private void grow(long required) {
+		if (required > Integer.MAX_VALUE) {
+			throw new IllegalStateException("In-memory tweet text would grow past 2 GB");
+		}
+		ByteBuffer grown = ByteBuffer.allocateDirect((int) Math.min(Integer.MAX_VALUE, Math.max(required, buffer.capacity() * 2L)));
+		ByteBuffer live = at(buffer, 0);
+		live.limit(end);
+		grown.put(live);
+		buffer = grown;
+	}
+
+	private static ByteBuffer at(ByteBuffer buffer, int position) {
+		ByteBuffer view = buffer.duplicate();
+		view.position(position);
+		return view;
+	}
+}
@@ -0,0 +1,71 @@
+package com.oumana.memstore;
+
+import java.util.Arrays;
+
+/**
+ * One user's tweets as parallel (epoch day, id) arrays sorted newest first,
+ * the order of the timeline query. Undated tweets use
+ * {@link ColumnarTweetStore#NO_DAY} and sort last. Not thread-safe.
+ */
+final class UserTimeline {
+
+	private int[] days = new int[4];
+	private long[] ids = new long[4];
+	private int size;
+
+	void add(int day, long id) {
+		int position = position(day, id);
+		if (size == ids.length) {
+			days = Arrays.copyOf(days, size * 2);
+			ids = Arrays.copyOf(ids, size * 2);
+		}
+		System.arraycopy(days, position, days, position + 1, size - position);
+		System.arraycopy(ids, position, ids, position + 1, size - position);
+		days[position] = day;
+		ids[position] = id;
+		size++;
+	}
+
+	void remove(int day, long id) {
+		int position = position(day, id);
+		if (position < size && ids[position] == id) {
+			System.arraycopy(days, position + 1, days, position, size - position - 1);
+			System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+			size--;
+		}
+	}
+
+	/**
+	 * Position of the first entry not newer than (day, id); everything before
+	 * it is newer.
+	 */
+	int position(int day, long id) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (days[middle] > day || (days[middle] == day && ids[middle] > id)) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	int size() {
+		return size;
+	}
+
+	int dayAt(int position) {
+		return days[position];
+	}
+
+	long idAt(int position) {
+		return ids[position];
+	}
+
+	long footprint() {
+		return (long) ids.length * (Long.BYTES + Integer.BYTES);
+	}
+}
@@ -0,0 +1,23 @@
+package com.oumana.metrics;
+
+import java.io.Serializable;
+import java.util.Iterator;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.type.Type;
+
+public class CountingInterceptor extends EmptyInterceptor {
+
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+		RequestStatistics.entityLoaded();
+		return false;
+	}
+
+	@Override
+	public void preFlush(@SuppressWarnings("rawtypes") Iterator entities) {
+		RequestStatistics.flushed();
+	}
+}
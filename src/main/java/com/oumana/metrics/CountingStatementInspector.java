@@ -0,0 +1,14 @@
+package com.oumana.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class CountingStatementInspector implements StatementInspector {
+
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public String inspect(String sql) {
+		RequestStatistics.statementPrepared();
+		return sql;
+	}
+}
@@ -0,0 +1,86 @@
+package com.oumana.metrics;
+
+/**
+ * Per-request Hibernate work counters. The request filter opens a scope on the
+ * serving thread and the Hibernate hooks only count while one is open, so
+ * background threads and disabled deployments pay nothing but a ThreadLocal
+ * lookup. Work handed to another thread joins the scope through
+ * {@link #inheriting(Runnable)}.
+ */
+public final class RequestStatistics {
+
+	private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+	private int statements;
+	private int entityLoads;
+	private int flushes;
+
+	private RequestStatistics() {
+	}
+
+	static RequestStatistics begin() {
+		RequestStatistics statistics = new RequestStatistics();
+		CURRENT.set(statistics);
+		return statistics;
+	}
+
+	static void resume(RequestStatistics statistics) {
+		CURRENT.set(statistics);
+	}
+
+	static void end() {
+		CURRENT.remove();
+	}
+
+	/**
+	 * The task counting into the calling thread's scope, if one is open,
+	 * wherever it runs.
+	 */
+	public static Runnable inheriting(Runnable task) {
+		RequestStatistics statistics = CURRENT.get();
+		if (statistics == null) {
+			return task;
+		}
+		return () -> {
+			CURRENT.set(statistics);
+			try {
+				task.run();
+			} finally {
+				CURRENT.remove();
+			}
+		};
+	}
+
+	static void statementPrepared() {
+		RequestStatistics statistics = CURRENT.get();
+		if (statistics != null) {
+			statistics.statements++;
+		}
+	}
+
+	static void entityLoaded() {
+		RequestStatistics statistics = CURRENT.get();
+		if (statistics != null) {
+			statistics.entityLoads++;
+		}
+	}
+
+	static void flushed() {
+		RequestStatistics statistics = CURRENT.get();
+		if (statistics != null) {
+			statistics.flushes++;
+		}
+	}
+
+	int getStatements() {
+		return statements;
+	}
+
+	int getEntityLoads() {
+		return entityLoads;
+	}
+
+	int getFlushes() {
+		return flushes;
+	}
+}
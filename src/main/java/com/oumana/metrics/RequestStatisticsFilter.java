@@ -0,0 +1,71 @@
+package com.oumana.metrics;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Records how many SQL statements, entity loads and flushes each request
+ * caused, tagged like http.server.requests so the two can be read together.
+ * An async request keeps its counters across dispatches and is recorded
+ * once, when the dispatch that writes the response ends.
+ */
+@RequiredArgsConstructor
+public class RequestStatisticsFilter extends OncePerRequestFilter {
+
+	private static final String STATISTICS_ATTRIBUTE = RequestStatisticsFilter.class.getName() + ".statistics";
+
+	private final MeterRegistry meterRegistry;
+
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return false;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		RequestStatistics statistics = (RequestStatistics) request.getAttribute(STATISTICS_ATTRIBUTE);
+		if (statistics == null) {
+			statistics = RequestStatistics.begin();
+		} else {
+			RequestStatistics.resume(statistics);
+		}
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			RequestStatistics.end();
+			if (request.isAsyncStarted()) {
+				request.setAttribute(STATISTICS_ATTRIBUTE, statistics);
+			} else {
+				record(request, statistics);
+			}
+		}
+	}
+
+	private void record(HttpServletRequest request, RequestStatistics statistics) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+		record("tweets.request.statements", uri, request, statistics.getStatements());
+		record("tweets.request.entity.loads", uri, request, statistics.getEntityLoads());
+		record("tweets.request.flushes", uri, request, statistics.getFlushes());
+	}
+
+	private void record(String name, String uri, HttpServletRequest request, int amount) {
+		DistributionSummary.builder(name)
+			.tag("uri", uri)
+			.tag("method", request.getMethod())
+			.register(meterRegistry)
+			.record(amount);
+	}
+}
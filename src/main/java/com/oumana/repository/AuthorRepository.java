@@ -0,0 +1,16 @@
+package com.oumana.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.oumana.entity.Author;
+
+public interface AuthorRepository extends JpaRepository<Author, String>{
+	// read-write unlike findById, so with replica routing it reads from the primary the save goes to
+	@Transactional
+	@Query("select a from Author a where a.username = ?1")
+	Optional<Author> findForUpdate(String username);
+}
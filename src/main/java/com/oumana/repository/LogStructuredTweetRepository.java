@@ -0,0 +1,667 @@
+package com.oumana.repository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.unit.DataSize;
+
+import com.oumana.dto.TweetField;
+import com.oumana.dto.TweetPatch;
+import com.oumana.entity.Tweet;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Storage engine for tweets without the ORM, active with the {@code logstore}
+ * profile. Every write appends the new state of a tweet, or a tombstone, to a
+ * memory-mapped {@link TweetLog}; reads find the latest record through an
+ * in-memory {@link OffsetIndex} and decode it straight from the mapping.
+ * Startup replays the log to rebuild the indexes, and a background task
+ * rewrites the log without superseded records once they take more than the
+ * configured share of it. Calls are atomic one by one, and insertAll as a
+ * whole; there are no transactions to roll back.
+ */
+@Slf4j
+@Primary
+@Profile("logstore")
+@Repository
+public class LogStructuredTweetRepository implements TweetStore, MeterBinder {
+
+	static final String LOG_FILE = "tweets.log";
+	private static final String COMPACTION_FILE = LOG_FILE + ".compacting";
+	private static final int NO_DAY = Integer.MIN_VALUE;
+
+	private final TweetLog tweetLog;
+	private final double compactionThreshold;
+	private final Duration compactionInterval;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final OffsetIndex index = new OffsetIndex();
+	// per user, newest first; tweets without createdAt sort last and stay out of timelines
+	private final Map<String, NavigableSet<TimelineKey>> timelines = new HashMap<>();
+	private final Set<Long> sourceIds = new HashSet<>();
+	private final AtomicLong compactions = new AtomicLong();
+	private long nextId;
+	private long garbage;
+	private ScheduledExecutorService compactor;
+
+	public LogStructuredTweetRepository(@Value("${tweets.logstore.dir:data/logstore}") Path directory,
+			@Value("${tweets.logstore.initial-size:64MB}") DataSize initialSize,
+			@Value("${tweets.logstore.fsync:false}") boolean fsync,
+			@Value("${tweets.logstore.compaction-threshold:0.5}") double compactionThreshold,
+			@Value("${tweets.logstore.compaction-interval:10m}") Duration compactionInterval) throws IOException {
+		// a compaction that did not finish left the old log in place
+		Files.deleteIfExists(directory.resolve(COMPACTION_FILE));
+		this.tweetLog = new TweetLog(directory.resolve(LOG_FILE), initialSize.toBytes(), fsync);
+		this.compactionThreshold = compactionThreshold;
+		this.compactionInterval = compactionInterval;
+		tweetLog.replay((type, offset, payload) -> {
+			if (type == TweetLog.PUT) {
+				indexPut(TweetRecordCodec.read(payload), offset);
+			} else if (type == TweetLog.SEQUENCE) {
+				nextId = Math.max(nextId, payload.getLong());
+			} else {
+				indexRemove(payload.getLong());
+				garbage += tweetLog.recordSize(offset);
+			}
+		});
+		log.info("Replayed {} tweets from {} ({} bytes)", index.size(), tweetLog.getFile(), tweetLog.size());
+	}
+
+	@PostConstruct
+	public void start() {
+		compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "tweet-log-compactor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long interval = compactionInterval.toMillis();
+		compactor.scheduleWithFixedDelay(this::compactIfNeeded, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() throws IOException {
+		if (compactor != null) {
+			compactor.shutdownNow();
+		}
+		lock.writeLock().lock();
+		try {
+			tweetLog.close();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Rewrites the log with only the current record of each live tweet and
+	 * swaps it in with an atomic rename. The rewritten log starts with the
+	 * highest id handed out, as the tweet that had it may be gone.
+	 */
+	public void compact() {
+		lock.writeLock().lock();
+		try {
+			Path target = tweetLog.getFile().resolveSibling(COMPACTION_FILE);
+			long[] offsets = new long[index.size()];
+			long size;
+			try (TweetLog compacted = new TweetLog(target, Math.max(tweetLog.size() - garbage, 4096), false)) {
+				compacted.append(TweetLog.SEQUENCE, sequence());
+				for (int position = 0; position < offsets.length; position++) {
+					offsets[position] = tweetLog.copyTo(compacted, index.offsetAt(position));
+				}
+				size = compacted.size();
+			}
+			tweetLog.replaceWith(target, size);
+			for (int position = 0; position < offsets.length; position++) {
+				index.setOffsetAt(position, offsets[position]);
+			}
+			garbage = 0;
+			compactions.incrementAndGet();
+		} catch (IOException e) {
+			throw new DataAccessResourceFailureException("Could not compact " + tweetLog.getFile(), e);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public long logSize() {
+		return read(tweetLog::size);
+	}
+
+	@Override
+	public <S extends Tweet> S save(S entity) {
+		return write(() -> put(entity));
+	}
+
+	@Override
+	public <S extends Tweet> S saveAndFlush(S entity) {
+		S saved = save(entity);
+		flush();
+		return saved;
+	}
+
+	/**
+	 * All or nothing: the records are encoded and the room for them made
+	 * before the first is appended, so a failure leaves the log as it was.
+	 */
+	@Override
+	public void insertAll(List<Tweet> tweets) {
+		write(() -> {
+			List<byte[]> records = new ArrayList<>(tweets.size());
+			long bytes = 0;
+			long id = nextId;
+			for (Tweet tweet : tweets) {
+				tweet.setId(++id);
+				tweet.setVersion(0);
+				records.add(encode(tweet));
+				bytes += TweetLog.HEADER_SIZE + records.get(records.size() - 1).length;
+			}
+			try {
+				tweetLog.reserve(bytes);
+			} catch (IOException e) {
+				tweets.forEach(tweet -> tweet.setId(null));
+				throw e;
+			}
+			for (int i = 0; i < records.size(); i++) {
+				indexPut(tweets.get(i), tweetLog.append(TweetLog.PUT, records.get(i)));
+			}
+			return null;
+		});
+	}
+
+	@Override
+	public int patch(long id, TweetPatch patch, Long expectedVersion) {
+		return write(() -> {
+			long offset = index.get(id);
+			if (offset < 0) {
+				return 0;
+			}
+			Tweet tweet = TweetRecordCodec.read(tweetLog.read(offset));
+			if (expectedVersion != null && tweet.getVersion() != expectedVersion) {
+				return 0;
+			}
+			if (patch.isTextSet()) {
+				tweet.setText(patch.getText());
+			}
+			if (patch.isImgUrlSet()) {
+				tweet.setImgUrl(patch.getImgUrl());
+			}
+			put(tweet);
+			return 1;
+		});
+	}
+
+	public void flush() {
+		read(() -> {
+			tweetLog.force();
+			return null;
+		});
+	}
+
+	@Override
+	public Optional<Tweet> findById(Long id) {
+		return read(() -> Optional.ofNullable(load(id)));
+	}
+
+	@Override
+	public long count() {
+		return read(index::size);
+	}
+
+	@Override
+	public List<Tweet> findAll() {
+		return read(() -> scan(0, index.size(), 1, tweet -> true, Integer.MAX_VALUE));
+	}
+
+	@Override
+	public List<Tweet> findAllById(Iterable<Long> ids) {
+		return read(() -> {
+			List<Tweet> tweets = new ArrayList<>();
+			for (Long id : ids) {
+				Tweet tweet = load(id);
+				if (tweet != null) {
+					tweets.add(tweet);
+				}
+			}
+			return tweets;
+		});
+	}
+
+	@Override
+	public List<Tweet> findByUsername(String username) {
+		return read(() -> loadAll(timelines.getOrDefault(username, new TreeSet<>()), Integer.MAX_VALUE, false));
+	}
+
+	@Override
+	public List<Tweet> findTweetsLikeText(String text) {
+		return read(() -> scan(0, index.size(), 1, tweet -> tweet.getText() != null && tweet.getText().contains(text),
+				Integer.MAX_VALUE));
+	}
+
+	@Override
+	public List<Tweet> findLatest(Pageable pageable) {
+		return read(() -> scan(index.size() - 1 - offset(pageable), -1, -1, tweet -> true, limit(pageable)));
+	}
+
+	@Override
+	public List<Tweet> findLatestBefore(long id, Pageable pageable) {
+		return read(() -> scan(index.before(id) - 1 - offset(pageable), -1, -1, tweet -> true, limit(pageable)));
+	}
+
+	@Override
+	public List<Tweet> findTimeline(String username, Pageable pageable) {
+		return read(() -> loadAll(skip(timelines.get(username), pageable), limit(pageable), true));
+	}
+
+	@Override
+	public List<Tweet> findTimelineBefore(String username, LocalDate createdAt, long id, Pageable pageable) {
+		return read(() -> loadAll(skip(olderThan(username, createdAt, id), pageable), limit(pageable), true));
+	}
+
+	@Override
+	public List<TimelineEntry> findTimelineEntriesAfter(long id, Pageable pageable) {
+		return read(() -> {
+			List<TimelineEntry> entries = new ArrayList<>();
+			for (Tweet tweet : scan(index.after(id), index.size(), 1, tweet -> true, limit(pageable))) {
+				entries.add(new Entry(tweet));
+			}
+			return entries;
+		});
+	}
+
+	@Override
+	public List<Long> findExistingSourceIds(Collection<Long> sourceIds) {
+		return read(() -> {
+			List<Long> existing = new ArrayList<>();
+			for (Long sourceId : sourceIds) {
+				if (this.sourceIds.contains(sourceId)) {
+					existing.add(sourceId);
+				}
+			}
+			return existing;
+		});
+	}
+
+	@Override
+	public Optional<TweetVersionEntry> findVersionById(long id) {
+		return read(() -> Optional.ofNullable(load(id)).map(Entry::new));
+	}
+
+	@Override
+	public List<TimelineEntry> findTimelineEntriesByIds(Collection<Long> ids) {
+		List<TimelineEntry> entries = new ArrayList<>();
+		findAllById(ids).forEach(tweet -> entries.add(new Entry(tweet)));
+		return entries;
+	}
+
+	@Override
+	public int bulkDeleteByIds(Collection<Long> ids) {
+		return write(() -> {
+			int deleted = 0;
+			for (Long id : ids) {
+				if (remove(id)) {
+					deleted++;
+				}
+			}
+			return deleted;
+		});
+	}
+
+	@Override
+	public List<TimelineEntry> deleteTimelineEntriesByIds(Collection<Long> ids) {
+		return write(() -> {
+			List<TimelineEntry> entries = new ArrayList<>();
+			for (Long id : ids) {
+				Tweet tweet = load(id);
+				if (tweet != null && remove(id)) {
+					entries.add(new Entry(tweet));
+				}
+			}
+			return entries;
+		});
+	}
+
+	@Override
+	public List<Tweet> findArchivable(LocalDate cutoff, Pageable pageable) {
+		return read(() -> scan(0, index.size(), 1,
+				tweet -> tweet.getCreatedAt() != null && tweet.getCreatedAt().isBefore(cutoff), limit(pageable)));
+	}
+
+	/**
+	 * Streams over a snapshot of the ids taken up front, so the lock is not
+	 * held while the caller consumes; tweets deleted in the meantime are
+	 * skipped.
+	 */
+	@Override
+	public Stream<Tweet> streamForExport(String username, LocalDate from, LocalDate to) {
+		long[] ids = read(() -> {
+			long[] snapshot = new long[index.size()];
+			for (int position = 0; position < snapshot.length; position++) {
+				snapshot[position] = index.idAt(position);
+			}
+			return snapshot;
+		});
+		return LongStream.of(ids)
+			.mapToObj(id -> findById(id).orElse(null))
+			.filter(tweet -> tweet != null
+					&& (username == null || username.equals(tweet.getUsername()))
+					&& (from == null || (tweet.getCreatedAt() != null && !tweet.getCreatedAt().isBefore(from)))
+					&& (to == null || (tweet.getCreatedAt() != null && !tweet.getCreatedAt().isAfter(to))));
+	}
+
+	@Override
+	public List<Map<String, Object>> findLatestRows(Set<TweetField> fields, Long beforeId, int limit) {
+		List<Tweet> tweets = beforeId == null
+			? findLatest(Pageable.ofSize(limit))
+			: findLatestBefore(beforeId, Pageable.ofSize(limit));
+		return rows(tweets, fields);
+	}
+
+	@Override
+	public List<Map<String, Object>> findTimelineRows(String username, LocalDate beforeCreatedAt, Long beforeId,
+			Set<TweetField> fields, int limit) {
+		List<Tweet> tweets = beforeId == null
+			? findTimeline(username, Pageable.ofSize(limit))
+			: findTimelineBefore(username, beforeCreatedAt, beforeId, Pageable.ofSize(limit));
+		return rows(tweets, fields);
+	}
+
+	@Override
+	public List<Map<String, Object>> findRowsByIds(Collection<Long> ids, Set<TweetField> fields) {
+		return rows(findAllById(ids), fields);
+	}
+
+	@Override
+	public void deleteById(Long id) {
+		if (!write(() -> remove(id))) {
+			throw new EmptyResultDataAccessException(
+					String.format("No %s entity with id %s exists!", Tweet.class, id), 1);
+		}
+	}
+
+	@Override
+	public void deleteAll() {
+		write(() -> {
+			tweetLog.reset();
+			tweetLog.append(TweetLog.SEQUENCE, sequence());
+			index.clear();
+			timelines.clear();
+			sourceIds.clear();
+			garbage = 0;
+			return null;
+		});
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("tweets.logstore.size", this, LogStructuredTweetRepository::logSize)
+			.baseUnit("bytes")
+			.register(registry);
+		Gauge.builder("tweets.logstore.garbage", this, repository -> repository.read(() -> repository.garbage))
+			.baseUnit("bytes")
+			.register(registry);
+		FunctionCounter.builder("tweets.logstore.compactions", compactions, AtomicLong::get).register(registry);
+	}
+
+	private void compactIfNeeded() {
+		try {
+			boolean needed = read(() -> garbage > 0 && garbage > compactionThreshold * tweetLog.size());
+			if (needed) {
+				compact();
+			}
+		} catch (RuntimeException e) {
+			log.warn("Log compaction failed", e);
+		}
+	}
+
+	/**
+	 * Appends the tweet as a new record. A tweet without a known id gets the
+	 * next one, the way a merge inserts a detached entity whose row is gone;
+	 * an existing one must carry the stored version.
+	 */
+	private <S extends Tweet> S put(S tweet) throws IOException {
+		long offset = tweet.getId() == null ? -1 : index.get(tweet.getId());
+		if (offset < 0) {
+			tweet.setId(++nextId);
+			tweet.setVersion(0);
+		} else {
+			long stored = tweetLog.read(offset).getLong(TweetRecordCodec.VERSION_OFFSET);
+			if (tweet.getVersion() != stored) {
+				throw new ObjectOptimisticLockingFailureException(Tweet.class, tweet.getId());
+			}
+			tweet.setVersion(stored + 1);
+		}
+		indexPut(tweet, tweetLog.append(TweetLog.PUT, encode(tweet)));
+		return tweet;
+	}
+
+	private static byte[] encode(Tweet tweet) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+		TweetRecordCodec.write(new DataOutputStream(bytes), tweet);
+		return bytes.toByteArray();
+	}
+
+	private boolean remove(long id) throws IOException {
+		if (index.get(id) < 0) {
+			return false;
+		}
+		long offset = tweetLog.append(TweetLog.DELETE, ByteBuffer.allocate(Long.BYTES).putLong(id).array());
+		indexRemove(id);
+		garbage += tweetLog.recordSize(offset);
+		return true;
+	}
+
+	private void indexPut(Tweet tweet, long offset) {
+		long previous = index.put(tweet.getId(), offset);
+		if (previous >= 0) {
+			unlink(TweetRecordCodec.read(tweetLog.read(previous)));
+			garbage += tweetLog.recordSize(previous);
+		}
+		if (tweet.getUsername() != null) {
+			timelines.computeIfAbsent(tweet.getUsername(), key -> new TreeSet<>()).add(new TimelineKey(tweet));
+		}
+		if (tweet.getSourceId() != null) {
+			sourceIds.add(tweet.getSourceId());
+		}
+		nextId = Math.max(nextId, tweet.getId());
+	}
+
+	private byte[] sequence() {
+		return ByteBuffer.allocate(Long.BYTES).putLong(nextId).array();
+	}
+
+	private void indexRemove(long id) {
+		long previous = index.remove(id);
+		if (previous >= 0) {
+			unlink(TweetRecordCodec.read(tweetLog.read(previous)));
+			garbage += tweetLog.recordSize(previous);
+		}
+	}
+
+	private void unlink(Tweet tweet) {
+		NavigableSet<TimelineKey> timeline = tweet.getUsername() == null ? null : timelines.get(tweet.getUsername());
+		if (timeline != null) {
+			timeline.remove(new TimelineKey(tweet));
+			if (timeline.isEmpty()) {
+				timelines.remove(tweet.getUsername());
+			}
+		}
+		if (tweet.getSourceId() != null) {
+			sourceIds.remove(tweet.getSourceId());
+		}
+	}
+
+	private Tweet load(long id) {
+		long offset = index.get(id);
+		return offset < 0 ? null : TweetRecordCodec.read(tweetLog.read(offset));
+	}
+
+	/**
+	 * Walks index positions from {@code from} towards {@code to} (exclusive)
+	 * in steps of {@code step}, collecting up to {@code limit} matches.
+	 */
+	private List<Tweet> scan(int from, int to, int step, Predicate<Tweet> filter, int limit) {
+		List<Tweet> tweets = new ArrayList<>();
+		for (int position = from; position != to && position >= 0 && position < index.size()
+				&& tweets.size() < limit; position += step) {
+			Tweet tweet = TweetRecordCodec.read(tweetLog.read(index.offsetAt(position)));
+			if (filter.test(tweet)) {
+				tweets.add(tweet);
+			}
+		}
+		return tweets;
+	}
+
+	private List<Tweet> loadAll(Iterable<TimelineKey> keys, int limit, boolean datedOnly) {
+		List<Tweet> tweets = new ArrayList<>();
+		if (keys == null) {
+			return tweets;
+		}
+		for (TimelineKey key : keys) {
+			if (tweets.size() == limit || (datedOnly && key.day == NO_DAY)) {
+				break;
+			}
+			tweets.add(load(key.id));
+		}
+		return tweets;
+	}
+
+	private NavigableSet<TimelineKey> olderThan(String username, LocalDate createdAt, long id) {
+		NavigableSet<TimelineKey> timeline = timelines.get(username);
+		return timeline == null ? null : timeline.tailSet(new TimelineKey((int) createdAt.toEpochDay(), id), false);
+	}
+
+	private static Iterable<TimelineKey> skip(NavigableSet<TimelineKey> keys, Pageable pageable) {
+		if (keys == null || offset(pageable) == 0) {
+			return keys;
+		}
+		List<TimelineKey> remaining = new ArrayList<>(keys);
+		return remaining.subList(Math.min(offset(pageable), remaining.size()), remaining.size());
+	}
+
+	private static int offset(Pageable pageable) {
+		return pageable.isPaged() ? (int) pageable.getOffset() : 0;
+	}
+
+	private static int limit(Pageable pageable) {
+		return pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+	}
+
+	private static List<Map<String, Object>> rows(List<Tweet> tweets, Set<TweetField> fields) {
+		List<Map<String, Object>> rows = new ArrayList<>(tweets.size());
+		for (Tweet tweet : tweets) {
+			rows.add(TweetField.row(tweet, fields));
+		}
+		return rows;
+	}
+
+	private <T> T read(StoreAction<T> action) {
+		lock.readLock().lock();
+		try {
+			return action.run();
+		} catch (IOException e) {
+			throw new DataAccessResourceFailureException("Could not read " + tweetLog.getFile(), e);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private <T> T write(StoreAction<T> action) {
+		lock.writeLock().lock();
+		try {
+			return action.run();
+		} catch (IOException e) {
+			throw new DataAccessResourceFailureException("Could not append to " + tweetLog.getFile(), e);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private interface StoreAction<T> {
+		T run() throws IOException;
+	}
+
+	private static final class TimelineKey implements Comparable<TimelineKey> {
+		private final int day;
+		private final long id;
+
+		TimelineKey(Tweet tweet) {
+			this(tweet.getCreatedAt() == null ? NO_DAY : (int) tweet.getCreatedAt().toEpochDay(), tweet.getId());
+		}
+
+		TimelineKey(int day, long id) {
+			this.day = day;
+			this.id = id;
+		}
+
+		@Override
+		public int compareTo(TimelineKey other) {
+			// newest first
+			return day != other.day ? Integer.compare(other.day, day) : Long.compare(other.id, id);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof TimelineKey && compareTo((TimelineKey) other) == 0;
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(id) * 31 + day;
+		}
+	}
+
+	@Getter
+	@RequiredArgsConstructor
+	private static final class Entry implements TimelineEntry, TweetVersionEntry {
+		private final Long id;
+		private final String username;
+		private final LocalDate createdAt;
+		private final long version;
+
+		Entry(Tweet tweet) {
+			this(tweet.getId(), tweet.getUsername(), tweet.getCreatedAt(), tweet.getVersion());
+		}
+	}
+}
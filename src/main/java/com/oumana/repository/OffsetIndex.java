@@ -0,0 +1,106 @@
+package com.oumana.repository;
+
+import java.util.Arrays;
+
+/**
+ * Id to log offset map kept as two parallel primitive arrays sorted by id.
+ * Ids are handed out in increasing order, so a put is almost always an
+ * append and lookups are a binary search with no boxing. Not thread-safe;
+ * {@link LogStructuredTweetRepository} guards it with its lock.
+ */
+final class OffsetIndex {
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private long[] ids = new long[INITIAL_CAPACITY];
+	private long[] offsets = new long[INITIAL_CAPACITY];
+	private int size;
+
+	/**
+	 * Offset of the id, or -1 when it is not present.
+	 */
+	long get(long id) {
+		int position = search(id);
+		return position >= 0 ? offsets[position] : -1;
+	}
+
+	/**
+	 * Maps the id to the offset and returns the previous offset, or -1.
+	 */
+	long put(long id, long offset) {
+		int position = search(id);
+		if (position >= 0) {
+			long previous = offsets[position];
+			offsets[position] = offset;
+			return previous;
+		}
+		position = -position - 1;
+		if (size == ids.length) {
+			ids = Arrays.copyOf(ids, size * 2);
+			offsets = Arrays.copyOf(offsets, size * 2);
+		}
+		System.arraycopy(ids, position, ids, position + 1, size - position);
+		System.arraycopy(offsets, position, offsets, position + 1, size - position);
+		ids[position] = id;
+		offsets[position] = offset;
+		size++;
+		return -1;
+	}
+
+	long remove(long id) {
+		int position = search(id);
+		if (position < 0) {
+			return -1;
+		}
+		long previous = offsets[position];
+		System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+		System.arraycopy(offsets, position + 1, offsets, position, size - position - 1);
+		size--;
+		return previous;
+	}
+
+	void clear() {
+		size = 0;
+	}
+
+	int size() {
+		return size;
+	}
+
+	long maxId() {
+		return size == 0 ? 0 : ids[size - 1];
+	}
+
+	long idAt(int position) {
+		return ids[position];
+	}
+
+	long offsetAt(int position) {
+		return offsets[position];
+	}
+
+	void setOffsetAt(int position, long offset) {
+		offsets[position] = offset;
+	}
+
+	/**
+	 * Position of the first id greater than the given one.
+	 */
+	int after(long id) {
+		int position = search(id);
+		return position >= 0 ? position + 1 : -position - 1;
+	}
+
+	/**
+	 * Position of the first id not smaller than the given one; everything
+	 * before it is smaller.
+	 */
+	int before(long id) {
+		int position = search(id);
+		return position >= 0 ? position : -position - 1;
+	}
+
+	private int search(long id) {
+		return Arrays.binarySearch(ids, 0, size, id);
+	}
+}
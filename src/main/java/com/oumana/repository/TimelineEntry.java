@@ -0,0 +1,9 @@
+package com.oumana.repository;
+
+import java.time.LocalDate;
+
+public interface TimelineEntry {
+	Long getId();
+	String getUsername();
+	LocalDate getCreatedAt();
+}
@@ -0,0 +1,12 @@
+package com.oumana.repository;
+
+import java.util.List;
+
+import com.oumana.dto.TweetPatch;
+import com.oumana.entity.Tweet;
+
+public interface TweetBatchRepository {
+	void insertAll(List<Tweet> tweets);
+
+	int patch(long id, TweetPatch patch, Long expectedVersion);
+}
@@ -0,0 +1,67 @@
+package com.oumana.repository;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import com.oumana.dto.TweetPatch;
+import com.oumana.entity.Tweet;
+
+public class TweetBatchRepositoryImpl implements TweetBatchRepository {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * Persists the tweets in one transaction. The pooled sequence and
+	 * hibernate.jdbc.batch_size let the flush go out as JDBC batches, and
+	 * clearing afterwards keeps the persistence context from growing with the
+	 * number of chunks a caller sends.
+	 */
+	@Override
+	@Transactional
+	public void insertAll(List<Tweet> tweets) {
+		for (Tweet tweet : tweets) {
+			entityManager.persist(tweet);
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	/**
+	 * Applies the fields present in the patch with a single UPDATE that also
+	 * bumps the version, without loading the row. With an expected version the
+	 * statement only matches that version, so zero rows means the tweet is
+	 * missing or was changed since the caller read it. The persistence context
+	 * is cleared afterwards, as with @Modifying(clearAutomatically = true).
+	 */
+	@Override
+	@Transactional
+	public int patch(long id, TweetPatch patch, Long expectedVersion) {
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaUpdate<Tweet> update = builder.createCriteriaUpdate(Tweet.class);
+		Root<Tweet> tweet = update.from(Tweet.class);
+		if (patch.isTextSet()) {
+			update.set(tweet.<String>get("text"), patch.getText());
+		}
+		if (patch.isImgUrlSet()) {
+			update.set(tweet.<String>get("imgUrl"), patch.getImgUrl());
+		}
+		update.set(tweet.<Long>get("version"), builder.sum(tweet.<Long>get("version"), 1L));
+		Predicate matches = builder.equal(tweet.get("id"), id);
+		if (expectedVersion != null) {
+			matches = builder.and(matches, builder.equal(tweet.get("version"), expectedVersion));
+		}
+		update.where(matches);
+		int updated = entityManager.createQuery(update).executeUpdate();
+		entityManager.clear();
+		return updated;
+	}
+}
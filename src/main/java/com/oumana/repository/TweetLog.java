@@ -0,0 +1,207 @@
+package com.oumana.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only record file accessed through a memory mapping that grows by
+ * doubling. A record is its payload length, a CRC32C over type and payload,
+ * a type byte and the payload. Replay stops at the first record that is
+ * incomplete or fails its checksum, which is where a crash interrupted the
+ * last append, and the file is cut back to that point.
+ */
+final class TweetLog implements Closeable {
+
+	static final byte PUT = 1;
+	static final byte DELETE = 2;
+	// the highest id handed out so far, so it survives the records that carried it
+	static final byte SEQUENCE = 3;
+	static final int HEADER_SIZE = 9;
+
+	interface Replay {
+		void record(byte type, long offset, ByteBuffer payload);
+	}
+
+	private final Path file;
+	private final boolean sync;
+	private FileChannel channel;
+	private MappedByteBuffer buffer;
+	private long end;
+
+	TweetLog(Path file, long initialSize, boolean sync) throws IOException {
+		this.file = file;
+		this.sync = sync;
+		Files.createDirectories(file.toAbsolutePath().getParent());
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		map(Math.max(initialSize, channel.size()));
+	}
+
+	/**
+	 * Reads every intact record in order and positions appends after the
+	 * last one.
+	 */
+	void replay(Replay replay) throws IOException {
+		long position = 0;
+		long capacity = buffer.capacity();
+		while (position + HEADER_SIZE <= capacity) {
+			int length = buffer.getInt((int) position);
+			if (length <= 0 || position + HEADER_SIZE + length > capacity) {
+				break;
+			}
+			ByteBuffer record = slice(position + 8, 1 + length);
+			if (checksum(record.duplicate()) != buffer.getInt((int) position + 4)) {
+				break;
+			}
+			replay.record(record.get(), position, record.slice());
+			position += HEADER_SIZE + length;
+		}
+		end = position;
+		if (hasGarbage(position)) {
+			// a torn append: drop it so later appends never sit in front of stale bytes
+			long size = buffer.capacity();
+			buffer = null;
+			channel.truncate(end);
+			map(size);
+		}
+	}
+
+	long append(byte type, byte[] payload) throws IOException {
+		long size = HEADER_SIZE + payload.length;
+		reserve(size);
+		long offset = end;
+		ByteBuffer record = buffer.duplicate();
+		record.position((int) offset + 8);
+		record.put(type).put(payload);
+		buffer.putInt((int) offset + 4, checksum(slice(offset + 8, 1 + payload.length)));
+		// the length goes in last, so a record is never visible before its body
+		buffer.putInt((int) offset, payload.length);
+		end += size;
+		if (sync) {
+			buffer.force();
+		}
+		return offset;
+	}
+
+	/**
+	 * Grows the mapping so that the next {@code bytes} of records can be
+	 * appended without growing it again.
+	 */
+	void reserve(long bytes) throws IOException {
+		if (end + bytes > buffer.capacity()) {
+			long capacity = buffer.capacity();
+			while (end + bytes > capacity) {
+				capacity *= 2;
+			}
+			map(capacity);
+		}
+	}
+
+	/**
+	 * Read-only view of the payload of the record at the offset, backed by
+	 * the mapping.
+	 */
+	ByteBuffer read(long offset) {
+		int length = buffer.getInt((int) offset);
+		return slice(offset + HEADER_SIZE, length).asReadOnlyBuffer();
+	}
+
+	int recordSize(long offset) {
+		return HEADER_SIZE + buffer.getInt((int) offset);
+	}
+
+	/**
+	 * Copies the whole record at the offset into the target log and returns
+	 * its new offset there.
+	 */
+	long copyTo(TweetLog target, long offset) throws IOException {
+		ByteBuffer record = slice(offset + 8, recordSize(offset) - 8);
+		byte type = record.get();
+		byte[] payload = new byte[record.remaining()];
+		record.get(payload);
+		return target.append(type, payload);
+	}
+
+	long size() {
+		return end;
+	}
+
+	void force() {
+		buffer.force();
+	}
+
+	/**
+	 * Replaces this log's file with the compacted one, which must be closed
+	 * and hold {@code size} bytes of records, and reopens the mapping on it.
+	 */
+	void replaceWith(Path compacted, long size) throws IOException {
+		long capacity = buffer.capacity();
+		close();
+		Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		map(Math.max(capacity, channel.size()));
+		end = size;
+	}
+
+	/**
+	 * Empties the log.
+	 */
+	void reset() throws IOException {
+		long capacity = buffer.capacity();
+		buffer = null;
+		channel.truncate(0);
+		map(capacity);
+		end = 0;
+	}
+
+	Path getFile() {
+		return file;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (buffer != null) {
+			buffer.force();
+			buffer = null;
+		}
+		// shrink back to the records, the mapping padded the file with zeros
+		channel.truncate(end);
+		channel.close();
+	}
+
+	private boolean hasGarbage(long position) {
+		long limit = Math.min(buffer.capacity(), position + HEADER_SIZE);
+		for (long i = position; i < limit; i++) {
+			if (buffer.get((int) i) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void map(long capacity) throws IOException {
+		if (capacity > Integer.MAX_VALUE) {
+			throw new IOException(file + " would grow past 2 GB, compact it or use the JPA store");
+		}
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+	}
+
+	private ByteBuffer slice(long offset, int length) {
+		ByteBuffer view = buffer.duplicate();
+		view.position((int) offset).limit((int) offset + length);
+		return view.slice();
+	}
+
+	private static int checksum(ByteBuffer bytes) {
+		CRC32C crc = new CRC32C();
+		crc.update(bytes);
+		return (int) crc.getValue();
+	}
+}
@@ -0,0 +1,23 @@
+package com.oumana.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.oumana.dto.TweetField;
+
+/**
+ * Scalar projections of the list queries. Rows come back as field maps built
+ * from tuples, so nothing is attached to the persistence context. Author
+ * fields are left null for the caller to fill from the author cache.
+ */
+public interface TweetProjectionRepository {
+	List<Map<String, Object>> findLatestRows(Set<TweetField> fields, Long beforeId, int limit);
+
+	List<Map<String, Object>> findTimelineRows(String username, LocalDate beforeCreatedAt, Long beforeId,
+			Set<TweetField> fields, int limit);
+
+	List<Map<String, Object>> findRowsByIds(Collection<Long> ids, Set<TweetField> fields);
+}
@@ -0,0 +1,95 @@
+package com.oumana.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import com.oumana.dto.TweetField;
+import com.oumana.entity.Tweet;
+
+@Transactional(readOnly = true)
+public class TweetProjectionRepositoryImpl implements TweetProjectionRepository {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<Map<String, Object>> findLatestRows(Set<TweetField> fields, Long beforeId, int limit) {
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = builder.createTupleQuery();
+		Root<Tweet> tweet = query.from(Tweet.class);
+		query.multiselect(selections(tweet, fields));
+		if (beforeId != null) {
+			query.where(builder.lt(tweet.get("id"), beforeId));
+		}
+		query.orderBy(builder.desc(tweet.get("id")));
+		return rows(entityManager.createQuery(query).setMaxResults(limit).getResultList(), fields);
+	}
+
+	@Override
+	public List<Map<String, Object>> findTimelineRows(String username, LocalDate beforeCreatedAt, Long beforeId,
+			Set<TweetField> fields, int limit) {
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = builder.createTupleQuery();
+		Root<Tweet> tweet = query.from(Tweet.class);
+		Path<LocalDate> createdAt = tweet.get("createdAt");
+		Path<Long> id = tweet.get("id");
+		query.multiselect(selections(tweet, fields));
+		Predicate matches = builder.and(builder.equal(tweet.get("username"), username), builder.isNotNull(createdAt));
+		if (beforeCreatedAt != null) {
+			matches = builder.and(matches, builder.or(builder.lessThan(createdAt, beforeCreatedAt),
+					builder.and(builder.equal(createdAt, beforeCreatedAt), builder.lt(id, beforeId))));
+		}
+		query.where(matches);
+		query.orderBy(builder.desc(createdAt), builder.desc(id));
+		return rows(entityManager.createQuery(query).setMaxResults(limit).getResultList(), fields);
+	}
+
+	@Override
+	public List<Map<String, Object>> findRowsByIds(Collection<Long> ids, Set<TweetField> fields) {
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = builder.createTupleQuery();
+		Root<Tweet> tweet = query.from(Tweet.class);
+		query.multiselect(selections(tweet, fields));
+		query.where(tweet.get("id").in(ids));
+		return rows(entityManager.createQuery(query).getResultList(), fields);
+	}
+
+	private static List<Selection<?>> selections(Root<Tweet> tweet, Set<TweetField> fields) {
+		List<Selection<?>> selections = new ArrayList<>(fields.size());
+		for (TweetField field : fields) {
+			if (!field.isAuthorField()) {
+				selections.add(tweet.get(field.getAttribute()).alias(field.getAttribute()));
+			}
+		}
+		return selections;
+	}
+
+	private static List<Map<String, Object>> rows(List<Tuple> tuples, Set<TweetField> fields) {
+		List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+		for (Tuple tuple : tuples) {
+			Map<String, Object> row = new LinkedHashMap<>();
+			for (TweetField field : fields) {
+				row.put(field.getAttribute(), field.isAuthorField() ? null : tuple.get(field.getAttribute()));
+			}
+			rows.add(row);
+		}
+		return rows;
+	}
+}
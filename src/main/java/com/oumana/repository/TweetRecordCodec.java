@@ -0,0 +1,94 @@
+package com.oumana.repository;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import com.oumana.entity.Tweet;
+
+/**
+ * Binary form of the stored columns of a tweet, shared by the file-backed
+ * stores: id, version, createdAt epoch day, sourceId, then username, text and
+ * imgUrl as length-prefixed UTF-8. Author fields are not part of a tweet's
+ * storage. The id and version sit at fixed offsets so they can be read
+ * without decoding the rest.
+ */
+public final class TweetRecordCodec {
+
+	public static final int VERSION_OFFSET = 8;
+
+	private static final long NULL = Long.MIN_VALUE;
+	private static final int FIXED_SIZE = 32;
+	private static final int STRINGS = 3;
+
+	private TweetRecordCodec() {
+	}
+
+	public static void write(DataOutput out, Tweet tweet) throws IOException {
+		out.writeLong(tweet.getId());
+		out.writeLong(tweet.getVersion());
+		out.writeLong(tweet.getCreatedAt() == null ? NULL : tweet.getCreatedAt().toEpochDay());
+		out.writeLong(tweet.getSourceId() == null ? NULL : tweet.getSourceId());
+		writeString(out, tweet.getUsername());
+		writeString(out, tweet.getText());
+		writeString(out, tweet.getImgUrl());
+	}
+
+	/**
+	 * Decodes the record at the buffer's position and advances past it.
+	 */
+	public static Tweet read(ByteBuffer record) {
+		long id = record.getLong();
+		long version = record.getLong();
+		long createdAt = record.getLong();
+		long sourceId = record.getLong();
+		return Tweet.builder()
+			.id(id)
+			.version(version)
+			.createdAt(createdAt == NULL ? null : LocalDate.ofEpochDay(createdAt))
+			.sourceId(sourceId == NULL ? null : sourceId)
+			.username(readString(record))
+			.text(readString(record))
+			.imgUrl(readString(record))
+			.build();
+	}
+
+	public static void skip(ByteBuffer record) {
+		record.position(record.position() + FIXED_SIZE);
+		for (int i = 0; i < STRINGS; i++) {
+			int length = record.getInt();
+			if (length > 0) {
+				record.position(record.position() + length);
+			}
+		}
+	}
+
+	private static void writeString(DataOutput out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(ByteBuffer record) {
+		int length = record.getInt();
+		if (length < 0) {
+			return null;
+		}
+		String value;
+		if (record.hasArray()) {
+			value = new String(record.array(), record.arrayOffset() + record.position(), length, StandardCharsets.UTF_8);
+			record.position(record.position() + length);
+		} else {
+			byte[] bytes = new byte[length];
+			record.get(bytes);
+			value = new String(bytes, StandardCharsets.UTF_8);
+		}
+		return value;
+	}
+}
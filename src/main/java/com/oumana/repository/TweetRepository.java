@@ -1,15 +1,119 @@
 package com.oumana.repository;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.oumana.entity.Tweet;
 
-public interface TweetRepository extends JpaRepository<Tweet, Long>{
+// the fragments are listed again as Spring Data only looks for implementations of direct superinterfaces
+public interface TweetRepository extends JpaRepository<Tweet, Long>, TweetStore, TweetBatchRepository,
+		TweetProjectionRepository {
+	// declared in both supertypes, generic in one of them
+	@Override
+	<S extends Tweet> S save(S tweet);
+	
+	@Override
+	<S extends Tweet> S saveAndFlush(S tweet);
+	
+	@Override
+	Optional<Tweet> findById(Long id);
+	
+	@Override
+	List<Tweet> findAll();
+	
+	@Override
+	List<Tweet> findAllById(Iterable<Long> ids);
+	
+	@Override
+	long count();
+	
+	@Override
+	void deleteById(Long id);
+	
+	@Override
+	void deleteAll();
+	
 	List<Tweet> findByUsername(String username);
 	
 	@Query("select t from Tweet t where t.text like CONCAT('%', ?1, '%')")
 	List<Tweet> findTweetsLikeText(String text);
+	
+	@Query("select t from Tweet t order by t.id desc")
+	List<Tweet> findLatest(Pageable pageable);
+	
+	@Query("select t from Tweet t where t.id < ?1 order by t.id desc")
+	List<Tweet> findLatestBefore(long id, Pageable pageable);
+	
+	@Query("select t from Tweet t where t.username = ?1 and t.createdAt is not null"
+			+ " order by t.createdAt desc, t.id desc")
+	List<Tweet> findTimeline(String username, Pageable pageable);
+	
+	@Query("select t from Tweet t where t.username = ?1"
+			+ " and (t.createdAt < ?2 or (t.createdAt = ?2 and t.id < ?3))"
+			+ " order by t.createdAt desc, t.id desc")
+	List<Tweet> findTimelineBefore(String username, LocalDate createdAt, long id, Pageable pageable);
+	
+	@Query("select t.id as id, t.username as username, t.createdAt as createdAt from Tweet t"
+			+ " where t.id > ?1 order by t.id")
+	List<TimelineEntry> findTimelineEntriesAfter(long id, Pageable pageable);
+	
+	@Query("select t.sourceId from Tweet t where t.sourceId in ?1")
+	List<Long> findExistingSourceIds(Collection<Long> sourceIds);
+	
+	@Query("select t.version as version, t.username as username from Tweet t where t.id = ?1")
+	Optional<TweetVersionEntry> findVersionById(long id);
+	
+	@Query("select t.id as id, t.username as username, t.createdAt as createdAt from Tweet t where t.id in ?1")
+	List<TimelineEntry> findTimelineEntriesByIds(Collection<Long> ids);
+	
+	@Transactional
+	@Modifying(clearAutomatically = true)
+	@Query("delete from Tweet t where t.id in ?1")
+	int bulkDeleteByIds(Collection<Long> ids);
+	
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select t.id as id, t.username as username, t.createdAt as createdAt from Tweet t where t.id in ?1")
+	List<TimelineEntry> lockTimelineEntriesByIds(Collection<Long> ids);
+	
+	// a concurrent delete of the same rows waits on the lock and then reads none of them
+	@Override
+	@Transactional
+	default List<TimelineEntry> deleteTimelineEntriesByIds(Collection<Long> ids) {
+		List<TimelineEntry> entries = lockTimelineEntriesByIds(ids);
+		if (!entries.isEmpty()) {
+			List<Long> existing = new ArrayList<>(entries.size());
+			for (TimelineEntry entry : entries) {
+				existing.add(entry.getId());
+			}
+			bulkDeleteByIds(existing);
+		}
+		return entries;
+	}
+	
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select t from Tweet t where t.createdAt < ?1 order by t.id")
+	List<Tweet> findArchivable(LocalDate cutoff, Pageable pageable);
+	
+	@QueryHints({
+		@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+		@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+	})
+	@Query("select t from Tweet t where (?1 is null or t.username = ?1)"
+			+ " and (?2 is null or t.createdAt >= ?2) and (?3 is null or t.createdAt <= ?3) order by t.id")
+	Stream<Tweet> streamForExport(String username, LocalDate from, LocalDate to);
 }
@@ -0,0 +1,67 @@
+package com.oumana.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Pageable;
+
+import com.oumana.entity.Tweet;
+
+/**
+ * The tweet storage the application uses, so an engine can provide exactly
+ * this. {@link TweetRepository} adds the rest of JpaRepository and the
+ * queries behind these methods.
+ */
+public interface TweetStore extends TweetBatchRepository, TweetProjectionRepository {
+	<S extends Tweet> S save(S tweet);
+
+	<S extends Tweet> S saveAndFlush(S tweet);
+
+	Optional<Tweet> findById(Long id);
+
+	List<Tweet> findAll();
+
+	List<Tweet> findAllById(Iterable<Long> ids);
+
+	long count();
+
+	void deleteById(Long id);
+
+	void deleteAll();
+
+	List<Tweet> findByUsername(String username);
+
+	List<Tweet> findTweetsLikeText(String text);
+
+	List<Tweet> findLatest(Pageable pageable);
+
+	List<Tweet> findLatestBefore(long id, Pageable pageable);
+
+	List<Tweet> findTimeline(String username, Pageable pageable);
+
+	List<Tweet> findTimelineBefore(String username, LocalDate createdAt, long id, Pageable pageable);
+
+	List<TimelineEntry> findTimelineEntriesAfter(long id, Pageable pageable);
+
+	List<Long> findExistingSourceIds(Collection<Long> sourceIds);
+
+	Optional<TweetVersionEntry> findVersionById(long id);
+
+	List<TimelineEntry> findTimelineEntriesByIds(Collection<Long> ids);
+
+	int bulkDeleteByIds(Collection<Long> ids);
+
+	/**
+	 * Deletes the tweets and returns the timeline keys of the ones this call
+	 * removed, so when two callers delete the same id only one of them gets
+	 * it back.
+	 */
+	List<TimelineEntry> deleteTimelineEntriesByIds(Collection<Long> ids);
+
+	List<Tweet> findArchivable(LocalDate cutoff, Pageable pageable);
+
+	Stream<Tweet> streamForExport(String username, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,7 @@
+package com.oumana.repository;
+
+public interface TweetVersionEntry {
+	long getVersion();
+
+	String getUsername();
+}
@@ -0,0 +1,156 @@
+package com.oumana.routing;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stands in for replication between two H2 databases when running locally:
+ * creates the primary's schema in an empty replica, then copies every table
+ * over on each sync, replacing what the replica held. Readers of the replica
+ * see the previous copy until a sync commits, so the interval is the
+ * replication lag. A sync copies the whole database and is only meant for
+ * local data sets.
+ */
+@Slf4j
+public class H2ReplicaSync {
+
+	private static final int BATCH_SIZE = 1000;
+
+	private final DataSource primary;
+	private final DataSource replica;
+	private final Duration interval;
+	private ScheduledExecutorService syncer;
+
+	/**
+	 * @param interval zero to sync only when {@link #sync()} is called
+	 */
+	public H2ReplicaSync(DataSource primary, DataSource replica, Duration interval) {
+		this.primary = primary;
+		this.replica = replica;
+		this.interval = interval;
+	}
+
+	@PostConstruct
+	public void start() {
+		if (interval.isZero()) {
+			return;
+		}
+		syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "tweet-replica-sync");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long millis = interval.toMillis();
+		syncer.scheduleWithFixedDelay(this::syncQuietly, millis, millis, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (syncer != null) {
+			syncer.shutdownNow();
+		}
+	}
+
+	public synchronized void sync() {
+		try (Connection source = primary.getConnection(); Connection target = replica.getConnection()) {
+			List<String> tables = tables(source);
+			if (tables(target).isEmpty()) {
+				createSchema(source, target);
+			}
+			boolean autoCommit = target.getAutoCommit();
+			target.setAutoCommit(false);
+			try {
+				for (String table : tables) {
+					copy(source, target, table);
+				}
+				target.commit();
+			} catch (SQLException e) {
+				target.rollback();
+				throw e;
+			} finally {
+				target.setAutoCommit(autoCommit);
+			}
+		} catch (SQLException e) {
+			throw new IllegalStateException("Could not sync the replica", e);
+		}
+	}
+
+	private void syncQuietly() {
+		try {
+			sync();
+		} catch (RuntimeException e) {
+			log.warn("Replica sync failed", e);
+		}
+	}
+
+	private static List<String> tables(Connection connection) throws SQLException {
+		List<String> tables = new ArrayList<>();
+		try (ResultSet rs = connection.getMetaData().getTables(null, "PUBLIC", "%", new String[] { "TABLE" })) {
+			while (rs.next()) {
+				tables.add(rs.getString("TABLE_NAME"));
+			}
+		}
+		return tables;
+	}
+
+	private static void createSchema(Connection source, Connection target) throws SQLException {
+		List<String> ddl = new ArrayList<>();
+		try (Statement statement = source.createStatement(); ResultSet rs = statement.executeQuery("SCRIPT NODATA")) {
+			while (rs.next()) {
+				ddl.add(rs.getString(1));
+			}
+		}
+		try (Statement statement = target.createStatement()) {
+			for (String sql : ddl) {
+				statement.execute(sql);
+			}
+		}
+	}
+
+	private static void copy(Connection source, Connection target, String table) throws SQLException {
+		try (Statement delete = target.createStatement()) {
+			delete.executeUpdate("DELETE FROM \"" + table + "\"");
+		}
+		try (Statement select = source.createStatement(); ResultSet rs = select.executeQuery("SELECT * FROM \"" + table + "\"")) {
+			ResultSetMetaData metaData = rs.getMetaData();
+			int columns = metaData.getColumnCount();
+			StringBuilder insert = new StringBuilder("INSERT INTO \"").append(table).append("\" (");
+			for (int i = 1; i <= columns; i++) {
+				insert.append(i > 1 ? ", \"" : "\"").append(metaData.getColumnName(i)).append('"');
+			}
+			insert.append(") VALUES (?").append(", ?".repeat(columns - 1)).append(')');
+			try (PreparedStatement statement = target.prepareStatement(insert.toString())) {
+				int batched = 0;
+				while (rs.next()) {
+					for (int i = 1; i <= columns; i++) {
+						statement.setObject(i, rs.getObject(i));
+					}
+					statement.addBatch();
+					if (++batched == BATCH_SIZE) {
+						statement.executeBatch();
+						batched = 0;
+					}
+				}
+				if (batched > 0) {
+					statement.executeBatch();
+				}
+			}
+		}
+	}
+}
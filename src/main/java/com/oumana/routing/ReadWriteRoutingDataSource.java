@@ -0,0 +1,93 @@
+package com.oumana.routing;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Sends connections taken inside a read-only transaction to the replica and
+ * everything else to the primary: read-write transactions, and statements
+ * run outside any transaction, such as schema creation. A client that took a
+ * read-write connection reads from the primary for the sticky window after,
+ * so it sees its own writes whatever the replica lag.
+ * <p>
+ * The decision is made when the connection is taken, which inside a
+ * transaction is only right once the transaction's read-only flag is set;
+ * wrap this in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the connection is taken on the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder {
+
+	enum Target {
+		PRIMARY, REPLICA
+	}
+
+	private final Cache<String, Boolean> recentWriters;
+	private final LongAdder writes = new LongAdder();
+	private final LongAdder untransacted = new LongAdder();
+	private final LongAdder sticky = new LongAdder();
+	private final LongAdder reads = new LongAdder();
+
+	/**
+	 * @param stickyWindow zero to send every read-only transaction to the replica
+	 */
+	public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration stickyWindow,
+			long maximumClients) {
+		setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+		setDefaultTargetDataSource(primary);
+		this.recentWriters = stickyWindow.isZero() ? null : Caffeine.newBuilder()
+			.expireAfterWrite(stickyWindow)
+			.maximumSize(maximumClients)
+			.build();
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+			untransacted.increment();
+			return Target.PRIMARY;
+		}
+		String client = ReadYourWrites.currentClient();
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			if (recentWriters != null && client != null) {
+				recentWriters.put(client, Boolean.TRUE);
+			}
+			writes.increment();
+			return Target.PRIMARY;
+		}
+		if (recentWriters != null && client != null && recentWriters.getIfPresent(client) != null) {
+			sticky.increment();
+			return Target.PRIMARY;
+		}
+		reads.increment();
+		return Target.REPLICA;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		counter(registry, writes, Target.PRIMARY, "write");
+		counter(registry, untransacted, Target.PRIMARY, "no-transaction");
+		counter(registry, sticky, Target.PRIMARY, "sticky");
+		counter(registry, reads, Target.REPLICA, "read");
+	}
+
+	private static void counter(MeterRegistry registry, LongAdder decisions, Target target, String reason) {
+		FunctionCounter.builder("tweets.datasource.routing", decisions, LongAdder::sum)
+			.tag("target", target.name().toLowerCase(Locale.ROOT))
+			.tag("reason", reason)
+			.register(registry);
+	}
+}
@@ -0,0 +1,45 @@
+package com.oumana.routing;
+
+/**
+ * The client the current thread works for, so a read it makes shortly after
+ * its own write can be sent to the primary instead of a lagging replica. Set
+ * per request by {@link ReadYourWritesFilter}; work handed to other threads
+ * takes it along through {@link #inheriting(Runnable)}.
+ */
+public final class ReadYourWrites {
+
+	private static final ThreadLocal<String> CLIENT = new ThreadLocal<>();
+
+	private ReadYourWrites() {
+	}
+
+	static void begin(String client) {
+		CLIENT.set(client);
+	}
+
+	static void end() {
+		CLIENT.remove();
+	}
+
+	static String currentClient() {
+		return CLIENT.get();
+	}
+
+	/**
+	 * The task, run as the client of the calling thread.
+	 */
+	public static Runnable inheriting(Runnable task) {
+		String client = CLIENT.get();
+		if (client == null) {
+			return task;
+		}
+		return () -> {
+			CLIENT.set(client);
+			try {
+				task.run();
+			} finally {
+				CLIENT.remove();
+			}
+		};
+	}
+}
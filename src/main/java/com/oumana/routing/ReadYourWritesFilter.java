@@ -0,0 +1,34 @@
+package com.oumana.routing;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Identifies the client by the client header, falling back to the remote
+ * address, as admission control does.
+ */
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+	private final String clientHeader;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String client = request.getHeader(clientHeader);
+		ReadYourWrites.begin(client == null || client.isBlank() ? request.getRemoteAddr() : client);
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			ReadYourWrites.end();
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package com.oumana.search;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SearchHits {
+	private final List<Long> ids;
+	private final int total;
+}
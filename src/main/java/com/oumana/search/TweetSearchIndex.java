@@ -0,0 +1,170 @@
+package com.oumana.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.oumana.archive.TweetArchive;
+import com.oumana.entity.Tweet;
+import com.oumana.event.TweetDeletedEvent;
+import com.oumana.event.TweetPatchedEvent;
+import com.oumana.event.TweetSavedEvent;
+import com.oumana.repository.TweetStore;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-memory inverted index over {@link Tweet#getText()}. Each term maps to a
+ * posting list of tweet ids with the term frequency in that tweet, and a
+ * forward map keeps each tweet's terms so updates and deletes can unlink it.
+ */
+@Component
+@RequiredArgsConstructor
+public class TweetSearchIndex {
+
+	private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{N}_]+");
+	private static final int WARM_UP_CHUNK = 1000;
+
+	private final TweetStore tweetRepository;
+	private final TweetArchive tweetArchive;
+
+	private final Map<String, Map<Long, Integer>> postings = new ConcurrentHashMap<>();
+	private final Map<Long, Map<String, Integer>> documents = new ConcurrentHashMap<>();
+
+	public static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		if (text == null) {
+			return tokens;
+		}
+		Matcher matcher = TOKEN.matcher(text.toLowerCase(Locale.ROOT));
+		while (matcher.find()) {
+			tokens.add(matcher.group());
+		}
+		return tokens;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		// archived first, so a tweet still in the table as well is indexed from there
+		tweetArchive.forEach(this::index);
+		List<Tweet> chunk = tweetRepository.findLatest(PageRequest.of(0, WARM_UP_CHUNK));
+		while (!chunk.isEmpty()) {
+			chunk.forEach(this::index);
+			long lastId = chunk.get(chunk.size() - 1).getId();
+			chunk = tweetRepository.findLatestBefore(lastId, PageRequest.of(0, WARM_UP_CHUNK));
+		}
+	}
+
+	@EventListener
+	public void onTweetSaved(TweetSavedEvent event) {
+		index(event.getTweet());
+	}
+
+	@EventListener
+	public void onTweetPatched(TweetPatchedEvent event) {
+		if (event.getPatch().isTextSet()) {
+			index(Tweet.builder().id(event.getId()).text(event.getPatch().getText()).build());
+		}
+	}
+
+	@EventListener
+	public void onTweetDeleted(TweetDeletedEvent event) {
+		remove(event.getId());
+	}
+
+	public synchronized void index(Tweet tweet) {
+		long id = tweet.getId();
+		unlink(id);
+		Map<String, Integer> terms = new HashMap<>();
+		for (String token : tokenize(tweet.getText())) {
+			terms.merge(token, 1, Integer::sum);
+		}
+		if (terms.isEmpty()) {
+			return;
+		}
+		terms.forEach((term, frequency) ->
+			postings.computeIfAbsent(term, key -> new ConcurrentHashMap<>()).put(id, frequency));
+		documents.put(id, terms);
+	}
+
+	public synchronized void remove(long id) {
+		unlink(id);
+	}
+
+	public int size() {
+		return documents.size();
+	}
+
+	/**
+	 * Ranks matching tweets by tf-idf, newest first on ties, and returns one
+	 * page of ids together with the total number of matches.
+	 */
+	public SearchHits search(String query, boolean matchAll, int offset, int limit) {
+		Set<String> terms = new LinkedHashSet<>(tokenize(query));
+		if (terms.isEmpty()) {
+			return new SearchHits(Collections.emptyList(), 0);
+		}
+		List<Map<Long, Integer>> lists = new ArrayList<>();
+		for (String term : terms) {
+			Map<Long, Integer> list = postings.get(term);
+			if (list == null) {
+				if (matchAll) {
+					return new SearchHits(Collections.emptyList(), 0);
+				}
+				continue;
+			}
+			lists.add(list);
+		}
+		// walking the rarest list first keeps AND queries proportional to the smallest match set
+		lists.sort(Comparator.comparingInt(Map::size));
+
+		double documentCount = Math.max(1, documents.size());
+		Map<Long, Double> scores = new HashMap<>();
+		for (int i = 0; i < lists.size(); i++) {
+			Map<Long, Integer> list = lists.get(i);
+			double idf = Math.log(1 + documentCount / Math.max(1, list.size()));
+			if (matchAll && i > 0) {
+				scores.keySet().retainAll(list.keySet());
+				scores.replaceAll((id, score) -> score + list.getOrDefault(id, 0) * idf);
+			} else {
+				list.forEach((id, frequency) -> scores.merge(id, frequency * idf, Double::sum));
+			}
+		}
+
+		List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+		ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+			.thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed()));
+		List<Long> ids = new ArrayList<>();
+		for (int i = offset; i < ranked.size() && ids.size() < limit; i++) {
+			ids.add(ranked.get(i).getKey());
+		}
+		return new SearchHits(ids, ranked.size());
+	}
+
+	private void unlink(long id) {
+		Map<String, Integer> terms = documents.remove(id);
+		if (terms == null) {
+			return;
+		}
+		for (String term : terms.keySet()) {
+			postings.computeIfPresent(term, (key, list) -> {
+				list.remove(id);
+				return list.isEmpty() ? null : list;
+			});
+		}
+	}
+}
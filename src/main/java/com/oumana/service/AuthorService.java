@@ -0,0 +1,153 @@
+package com.oumana.service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import com.oumana.cache.AuthorCache;
+import com.oumana.dto.TweetField;
+import com.oumana.entity.Author;
+import com.oumana.entity.Tweet;
+import com.oumana.repository.AuthorRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keeps author profiles in one row per user. Incoming tweets carry the
+ * profile as the client last saw it and update the author only when it
+ * changed; outgoing tweets get name and profile picture back from the cache.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuthorService {
+
+	private final AuthorRepository authorRepository;
+	private final AuthorCache authorCache;
+
+	/**
+	 * Creates or updates the authors of the given tweets. The last tweet per
+	 * user wins, and a null name or profile picture keeps the stored value.
+	 */
+	public void register(Collection<Tweet> tweets) {
+		Map<String, Tweet> latest = new LinkedHashMap<>();
+		for (Tweet tweet : tweets) {
+			if (tweet != null && tweet.getUsername() != null
+					&& (tweet.getName() != null || tweet.getProfileImgUrl() != null)) {
+				latest.put(tweet.getUsername(), tweet);
+			}
+		}
+		for (Tweet tweet : latest.values()) {
+			Author cached = authorCache.get(tweet.getUsername());
+			if (cached == null || changes(cached, tweet)) {
+				upsert(tweet);
+			}
+		}
+	}
+
+	public Tweet enrich(Tweet tweet) {
+		if (tweet != null && tweet.getUsername() != null) {
+			apply(tweet, authorCache.get(tweet.getUsername()));
+		}
+		return tweet;
+	}
+
+	public long authorVersion(String username) {
+		Author author = username == null ? null : authorCache.get(username);
+		return author == null ? 0 : author.getVersion();
+	}
+
+	public List<Tweet> enrich(List<Tweet> tweets) {
+		Set<String> usernames = new HashSet<>();
+		for (Tweet tweet : tweets) {
+			if (tweet.getUsername() != null) {
+				usernames.add(tweet.getUsername());
+			}
+		}
+		if (usernames.isEmpty()) {
+			return tweets;
+		}
+		Map<String, Author> authors = authorCache.getAll(usernames);
+		for (Tweet tweet : tweets) {
+			apply(tweet, authors.get(tweet.getUsername()));
+		}
+		return tweets;
+	}
+
+	/**
+	 * Fills the selected author fields of projected rows, which must include
+	 * the username, and drops the username again if it was not selected.
+	 */
+	public List<Map<String, Object>> enrichRows(List<Map<String, Object>> rows, Set<TweetField> selected) {
+		boolean authorFields = selected.contains(TweetField.NAME) || selected.contains(TweetField.PROFILE_IMG_URL);
+		if (!authorFields || rows.isEmpty()) {
+			return rows;
+		}
+		String usernameKey = TweetField.USERNAME.getAttribute();
+		Set<String> usernames = new HashSet<>();
+		for (Map<String, Object> row : rows) {
+			if (row.get(usernameKey) != null) {
+				usernames.add((String) row.get(usernameKey));
+			}
+		}
+		Map<String, Author> authors = authorCache.getAll(usernames);
+		for (Map<String, Object> row : rows) {
+			Author author = authors.get(row.get(usernameKey));
+			if (selected.contains(TweetField.NAME)) {
+				row.put(TweetField.NAME.getAttribute(), author == null ? null : author.getName());
+			}
+			if (selected.contains(TweetField.PROFILE_IMG_URL)) {
+				row.put(TweetField.PROFILE_IMG_URL.getAttribute(), author == null ? null : author.getProfileImgUrl());
+			}
+			if (!selected.contains(TweetField.USERNAME)) {
+				row.remove(usernameKey);
+			}
+		}
+		return rows;
+	}
+
+	private void upsert(Tweet tweet) {
+		Author saved;
+		try {
+			saved = save(tweet);
+		} catch (DataIntegrityViolationException | ObjectOptimisticLockingFailureException e) {
+			// another writer created or changed the same author in between, apply ours on top of theirs
+			saved = save(tweet);
+		}
+		authorCache.put(saved);
+	}
+
+	private Author save(Tweet tweet) {
+		Author author = authorRepository.findForUpdate(tweet.getUsername())
+			.orElseGet(() -> Author.builder().username(tweet.getUsername()).build());
+		if (tweet.getName() != null) {
+			author.setName(tweet.getName());
+		}
+		if (tweet.getProfileImgUrl() != null) {
+			author.setProfileImgUrl(tweet.getProfileImgUrl());
+		}
+		// flushed so the cached copy carries the incremented version
+		return authorRepository.saveAndFlush(author);
+	}
+
+	private static boolean changes(Author author, Tweet tweet) {
+		return (tweet.getName() != null && !Objects.equals(tweet.getName(), author.getName()))
+				|| (tweet.getProfileImgUrl() != null && !Objects.equals(tweet.getProfileImgUrl(), author.getProfileImgUrl()));
+	}
+
+	private static void apply(Tweet tweet, Author author) {
+		if (author == null) {
+			return;
+		}
+		tweet.setName(author.getName());
+		tweet.setProfileImgUrl(author.getProfileImgUrl());
+		tweet.setAuthorVersion(author.getVersion());
+	}
+}
@@ -0,0 +1,76 @@
+package com.oumana.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import com.oumana.exception.BadRequestException;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Opaque page token. Clients only ever echo it back, so the encoding can change
+ * without breaking them.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+final class TweetCursor {
+
+	private static final String ID_PREFIX = "t1:";
+	private static final String TIMELINE_PREFIX = "t2:";
+
+	private final LocalDate createdAt;
+	private final long id;
+
+	static String encode(long id) {
+		return encodeValue(ID_PREFIX + id);
+	}
+
+	static String encode(LocalDate createdAt, long id) {
+		return encodeValue(TIMELINE_PREFIX + createdAt.toEpochDay() + ":" + id);
+	}
+
+	static long decode(String cursor) {
+		String value = decodeValue(cursor);
+		if (!value.startsWith(ID_PREFIX)) {
+			throw new BadRequestException("Invalid cursor");
+		}
+		return parseLong(value.substring(ID_PREFIX.length()));
+	}
+
+	static TweetCursor decodeTimeline(String cursor) {
+		String value = decodeValue(cursor);
+		String[] parts = value.substring(Math.min(value.length(), TIMELINE_PREFIX.length())).split(":");
+		if (!value.startsWith(TIMELINE_PREFIX) || parts.length != 2) {
+			throw new BadRequestException("Invalid cursor");
+		}
+		try {
+			return new TweetCursor(LocalDate.ofEpochDay(parseLong(parts[0])), parseLong(parts[1]));
+		} catch (DateTimeException e) {
+			throw new BadRequestException("Invalid cursor", e);
+		}
+	}
+
+	private static String encodeValue(String value) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String decodeValue(String cursor) {
+		try {
+			return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException e) {
+			throw new BadRequestException("Invalid cursor", e);
+		}
+	}
+
+	private static long parseLong(String value) {
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			throw new BadRequestException("Invalid cursor", e);
+		}
+	}
+}
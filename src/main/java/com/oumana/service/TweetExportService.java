@@ -0,0 +1,121 @@
+package com.oumana.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.oumana.archive.TweetArchive;
+import com.oumana.entity.Tweet;
+import com.oumana.exception.BadRequestException;
+import com.oumana.repository.TimelineEntry;
+import com.oumana.repository.TweetStore;
+
+import io.micrometer.core.annotation.Timed;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Writes tweets as newline-delimited JSON while reading them from a database
+ * cursor. Each tweet is serialized straight onto the output and the
+ * persistence context is cleared every {@value #CLEAR_INTERVAL} rows, so
+ * memory stays flat however large the table is. Archived tweets that match
+ * the same filters follow the table's, newest first, read from the archive
+ * {@value #CLEAR_INTERVAL} at a time.
+ */
+@Service
+@RequiredArgsConstructor
+public class TweetExportService {
+
+	static final int CLEAR_INTERVAL = 1000;
+
+	private final TweetStore tweetRepository;
+	private final TweetArchive tweetArchive;
+	private final AuthorService authorService;
+	private final EntityManager entityManager;
+	private final ObjectMapper objectMapper;
+
+	@Timed("tweets.service")
+	@Transactional(readOnly = true)
+	public long exportTweets(String username, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+		if (from != null && to != null && from.isAfter(to)) {
+			throw new BadRequestException("Export range must not end before it starts");
+		}
+		ObjectWriter writer = objectMapper.writerFor(Tweet.class)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+				.withRootValueSeparator("");
+		long count = 0;
+		try (Stream<Tweet> tweets = tweetRepository.streamForExport(username, from, to);
+				JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			Iterator<Tweet> iterator = tweets.iterator();
+			while (iterator.hasNext()) {
+				writer.writeValue(generator, authorService.enrich(iterator.next()));
+				generator.writeRaw('\n');
+				if (++count % CLEAR_INTERVAL == 0) {
+					generator.flush();
+					entityManager.clear();
+				}
+			}
+			count += exportArchived(username, from, to, writer, generator);
+		}
+		return count;
+	}
+
+	private long exportArchived(String username, LocalDate from, LocalDate to, ObjectWriter writer,
+			JsonGenerator generator) throws IOException {
+		long count = 0;
+		Long beforeId = null;
+		List<Tweet> page;
+		do {
+			page = tweetArchive.findLatest(beforeId, null, CLEAR_INTERVAL);
+			if (page.isEmpty()) {
+				break;
+			}
+			// rows a failed archive pass left in the table were exported from there
+			List<Long> ids = new ArrayList<>(page.size());
+			for (Tweet tweet : page) {
+				ids.add(tweet.getId());
+			}
+			Set<Long> live = new HashSet<>();
+			for (TimelineEntry entry : tweetRepository.findTimelineEntriesByIds(ids)) {
+				live.add(entry.getId());
+			}
+			for (Tweet tweet : page) {
+				if (!live.contains(tweet.getId()) && matches(tweet, username, from, to)) {
+					writer.writeValue(generator, authorService.enrich(tweet));
+					generator.writeRaw('\n');
+					count++;
+				}
+			}
+			generator.flush();
+			beforeId = page.get(page.size() - 1).getId();
+		} while (page.size() == CLEAR_INTERVAL);
+		return count;
+	}
+
+	// the archive's counterpart of streamForExport's where clause
+	private static boolean matches(Tweet tweet, String username, LocalDate from, LocalDate to) {
+		if (username != null && !username.equals(tweet.getUsername())) {
+			return false;
+		}
+		if (from != null && (tweet.getCreatedAt() == null || tweet.getCreatedAt().isBefore(from))) {
+			return false;
+		}
+		return to == null || (tweet.getCreatedAt() != null && !tweet.getCreatedAt().isAfter(to));
+	}
+}
@@ -1,12 +1,49 @@
 package com.oumana.service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.oumana.archive.TweetArchive;
+import com.oumana.cache.RecentTimelineCache;
+import com.oumana.cache.TweetCache;
+import com.oumana.dto.TweetBatchItem;
+import com.oumana.dto.TweetBatchResult;
+import com.oumana.dto.TweetField;
+import com.oumana.dto.TweetPage;
+import com.oumana.dto.TweetPatch;
+import com.oumana.dto.TweetSearchResult;
+import com.oumana.dto.TweetVersion;
 import com.oumana.entity.Tweet;
+import com.oumana.event.TweetDeletedEvent;
+import com.oumana.event.TweetPatchedEvent;
+import com.oumana.event.TweetSavedEvent;
+import com.oumana.exception.BadRequestException;
+import com.oumana.exception.ConflictException;
+import com.oumana.exception.PreconditionFailedException;
 import com.oumana.exception.ResourceNotFoundException;
-import com.oumana.repository.TweetRepository;
+import com.oumana.repository.TimelineEntry;
+import com.oumana.repository.TweetStore;
+import com.oumana.search.SearchHits;
+import com.oumana.search.TweetSearchIndex;
+
+import io.micrometer.core.annotation.Timed;
 
 import lombok.RequiredArgsConstructor;
 
@@ -14,26 +51,563 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class TweetService {
 
-	private final TweetRepository tweetRepository;
+	public static final int DEFAULT_PAGE_SIZE = 20;
+	public static final int MAX_PAGE_SIZE = 100;
+	public static final int MAX_BATCH_SIZE = 5000;
+	public static final int BATCH_CHUNK_SIZE = 500;
+
+	private static final Comparator<Tweet> LATEST_FIRST = Comparator.comparing(Tweet::getId).reversed();
+	private static final Comparator<Tweet> TIMELINE_ORDER = Comparator.comparing(Tweet::getCreatedAt)
+		.thenComparing(Tweet::getId)
+		.reversed();
 
+	private final TweetStore tweetRepository;
+	private final TweetSearchIndex tweetSearchIndex;
+	private final TweetCache tweetCache;
+	private final RecentTimelineCache recentTimelineCache;
+	private final ApplicationEventPublisher eventPublisher;
+	private final AuthorService authorService;
+	private final TweetArchive tweetArchive;
+
+	@Timed("tweets.service")
 	public Tweet saveTweet(Tweet tweet) {
-		return tweetRepository.save(tweet);
+		boolean created = tweet.getId() == null;
+		if (tweet.getCreatedAt() == null) {
+			tweet.setCreatedAt(LocalDate.now());
+		}
+		authorService.register(List.of(tweet));
+		Tweet savedTweet = authorService.enrich(tweetRepository.save(tweet));
+		tweetCache.put(savedTweet);
+		eventPublisher.publishEvent(new TweetSavedEvent(savedTweet, created));
+		return savedTweet;
+	}
+
+	@Timed("tweets.service")
+	public TweetBatchResult saveTweets(List<Tweet> tweets) {
+		if (tweets == null || tweets.isEmpty() || tweets.size() > MAX_BATCH_SIZE) {
+			throw new BadRequestException("A batch must contain between 1 and " + MAX_BATCH_SIZE + " tweets");
+		}
+		authorService.register(tweets);
+		TweetBatchItem[] items = new TweetBatchItem[tweets.size()];
+		List<Integer> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+		for (int i = 0; i < tweets.size(); i++) {
+			Tweet tweet = tweets.get(i);
+			if (tweet == null) {
+				items[i] = TweetBatchItem.failed(i, "Tweet must not be null");
+			} else if (tweet.getId() != null) {
+				items[i] = TweetBatchItem.failed(i, "Tweet id must not be set");
+			} else {
+				if (tweet.getCreatedAt() == null) {
+					tweet.setCreatedAt(LocalDate.now());
+				}
+				chunk.add(i);
+				if (chunk.size() == BATCH_CHUNK_SIZE) {
+					insertChunk(tweets, chunk, items);
+					chunk.clear();
+				}
+			}
+		}
+		if (!chunk.isEmpty()) {
+			insertChunk(tweets, chunk, items);
+		}
+		
+		int created = 0;
+		for (TweetBatchItem item : items) {
+			if (TweetBatchItem.CREATED.equals(item.getStatus())) {
+				created++;
+			}
+		}
+		return new TweetBatchResult(created, items.length - created, List.of(items));
 	}
 
+	@Timed("tweets.service")
+	@Transactional(readOnly = true)
 	public List<Tweet> getAllTweets() {
-		return tweetRepository.findAll();
+		return authorService.enrich(tweetRepository.findAll());
+	}
+
+	@Timed("tweets.service")
+	@Transactional(readOnly = true)
+	public TweetPage<Tweet> getTweetPage(String cursor, Integer limit) {
+		int pageSize = pageSize(limit);
+		// one extra row tells us whether another page exists without a count query
+		PageRequest window = PageRequest.of(0, pageSize + 1);
+		Long beforeId = cursor == null ? null : TweetCursor.decode(cursor);
+		List<Tweet> tweets = beforeId == null
+			? tweetRepository.findLatest(window)
+			: tweetRepository.findLatestBefore(beforeId, window);
+		Long afterId = tweets.size() > pageSize ? tweets.get(pageSize).getId() : null;
+		tweets = merge(tweets, tweetArchive.findLatest(beforeId, afterId, pageSize + 1), Tweet::getId, LATEST_FIRST,
+				pageSize + 1);
+		if (tweets.size() <= pageSize) {
+			return new TweetPage<>(authorService.enrich(tweets), null);
+		}
+		List<Tweet> page = authorService.enrich(tweets.subList(0, pageSize));
+		return new TweetPage<>(page, TweetCursor.encode(page.get(pageSize - 1).getId()));
+	}
+
+	@Timed("tweets.service")
+	@Transactional(readOnly = true)
+	public TweetPage<Tweet> getUserTimeline(String username, String before, Integer limit) {
+		int pageSize = pageSize(limit);
+		PageRequest window = PageRequest.of(0, pageSize + 1);
+		TweetCursor cursor = before == null ? null : TweetCursor.decodeTimeline(before);
+		List<Tweet> tweets = null;
+		long[] recentIds = recentPage(username, cursor, pageSize + 1);
+		while (recentIds != null) {
+			tweets = findAllInOrder(boxed(recentIds));
+			List<Long> missing = missing(recentIds, tweets, Tweet::getId);
+			if (missing.isEmpty()) {
+				break;
+			}
+			// a short window would end the timeline early: drop the ghosts and read it again
+			recentTimelineCache.evict(username, missing);
+			recentIds = recentPage(username, cursor, pageSize + 1);
+		}
+		if (recentIds == null) {
+			tweets = cursor == null
+				? tweetRepository.findTimeline(username, window)
+				: tweetRepository.findTimelineBefore(username, cursor.getCreatedAt(), cursor.getId(), window);
+			Tweet floor = tweets.size() > pageSize ? tweets.get(pageSize) : null;
+			List<Tweet> archived = tweetArchive.findTimeline(username,
+					cursor == null ? null : cursor.getCreatedAt(), cursor == null ? null : cursor.getId(),
+					floor == null ? null : floor.getCreatedAt(), floor == null ? null : floor.getId(), pageSize + 1);
+			tweets = merge(tweets, archived, Tweet::getId, TIMELINE_ORDER, pageSize + 1);
+		}
+		if (tweets.size() <= pageSize) {
+			return new TweetPage<>(authorService.enrich(tweets), null);
+		}
+		List<Tweet> page = authorService.enrich(tweets.subList(0, pageSize));
+		Tweet last = page.get(pageSize - 1);
+		return new TweetPage<>(page, TweetCursor.encode(last.getCreatedAt(), last.getId()));
+	}
+
+	/**
+	 * Newest-first page with only the selected fields, read as a scalar
+	 * projection so no entities are hydrated or tracked.
+	 */
+	@Timed("tweets.service")
+	@Transactional(readOnly = true)
+	public TweetPage<Map<String, Object>> getTweetPage(String cursor, Integer limit, String fields) {
+		Set<TweetField> selected = TweetField.parse(fields);
+		int pageSize = pageSize(limit);
+		Long beforeId = cursor == null ? null : TweetCursor.decode(cursor);
+		Set<TweetField> queried = queried(selected);
+		List<Map<String, Object>> rows = tweetRepository.findLatestRows(queried, beforeId, pageSize + 1);
+		Long afterId = rows.size() > pageSize ? rowId(rows.get(pageSize)) : null;
+		rows = merge(rows, rows(tweetArchive.findLatest(beforeId, afterId, pageSize + 1), queried),
+				TweetService::rowId, Comparator.comparing(TweetService::rowId).reversed(), pageSize + 1);
+		if (rows.size() <= pageSize) {
+			return new TweetPage<>(authorService.enrichRows(rows, selected), null);
+		}
+		List<Map<String, Object>> page = authorService.enrichRows(rows.subList(0, pageSize), selected);
+		return new TweetPage<>(page, TweetCursor.encode((Long) page.get(pageSize - 1).get(TweetField.ID.getAttribute())));
+	}
+
+	@Timed("tweets.service")
+	@Transactional(readOnly = true)
+	public TweetPage<Map<String, Object>> getUserTimeline(String username, String before, Integer limit,
+			String fields) {
+		Set<TweetField> selected = TweetField.parse(fields);
+		// the cursor needs createdAt even when the caller did not ask for it
+		Set<TweetField> queried = queried(selected);
+		queried.add(TweetField.CREATED_AT);
+		int pageSize = pageSize(limit);
+		TweetCursor cursor = before == null ? null : TweetCursor.decodeTimeline(before);
+		List<Map<String, Object>> rows = null;
+		long[] recentIds = recentPage(username, cursor, pageSize + 1);
+		while (recentIds != null) {
+			rows = findRowsInOrder(boxed(recentIds), queried);
+			List<Long> missing = missing(recentIds, rows, TweetService::rowId);
+			if (missing.isEmpty()) {
+				break;
+			}
+			recentTimelineCache.evict(username, missing);
+			recentIds = recentPage(username, cursor, pageSize + 1);
+		}
+		if (recentIds == null) {
+			rows = tweetRepository.findTimelineRows(username, cursor == null ? null : cursor.getCreatedAt(),
+					cursor == null ? null : cursor.getId(), queried, pageSize + 1);
+			Map<String, Object> floor = rows.size() > pageSize ? rows.get(pageSize) : null;
+			List<Tweet> archived = tweetArchive.findTimeline(username,
+					cursor == null ? null : cursor.getCreatedAt(), cursor == null ? null : cursor.getId(),
+					floor == null ? null : rowCreatedAt(floor), floor == null ? null : rowId(floor), pageSize + 1);
+			rows = merge(rows, rows(archived, queried), TweetService::rowId, Comparator
+				.comparing(TweetService::rowCreatedAt).thenComparing(TweetService::rowId).reversed(), pageSize + 1);
+		}
+		String nextCursor = null;
+		if (rows.size() > pageSize) {
+			rows = rows.subList(0, pageSize);
+			Map<String, Object> last = rows.get(pageSize - 1);
+			nextCursor = TweetCursor.encode((LocalDate) last.get(TweetField.CREATED_AT.getAttribute()),
+					(Long) last.get(TweetField.ID.getAttribute()));
+		}
+		if (!selected.contains(TweetField.CREATED_AT)) {
+			rows.forEach(row -> row.remove(TweetField.CREATED_AT.getAttribute()));
+		}
+		authorService.enrichRows(rows, selected);
+		return new TweetPage<>(rows, nextCursor);
+	}
+
+	@Timed("tweets.service")
+	@Transactional(readOnly = true)
+	public TweetSearchResult<Tweet> searchTweets(String query, String operator, Integer page, Integer size) {
+		int pageNumber = page == null || page < 0 ? 0 : page;
+		int pageSize = pageSize(size);
+		SearchHits hits = search(query, operator, pageNumber, pageSize);
+		List<Tweet> tweets = authorService.enrich(findAllInOrder(hits.getIds()));
+		return new TweetSearchResult<>(tweets, hits.getTotal(), nextPage(hits, pageNumber, pageSize));
 	}
 
+	/**
+	 * Search returning only the selected fields of each hit, read from the
+	 * cache or a scalar projection instead of full entities.
+	 */
+	@Timed("tweets.service")
+	@Transactional(readOnly = true)
+	public TweetSearchResult<Map<String, Object>> searchTweets(String query, String operator, Integer page,
+			Integer size, String fields) {
+		Set<TweetField> selected = TweetField.parse(fields);
+		int pageNumber = page == null || page < 0 ? 0 : page;
+		int pageSize = pageSize(size);
+		SearchHits hits = search(query, operator, pageNumber, pageSize);
+		List<Map<String, Object>> rows = authorService.enrichRows(findRowsInOrder(hits.getIds(), queried(selected)),
+				selected);
+		return new TweetSearchResult<>(rows, hits.getTotal(), nextPage(hits, pageNumber, pageSize));
+	}
+
+	@Timed("tweets.service")
+	@Transactional(readOnly = true)
 	public Tweet getTweetById(long id) {
-		return tweetRepository.findById(id)
+		return tweetCache.get(id, this::findLiveOrArchived)
+			.map(authorService::enrich)
 			.orElseThrow(() -> new ResourceNotFoundException("No tweets with provided id"));
 	}
 	
+	/**
+	 * Current version of a tweet and its author for conditional requests,
+	 * answered from the caches or a two-column query instead of loading the
+	 * entity.
+	 */
+	@Timed("tweets.service")
+	@Transactional(readOnly = true)
+	public Optional<TweetVersion> getTweetVersion(long id) {
+		Tweet cached = tweetCache.getIfPresent(id);
+		if (cached != null) {
+			return Optional.of(new TweetVersion(cached.getVersion(), authorService.enrich(cached).getAuthorVersion()));
+		}
+		Optional<TweetVersion> live = tweetRepository.findVersionById(id)
+			.map(entry -> new TweetVersion(entry.getVersion(), authorService.authorVersion(entry.getUsername())));
+		if (live.isPresent()) {
+			return live;
+		}
+		return tweetArchive.findById(id)
+			.map(tweet -> new TweetVersion(tweet.getVersion(), authorService.authorVersion(tweet.getUsername())));
+	}
+	
+	@Timed("tweets.service")
 	public Tweet updateTweet(Tweet tweet) {
-		return tweetRepository.save(tweet);
+		// an archived tweet is read-only, and merging it would insert it again under a new id
+		List<TimelineEntry> previous = tweetRepository.findTimelineEntriesByIds(List.of(tweet.getId()));
+		if (previous.isEmpty()) {
+			throw notFoundOrArchived(tweet.getId());
+		}
+		Tweet savedTweet;
+		try {
+			savedTweet = authorService.enrich(tweetRepository.save(tweet));
+		} catch (ObjectOptimisticLockingFailureException e) {
+			tweetCache.invalidate(tweet.getId());
+			throw new PreconditionFailedException("Tweet " + tweet.getId() + " was modified concurrently", e);
+		}
+		tweetCache.put(savedTweet);
+		eventPublisher.publishEvent(new TweetSavedEvent(savedTweet, false, previous.get(0)));
+		return savedTweet;
 	}
 	
+	/**
+	 * Applies a partial update as one UPDATE statement. When it matches no row
+	 * a version lookup tells a missing tweet from a stale expected version.
+	 */
+	@Timed("tweets.service")
+	public void patchTweet(long id, TweetPatch patch, Long expectedVersion) {
+		if (patch == null || patch.isEmpty()) {
+			throw new BadRequestException("A patch must set text or imgUrl");
+		}
+		if (tweetRepository.patch(id, patch, expectedVersion) == 0) {
+			if (tweetRepository.findVersionById(id).isEmpty()) {
+				throw notFoundOrArchived(id);
+			}
+			throw new PreconditionFailedException("Tweet " + id + " does not have version " + expectedVersion);
+		}
+		tweetCache.invalidate(id);
+		eventPublisher.publishEvent(new TweetPatchedEvent(id, patch));
+	}
+	
+	@Timed("tweets.service")
+	@Transactional
 	public void deleteTweet(long id) {
-		tweetRepository.deleteById(id);
+		if (deleteTweets(List.of(id)) == 0) {
+			throw new ResourceNotFoundException("No tweets with provided id");
+		}
+	}
+	
+	/**
+	 * Deletes the tweets with one bulk statement. Their timeline keys are read
+	 * first, under a write lock, so the delete events can still update the
+	 * per-user caches and statistics; a concurrent delete of the same ids
+	 * waits and publishes nothing for them. Ids that do not exist are ignored;
+	 * if one of them is archived nothing is deleted and a
+	 * {@link ConflictException} is thrown, as archived tweets are read-only.
+	 */
+	@Timed("tweets.service")
+	@Transactional
+	public int deleteTweets(List<Long> ids) {
+		if (ids == null || ids.isEmpty() || ids.size() > MAX_BATCH_SIZE) {
+			throw new BadRequestException("A delete must name between 1 and " + MAX_BATCH_SIZE + " tweets");
+		}
+		List<TimelineEntry> entries = tweetRepository.deleteTimelineEntriesByIds(ids);
+		if (entries.size() < ids.size()) {
+			Set<Long> missing = new HashSet<>(ids);
+			for (TimelineEntry entry : entries) {
+				missing.remove(entry.getId());
+			}
+			// thrown before any event goes out, so the rows deleted above come back
+			if (!tweetArchive.findAllById(missing).isEmpty()) {
+				throw new ConflictException("Archived tweets are read-only");
+			}
+		}
+		for (TimelineEntry entry : entries) {
+			tweetCache.invalidate(entry.getId());
+			eventPublisher.publishEvent(new TweetDeletedEvent(entry.getId(), entry.getUsername(), entry.getCreatedAt()));
+		}
+		return entries.size();
+	}
+
+	/**
+	 * For a write that did not find its tweet in the table: a conflict when
+	 * the tweet is archived, which GET still returns, otherwise not found.
+	 */
+	private RuntimeException notFoundOrArchived(long id) {
+		if (tweetArchive.findById(id).isPresent()) {
+			return new ConflictException("Tweet " + id + " is archived and read-only");
+		}
+		return new ResourceNotFoundException("No tweets with provided id");
+	}
+
+	/**
+	 * Columns to read for a field selection: author fields come from the
+	 * author cache, keyed by username.
+	 */
+	private static Set<TweetField> queried(Set<TweetField> selected) {
+		Set<TweetField> queried = EnumSet.copyOf(selected);
+		if (selected.contains(TweetField.NAME) || selected.contains(TweetField.PROFILE_IMG_URL)) {
+			queried.add(TweetField.USERNAME);
+		}
+		return queried;
+	}
+
+	private SearchHits search(String query, String operator, int pageNumber, int pageSize) {
+		if (query == null || TweetSearchIndex.tokenize(query).isEmpty()) {
+			throw new BadRequestException("Search query must contain at least one term");
+		}
+		boolean matchAll;
+		if (operator == null || operator.equalsIgnoreCase("and")) {
+			matchAll = true;
+		} else if (operator.equalsIgnoreCase("or")) {
+			matchAll = false;
+		} else {
+			throw new BadRequestException("Search operator must be 'and' or 'or'");
+		}
+		return tweetSearchIndex.search(query, matchAll, pageNumber * pageSize, pageSize);
+	}
+
+	private static Integer nextPage(SearchHits hits, int pageNumber, int pageSize) {
+		return (long) (pageNumber + 1) * pageSize < hits.getTotal() ? pageNumber + 1 : null;
+	}
+
+	private long[] recentPage(String username, TweetCursor cursor, int limit) {
+		return cursor == null
+			? recentTimelineCache.page(username, null, null, limit)
+			: recentTimelineCache.page(username, cursor.getCreatedAt(), cursor.getId(), limit);
+	}
+
+	private static List<Long> boxed(long[] ids) {
+		List<Long> boxed = new ArrayList<>(ids.length);
+		for (long id : ids) {
+			boxed.add(id);
+		}
+		return boxed;
+	}
+
+	/**
+	 * Ids of a recent-timeline window that were found neither in the table
+	 * nor in the archive: deleted without the ring hearing of it, e.g. while
+	 * it was warming up.
+	 */
+	private static <T> List<Long> missing(long[] ids, List<T> found, Function<T, Long> idOf) {
+		if (found.size() == ids.length) {
+			return List.of();
+		}
+		Set<Long> present = new HashSet<>();
+		for (T item : found) {
+			present.add(idOf.apply(item));
+		}
+		List<Long> missing = new ArrayList<>();
+		for (long id : ids) {
+			if (!present.contains(id)) {
+				missing.add(id);
+			}
+		}
+		return missing;
+	}
+
+	/**
+	 * Field-map variant of {@link #findAllInOrder}: cached tweets are cut down
+	 * to the selected fields, the rest come from one projection query.
+	 */
+	private List<Map<String, Object>> findRowsInOrder(List<Long> ids, Set<TweetField> fields) {
+		Map<Long, Map<String, Object>> rowsById = new HashMap<>();
+		List<Long> missing = new ArrayList<>();
+		for (Long id : ids) {
+			Tweet cached = tweetCache.getIfPresent(id);
+			if (cached != null) {
+				rowsById.put(id, TweetField.row(cached, fields));
+			} else {
+				missing.add(id);
+			}
+		}
+		if (!missing.isEmpty()) {
+			for (Map<String, Object> row : tweetRepository.findRowsByIds(missing, fields)) {
+				rowsById.put(rowId(row), row);
+			}
+			missing.removeAll(rowsById.keySet());
+		}
+		if (!missing.isEmpty()) {
+			for (Tweet tweet : tweetArchive.findAllById(missing)) {
+				rowsById.put(tweet.getId(), TweetField.row(tweet, fields));
+			}
+		}
+		List<Map<String, Object>> rows = new ArrayList<>(ids.size());
+		for (Long id : ids) {
+			Map<String, Object> row = rowsById.get(id);
+			if (row != null) {
+				rows.add(row);
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 * Loads tweets by id keeping the given order. Cached tweets are served from
+	 * the cache and only the rest go to the table, then to the archive; ids
+	 * that no longer exist are skipped.
+	 */
+	private List<Tweet> findAllInOrder(List<Long> ids) {
+		Map<Long, Tweet> tweetsById = new HashMap<>();
+		List<Long> missing = new ArrayList<>();
+		for (Long id : ids) {
+			Tweet cached = tweetCache.getIfPresent(id);
+			if (cached != null) {
+				tweetsById.put(id, cached);
+			} else {
+				missing.add(id);
+			}
+		}
+		if (!missing.isEmpty()) {
+			tweetRepository.findAllById(missing).forEach(tweet -> tweetsById.put(tweet.getId(), tweet));
+			missing.removeAll(tweetsById.keySet());
+		}
+		if (!missing.isEmpty()) {
+			tweetArchive.findAllById(missing).forEach(tweet -> tweetsById.put(tweet.getId(), tweet));
+		}
+		List<Tweet> tweets = new ArrayList<>(ids.size());
+		for (Long id : ids) {
+			Tweet tweet = tweetsById.get(id);
+			if (tweet != null) {
+				tweets.add(tweet);
+			}
+		}
+		return tweets;
+	}
+
+	private Optional<Tweet> findLiveOrArchived(long id) {
+		Optional<Tweet> tweet = tweetRepository.findById(id);
+		return tweet.isPresent() ? tweet : tweetArchive.findById(id);
+	}
+
+	/**
+	 * Merges archived tweets into a window read from the table: the table
+	 * copy wins when a tweet is in both, and only the first {@code limit}
+	 * survive. The archive was asked for keys above the table's last row
+	 * only, so a full table window usually comes back unchanged.
+	 */
+	private static <T> List<T> merge(List<T> live, List<T> archived, Function<T, Long> idOf, Comparator<T> order,
+			int limit) {
+		if (archived.isEmpty()) {
+			return live;
+		}
+		Map<Long, T> byId = new LinkedHashMap<>();
+		live.forEach(item -> byId.put(idOf.apply(item), item));
+		archived.forEach(item -> byId.putIfAbsent(idOf.apply(item), item));
+		List<T> merged = new ArrayList<>(byId.values());
+		merged.sort(order);
+		return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+	}
+
+	private static List<Map<String, Object>> rows(List<Tweet> tweets, Set<TweetField> fields) {
+		List<Map<String, Object>> rows = new ArrayList<>(tweets.size());
+		for (Tweet tweet : tweets) {
+			rows.add(TweetField.row(tweet, fields));
+		}
+		return rows;
+	}
+
+	private static Long rowId(Map<String, Object> row) {
+		return (Long) row.get(TweetField.ID.getAttribute());
+	}
+
+	private static LocalDate rowCreatedAt(Map<String, Object> row) {
+		return (LocalDate) row.get(TweetField.CREATED_AT.getAttribute());
+	}
+
+	private void insertChunk(List<Tweet> tweets, List<Integer> chunk, TweetBatchItem[] items) {
+		List<Tweet> batch = new ArrayList<>(chunk.size());
+		for (int index : chunk) {
+			batch.add(tweets.get(index));
+		}
+		authorService.enrich(batch);
+		try {
+			tweetRepository.insertAll(batch);
+		} catch (RuntimeException e) {
+			// the whole chunk rolled back, so retry item by item to isolate the bad rows
+			for (int index : chunk) {
+				Tweet tweet = tweets.get(index);
+				tweet.setId(null);
+				try {
+					tweetRepository.insertAll(List.of(tweet));
+					inserted(index, tweet, items);
+				} catch (RuntimeException itemException) {
+					items[index] = TweetBatchItem.failed(index,
+						NestedExceptionUtils.getMostSpecificCause(itemException).getMessage());
+				}
+			}
+			return;
+		}
+		for (int index : chunk) {
+			inserted(index, tweets.get(index), items);
+		}
+	}
+
+	private void inserted(int index, Tweet tweet, TweetBatchItem[] items) {
+		items[index] = TweetBatchItem.created(index, tweet.getId());
+		tweetCache.put(tweet);
+		eventPublisher.publishEvent(new TweetSavedEvent(tweet, true));
+	}
+
+	static int pageSize(Integer limit) {
+		if (limit == null || limit < 1) {
+			return DEFAULT_PAGE_SIZE;
+		}
+		return Math.min(limit, MAX_PAGE_SIZE);
 	}
 }
@@ -0,0 +1,318 @@
+package com.oumana.stats;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.oumana.archive.TweetArchive;
+import com.oumana.entity.Tweet;
+import com.oumana.event.TweetDeletedEvent;
+import com.oumana.event.TweetSavedEvent;
+import com.oumana.repository.TimelineEntry;
+import com.oumana.repository.TweetStore;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tweet counts in total, per username and per createdAt day, live and
+ * archived alike. Each count is a {@link LongAdder}, so concurrent writers
+ * add to separate cells instead of contending on one value and readers sum
+ * the cells without locking. Counts are maintained from tweet events and
+ * written to a checkpoint file periodically and at shutdown. At startup the
+ * checkpoint is loaded and only tweets above its highest id are scanned; if
+ * the totals then disagree with the table, because tweets were deleted after
+ * the checkpoint was written, or the table no longer holds the highest tweet
+ * the checkpoint counted, everything is recounted.
+ */
+@Slf4j
+@Component
+public class TweetStatistics {
+
+	private static final int MAGIC = 0x54535431;
+	private static final int SCAN_CHUNK = 5000;
+
+	private final TweetStore tweetRepository;
+	private final TweetArchive tweetArchive;
+	private final Path checkpointFile;
+	private final Duration checkpointInterval;
+	private final LongAdder total = new LongAdder();
+	private final LongAdder undated = new LongAdder();
+	private final Map<String, LongAdder> users = new ConcurrentHashMap<>();
+	private final Map<Integer, LongAdder> days = new ConcurrentHashMap<>();
+	private final AtomicLong highestId = new AtomicLong();
+	private final AtomicBoolean dirty = new AtomicBoolean();
+	private ScheduledExecutorService checkpointer;
+
+	public TweetStatistics(TweetStore tweetRepository, TweetArchive tweetArchive,
+			@Value("${tweets.stats.checkpoint-file:data/stats.checkpoint}") Path checkpointFile,
+			@Value("${tweets.stats.checkpoint-interval:5m}") Duration checkpointInterval) {
+		this.tweetRepository = tweetRepository;
+		this.tweetArchive = tweetArchive;
+		this.checkpointFile = checkpointFile;
+		this.checkpointInterval = checkpointInterval;
+	}
+
+	/**
+	 * Runs before the web server and the ingestion pipeline start, so no
+	 * tweet events race the scan.
+	 */
+	@PostConstruct
+	public void start() {
+		if (!restore()) {
+			recount();
+		}
+		checkpointer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "tweet-stats-checkpoint");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long interval = checkpointInterval.toMillis();
+		checkpointer.scheduleWithFixedDelay(this::checkpointIfDirty, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (checkpointer != null) {
+			checkpointer.shutdownNow();
+		}
+		checkpointIfDirty();
+	}
+
+	@EventListener
+	public void onTweetSaved(TweetSavedEvent event) {
+		Tweet tweet = event.getTweet();
+		if (event.isCreated()) {
+			add(tweet.getUsername(), tweet.getCreatedAt(), 1);
+			highestId.accumulateAndGet(tweet.getId(), Math::max);
+			return;
+		}
+		TimelineEntry previous = event.getPrevious();
+		if (previous != null && (!Objects.equals(previous.getUsername(), tweet.getUsername())
+				|| !Objects.equals(previous.getCreatedAt(), tweet.getCreatedAt()))) {
+			add(previous.getUsername(), previous.getCreatedAt(), -1);
+			add(tweet.getUsername(), tweet.getCreatedAt(), 1);
+		}
+	}
+
+	@EventListener
+	public void onTweetDeleted(TweetDeletedEvent event) {
+		add(event.getUsername(), event.getCreatedAt(), -1);
+	}
+
+	public long total() {
+		return total.sum();
+	}
+
+	public long countByUsername(String username) {
+		LongAdder count = users.get(username);
+		return count == null ? 0 : count.sum();
+	}
+
+	public long undated() {
+		return undated.sum();
+	}
+
+	public long countByDay(LocalDate day) {
+		LongAdder count = days.get((int) day.toEpochDay());
+		return count == null ? 0 : count.sum();
+	}
+
+	public Map<String, Long> countsByUsername() {
+		Map<String, Long> counts = new HashMap<>();
+		users.forEach((username, count) -> {
+			long sum = count.sum();
+			if (sum > 0) {
+				counts.put(username, sum);
+			}
+		});
+		return counts;
+	}
+
+	public SortedMap<LocalDate, Long> countsByDay() {
+		SortedMap<LocalDate, Long> counts = new TreeMap<>();
+		days.forEach((day, count) -> {
+			long sum = count.sum();
+			if (sum > 0) {
+				counts.put(LocalDate.ofEpochDay(day), sum);
+			}
+		});
+		return counts;
+	}
+
+	/**
+	 * Writes the counts next to the checkpoint file and renames it into place,
+	 * so a crash mid-write leaves the previous checkpoint intact.
+	 */
+	public synchronized void checkpoint() throws IOException {
+		// read before the counts: a tweet counted above this id is scanned again at restore and the total check catches it
+		long highest = highestId.get();
+		dirty.set(false);
+		Path directory = checkpointFile.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		Path temporary = Files.createTempFile(directory, checkpointFile.getFileName().toString(), ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+			out.writeInt(MAGIC);
+			out.writeLong(highest);
+			out.writeLong(total.sum());
+			out.writeLong(undated.sum());
+			Map<String, Long> byUsername = countsByUsername();
+			out.writeInt(byUsername.size());
+			for (Map.Entry<String, Long> count : byUsername.entrySet()) {
+				out.writeUTF(count.getKey());
+				out.writeLong(count.getValue());
+			}
+			SortedMap<LocalDate, Long> byDay = countsByDay();
+			out.writeInt(byDay.size());
+			for (Map.Entry<LocalDate, Long> count : byDay.entrySet()) {
+				out.writeInt((int) count.getKey().toEpochDay());
+				out.writeLong(count.getValue());
+			}
+		}
+		Files.move(temporary, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private void checkpointIfDirty() {
+		if (!dirty.get()) {
+			return;
+		}
+		try {
+			checkpoint();
+		} catch (IOException | RuntimeException e) {
+			dirty.set(true);
+			log.warn("Could not checkpoint tweet statistics to {}", checkpointFile, e);
+		}
+	}
+
+	private boolean restore() {
+		if (!Files.exists(checkpointFile)) {
+			return false;
+		}
+		long checkpointHighest;
+		long checkpointTotal;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpointFile)))) {
+			if (in.readInt() != MAGIC) {
+				log.warn("Ignoring {}, it is not a statistics checkpoint", checkpointFile);
+				return false;
+			}
+			checkpointHighest = in.readLong();
+			highestId.set(checkpointHighest);
+			checkpointTotal = in.readLong();
+			total.add(checkpointTotal);
+			undated.add(in.readLong());
+			for (int i = in.readInt(); i > 0; i--) {
+				counter(users, in.readUTF()).add(in.readLong());
+			}
+			for (int i = in.readInt(); i > 0; i--) {
+				counter(days, in.readInt()).add(in.readLong());
+			}
+		} catch (IOException e) {
+			log.warn("Ignoring unreadable statistics checkpoint {}", checkpointFile, e);
+			clear();
+			return false;
+		}
+		long scanned = scan(highestId.get());
+		long expected = tweetRepository.count() + tweetArchive.size();
+		if (total.sum() != expected) {
+			log.info("Statistics checkpoint is stale ({} tweets counted, {} stored), recounting", total.sum(), expected);
+			clear();
+			return false;
+		}
+		// a total can match by chance, e.g. a fresh in-memory database seeded with as many rows as the checkpoint
+		// counted; the newest tweet it counted ties it to this table
+		if (checkpointHighest > 0 && tweetRepository.findById(checkpointHighest).isEmpty()) {
+			log.info("Statistics checkpoint does not match the table (tweet {} is missing), recounting", checkpointHighest);
+			clear();
+			return false;
+		}
+		log.info("Restored tweet statistics from {} ({} tweets, {} newer than the checkpoint)", checkpointFile,
+				checkpointTotal, scanned);
+		return true;
+	}
+
+	private void recount() {
+		long scanned = scan(Long.MIN_VALUE);
+		tweetArchive.forEachEntry(entry -> add(entry.getUsername(), entry.getCreatedAt(), 1));
+		log.info("Counted {} tweets and {} archived tweets", scanned, tweetArchive.size());
+	}
+
+	/**
+	 * Counts live tweets above the id by keyset chunks of (id, username,
+	 * createdAt) and returns how many there were.
+	 */
+	private long scan(long afterId) {
+		long scanned = 0;
+		long lastId = afterId;
+		List<TimelineEntry> chunk = tweetRepository.findTimelineEntriesAfter(lastId, PageRequest.of(0, SCAN_CHUNK));
+		while (!chunk.isEmpty()) {
+			for (TimelineEntry entry : chunk) {
+				add(entry.getUsername(), entry.getCreatedAt(), 1);
+			}
+			scanned += chunk.size();
+			lastId = chunk.get(chunk.size() - 1).getId();
+			chunk = tweetRepository.findTimelineEntriesAfter(lastId, PageRequest.of(0, SCAN_CHUNK));
+		}
+		highestId.accumulateAndGet(lastId, Math::max);
+		if (scanned > 0) {
+			dirty.set(true);
+		}
+		return scanned;
+	}
+
+	private void add(String username, LocalDate createdAt, long delta) {
+		total.add(delta);
+		if (username != null) {
+			counter(users, username).add(delta);
+		}
+		if (createdAt == null) {
+			undated.add(delta);
+		} else {
+			counter(days, (int) createdAt.toEpochDay()).add(delta);
+		}
+		// only the first write after a checkpoint touches the shared flag
+		if (!dirty.get()) {
+			dirty.set(true);
+		}
+	}
+
+	private static <K> LongAdder counter(Map<K, LongAdder> counters, K key) {
+		// plain get first: computeIfAbsent may lock the bin even when the key is there
+		LongAdder counter = counters.get(key);
+		return counter != null ? counter : counters.computeIfAbsent(key, k -> new LongAdder());
+	}
+
+	private void clear() {
+		total.reset();
+		undated.reset();
+		users.clear();
+		days.clear();
+		highestId.set(0);
+	}
+}
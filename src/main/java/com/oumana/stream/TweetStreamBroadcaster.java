@@ -0,0 +1,180 @@
+package com.oumana.stream;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.oumana.event.TweetSavedEvent;
+import com.oumana.exception.SubscriptionRejectedException;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Fans newly created tweets out to SSE subscribers. Publishing only enqueues,
+ * so a save never waits on a client; slow clients either lose their oldest
+ * queued tweets or get disconnected, depending on tweets.stream.overflow.
+ * Clients whose send blocks for longer than tweets.stream.send-timeout are
+ * disconnected, so stalled peers cannot hold on to the sender threads.
+ */
+@Component
+public class TweetStreamBroadcaster implements MeterBinder {
+
+	public static final String DROP_OLDEST = "drop-oldest";
+	public static final String DISCONNECT = "disconnect";
+
+	private static final AtomicInteger SENDER_THREADS = new AtomicInteger();
+
+	private final Set<TweetSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger subscriberCount = new AtomicInteger();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong disconnected = new AtomicLong();
+	private final Executor executor;
+	private final int queueCapacity;
+	private final int maxSubscribers;
+	private final boolean dropOldest;
+	private final long timeoutMillis;
+	private final long sendTimeoutNanos;
+	private ScheduledExecutorService watchdog;
+
+	@Autowired
+	public TweetStreamBroadcaster(@Value("${tweets.stream.sender-threads:4}") int senderThreads,
+			@Value("${tweets.stream.queue-capacity:256}") int queueCapacity,
+			@Value("${tweets.stream.max-subscribers:5000}") int maxSubscribers,
+			@Value("${tweets.stream.overflow:" + DROP_OLDEST + "}") String overflow,
+			@Value("${tweets.stream.timeout:30m}") Duration timeout,
+			@Value("${tweets.stream.send-timeout:10s}") Duration sendTimeout) {
+		this(Executors.newFixedThreadPool(senderThreads, runnable -> {
+			Thread thread = new Thread(runnable, "tweet-stream-sender-" + SENDER_THREADS.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}), queueCapacity, maxSubscribers, overflow, timeout, sendTimeout);
+	}
+
+	TweetStreamBroadcaster(Executor executor, int queueCapacity, int maxSubscribers, String overflow,
+			Duration timeout, Duration sendTimeout) {
+		if (!DROP_OLDEST.equals(overflow) && !DISCONNECT.equals(overflow)) {
+			throw new IllegalArgumentException("tweets.stream.overflow must be " + DROP_OLDEST + " or " + DISCONNECT);
+		}
+		this.executor = executor;
+		this.queueCapacity = queueCapacity;
+		this.maxSubscribers = maxSubscribers;
+		this.dropOldest = DROP_OLDEST.equals(overflow);
+		this.timeoutMillis = timeout.toMillis();
+		this.sendTimeoutNanos = sendTimeout.toNanos();
+	}
+
+	@PostConstruct
+	public void start() {
+		watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "tweet-stream-watchdog");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long interval = Math.max(1, sendTimeoutNanos / 2);
+		watchdog.scheduleWithFixedDelay(this::expireStalledSends, interval, interval, TimeUnit.NANOSECONDS);
+	}
+
+	public SseEmitter subscribe(String username, String keyword) {
+		return register(new SseEmitter(timeoutMillis), username, keyword);
+	}
+
+	SseEmitter register(SseEmitter emitter, String username, String keyword) {
+		if (subscriberCount.incrementAndGet() > maxSubscribers) {
+			subscriberCount.decrementAndGet();
+			throw new SubscriptionRejectedException("Too many stream subscribers");
+		}
+		TweetSubscriber subscriber = new TweetSubscriber(emitter, username, keyword, queueCapacity);
+		subscribers.add(subscriber);
+		emitter.onCompletion(() -> unregister(subscriber));
+		emitter.onTimeout(() -> unregister(subscriber));
+		emitter.onError(error -> unregister(subscriber));
+		return emitter;
+	}
+
+	@EventListener
+	public void onTweetSaved(TweetSavedEvent event) {
+		if (!event.isCreated()) {
+			return;
+		}
+		for (TweetSubscriber subscriber : subscribers) {
+			if (subscriber.isClosed()) {
+				unregister(subscriber);
+				continue;
+			}
+			if (!subscriber.matches(event.getTweet())) {
+				continue;
+			}
+			if (!subscriber.offer(event.getTweet(), dropOldest)) {
+				dropped.incrementAndGet();
+				if (!dropOldest) {
+					disconnected.incrementAndGet();
+					subscriber.close();
+					unregister(subscriber);
+					continue;
+				}
+			}
+			subscriber.scheduleDrain(executor);
+		}
+	}
+
+	/**
+	 * Disconnects every subscriber whose current send has been blocked for
+	 * longer than the send timeout.
+	 */
+	void expireStalledSends() {
+		long now = System.nanoTime();
+		for (TweetSubscriber subscriber : subscribers) {
+			if (subscriber.expireIfStalled(now, sendTimeoutNanos)) {
+				disconnected.incrementAndGet();
+				unregister(subscriber);
+			}
+		}
+	}
+
+	public int subscribers() {
+		return subscriberCount.get();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("tweets.stream.subscribers", subscriberCount, AtomicInteger::get).register(registry);
+		FunctionCounter.builder("tweets.stream.dropped", dropped, AtomicLong::get).register(registry);
+		FunctionCounter.builder("tweets.stream.disconnected", disconnected, AtomicLong::get).register(registry);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (watchdog != null) {
+			watchdog.shutdownNow();
+		}
+		subscribers.forEach(TweetSubscriber::close);
+		if (executor instanceof ExecutorService) {
+			((ExecutorService) executor).shutdown();
+		}
+	}
+
+	private void unregister(TweetSubscriber subscriber) {
+		if (subscribers.remove(subscriber)) {
+			subscriberCount.decrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package com.oumana.stream;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.oumana.entity.Tweet;
+
+/**
+ * One SSE client. Tweets are queued without blocking the publisher and
+ * drained by at most one task at a time on the shared sender executor, so no
+ * thread is parked per connection and a slow client only backs up its own
+ * queue. A drain sends at most {@link #DRAIN_BATCH} tweets before handing
+ * the thread back, and a send that blocks past the send timeout is
+ * interrupted by {@link #expireIfStalled} and the client disconnected.
+ */
+class TweetSubscriber {
+
+	static final int DRAIN_BATCH = 16;
+
+	private final SseEmitter emitter;
+	private final String username;
+	private final String keyword;
+	private final ArrayBlockingQueue<Tweet> queue;
+	private final AtomicBoolean draining = new AtomicBoolean();
+	private final AtomicBoolean closed = new AtomicBoolean();
+	// guarded by this: the thread inside emitter.send and when it got there
+	private Thread sender;
+	private long sendStartedNanos;
+	private boolean stalled;
+
+	TweetSubscriber(SseEmitter emitter, String username, String keyword, int queueCapacity) {
+		this.emitter = emitter;
+		this.username = username;
+		this.keyword = keyword == null ? null : keyword.toLowerCase(Locale.ROOT);
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+	}
+
+	SseEmitter getEmitter() {
+		return emitter;
+	}
+
+	boolean isClosed() {
+		return closed.get();
+	}
+
+	boolean matches(Tweet tweet) {
+		if (username != null && !username.equalsIgnoreCase(tweet.getUsername())) {
+			return false;
+		}
+		return keyword == null
+				|| (tweet.getText() != null && tweet.getText().toLowerCase(Locale.ROOT).contains(keyword));
+	}
+
+	/**
+	 * Queues the tweet, returning false when the queue was full. With
+	 * {@code dropOldest} the oldest queued tweet makes room, otherwise the new
+	 * one is rejected and the caller decides what to do with the subscriber.
+	 */
+	boolean offer(Tweet tweet, boolean dropOldest) {
+		if (queue.offer(tweet)) {
+			return true;
+		}
+		if (dropOldest) {
+			queue.poll();
+			queue.offer(tweet);
+		}
+		return false;
+	}
+
+	void scheduleDrain(Executor executor) {
+		if (!closed.get() && draining.compareAndSet(false, true)) {
+			executor.execute(() -> drain(executor));
+		}
+	}
+
+	void close() {
+		if (closed.compareAndSet(false, true)) {
+			queue.clear();
+			emitter.complete();
+		}
+	}
+
+	/**
+	 * Closes the subscriber and interrupts its sender when a send has been
+	 * blocked for longer than the timeout. The emitter is completed by the
+	 * sender once the send gives up, since the emitter is locked until then.
+	 */
+	synchronized boolean expireIfStalled(long now, long sendTimeoutNanos) {
+		if (sender == null || now - sendStartedNanos < sendTimeoutNanos || !closed.compareAndSet(false, true)) {
+			return false;
+		}
+		stalled = true;
+		queue.clear();
+		sender.interrupt();
+		return true;
+	}
+
+	private void drain(Executor executor) {
+		Tweet tweet;
+		for (int sent = 0; sent < DRAIN_BATCH && !closed.get() && (tweet = queue.poll()) != null; sent++) {
+			send(tweet);
+		}
+		draining.set(false);
+		// also picks up a tweet offered after the poll loop ended but before the flag was cleared
+		if (!queue.isEmpty()) {
+			scheduleDrain(executor);
+		}
+	}
+
+	private void send(Tweet tweet) {
+		synchronized (this) {
+			sender = Thread.currentThread();
+			sendStartedNanos = System.nanoTime();
+		}
+		Exception failure = null;
+		try {
+			emitter.send(SseEmitter.event()
+				.id(String.valueOf(tweet.getId()))
+				.name("tweet")
+				.data(tweet, MediaType.APPLICATION_JSON));
+		} catch (IOException | IllegalStateException e) {
+			failure = e;
+		}
+		boolean expired;
+		synchronized (this) {
+			sender = null;
+			expired = stalled;
+		}
+		if (expired) {
+			// the interrupt may have landed after the send had already returned
+			Thread.interrupted();
+			if (failure == null) {
+				failure = new IOException("Send timed out");
+			}
+		}
+		if (failure != null) {
+			closed.set(true);
+			queue.clear();
+			emitter.completeWithError(failure);
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.oumana.trends;
+
+import java.util.Arrays;
+
+/**
+ * Count-min sketch over 64-bit term hashes: depth rows of width counters,
+ * each row indexed by the high bits of its own remix of the hash, so two
+ * terms share every counter only if their whole hashes collide. An estimate
+ * never undercounts and overcounts by at most about e/width of the total
+ * with probability 1 - e^-depth. Counters are only ever incremented, not
+ * conservatively updated, so the sketch of an expired bucket can be
+ * subtracted from a window total. Not thread-safe.
+ */
+final class CountMinSketch {
+
+	private static final long ROW_SEED = 0x9e3779b97f4a7c15L;
+
+	private final int width;
+	private final int depth;
+	private final int shift;
+	private final int[] counts;
+
+	CountMinSketch(int width, int depth) {
+		this.width = Integer.highestOneBit(Math.max(16, width * 2 - 1));
+		this.depth = depth;
+		this.shift = Long.numberOfLeadingZeros(this.width) + 1;
+		this.counts = new int[this.width * depth];
+	}
+
+	/**
+	 * Counts the hash once and returns its new estimate.
+	 */
+	int add(long hash) {
+		int estimate = Integer.MAX_VALUE;
+		for (int row = 0; row < depth; row++) {
+			estimate = Math.min(estimate, ++counts[index(hash, row)]);
+		}
+		return estimate;
+	}
+
+	int estimate(long hash) {
+		int estimate = Integer.MAX_VALUE;
+		for (int row = 0; row < depth; row++) {
+			estimate = Math.min(estimate, counts[index(hash, row)]);
+		}
+		return estimate;
+	}
+
+	/**
+	 * Removes every count of a sketch of the same shape that was added to
+	 * this one.
+	 */
+	void subtract(CountMinSketch other) {
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] -= other.counts[i];
+		}
+	}
+
+	void clear() {
+		Arrays.fill(counts, 0);
+	}
+
+	long bytes() {
+		return (long) counts.length * Integer.BYTES;
+	}
+
+	private int index(long hash, int row) {
+		long mixed = hash + row * ROW_SEED;
+		mixed = (mixed ^ (mixed >>> 33)) * 0xff51afd7ed558ccdL;
+		return row * width + (int) ((mixed ^ (mixed >>> 33)) >>> shift);
+	}
+
+	/**
+	 * FNV-1a over the chars with a SplitMix64 finalizer, so every bit
+	 * depends on every char.
+	 */
+	static long hash(String term) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < term.length(); i++) {
+			hash ^= term.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+		hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+		return hash ^ (hash >>> 31);
+	}
+}
@@ -0,0 +1,189 @@
+package com.oumana.trends;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.oumana.dto.Trend;
+import com.oumana.event.TweetSavedEvent;
+import com.oumana.exception.BadRequestException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Trending hashtags and mentions per configured window, counted from the
+ * text of every created tweet. Each window keeps count-min sketches and a
+ * bounded set of heavy-hitter candidates, so memory is fixed by
+ * tweets.trends.width, depth, buckets and top however many distinct terms
+ * appear. The ranked lists are rebuilt every refresh interval; serving one
+ * is a read of the last published list.
+ */
+@Component
+public class TrendTracker implements MeterBinder {
+
+	private static final int MAX_TERM_LENGTH = 64;
+	// heavy-hitter candidates kept per reported trend
+	private static final int CANDIDATES_PER_TREND = 10;
+
+	private final Map<Duration, TrendWindow> windows = new LinkedHashMap<>();
+	private final TrendWindow defaultWindow;
+	private final Duration refreshInterval;
+	private ScheduledExecutorService refresher;
+
+	public TrendTracker(@Value("${tweets.trends.windows:5m,1h,24h}") String[] windows,
+			@Value("${tweets.trends.buckets:12}") int buckets,
+			@Value("${tweets.trends.width:2048}") int width,
+			@Value("${tweets.trends.depth:4}") int depth,
+			@Value("${tweets.trends.top:10}") int top,
+			@Value("${tweets.trends.refresh-interval:1s}") Duration refreshInterval) {
+		for (String label : windows) {
+			Duration length = DurationStyle.detectAndParse(label.trim());
+			this.windows.put(length, new TrendWindow(label.trim(), length.toMillis(), buckets, width, depth, top,
+					top * CANDIDATES_PER_TREND));
+		}
+		this.defaultWindow = this.windows.values().iterator().next();
+		this.refreshInterval = refreshInterval;
+	}
+
+	@PostConstruct
+	public void start() {
+		refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "tweet-trends-refresh");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long interval = refreshInterval.toMillis();
+		refresher.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (refresher != null) {
+			refresher.shutdownNow();
+		}
+	}
+
+	@EventListener
+	public void onTweetSaved(TweetSavedEvent event) {
+		if (event.isCreated()) {
+			record(event.getTweet().getText());
+		}
+	}
+
+	public void record(String text) {
+		record(text, System.currentTimeMillis());
+	}
+
+	/**
+	 * The top terms of a window given like the configured ones ("1h", "PT1H"),
+	 * or of the first configured window when null.
+	 */
+	public List<Trend> top(String window) {
+		if (window == null) {
+			return defaultWindow.top();
+		}
+		TrendWindow trendWindow;
+		try {
+			trendWindow = windows.get(DurationStyle.detectAndParse(window.trim()));
+		} catch (IllegalArgumentException e) {
+			trendWindow = null;
+		}
+		if (trendWindow == null) {
+			throw new BadRequestException("Unknown trend window '" + window + "', expected one of " + labels());
+		}
+		return trendWindow.top();
+	}
+
+	public void refresh() {
+		refresh(System.currentTimeMillis());
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		for (TrendWindow window : windows.values()) {
+			Gauge.builder("tweets.trends.bytes", window, TrendWindow::bytes)
+				.tag("window", window.label())
+				.baseUnit("bytes")
+				.register(registry);
+			Gauge.builder("tweets.trends.candidates", window, TrendWindow::candidates)
+				.tag("window", window.label())
+				.register(registry);
+		}
+	}
+
+	void record(String text, long now) {
+		Set<String> terms = extract(text);
+		for (String term : terms) {
+			long hash = CountMinSketch.hash(term);
+			for (TrendWindow window : windows.values()) {
+				window.add(term, hash, now);
+			}
+		}
+	}
+
+	void refresh(long now) {
+		for (TrendWindow window : windows.values()) {
+			window.refresh(now);
+		}
+	}
+
+	/**
+	 * The distinct lowercased #hashtags and @mentions of a text: a marker
+	 * that does not follow a word character, then letters, digits or
+	 * underscores. Mail addresses and bare markers are skipped.
+	 */
+	static Set<String> extract(String text) {
+		Set<String> terms = new HashSet<>();
+		if (text == null) {
+			return terms;
+		}
+		int length = text.length();
+		for (int i = 0; i < length; i++) {
+			char marker = text.charAt(i);
+			if ((marker != '#' && marker != '@') || (i > 0 && isTermChar(text.charAt(i - 1)))) {
+				continue;
+			}
+			int end = i + 1;
+			while (end < length && end - i <= MAX_TERM_LENGTH && isTermChar(text.charAt(end))) {
+				end++;
+			}
+			if (end > i + 1) {
+				terms.add(text.substring(i, end).toLowerCase(Locale.ROOT));
+			}
+			i = end - 1;
+		}
+		return terms;
+	}
+
+	private static boolean isTermChar(char c) {
+		return Character.isLetterOrDigit(c) || c == '_';
+	}
+
+	private String labels() {
+		StringBuilder labels = new StringBuilder();
+		for (TrendWindow window : windows.values()) {
+			if (labels.length() > 0) {
+				labels.append(", ");
+			}
+			labels.append(window.label());
+		}
+		return labels.toString();
+	}
+}
@@ -0,0 +1,174 @@
+package com.oumana.trends;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.oumana.dto.Trend;
+
+/**
+ * Term counts over a sliding window kept as a ring of bucket sketches plus
+ * their sum. Moving into a new bucket subtracts the expired one from the sum,
+ * so the window covers the last {@code buckets} bucket lengths including the
+ * current, partial one. Heavy hitters are tracked in a bounded candidate map:
+ * a term the sum estimates above the smallest candidate replaces it, so the
+ * memory used does not depend on how many distinct terms are seen.
+ * {@link #refresh(long)} ranks the candidates and publishes the top list that
+ * {@link #top()} returns without further work.
+ */
+final class TrendWindow {
+
+	private static final Comparator<Candidate> BY_ESTIMATE = Comparator.comparingLong((Candidate c) -> c.estimate)
+		.reversed()
+		.thenComparing(c -> c.term);
+
+	private final String label;
+	private final long bucketMillis;
+	private final CountMinSketch[] buckets;
+	private final CountMinSketch total;
+	private final int top;
+	private final int capacity;
+	private final Map<String, Candidate> candidates;
+	// at most the smallest candidate estimate while the map is full
+	private long floor;
+	private long epoch = Long.MIN_VALUE;
+	private volatile List<Trend> trends = List.of();
+
+	TrendWindow(String label, long lengthMillis, int buckets, int width, int depth, int top, int capacity) {
+		this.label = label;
+		this.bucketMillis = Math.max(1, lengthMillis / buckets);
+		this.buckets = new CountMinSketch[buckets];
+		for (int i = 0; i < buckets; i++) {
+			this.buckets[i] = new CountMinSketch(width, depth);
+		}
+		this.total = new CountMinSketch(width, depth);
+		this.top = top;
+		this.capacity = Math.max(top, capacity);
+		this.candidates = new HashMap<>(this.capacity * 2);
+	}
+
+	String label() {
+		return label;
+	}
+
+	List<Trend> top() {
+		return trends;
+	}
+
+	synchronized void add(String term, long hash, long now) {
+		advance(now);
+		buckets[slot(epoch)].add(hash);
+		long estimate = total.add(hash);
+		Candidate candidate = candidates.get(term);
+		if (candidate != null) {
+			candidate.estimate = estimate;
+			return;
+		}
+		if (candidates.size() < capacity) {
+			candidates.put(term, new Candidate(term, hash, estimate));
+			if (candidates.size() == capacity) {
+				floor = smallest().estimate;
+			}
+			return;
+		}
+		if (estimate <= floor) {
+			return;
+		}
+		Candidate smallest = smallest();
+		if (estimate > smallest.estimate) {
+			candidates.remove(smallest.term);
+			candidates.put(term, new Candidate(term, hash, estimate));
+			smallest = smallest();
+		}
+		floor = smallest.estimate;
+	}
+
+	synchronized void refresh(long now) {
+		advance(now);
+		// other terms sharing counters may have raised the estimates since they were stored
+		reestimate();
+		List<Candidate> ranked = new ArrayList<>(candidates.values());
+		ranked.sort(BY_ESTIMATE);
+		List<Trend> trends = new ArrayList<>(Math.min(top, ranked.size()));
+		for (Candidate candidate : ranked) {
+			if (trends.size() == top) {
+				break;
+			}
+			trends.add(new Trend(candidate.term, candidate.estimate));
+		}
+		this.trends = List.copyOf(trends);
+	}
+
+	long bytes() {
+		return total.bytes() * (buckets.length + 1);
+	}
+
+	int candidates() {
+		return candidates.size();
+	}
+
+	private void advance(long now) {
+		long current = Math.floorDiv(now, bucketMillis);
+		if (current <= epoch) {
+			return;
+		}
+		if (epoch == Long.MIN_VALUE || current - epoch >= buckets.length) {
+			for (CountMinSketch bucket : buckets) {
+				bucket.clear();
+			}
+			total.clear();
+		} else {
+			for (long expired = epoch + 1; expired <= current; expired++) {
+				CountMinSketch bucket = buckets[slot(expired)];
+				total.subtract(bucket);
+				bucket.clear();
+			}
+		}
+		epoch = current;
+		reestimate();
+	}
+
+	/**
+	 * Estimates every candidate again after counts expired, dropping the ones
+	 * that left the window.
+	 */
+	private void reestimate() {
+		for (Iterator<Candidate> iterator = candidates.values().iterator(); iterator.hasNext();) {
+			Candidate candidate = iterator.next();
+			candidate.estimate = total.estimate(candidate.hash);
+			if (candidate.estimate == 0) {
+				iterator.remove();
+			}
+		}
+		floor = candidates.size() < capacity ? 0 : smallest().estimate;
+	}
+
+	private Candidate smallest() {
+		Candidate smallest = null;
+		for (Candidate candidate : candidates.values()) {
+			if (smallest == null || candidate.estimate < smallest.estimate) {
+				smallest = candidate;
+			}
+		}
+		return smallest;
+	}
+
+	private int slot(long epoch) {
+		return (int) Math.floorMod(epoch, (long) buckets.length);
+	}
+
+	private static final class Candidate {
+		private final String term;
+		private final long hash;
+		private long estimate;
+
+		Candidate(String term, long hash, long estimate) {
+			this.term = term;
+			this.hash = hash;
+			this.estimate = estimate;
+		}
+	}
+}
@@ -0,0 +1,21 @@
+-- Moves author profiles out of tweets into one row per user.
+-- Run once against databases created before the authors table existed;
+-- the profile of each user's most recent tweet is kept.
+
+create table if not exists authors (
+	username varchar(255) not null,
+	name varchar(255),
+	profile_img_url varchar(255),
+	version bigint not null default 0,
+	primary key (username)
+);
+
+insert into authors (username, name, profile_img_url, version)
+select t.username, t.name, t.profile_img_url, 0
+from tweets t
+where t.username is not null
+	and t.id = (select max(t2.id) from tweets t2 where t2.username = t.username)
+	and not exists (select 1 from authors a where a.username = t.username);
+
+alter table tweets drop column name;
+alter table tweets drop column profile_img_url;
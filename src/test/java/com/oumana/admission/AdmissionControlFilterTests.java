@@ -0,0 +1,110 @@
+package com.oumana.admission;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AdmissionControlFilterTests {
+
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	public void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	//JUnit test for concurrency limit operation
+	@Test
+	@DisplayName("JUnit test for concurrency limit operation")
+	public void givenReadLimitReached_whenRequest_thenRejectWithServiceUnavailable() throws Exception {
+		//given - precondition or setup
+		AdmissionControlFilter filter = new AdmissionControlFilter(
+				Map.of(EndpointClass.READ, new ConcurrencyLimiter(1, 1, 1, 1.5),
+						EndpointClass.WRITE, new ConcurrencyLimiter(1, 1, 1, 1.5)),
+				null, "X-Client-Id", Duration.ofSeconds(2), meterRegistry);
+		MockHttpServletResponse rejected = new MockHttpServletResponse();
+		MockHttpServletResponse write = new MockHttpServletResponse();
+
+		//when - behaviour that we want to test
+		filter.doFilter(get("/v1/api/tweets/1"), new MockHttpServletResponse(), (request, response) -> {
+			// a second read and a write arrive while the first read holds the only read permit
+			filter.doFilter(get("/v1/api/tweets/2"), rejected, new MockFilterChain());
+			filter.doFilter(new MockHttpServletRequest("POST", "/v1/api/tweets"), write, new MockFilterChain());
+		});
+
+		//then - verify the output
+		Assertions.assertThat(rejected.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+		Assertions.assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+		Assertions.assertThat(write.getStatus()).isEqualTo(HttpStatus.OK.value());
+		Assertions.assertThat(meterRegistry.get("tweets.admission.rejected")
+			.tag("endpoint", "read").tag("reason", "concurrency").counter().count()).isEqualTo(1);
+		Assertions.assertThat(meterRegistry.get("tweets.admission.inflight").tag("endpoint", "read").gauge().value())
+			.isZero();
+	}
+
+	//JUnit test for client rate limit operation
+	@Test
+	@DisplayName("JUnit test for client rate limit operation")
+	public void givenClientOverRate_whenRequest_thenRejectWithTooManyRequests() throws Exception {
+		//given - precondition or setup
+		AdmissionControlFilter filter = new AdmissionControlFilter(
+				Map.of(EndpointClass.READ, new ConcurrencyLimiter(10, 1, 100, 1.5)),
+				new ClientRateLimiter(0.5, 1, 100), "X-Client-Id", Duration.ofSeconds(1), meterRegistry);
+		MockHttpServletRequest first = get("/v1/api/tweets");
+		first.addHeader("X-Client-Id", "client-a");
+		MockHttpServletRequest second = get("/v1/api/tweets");
+		second.addHeader("X-Client-Id", "client-a");
+		MockHttpServletRequest other = get("/v1/api/tweets");
+		other.addHeader("X-Client-Id", "client-b");
+		MockHttpServletResponse rejected = new MockHttpServletResponse();
+		MockHttpServletResponse admitted = new MockHttpServletResponse();
+
+		//when - behaviour that we want to test
+		filter.doFilter(first, new MockHttpServletResponse(), new MockFilterChain());
+		filter.doFilter(second, rejected, new MockFilterChain());
+		filter.doFilter(other, admitted, new MockFilterChain());
+
+		//then - verify the output
+		Assertions.assertThat(rejected.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+		Assertions.assertThat(Long.parseLong(rejected.getHeader(HttpHeaders.RETRY_AFTER))).isBetween(1L, 2L);
+		Assertions.assertThat(admitted.getStatus()).isEqualTo(HttpStatus.OK.value());
+	}
+
+	//JUnit test for adaptive limit operation
+	@Test
+	@DisplayName("JUnit test for adaptive limit operation")
+	public void givenRisingLatency_whenRelease_thenShrinkLimit() {
+		//given - precondition or setup
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(50, 5, 100, 1.5);
+		for (int i = 0; i < 200; i++) {
+			limiter.tryAcquire();
+			limiter.release(Duration.ofMillis(10).toNanos(), false);
+		}
+		int steady = limiter.getLimit();
+
+		//when - behaviour that we want to test
+		for (int i = 0; i < 50; i++) {
+			limiter.tryAcquire();
+			limiter.release(Duration.ofMillis(100).toNanos(), false);
+		}
+
+		//then - verify the output
+		Assertions.assertThat(limiter.getLimit()).isLessThan(steady);
+	}
+
+	private static MockHttpServletRequest get(String uri) {
+		return new MockHttpServletRequest("GET", uri);
+	}
+}
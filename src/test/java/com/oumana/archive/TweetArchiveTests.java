@@ -0,0 +1,113 @@
+package com.oumana.archive;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.oumana.entity.Tweet;
+
+public class TweetArchiveTests {
+	@TempDir
+	Path directory;
+
+	private TweetArchive tweetArchive;
+
+	private final LocalDate day = LocalDate.of(2020, 1, 1);
+
+	@BeforeEach
+	public void setup() throws IOException {
+		tweetArchive = new TweetArchive(directory, 4);
+		List<Tweet> tweets = new ArrayList<>();
+		for (long id = 1; id <= 10; id++) {
+			tweets.add(tweet(id, id % 2 == 0 ? "oscar_umana" : "another_user", day.plusDays(id % 3)));
+		}
+		tweetArchive.append(tweets);
+	}
+
+	private Tweet tweet(long id, String username, LocalDate createdAt) {
+		return Tweet.builder().id(id).username(username).text("archived tweet " + id).imgUrl(id % 2 == 0 ? null : "www.twitter.com")
+				.createdAt(createdAt).version(id).build();
+	}
+
+	//JUnit test for findById operation
+	@Test
+	@DisplayName("JUnit test for findById operation")
+	public void givenArchivedTweets_whenFindById_thenReturnTweet() {
+		//given - precondition or setup
+
+		//when - behaviour that we want to test
+		Tweet archived = tweetArchive.findById(7L).orElseThrow();
+
+		//then - verify the output
+		Assertions.assertThat(archived.getText()).isEqualTo("archived tweet 7");
+		Assertions.assertThat(archived.getUsername()).isEqualTo("another_user");
+		Assertions.assertThat(archived.getImgUrl()).isEqualTo("www.twitter.com");
+		Assertions.assertThat(archived.getCreatedAt()).isEqualTo(day.plusDays(1));
+		Assertions.assertThat(archived.getVersion()).isEqualTo(7L);
+		Assertions.assertThat(tweetArchive.findById(11L)).isEmpty();
+		Assertions.assertThat(tweetArchive.findById(0L)).isEmpty();
+	}
+
+	//JUnit test for findLatest operation
+	@Test
+	@DisplayName("JUnit test for findLatest operation")
+	public void givenArchivedTweets_whenFindLatest_thenReturnWindowNewestFirst() {
+		//given - precondition or setup
+
+		//when - behaviour that we want to test
+		List<Tweet> firstPage = tweetArchive.findLatest(null, null, 3);
+		List<Tweet> window = tweetArchive.findLatest(8L, 3L, 10);
+
+		//then - verify the output
+		Assertions.assertThat(firstPage).extracting(Tweet::getId).containsExactly(10L, 9L, 8L);
+		Assertions.assertThat(window).extracting(Tweet::getId).containsExactly(7L, 6L, 5L, 4L);
+	}
+
+	//JUnit test for findTimeline operation
+	@Test
+	@DisplayName("JUnit test for findTimeline operation")
+	public void givenArchivedTweets_whenFindTimeline_thenReturnUserTweetsNewestFirst() {
+		//given - precondition or setup
+
+		//when - behaviour that we want to test
+		List<Tweet> firstPage = tweetArchive.findTimeline("oscar_umana", null, null, null, null, 3);
+		List<Tweet> nextPage = tweetArchive.findTimeline("oscar_umana", day.plusDays(1), 4L, null, null, 3);
+
+		//then - verify the output
+		// ids 2, 4, 6, 8, 10 fall on days 2, 1, 0, 2, 1
+		Assertions.assertThat(firstPage).extracting(Tweet::getId).containsExactly(8L, 2L, 10L);
+		Assertions.assertThat(nextPage).extracting(Tweet::getId).containsExactly(6L);
+		Assertions.assertThat(tweetArchive.findTimeline("nobody", null, null, null, null, 3)).isEmpty();
+	}
+
+	//JUnit test for append operation
+	@Test
+	@DisplayName("JUnit test for append operation")
+	public void givenTweetArchivedTwice_whenReopen_thenNewestCopyWins() throws IOException {
+		//given - precondition or setup
+		Tweet edited = tweet(4L, "oscar_umana", day.plusDays(1));
+		edited.setText("edited before it was archived again");
+		tweetArchive.append(List.of(edited, tweet(11L, "oscar_umana", day)));
+		Files.createFile(directory.resolve("segment-000000000002.seg.tmp"));
+
+		//when - behaviour that we want to test
+		TweetArchive reopened = new TweetArchive(directory, 4);
+
+		//then - verify the output
+		Assertions.assertThat(reopened.segmentCount()).isEqualTo(2);
+		Assertions.assertThat(reopened.findById(4L).orElseThrow().getText()).isEqualTo("edited before it was archived again");
+		Assertions.assertThat(reopened.findAllById(List.of(4L, 5L, 11L, 12L))).extracting(Tweet::getId)
+			.containsExactlyInAnyOrder(4L, 5L, 11L);
+		Assertions.assertThat(reopened.findLatest(null, null, 20)).hasSize(11);
+		Assertions.assertThat(directory.resolve("segment-000000000002.seg.tmp")).doesNotExist();
+	}
+}
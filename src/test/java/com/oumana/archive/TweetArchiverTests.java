@@ -0,0 +1,68 @@
+package com.oumana.archive;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oumana.entity.Tweet;
+import com.oumana.repository.TweetRepository;
+
+@DataJpaTest
+public class TweetArchiverTests {
+	@Autowired
+	private TweetRepository tweetRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@TempDir
+	Path directory;
+
+	private TweetArchive tweetArchive;
+
+	private TweetArchiver tweetArchiver;
+
+	@BeforeEach
+	public void setup() throws IOException {
+		tweetArchive = new TweetArchive(directory, 8);
+		tweetArchiver = new TweetArchiver(tweetRepository, tweetArchive, new TransactionTemplate(transactionManager),
+				Duration.ofDays(30), 10, Duration.ofHours(1));
+	}
+
+	//JUnit test for archive operation
+	@Test
+	@DisplayName("JUnit test for archive operation")
+	public void givenOldAndRecentTweets_whenArchive_thenMoveOnlyOldTweets() {
+		//given - precondition or setup
+		List<Tweet> tweets = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			tweets.add(Tweet.builder().username("oscar_umana").text("old tweet " + i)
+					.createdAt(LocalDate.now().minusDays(60 + i)).build());
+		}
+		tweets.add(Tweet.builder().username("oscar_umana").text("recent tweet").createdAt(LocalDate.now()).build());
+		tweetRepository.saveAllAndFlush(tweets);
+		long oldId = tweets.get(3).getId();
+
+		//when - behaviour that we want to test
+		int archived = tweetArchiver.archive();
+
+		//then - verify the output
+		Assertions.assertThat(archived).isEqualTo(25);
+		Assertions.assertThat(tweetArchive.segmentCount()).isEqualTo(3);
+		Assertions.assertThat(tweetRepository.findAll()).extracting(Tweet::getText).containsExactly("recent tweet");
+		Assertions.assertThat(tweetArchive.findById(oldId).orElseThrow().getText()).isEqualTo("old tweet 3");
+	}
+}
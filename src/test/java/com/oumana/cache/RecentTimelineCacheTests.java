@@ -0,0 +1,126 @@
+package com.oumana.cache;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+
+import com.oumana.archive.TweetArchive;
+import com.oumana.entity.Tweet;
+import com.oumana.event.TweetDeletedEvent;
+import com.oumana.event.TweetSavedEvent;
+import com.oumana.repository.TweetRepository;
+
+public class RecentTimelineCacheTests {
+	private RecentTimelineCache recentTimelineCache;
+
+	private final LocalDate today = LocalDate.now();
+
+	@BeforeEach
+	public void setup() {
+		TweetRepository tweetRepository = Mockito.mock(TweetRepository.class);
+		BDDMockito.given(tweetRepository.findTimelineEntriesAfter(ArgumentMatchers.anyLong(), ArgumentMatchers.any()))
+			.willReturn(List.of());
+		recentTimelineCache = new RecentTimelineCache(tweetRepository, Mockito.mock(TweetArchive.class), 3);
+		recentTimelineCache.warmUp();
+	}
+
+	private void save(long id, LocalDate createdAt) {
+		Tweet tweet = Tweet.builder().id(id).name("Oscar Umaña").username("oscar_umana").text("this is a tweet")
+				.createdAt(createdAt).build();
+		recentTimelineCache.onTweetSaved(new TweetSavedEvent(tweet, true));
+	}
+
+	//JUnit test for page operation
+	@Test
+	@DisplayName("JUnit test for page operation")
+	public void givenSavedTweets_whenPage_thenReturnIdsNewestFirst() {
+		//given - precondition or setup
+		save(1L, today.minusDays(1));
+		save(3L, today);
+		save(2L, today.minusDays(2));
+
+		//when - behaviour that we want to test
+		long[] firstPage = recentTimelineCache.page("oscar_umana", null, null, 2);
+		long[] nextPage = recentTimelineCache.page("oscar_umana", today.minusDays(1), 1L, 2);
+
+		//then - verify the output
+		Assertions.assertThat(firstPage).containsExactly(3L, 1L);
+		Assertions.assertThat(nextPage).containsExactly(2L);
+		Assertions.assertThat(recentTimelineCache.page("another_user", null, null, 2)).isEmpty();
+	}
+
+	//JUnit test for evict operation
+	@Test
+	@DisplayName("JUnit test for evict operation")
+	public void givenGhostId_whenEvict_thenLeaveItOutOfPages() {
+		//given - precondition or setup
+		save(1L, today.minusDays(1));
+		save(2L, today);
+		save(3L, today);
+
+		//when - behaviour that we want to test
+		recentTimelineCache.evict("oscar_umana", List.of(2L));
+		recentTimelineCache.evict("another_user", List.of(1L));
+
+		//then - verify the output
+		Assertions.assertThat(recentTimelineCache.page("oscar_umana", null, null, 3)).containsExactly(3L, 1L);
+	}
+
+	//JUnit test for page operation past the ring capacity
+	@Test
+	@DisplayName("JUnit test for page operation past the ring capacity")
+	public void givenMoreTweetsThanCapacity_whenPagePastRing_thenReturnNull() {
+		//given - precondition or setup
+		for (long id = 1; id <= 5; id++) {
+			save(id, today);
+		}
+
+		//when - behaviour that we want to test
+		long[] firstPage = recentTimelineCache.page("oscar_umana", null, null, 2);
+		long[] pastRing = recentTimelineCache.page("oscar_umana", today, 4L, 3);
+
+		//then - verify the output
+		Assertions.assertThat(firstPage).containsExactly(5L, 4L);
+		Assertions.assertThat(pastRing).isNull();
+	}
+
+	//JUnit test for save event older than a full ring's dropped tweets
+	@Test
+	@DisplayName("JUnit test for save event older than a full ring's dropped tweets")
+	public void givenOverflowedRingWithRemoval_whenOlderTweetSaved_thenDoNotSkipDroppedTweets() {
+		//given - precondition or setup
+		for (long id = 2; id <= 5; id++) {
+			save(id, today);
+		}
+		recentTimelineCache.onTweetDeleted(new TweetDeletedEvent(3L, "oscar_umana", today));
+
+		//when - behaviour that we want to test
+		save(1L, today.minusDays(1));
+
+		//then - verify the output
+		Assertions.assertThat(recentTimelineCache.page("oscar_umana", null, null, 2)).containsExactly(5L, 4L);
+		Assertions.assertThat(recentTimelineCache.page("oscar_umana", null, null, 3)).isNull();
+	}
+
+	//JUnit test for delete event
+	@Test
+	@DisplayName("JUnit test for delete event")
+	public void givenSavedTweet_whenDeleted_thenRemoveFromTimeline() {
+		//given - precondition or setup
+		save(1L, today);
+		save(2L, today);
+
+		//when - behaviour that we want to test
+		recentTimelineCache.onTweetDeleted(new TweetDeletedEvent(2L, "oscar_umana", today));
+
+		//then - verify the output
+		Assertions.assertThat(recentTimelineCache.page("oscar_umana", null, null, 5)).containsExactly(1L);
+	}
+}
@@ -0,0 +1,74 @@
+package com.oumana.cache;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.oumana.entity.Tweet;
+
+public class TweetCacheTests {
+	private TweetCache tweetCache;
+
+	private Tweet tweet;
+
+	@BeforeEach
+	public void setup() {
+		tweetCache = new TweetCache(100, Duration.ofMinutes(1), Duration.ofMinutes(1));
+		tweet = Tweet.builder().id(1L).name("Oscar Umaña").username("oscar_umana").imgUrl("www.twitter.com")
+				.profileImgUrl("www.twitter.com").text("this is a tweet").createdAt(LocalDate.now()).build();
+	}
+
+	//JUnit test for get operation with missing id
+	@Test
+	@DisplayName("JUnit test for get operation with missing id")
+	public void givenMissingId_whenGetTwice_thenLoadOnce() {
+		//given - precondition or setup
+		AtomicInteger loads = new AtomicInteger();
+
+		//when - behaviour that we want to test
+		tweetCache.get(2L, id -> { loads.incrementAndGet(); return Optional.empty(); });
+		Optional<Tweet> cached = tweetCache.get(2L, id -> { loads.incrementAndGet(); return Optional.empty(); });
+
+		//then - verify the output
+		Assertions.assertThat(cached).isEmpty();
+		Assertions.assertThat(loads.get()).isEqualTo(1);
+		Assertions.assertThat(tweetCache.stats().hitCount()).isEqualTo(1);
+		Assertions.assertThat(tweetCache.stats().missCount()).isEqualTo(1);
+	}
+
+	//JUnit test for get operation returning copies
+	@Test
+	@DisplayName("JUnit test for get operation returning copies")
+	public void givenCachedTweet_whenMutateReturnedTweet_thenCacheUnchanged() {
+		//given - precondition or setup
+		tweetCache.put(tweet);
+
+		//when - behaviour that we want to test
+		tweetCache.get(1L, id -> Optional.empty()).get().setText("changed");
+		Tweet cached = tweetCache.get(1L, id -> Optional.empty()).get();
+
+		//then - verify the output
+		Assertions.assertThat(cached.getText()).isEqualTo("this is a tweet");
+	}
+
+	//JUnit test for invalidate operation
+	@Test
+	@DisplayName("JUnit test for invalidate operation")
+	public void givenCachedTweet_whenInvalidate_thenLoadAgain() {
+		//given - precondition or setup
+		tweetCache.put(tweet);
+
+		//when - behaviour that we want to test
+		tweetCache.invalidate(1L);
+		Optional<Tweet> cached = tweetCache.get(1L, id -> Optional.empty());
+
+		//then - verify the output
+		Assertions.assertThat(cached).isEmpty();
+	}
+}
@@ -0,0 +1,59 @@
+package com.oumana.controller;
+
+import java.util.List;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.oumana.dto.Trend;
+import com.oumana.exception.BadRequestException;
+import com.oumana.trends.TrendTracker;
+
+@WebMvcTest(TrendController.class)
+public class TrendControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private TrendTracker trendTracker;
+
+	//JUnit test for getTrends operation
+	@Test
+	@DisplayName("JUnit test for getTrends operation")
+	public void givenTrends_whenGetTrends_thenReturnTopTerms() throws Exception {
+		//given - precondition or setup
+		BDDMockito.given(trendTracker.top("1h")).willReturn(List.of(new Trend("#java", 12), new Trend("@oscar_umana", 7)));
+
+		//when - behaviour that we want to test
+		mockMvc.perform(MockMvcRequestBuilders.get("/v1/api/trends").param("window", "1h"))
+
+		//then - verify the output
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].term", CoreMatchers.is("#java")))
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].count", CoreMatchers.is(12)))
+			.andExpect(MockMvcResultMatchers.jsonPath("$[1].term", CoreMatchers.is("@oscar_umana")));
+	}
+
+	//JUnit test for getTrends operation with an unknown window
+	@Test
+	@DisplayName("JUnit test for getTrends operation with an unknown window")
+	public void givenUnknownWindow_whenGetTrends_thenReturnBadRequest() throws Exception {
+		//given - precondition or setup
+		BDDMockito.given(trendTracker.top("3d")).willThrow(new BadRequestException("Unknown trend window '3d'"));
+
+		//when - behaviour that we want to test
+		mockMvc.perform(MockMvcRequestBuilders.get("/v1/api/trends").param("window", "3d"))
+
+		//then - verify the output
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+}
@@ -4,31 +4,53 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
+import org.assertj.core.api.Assertions;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.oumana.config.AsyncConfig;
+import com.oumana.dto.TweetBatchItem;
+import com.oumana.dto.TweetBatchResult;
+import com.oumana.dto.TweetPage;
+import com.oumana.dto.TweetPatch;
+import com.oumana.dto.TweetSearchResult;
+import com.oumana.dto.TweetVersion;
 import com.oumana.entity.Tweet;
+import com.oumana.exception.BadRequestException;
+import com.oumana.exception.ConflictException;
 import com.oumana.exception.ResourceNotFoundException;
 import com.oumana.service.TweetService;
 
 
-@WebMvcTest
+@WebMvcTest(TweetController.class)
+@Import(AsyncConfig.class)
 public class TweetControllerTests {
 
 	@Autowired
@@ -52,7 +74,7 @@ public class TweetControllerTests {
 				.willAnswer((invocation) -> invocation.getArgument(0));
 
 		// when
-		ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/v1/api/tweets")
+		ResultActions response = perform(MockMvcRequestBuilders.post("/v1/api/tweets")
 				.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(tweet)));
 
 		// then
@@ -65,6 +87,30 @@ public class TweetControllerTests {
 
 	}
 	
+	//JUnit test for createTweets operation
+	@Test
+	@DisplayName("JUnit test for createTweets operation")
+	public void givenTweetList_whenCreateTweets_thenReturnBatchResult() throws Exception {
+		//given - precondition or setup
+		List<Tweet> listOfTweets = new ArrayList<>();
+		listOfTweets.add(Tweet.builder().name("Oscar Umaña").username("oscar_umana").imgUrl("www.twitter.com")
+				.profileImgUrl("www.twitter.com").text("this is a tweet").createdAt(LocalDate.now()).build());
+		listOfTweets.add(Tweet.builder().name("Oscar Umaña").username("oscar_umana").imgUrl("www.twitter.com")
+				.profileImgUrl("www.twitter.com").text("this is another tweet").createdAt(LocalDate.now()).build());
+		
+		BDDMockito.given(tweetService.saveTweets(ArgumentMatchers.anyList())).willReturn(new TweetBatchResult(1, 1,
+				List.of(TweetBatchItem.created(0, 1L), TweetBatchItem.failed(1, "value too long"))));
+		
+		//when - behaviour that we want to test
+		ResultActions response = perform(MockMvcRequestBuilders.post("/v1/api/tweets/batch")
+				.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(listOfTweets)));
+		
+		//then - verify the output
+		response.andExpect(MockMvcResultMatchers.status().isMultiStatus())
+		.andExpect(MockMvcResultMatchers.jsonPath("$.created", CoreMatchers.is(1)))
+		.andExpect(MockMvcResultMatchers.jsonPath("$.items[1].status", CoreMatchers.is(TweetBatchItem.FAILED)));
+	}
+	
 	//JUnit test for getAllTweets operation
 	@Test
 	@DisplayName("JUnit test for getAllTweets operation")
@@ -76,15 +122,53 @@ public class TweetControllerTests {
 		listOfTweets.add(Tweet.builder().name("Oscar Umaña").username("oscar_umana").imgUrl("www.twitter.com")
 				.profileImgUrl("www.twitter.com").text("this is another tweet").createdAt(LocalDate.now()).build());
 		
-		BDDMockito.given(tweetService.getAllTweets()).willReturn(listOfTweets);
+		BDDMockito.given(tweetService.getTweetPage(ArgumentMatchers.isNull(), ArgumentMatchers.isNull()))
+			.willReturn(new TweetPage<>(listOfTweets, "next"));
 		
 		//when - behaviour that we want to test
-		ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/v1/api/tweets"));
+		ResultActions response = perform(MockMvcRequestBuilders.get("/v1/api/tweets"));
 		
 		//then - verify the output
 		response.andExpect(MockMvcResultMatchers.status().isOk())
 		.andDo(MockMvcResultHandlers.print())
-		.andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(listOfTweets.size())));
+		.andExpect(MockMvcResultMatchers.jsonPath("$.tweets.size()", CoreMatchers.is(listOfTweets.size())))
+		.andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor", CoreMatchers.is("next")));
+	}
+	
+	//JUnit test for getAllTweets operation with invalid cursor
+	@Test
+	@DisplayName("JUnit test for getAllTweets operation with invalid cursor")
+	public void givenInvalidCursor_whenGetAllTweets_thenReturnBadRequest() throws Exception {
+		//given - precondition or setup
+		BDDMockito.given(tweetService.getTweetPage("bogus", 10)).willThrow(BadRequestException.class);
+		
+		//when - behaviour that we want to test
+		ResultActions response = perform(MockMvcRequestBuilders.get("/v1/api/tweets")
+				.param("cursor", "bogus").param("limit", "10"));
+		
+		//then - verify the output
+		response.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+	
+	//JUnit test for searchTweets operation
+	@Test
+	@DisplayName("JUnit test for searchTweets operation")
+	public void givenQuery_whenSearchTweets_thenReturnSearchResult() throws Exception {
+		//given - precondition or setup
+		Tweet tweet = Tweet.builder().id(1L).name("Oscar Umaña").username("oscar_umana").imgUrl("www.twitter.com")
+				.profileImgUrl("www.twitter.com").text("this is a tweet").createdAt(LocalDate.now()).build();
+		
+		BDDMockito.given(tweetService.searchTweets("tweet", "or", null, null))
+			.willReturn(new TweetSearchResult<>(List.of(tweet), 1, null));
+		
+		//when - behaviour that we want to test
+		ResultActions response = perform(MockMvcRequestBuilders.get("/v1/api/tweets/search")
+				.param("q", "tweet").param("operator", "or"));
+		
+		//then - verify the output
+		response.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("$.tweets.size()", CoreMatchers.is(1)))
+		.andExpect(MockMvcResultMatchers.jsonPath("$.total", CoreMatchers.is(1)));
 	}
 	
 	//JUnit test for getTweetById operation
@@ -99,7 +183,7 @@ public class TweetControllerTests {
 		BDDMockito.given(tweetService.getTweetById(id)).willReturn(tweet);
 		
 		//when - behaviour that we want to test
-		ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/v1/api/tweets/1"));
+		ResultActions response = perform(MockMvcRequestBuilders.get("/v1/api/tweets/1"));
 
 		//then - verify the output
 		response.andExpect(MockMvcResultMatchers.status().isOk())
@@ -121,7 +205,7 @@ public class TweetControllerTests {
 		BDDMockito.given(tweetService.getTweetById(id)).willThrow(ResourceNotFoundException.class);
 		
 		//when - behaviour that we want to test
-		ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/v1/api/tweets/1"));
+		ResultActions response = perform(MockMvcRequestBuilders.get("/v1/api/tweets/1"));
 
 		//then - verify the output
 		response.andExpect(MockMvcResultMatchers.status().isNotFound());
@@ -143,9 +227,204 @@ public class TweetControllerTests {
 			.willAnswer((invocation) -> invocation.getArgument(0));
 		
 		//when - behaviour that we want to test
-		ResultActions response = mockMvc.perform(MockMvcRequestBuilders.put("/v1/api/tweets/1").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(updatedTweet)));
+		ResultActions response = perform(MockMvcRequestBuilders.put("/v1/api/tweets/1").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(updatedTweet)));
 		
 		//then - verify the output
 		response.andExpect(MockMvcResultMatchers.status().isOk()).andExpect(jsonPath("$.text", CoreMatchers.is(updatedTweet.getText())));
 	}
+	
+	//JUnit test for conditional getTweetById operation
+	@Test
+	@DisplayName("JUnit test for conditional getTweetById operation")
+	public void givenMatchingETag_whenGetTweetById_thenReturnNotModified() throws Exception {
+		//given - precondition or setup
+		long id = 1L;
+		BDDMockito.given(tweetService.getTweetVersion(id)).willReturn(Optional.of(new TweetVersion(3L, 2L)));
+		
+		//when - behaviour that we want to test
+		ResultActions response = perform(MockMvcRequestBuilders.get("/v1/api/tweets/1")
+				.header(HttpHeaders.IF_NONE_MATCH, "\"1-3-2\""));
+
+		//then - verify the output
+		response.andExpect(MockMvcResultMatchers.status().isNotModified())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"1-3-2\""));
+		BDDMockito.then(tweetService).should(Mockito.never()).getTweetById(id);
+	}
+	
+	//JUnit test for conditional updateTweet operation
+	@Test
+	@DisplayName("JUnit test for conditional updateTweet operation")
+	public void givenStaleETag_whenUpdateTweet_thenReturnPreconditionFailed() throws Exception {
+		//given - precondition or setup
+		long id = 1L;
+		Tweet savedTweet = Tweet.builder().id(1L).name("Oscar Umaña").username("oscar_umana")
+				.text("this is a tweet").createdAt(LocalDate.now()).version(4L).authorVersion(2L).build();
+		Tweet updatedTweet = Tweet.builder().text("This is an updated tweet").build();
+		
+		BDDMockito.given(tweetService.getTweetById(id)).willReturn(savedTweet);
+		
+		//when - behaviour that we want to test
+		ResultActions response = perform(MockMvcRequestBuilders.put("/v1/api/tweets/1")
+				.header(HttpHeaders.IF_MATCH, "\"1-3-2\"")
+				.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(updatedTweet)));
+		
+		//then - verify the output
+		response.andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+		BDDMockito.then(tweetService).should(Mockito.never()).updateTweet(ArgumentMatchers.any(Tweet.class));
+	}
+	
+	//JUnit test for patchTweet operation
+	@Test
+	@DisplayName("JUnit test for patchTweet operation")
+	public void givenPatchWithETag_whenPatchTweet_thenReturnNoContentWithNextETag() throws Exception {
+		//given - precondition or setup
+		BDDMockito.willDoNothing().given(tweetService)
+			.patchTweet(ArgumentMatchers.eq(1L), ArgumentMatchers.any(TweetPatch.class), ArgumentMatchers.eq(3L));
+		
+		//when - behaviour that we want to test
+		ResultActions response = perform(MockMvcRequestBuilders.patch("/v1/api/tweets/1")
+				.header(HttpHeaders.IF_MATCH, "\"1-3-2\"")
+				.contentType(MediaType.APPLICATION_JSON).content("{\"text\":\"patched\"}"));
+		
+		//then - verify the output
+		response.andExpect(MockMvcResultMatchers.status().isNoContent())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"1-4-2\""));
+		BDDMockito.then(tweetService).should().patchTweet(ArgumentMatchers.eq(1L),
+				ArgumentMatchers.argThat(patch -> patch.isTextSet() && !patch.isImgUrlSet()), ArgumentMatchers.eq(3L));
+	}
+	
+	//JUnit test for patchTweet operation with the internal flags in the body
+	@Test
+	@DisplayName("JUnit test for patchTweet operation with the internal flags in the body")
+	public void givenFlagsInBody_whenPatchTweet_thenIgnoreThem() throws Exception {
+		//given - precondition or setup
+		BDDMockito.willThrow(new BadRequestException("A patch must set text or imgUrl")).given(tweetService)
+			.patchTweet(ArgumentMatchers.eq(1L), ArgumentMatchers.argThat(TweetPatch::isEmpty), ArgumentMatchers.isNull());
+		
+		//when - behaviour that we want to test
+		ResultActions response = perform(MockMvcRequestBuilders.patch("/v1/api/tweets/1")
+				.contentType(MediaType.APPLICATION_JSON).content("{\"textSet\":true}"));
+		
+		//then - verify the output
+		response.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+	
+	//JUnit test for deleteTweets operation
+	@Test
+	@DisplayName("JUnit test for deleteTweets operation")
+	public void givenIds_whenDeleteTweets_thenReturnNoContent() throws Exception {
+		//given - precondition or setup
+		BDDMockito.given(tweetService.deleteTweets(List.of(1L, 2L))).willReturn(2);
+		
+		//when - behaviour that we want to test
+		ResultActions response = perform(MockMvcRequestBuilders.delete("/v1/api/tweets").param("ids", "1,2"));
+		
+		//then - verify the output
+		response.andExpect(MockMvcResultMatchers.status().isNoContent());
+	}
+	
+	//JUnit test for updateTweet operation on an archived tweet
+	@Test
+	@DisplayName("JUnit test for updateTweet operation on an archived tweet")
+	public void givenArchivedTweet_whenUpdateTweet_thenReturnConflict() throws Exception {
+		//given - precondition or setup
+		Tweet archivedTweet = Tweet.builder().id(1L).username("oscar_umana").text("this is a tweet")
+				.createdAt(LocalDate.of(2020, 5, 1)).build();
+		BDDMockito.given(tweetService.getTweetById(1L)).willReturn(archivedTweet);
+		BDDMockito.given(tweetService.updateTweet(ArgumentMatchers.any(Tweet.class)))
+			.willThrow(new ConflictException("Tweet 1 is archived and read-only"));
+		
+		//when - behaviour that we want to test
+		ResultActions response = perform(MockMvcRequestBuilders.put("/v1/api/tweets/1")
+				.contentType(MediaType.APPLICATION_JSON).content("{\"text\":\"This is an updated tweet\"}"));
+		
+		//then - verify the output
+		response.andExpect(MockMvcResultMatchers.status().isConflict());
+	}
+	
+	//JUnit test for deleteTweet operation on an archived tweet
+	@Test
+	@DisplayName("JUnit test for deleteTweet operation on an archived tweet")
+	public void givenArchivedTweet_whenDeleteTweet_thenReturnConflict() throws Exception {
+		//given - precondition or setup
+		BDDMockito.willThrow(new ConflictException("Archived tweets are read-only")).given(tweetService).deleteTweet(1L);
+		
+		//when - behaviour that we want to test
+		ResultActions response = perform(MockMvcRequestBuilders.delete("/v1/api/tweets/1"));
+		
+		//then - verify the output
+		response.andExpect(MockMvcResultMatchers.status().isConflict());
+	}
+	
+	//JUnit test for getAllTweets operation with selected fields
+	@Test
+	@DisplayName("JUnit test for getAllTweets operation with selected fields")
+	public void givenFields_whenGetAllTweets_thenReturnSelectedFields() throws Exception {
+		//given - precondition or setup
+		Map<String, Object> row = new LinkedHashMap<>();
+		row.put("id", 1L);
+		row.put("text", "this is a tweet");
+		BDDMockito.given(tweetService.getTweetPage(null, null, "text"))
+			.willReturn(new TweetPage<>(List.of(row), null));
+		
+		//when - behaviour that we want to test
+		ResultActions response = perform(MockMvcRequestBuilders.get("/v1/api/tweets").param("fields", "text"));
+		
+		//then - verify the output
+		response.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(jsonPath("$.tweets[0].text", CoreMatchers.is("this is a tweet")))
+			.andExpect(jsonPath("$.tweets[0].username").doesNotExist());
+	}
+	
+	//JUnit test for CBOR content negotiation
+	@Test
+	@DisplayName("JUnit test for CBOR content negotiation")
+	public void givenCborAccept_whenGetAllTweets_thenReturnCborPage() throws Exception {
+		//given - precondition or setup
+		Tweet tweet = Tweet.builder().id(1L).name("Oscar Umaña").username("oscar_umana").text("this is a tweet")
+				.createdAt(LocalDate.of(2022, 5, 12)).build();
+		BDDMockito.given(tweetService.getTweetPage(null, null)).willReturn(new TweetPage<>(List.of(tweet), null));
+		
+		//when - behaviour that we want to test
+		ResultActions response = perform(MockMvcRequestBuilders.get("/v1/api/tweets")
+				.accept(MediaType.APPLICATION_CBOR));
+		
+		//then - verify the output
+		byte[] body = response.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR))
+			.andReturn().getResponse().getContentAsByteArray();
+		JsonNode page = new CBORMapper().readTree(body);
+		Assertions.assertThat(page.at("/tweets/0/username").asText()).isEqualTo("oscar_umana");
+		Assertions.assertThat(page.at("/tweets/0/createdAt").asText()).isEqualTo("2022-05-12");
+	}
+	
+	//JUnit test for Smile batch request body
+	@Test
+	@DisplayName("JUnit test for Smile batch request body")
+	public void givenSmileBody_whenCreateTweets_thenReadTweets() throws Exception {
+		//given - precondition or setup
+		List<Tweet> listOfTweets = List.of(Tweet.builder().username("oscar_umana").text("this is a tweet").build());
+		BDDMockito.given(tweetService.saveTweets(ArgumentMatchers.anyList()))
+			.willReturn(new TweetBatchResult(1, 0, List.of(TweetBatchItem.created(0, 1L))));
+		
+		//when - behaviour that we want to test
+		ResultActions response = perform(MockMvcRequestBuilders.post("/v1/api/tweets/batch")
+				.contentType(new MediaType("application", "x-jackson-smile"))
+				.content(new SmileMapper().writeValueAsBytes(listOfTweets)));
+		
+		//then - verify the output
+		response.andExpect(MockMvcResultMatchers.status().isCreated())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.created", CoreMatchers.is(1)));
+		BDDMockito.then(tweetService).should().saveTweets(ArgumentMatchers.argThat(tweets ->
+				tweets.size() == 1 && "oscar_umana".equals(tweets.get(0).getUsername())));
+	}
+
+	// handlers answer through a DeferredResult, so the response is written by the async dispatch
+	private ResultActions perform(RequestBuilder request) throws Exception {
+		ResultActions actions = mockMvc.perform(request);
+		MvcResult result = actions.andReturn();
+		return result.getRequest().isAsyncStarted()
+				? mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+				: actions;
+	}
 }
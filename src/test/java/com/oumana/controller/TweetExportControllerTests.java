@@ -0,0 +1,102 @@
+package com.oumana.controller;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.oumana.service.TweetExportService;
+
+@WebMvcTest(TweetExportController.class)
+public class TweetExportControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private TweetExportService tweetExportService;
+
+	//JUnit test for gzip exportTweets operation
+	@Test
+	@DisplayName("JUnit test for gzip exportTweets operation")
+	public void givenGzipAccepted_whenExportTweets_thenStreamCompressedNdjson() throws Exception {
+		//given - precondition or setup
+		BDDMockito.given(tweetExportService.exportTweets(ArgumentMatchers.eq("oscar_umana"), ArgumentMatchers.any(),
+				ArgumentMatchers.isNull(), ArgumentMatchers.any(OutputStream.class))).willAnswer(invocation -> {
+					invocation.<OutputStream>getArgument(3).write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+					return 1L;
+				});
+
+		//when - behaviour that we want to test
+		MvcResult started = mockMvc.perform(MockMvcRequestBuilders.get("/v1/api/tweets/export")
+				.param("username", "oscar_umana").param("from", "2022-05-01")
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+			.andExpect(MockMvcResultMatchers.request().asyncStarted())
+			.andReturn();
+
+		//then - verify the output
+		byte[] body = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(started))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+			.andReturn().getResponse().getContentAsByteArray();
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+			Assertions.assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}\n");
+		}
+	}
+
+	//JUnit test for exportTweets operation with gzip refused
+	@Test
+	@DisplayName("JUnit test for exportTweets operation with gzip refused")
+	public void givenGzipWithZeroQuality_whenExportTweets_thenStreamUncompressed() throws Exception {
+		//given - precondition or setup
+		BDDMockito.given(tweetExportService.exportTweets(ArgumentMatchers.isNull(), ArgumentMatchers.isNull(),
+				ArgumentMatchers.isNull(), ArgumentMatchers.any(OutputStream.class))).willAnswer(invocation -> {
+					invocation.<OutputStream>getArgument(3).write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+					return 1L;
+				});
+
+		//when - behaviour that we want to test
+		MvcResult started = mockMvc.perform(MockMvcRequestBuilders.get("/v1/api/tweets/export")
+				.header(HttpHeaders.ACCEPT_ENCODING, "GZIP;q=0, *;q=0.5"))
+			.andExpect(MockMvcResultMatchers.request().asyncStarted())
+			.andReturn();
+
+		//then - verify the output
+		mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(started))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+			.andExpect(MockMvcResultMatchers.content().string("{\"id\":1}\n"));
+		Assertions.assertThat(TweetExportController.acceptsGzip("deflate, *")).isTrue();
+		Assertions.assertThat(TweetExportController.acceptsGzip("identity")).isFalse();
+	}
+
+	//JUnit test for exportTweets operation with an inverted range
+	@Test
+	@DisplayName("JUnit test for exportTweets operation with an inverted range")
+	public void givenInvertedRange_whenExportTweets_thenReturnBadRequest() throws Exception {
+		//when - behaviour that we want to test
+		mockMvc.perform(MockMvcRequestBuilders.get("/v1/api/tweets/export")
+				.param("from", "2022-05-10").param("to", "2022-05-01"))
+
+		//then - verify the output
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+}
@@ -0,0 +1,60 @@
+package com.oumana.controller;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.oumana.service.TweetExportService;
+
+/**
+ * Runs the export on a real container whose default async timeout is cut
+ * to 200ms, standing in for Tomcat's 30s against a long export.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "spring.mvc.async.request-timeout=200ms")
+public class TweetExportTimeoutTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@MockBean
+	private TweetExportService tweetExportService;
+
+	//JUnit test for exportTweets operation outlasting the container's async timeout
+	@Test
+	@DisplayName("JUnit test for exportTweets operation outlasting the container's async timeout")
+	public void givenSlowExport_whenItOutlastsContainerTimeout_thenStreamItToTheEnd() throws Exception {
+		//given - precondition or setup
+		AtomicReference<String> writer = new AtomicReference<>();
+		BDDMockito.given(tweetExportService.exportTweets(ArgumentMatchers.isNull(), ArgumentMatchers.isNull(),
+				ArgumentMatchers.isNull(), ArgumentMatchers.any(OutputStream.class))).willAnswer(invocation -> {
+					writer.set(Thread.currentThread().getName());
+					OutputStream out = invocation.getArgument(3);
+					out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+					out.flush();
+					Thread.sleep(1000);
+					out.write("{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+					return 2L;
+				});
+
+		//when - behaviour that we want to test
+		ResponseEntity<String> response = restTemplate.getForEntity("/v1/api/tweets/export", String.class);
+
+		//then - verify the output
+		Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		Assertions.assertThat(response.getBody()).isEqualTo("{\"id\":1}\n{\"id\":2}\n");
+		Assertions.assertThat(writer.get()).startsWith("tweet-export-");
+	}
+}
@@ -0,0 +1,65 @@
+package com.oumana.controller;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.oumana.stats.TweetStatistics;
+
+@WebMvcTest(TweetStatsController.class)
+public class TweetStatsControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private TweetStatistics tweetStatistics;
+
+	//JUnit test for getStats operation
+	@Test
+	@DisplayName("JUnit test for getStats operation")
+	public void givenCounts_whenGetStats_thenReturnAllCounts() throws Exception {
+		//given - precondition or setup
+		BDDMockito.given(tweetStatistics.total()).willReturn(3L);
+		BDDMockito.given(tweetStatistics.countsByUsername()).willReturn(Map.of("oscar_umana", 2L, "john_doe", 1L));
+		BDDMockito.given(tweetStatistics.countsByDay()).willReturn(new TreeMap<>(Map.of(LocalDate.of(2022, 5, 1), 3L)));
+
+		//when - behaviour that we want to test
+		mockMvc.perform(MockMvcRequestBuilders.get("/v1/api/tweets/stats"))
+
+		//then - verify the output
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.total", CoreMatchers.is(3)))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.byUsername.oscar_umana", CoreMatchers.is(2)))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.byDay['2022-05-01']", CoreMatchers.is(3)));
+	}
+
+	//JUnit test for getStats operation for one username
+	@Test
+	@DisplayName("JUnit test for getStats operation for one username")
+	public void givenUsername_whenGetStats_thenReturnOnlyThatCount() throws Exception {
+		//given - precondition or setup
+		BDDMockito.given(tweetStatistics.total()).willReturn(3L);
+		BDDMockito.given(tweetStatistics.countByUsername("oscar_umana")).willReturn(2L);
+
+		//when - behaviour that we want to test
+		mockMvc.perform(MockMvcRequestBuilders.get("/v1/api/tweets/stats").param("username", "oscar_umana"))
+
+		//then - verify the output
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.byUsername.oscar_umana", CoreMatchers.is(2)))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.byDay").doesNotExist());
+		BDDMockito.verify(tweetStatistics, BDDMockito.never()).countsByUsername();
+	}
+}
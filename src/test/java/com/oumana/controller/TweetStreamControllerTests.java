@@ -0,0 +1,56 @@
+package com.oumana.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.oumana.exception.SubscriptionRejectedException;
+import com.oumana.stream.TweetStreamBroadcaster;
+
+@WebMvcTest(TweetStreamController.class)
+public class TweetStreamControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private TweetStreamBroadcaster tweetStreamBroadcaster;
+
+	//JUnit test for streamTweets operation
+	@Test
+	@DisplayName("JUnit test for streamTweets operation")
+	public void givenFilters_whenStreamTweets_thenStartEventStream() throws Exception {
+		//given - precondition or setup
+		BDDMockito.given(tweetStreamBroadcaster.subscribe("oscar_umana", "spring")).willReturn(new SseEmitter());
+		
+		//when - behaviour that we want to test
+		ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/v1/api/tweets/stream")
+				.param("username", "oscar_umana").param("keyword", "spring"));
+		
+		//then - verify the output
+		response.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.request().asyncStarted());
+	}
+	
+	//JUnit test for streamTweets operation with too many subscribers
+	@Test
+	@DisplayName("JUnit test for streamTweets operation with too many subscribers")
+	public void givenTooManySubscribers_whenStreamTweets_thenReturnServiceUnavailable() throws Exception {
+		//given - precondition or setup
+		BDDMockito.given(tweetStreamBroadcaster.subscribe(null, null)).willThrow(SubscriptionRejectedException.class);
+		
+		//when - behaviour that we want to test
+		ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/v1/api/tweets/stream"));
+		
+		//then - verify the output
+		response.andExpect(MockMvcResultMatchers.status().isServiceUnavailable());
+	}
+}
@@ -0,0 +1,67 @@
+package com.oumana.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.oumana.dto.TweetPage;
+import com.oumana.entity.Tweet;
+import com.oumana.exception.BadRequestException;
+import com.oumana.service.TweetService;
+
+@WebMvcTest(UserController.class)
+public class UserControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private TweetService tweetService;
+
+	//JUnit test for getUserTimeline operation
+	@Test
+	@DisplayName("JUnit test for getUserTimeline operation")
+	public void givenUsername_whenGetUserTimeline_thenReturnTweetPage() throws Exception {
+		//given - precondition or setup
+		Tweet tweet = Tweet.builder().id(1L).name("Oscar Umaña").username("oscar_umana").imgUrl("www.twitter.com")
+				.profileImgUrl("www.twitter.com").text("this is a tweet").createdAt(LocalDate.now()).build();
+		
+		BDDMockito.given(tweetService.getUserTimeline("oscar_umana", "cursor", 10))
+			.willReturn(new TweetPage<>(List.of(tweet), null));
+		
+		//when - behaviour that we want to test
+		ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/v1/api/users/oscar_umana/tweets")
+				.param("before", "cursor").param("limit", "10"));
+		
+		//then - verify the output
+		response.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("$.tweets.size()", CoreMatchers.is(1)))
+		.andExpect(MockMvcResultMatchers.jsonPath("$.tweets[0].username", CoreMatchers.is("oscar_umana")));
+	}
+	
+	//JUnit test for getUserTimeline operation with invalid cursor
+	@Test
+	@DisplayName("JUnit test for getUserTimeline operation with invalid cursor")
+	public void givenInvalidCursor_whenGetUserTimeline_thenReturnBadRequest() throws Exception {
+		//given - precondition or setup
+		BDDMockito.given(tweetService.getUserTimeline("oscar_umana", "bogus", null)).willThrow(BadRequestException.class);
+		
+		//when - behaviour that we want to test
+		ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/v1/api/users/oscar_umana/tweets")
+				.param("before", "bogus"));
+		
+		//then - verify the output
+		response.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+}
@@ -0,0 +1,179 @@
+package com.oumana.execution;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.AsyncListener;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.oumana.controller.TweetController;
+import com.oumana.entity.Tweet;
+import com.oumana.service.TweetService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class RequestExecutorTests {
+
+	@Mock
+	private TweetService tweetService;
+
+	private RequestExecutor requestExecutor;
+
+	@AfterEach
+	public void tearDown() {
+		requestExecutor.shutdown();
+	}
+
+	//JUnit test for submit operation on platform threads
+	@Test
+	@DisplayName("JUnit test for submit operation on platform threads")
+	public void givenPlatformThreads_whenSubmit_thenRunOffTheCallingThread() throws Exception {
+		//given - precondition or setup
+		requestExecutor = new RequestExecutor(ThreadModel.PLATFORM, 2, 0, Duration.ofSeconds(5));
+		AtomicReference<String> thread = new AtomicReference<>();
+		CountDownLatch done = new CountDownLatch(1);
+
+		//when - behaviour that we want to test
+		DeferredResult<ResponseEntity<String>> result = requestExecutor.submit(() -> {
+			thread.set(Thread.currentThread().getName());
+			return ResponseEntity.ok("done");
+		});
+		result.setResultHandler(value -> done.countDown());
+
+		//then - verify the output
+		Assertions.assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+		Assertions.assertThat(result.getResult()).isEqualTo(ResponseEntity.ok("done"));
+		Assertions.assertThat(thread.get()).startsWith("tweet-request-");
+	}
+
+	//JUnit test for submit operation when saturated
+	@Test
+	@DisplayName("JUnit test for submit operation when saturated")
+	public void givenAllPermitsTaken_whenSubmit_thenAnswerServiceUnavailable() throws Exception {
+		//given - precondition or setup
+		requestExecutor = new RequestExecutor(ThreadModel.PLATFORM, 1, 1, Duration.ofSeconds(5));
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		requestExecutor.bindTo(meterRegistry);
+		CountDownLatch release = new CountDownLatch(1);
+		requestExecutor.submit(() -> {
+			await(release);
+			return ResponseEntity.ok("running");
+		});
+		requestExecutor.submit(() -> ResponseEntity.ok("queued"));
+
+		//when - behaviour that we want to test
+		DeferredResult<ResponseEntity<String>> rejected = requestExecutor.submit(() -> ResponseEntity.ok("rejected"));
+
+		//then - verify the output
+		ResponseEntity<?> response = (ResponseEntity<?>) rejected.getResult();
+		Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		Assertions.assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+		Assertions.assertThat(meterRegistry.get("tweets.async.inflight").gauge().value()).isEqualTo(2);
+		Assertions.assertThat(meterRegistry.get("tweets.async.rejected").tag("reason", "saturated")
+			.functionCounter().count()).isEqualTo(1);
+		release.countDown();
+	}
+
+	//JUnit test for request timeout operation
+	@Test
+	@DisplayName("JUnit test for request timeout operation")
+	public void givenSlowService_whenRequestTimesOut_thenInterruptTaskAndAnswerServiceUnavailable() throws Exception {
+		//given - precondition or setup
+		requestExecutor = new RequestExecutor(ThreadModel.PLATFORM, 1, 0, Duration.ofMillis(100));
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		requestExecutor.bindTo(meterRegistry);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		BDDMockito.given(tweetService.getTweetById(1L)).willAnswer(invocation -> {
+			started.countDown();
+			try {
+				Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+			} catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+			return Tweet.builder().id(1L).build();
+		});
+		MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new TweetController(tweetService, requestExecutor)).build();
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/api/tweets/1"))
+			.andExpect(MockMvcResultMatchers.request().asyncStarted())
+			.andReturn();
+		Assertions.assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+		//when - behaviour that we want to test
+		// the container would fire the timeout, MockMvc leaves it to the test
+		for (AsyncListener listener : ((MockAsyncContext) result.getRequest().getAsyncContext()).getListeners()) {
+			listener.onTimeout(null);
+		}
+
+		//then - verify the output
+		mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+			.andExpect(MockMvcResultMatchers.status().isServiceUnavailable());
+		Assertions.assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+		Assertions.assertThat(meterRegistry.get("tweets.async.rejected").tag("reason", "timeout")
+			.functionCounter().count()).isEqualTo(1);
+	}
+
+	//JUnit test for write timeout operation
+	@Test
+	@DisplayName("JUnit test for write timeout operation")
+	public void givenSlowWrite_whenRequestTimesOut_thenLetItFinishAndAnswerGatewayTimeout() throws Exception {
+		//given - precondition or setup
+		requestExecutor = new RequestExecutor(ThreadModel.PLATFORM, 1, 0, Duration.ofMillis(100));
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch finished = new CountDownLatch(1);
+		BDDMockito.willAnswer(invocation -> {
+			started.countDown();
+			await(release);
+			finished.countDown();
+			return null;
+		}).given(tweetService).deleteTweet(1L);
+		MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new TweetController(tweetService, requestExecutor)).build();
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.delete("/v1/api/tweets/1"))
+			.andExpect(MockMvcResultMatchers.request().asyncStarted())
+			.andReturn();
+		Assertions.assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+		//when - behaviour that we want to test
+		for (AsyncListener listener : ((MockAsyncContext) result.getRequest().getAsyncContext()).getListeners()) {
+			listener.onTimeout(null);
+		}
+		release.countDown();
+
+		//then - verify the output
+		mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+			.andExpect(MockMvcResultMatchers.status().isGatewayTimeout())
+			.andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.RETRY_AFTER));
+		Assertions.assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,162 @@
+package com.oumana.ingest;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.social.twitter.api.Tweet;
+
+import com.oumana.dto.TweetBatchItem;
+import com.oumana.dto.TweetBatchResult;
+import com.oumana.repository.TweetRepository;
+import com.oumana.service.TweetService;
+
+@ExtendWith(MockitoExtension.class)
+public class TweetIngestionPipelineTests {
+
+	@Mock
+	private TweetService tweetService;
+
+	@Mock
+	private TweetRepository tweetRepository;
+
+	@Mock
+	private TweetSource tweetSource;
+
+	private static Tweet upstream(long id, String screenName, String text) {
+		FileTweetSource.FeedRecord record = new FileTweetSource.FeedRecord();
+		record.id = id;
+		record.text = text;
+		record.createdAt = 1652313600000L;
+		record.screenName = screenName;
+		record.profileImageUrl = "https://img.example.com/" + screenName + ".png";
+		return FileTweetSource.toTweet(record);
+	}
+
+	private static TweetBatchResult created(int count) {
+		List<TweetBatchItem> items = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			items.add(TweetBatchItem.created(i, (long) i));
+		}
+		return new TweetBatchResult(count, 0, items);
+	}
+
+	@SuppressWarnings("unchecked")
+	private ArgumentCaptor<List<com.oumana.entity.Tweet>> batchCaptor() {
+		return ArgumentCaptor.forClass(List.class);
+	}
+
+	//JUnit test for deduplicated batch write
+	@Test
+	@DisplayName("JUnit test for deduplicated batch write")
+	public void givenDuplicateUpstreamIds_whenWriteBatch_thenWriteEachTweetOnce() {
+		//given - precondition or setup
+		TweetIngestionPipeline pipeline = new TweetIngestionPipeline(tweetSource, tweetService, tweetRepository, 100,
+				50, 10, 1000);
+		given(tweetRepository.findExistingSourceIds(anyCollection())).willReturn(List.of(3L));
+		given(tweetService.saveTweets(anyList())).willReturn(created(2));
+
+		//when - behaviour that we want to test
+		int written = pipeline.writeBatch(List.of(upstream(1L, "oscar_umana", "one"),
+				upstream(2L, "oscar_umana", "two"), upstream(1L, "oscar_umana", "one again"),
+				upstream(3L, "another_user", "already stored")));
+		int writtenAgain = pipeline.writeBatch(List.of(upstream(2L, "oscar_umana", "two")));
+
+		//then - verify the output
+		ArgumentCaptor<List<com.oumana.entity.Tweet>> batch = batchCaptor();
+		then(tweetService).should().saveTweets(batch.capture());
+		Assertions.assertThat(written).isEqualTo(2);
+		Assertions.assertThat(writtenAgain).isZero();
+		Assertions.assertThat(batch.getValue()).extracting(com.oumana.entity.Tweet::getSourceId).containsExactly(1L, 2L);
+		Assertions.assertThat(batch.getValue().get(0).getUsername()).isEqualTo("oscar_umana");
+		Assertions.assertThat(batch.getValue().get(0).getCreatedAt()).isEqualTo(LocalDate.of(2022, 5, 12));
+	}
+
+	//JUnit test for batch write with a failed item
+	@Test
+	@DisplayName("JUnit test for batch write with a failed item")
+	public void givenFailedItem_whenSameTweetArrivesAgain_thenRetryIt() {
+		//given - precondition or setup
+		TweetIngestionPipeline pipeline = new TweetIngestionPipeline(tweetSource, tweetService, tweetRepository, 100,
+				50, 10, 1000);
+		given(tweetRepository.findExistingSourceIds(anyCollection())).willReturn(List.of());
+		given(tweetService.saveTweets(anyList())).willReturn(
+				new TweetBatchResult(1, 1, List.of(TweetBatchItem.created(0, 10L), TweetBatchItem.failed(1, "rejected"))),
+				created(1));
+		pipeline.writeBatch(List.of(upstream(1L, "oscar_umana", "one"), upstream(2L, "oscar_umana", "two")));
+
+		//when - behaviour that we want to test
+		int writtenAgain = pipeline.writeBatch(List.of(upstream(1L, "oscar_umana", "one"),
+				upstream(2L, "oscar_umana", "two")));
+
+		//then - verify the output
+		ArgumentCaptor<List<com.oumana.entity.Tweet>> batch = batchCaptor();
+		then(tweetService).should(times(2)).saveTweets(batch.capture());
+		Assertions.assertThat(writtenAgain).isEqualTo(1);
+		Assertions.assertThat(batch.getAllValues().get(1)).extracting(com.oumana.entity.Tweet::getSourceId)
+			.containsExactly(2L);
+	}
+
+	//JUnit test for file feed ingestion
+	@Test
+	@DisplayName("JUnit test for file feed ingestion")
+	public void givenFileSource_whenPipelineStarted_thenWriteFeedInBatches() throws Exception {
+		//given - precondition or setup
+		Path feed = Path.of(getClass().getResource("/ingest/sample-feed.ndjson").toURI());
+		given(tweetRepository.findExistingSourceIds(anyCollection())).willReturn(List.of());
+		given(tweetService.saveTweets(anyList())).willAnswer(invocation -> created(invocation.<List<?>>getArgument(0).size()));
+		TweetIngestionPipeline pipeline = new TweetIngestionPipeline(new FileTweetSource(feed), tweetService,
+				tweetRepository, 2, 10, 10, 1000);
+
+		//when - behaviour that we want to test
+		pipeline.start();
+		long deadline = System.currentTimeMillis() + 5000;
+		while (pipeline.written() < 3 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		pipeline.stop();
+
+		//then - verify the output
+		Assertions.assertThat(pipeline.written()).isEqualTo(3);
+		Assertions.assertThat(pipeline.queued()).isZero();
+	}
+
+	//JUnit test for mapping media and profile
+	@Test
+	@DisplayName("JUnit test for mapping media and profile")
+	public void givenFeedRecordWithMedia_whenMapped_thenCopyProfileAndMedia() {
+		//given - precondition or setup
+		FileTweetSource.FeedRecord record = new FileTweetSource.FeedRecord();
+		record.id = 42L;
+		record.text = "Look at this";
+		record.createdAt = 1652313600000L;
+		record.screenName = "oscar_umana";
+		record.name = "Oscar Umaña";
+		record.profileImageUrl = "https://img.example.com/oscar.png";
+		record.mediaUrl = "https://img.example.com/media/1.png";
+
+		//when - behaviour that we want to test
+		com.oumana.entity.Tweet tweet = TwitterTweetMapper.map(FileTweetSource.toTweet(record));
+
+		//then - verify the output
+		Assertions.assertThat(tweet.getId()).isNull();
+		Assertions.assertThat(tweet.getSourceId()).isEqualTo(42L);
+		Assertions.assertThat(tweet.getName()).isEqualTo("Oscar Umaña");
+		Assertions.assertThat(tweet.getProfileImgUrl()).isEqualTo("https://img.example.com/oscar.png");
+		Assertions.assertThat(tweet.getImgUrl()).isEqualTo("https://img.example.com/media/1.png");
+	}
+}
@@ -0,0 +1,103 @@
+package com.oumana.memstore;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oumana.config.MemStoreConfig;
+import com.oumana.entity.Tweet;
+import com.oumana.repository.TweetRepository;
+import com.oumana.repository.TweetRepositoryTests;
+
+/**
+ * Runs the repository tests against the in-memory store in front of JPA;
+ * the tests below cover loading, rollback and the memory report.
+ */
+@DataJpaTest
+@Import(MemStoreConfig.class)
+@TestPropertySource(properties = "tweets.memstore.enabled=true")
+public class InMemoryTweetRepositoryTests extends TweetRepositoryTests {
+	@Autowired
+	private TweetRepository tweetRepository;
+
+	@Autowired
+	@Qualifier("tweetRepository")
+	private TweetRepository jpaTweetRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	//JUnit test for load operation
+	@Test
+	@DisplayName("JUnit test for load operation")
+	public void givenTweetsInDatabase_whenLoad_thenServeThemFromMemory() {
+		//given - precondition or setup
+		List<Tweet> tweets = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			tweets.add(Tweet.builder().username(i % 2 == 0 ? "oscar_umana" : "john_doe").text("tweet " + i)
+					.createdAt(LocalDate.now().minusDays(i)).build());
+		}
+		jpaTweetRepository.saveAllAndFlush(tweets);
+		InMemoryTweetRepository repository = new InMemoryTweetRepository(jpaTweetRepository,
+				new ColumnarTweetStore(16), transactionManager, 2);
+
+		//when - behaviour that we want to test
+		repository.load();
+
+		//then - verify the output
+		Assertions.assertThat(repository.count()).isEqualTo(5);
+		Assertions.assertThat(repository.findById(tweets.get(3).getId()).orElseThrow().getText()).isEqualTo("tweet 3");
+		Assertions.assertThat(repository.findByUsername("oscar_umana")).extracting(Tweet::getText)
+			.containsExactly("tweet 0", "tweet 2", "tweet 4");
+	}
+
+	//JUnit test for rolled back save operation
+	@Test
+	@DisplayName("JUnit test for rolled back save operation")
+	public void givenRolledBackSave_whenFindById_thenReturnEmpty() {
+		//given - precondition or setup
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+		//when - behaviour that we want to test
+		Long id = transaction.execute(status -> {
+			Tweet saved = tweetRepository.save(Tweet.builder().username("oscar_umana").text("never committed").build());
+			status.setRollbackOnly();
+			return saved.getId();
+		});
+
+		//then - verify the output
+		Assertions.assertThat(tweetRepository.findById(id)).isEmpty();
+	}
+
+	//JUnit test for memory report operation
+	@Test
+	@DisplayName("JUnit test for memory report operation")
+	public void givenTweets_whenReportMemory_thenColumnarIsSmallerThanEntities() {
+		//given - precondition or setup
+		ColumnarTweetStore store = new ColumnarTweetStore(10000);
+		for (long id = 1; id <= 10000; id++) {
+			store.put(Tweet.builder().id(id).username("user_" + (id % 100)).text("this is tweet number " + id)
+					.imgUrl("www.twitter.com").createdAt(LocalDate.now()).build());
+		}
+
+		//when - behaviour that we want to test
+		long columnar = store.columnarBytes();
+		long entity = store.entityBytes();
+
+		//then - verify the output
+		Assertions.assertThat(columnar).isLessThan(entity * 2 / 3);
+	}
+}
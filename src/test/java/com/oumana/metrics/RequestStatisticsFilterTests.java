@@ -0,0 +1,47 @@
+package com.oumana.metrics;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class RequestStatisticsFilterTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	//JUnit test for per request statement count
+	@Test
+	@DisplayName("JUnit test for per request statement count")
+	public void givenRequest_whenServed_thenRecordStatementsPerUri() throws Exception {
+		//given - precondition or setup
+
+		//when - behaviour that we want to test
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/api/tweets"))
+			.andExpect(MockMvcResultMatchers.request().asyncStarted())
+			.andReturn();
+		mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+			.andExpect(MockMvcResultMatchers.status().isOk());
+
+		//then - verify the output
+		DistributionSummary statements = meterRegistry.find("tweets.request.statements")
+			.tag("uri", "/v1/api/tweets").tag("method", "GET").summary();
+		Assertions.assertThat(statements).isNotNull();
+		Assertions.assertThat(statements.count()).isEqualTo(1);
+		Assertions.assertThat(statements.totalAmount()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,154 @@
+package com.oumana.repository;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.util.unit.DataSize;
+
+import com.oumana.entity.Tweet;
+
+/**
+ * Runs the repository tests against the log store; the tests below cover
+ * what only the log store has, recovery and compaction.
+ */
+@DataJpaTest
+@ActiveProfiles("logstore")
+@Import(LogStructuredTweetRepository.class)
+@TestPropertySource(properties = {
+	"tweets.logstore.dir=target/logstore-tests",
+	"tweets.logstore.initial-size=1MB"
+})
+public class LogStructuredTweetRepositoryTests extends TweetRepositoryTests {
+	@Autowired
+	private TweetStore tweetRepository;
+
+	@TempDir
+	Path directory;
+
+	@BeforeEach
+	public void clearLog() {
+		// the log is not rolled back with the test transaction
+		tweetRepository.deleteAll();
+	}
+
+	//JUnit test for log replay operation
+	@Test
+	@DisplayName("JUnit test for log replay operation")
+	public void givenWrittenLog_whenReopen_thenRecoverLatestState() throws IOException {
+		//given - precondition or setup
+		LogStructuredTweetRepository repository = open();
+		Tweet kept = repository.save(tweet("kept"));
+		Tweet removed = repository.save(tweet("removed"));
+		kept.setText("kept and edited");
+		repository.save(kept);
+		repository.deleteById(removed.getId());
+		repository.stop();
+
+		//when - behaviour that we want to test
+		LogStructuredTweetRepository reopened = open();
+
+		//then - verify the output
+		Assertions.assertThat(reopened.findAll()).extracting(Tweet::getText).containsExactly("kept and edited");
+		Assertions.assertThat(reopened.findById(kept.getId()).orElseThrow().getVersion()).isEqualTo(1);
+		Assertions.assertThat(reopened.save(tweet("next")).getId()).isGreaterThan(removed.getId());
+		reopened.stop();
+	}
+
+	//JUnit test for torn write recovery operation
+	@Test
+	@DisplayName("JUnit test for torn write recovery operation")
+	public void givenTornLastRecord_whenReopen_thenDropOnlyThatRecord() throws IOException {
+		//given - precondition or setup
+		LogStructuredTweetRepository repository = open();
+		repository.save(tweet("first"));
+		repository.save(tweet("second"));
+		repository.stop();
+		Path file = directory.resolve(LogStructuredTweetRepository.LOG_FILE);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 3);
+		}
+
+		//when - behaviour that we want to test
+		LogStructuredTweetRepository reopened = open();
+		reopened.save(tweet("third"));
+
+		//then - verify the output
+		Assertions.assertThat(reopened.findAll()).extracting(Tweet::getText).containsExactly("first", "third");
+		reopened.stop();
+		LogStructuredTweetRepository again = open();
+		Assertions.assertThat(again.findAll()).extracting(Tweet::getText).containsExactly("first", "third");
+		again.stop();
+	}
+
+	//JUnit test for compact operation
+	@Test
+	@DisplayName("JUnit test for compact operation")
+	public void givenSupersededRecords_whenCompact_thenShrinkLogAndKeepTweets() throws IOException {
+		//given - precondition or setup
+		LogStructuredTweetRepository repository = open();
+		Tweet tweet = repository.save(tweet("version 0"));
+		for (int i = 1; i <= 20; i++) {
+			tweet.setText("version " + i);
+			repository.save(tweet);
+		}
+		Tweet other = repository.save(tweet("other"));
+		repository.deleteById(repository.save(tweet("deleted")).getId());
+		long before = repository.logSize();
+
+		//when - behaviour that we want to test
+		repository.compact();
+
+		//then - verify the output
+		Assertions.assertThat(repository.logSize()).isLessThan(before / 5);
+		Assertions.assertThat(repository.findAll()).extracting(Tweet::getText).containsExactly("version 20", "other");
+		repository.save(tweet("after compaction"));
+		repository.stop();
+		LogStructuredTweetRepository reopened = open();
+		Assertions.assertThat(reopened.findById(other.getId())).isPresent();
+		Assertions.assertThat(reopened.count()).isEqualTo(3);
+		reopened.stop();
+	}
+
+	//JUnit test for id allocation after compaction
+	@Test
+	@DisplayName("JUnit test for id allocation after compaction")
+	public void givenNewestTweetDeletedAndCompacted_whenReopenAndSave_thenNeverReuseItsId() throws IOException {
+		//given - precondition or setup
+		LogStructuredTweetRepository repository = open();
+		repository.save(tweet("kept"));
+		Tweet deleted = repository.save(tweet("deleted"));
+		repository.deleteById(deleted.getId());
+		repository.compact();
+		repository.stop();
+
+		//when - behaviour that we want to test
+		LogStructuredTweetRepository reopened = open();
+		Tweet saved = reopened.save(tweet("next"));
+
+		//then - verify the output
+		Assertions.assertThat(saved.getId()).isGreaterThan(deleted.getId());
+		reopened.stop();
+	}
+
+	private LogStructuredTweetRepository open() throws IOException {
+		return new LogStructuredTweetRepository(directory, DataSize.ofKilobytes(4), false, 0.5, Duration.ofHours(1));
+	}
+
+	private static Tweet tweet(String text) {
+		return Tweet.builder().username("oscar_umana").text(text).createdAt(LocalDate.now()).build();
+	}
+}
@@ -2,7 +2,9 @@ package com.oumana.repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,13 +12,16 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 
+import com.oumana.dto.TweetField;
+import com.oumana.dto.TweetPatch;
 import com.oumana.entity.Tweet;
 
 @DataJpaTest
 public class TweetRepositoryTests {
 	@Autowired
-	private TweetRepository tweetRepository;
+	private TweetStore tweetRepository;
 	
 	private Tweet tweet;
 	
@@ -179,4 +184,183 @@ public class TweetRepositoryTests {
 		Assertions.assertThat(tweetsLikeText).isNotNull();
 		Assertions.assertThat(tweetsLikeText.size()).isEqualTo(2);
 	}
+	
+	//JUnit test for find latest tweets before id operation
+	@Test
+	@DisplayName("JUnit test for find latest tweets before id operation")
+	public void givenTweets_whenFindLatestBefore_thenReturnOlderTweetsNewestFirst() {
+		//given - precondition or setup
+		Tweet tweet2 = Tweet.builder()
+				.name("Oscar Umaña")
+				.username("oscar_umana")
+				.imgUrl("www.twitter.com")
+				.profileImgUrl("www.twitter.com")
+				.text("this is another tweet")
+				.createdAt(LocalDate.now())
+				.build();
+		Tweet tweet3 = Tweet.builder()
+				.name("Oscar Umaña")
+				.username("oscar_umana")
+				.imgUrl("www.twitter.com")
+				.profileImgUrl("www.twitter.com")
+				.text("this is a third tweet")
+				.createdAt(LocalDate.now())
+				.build();
+		
+		tweetRepository.save(tweet);
+		tweetRepository.save(tweet2);
+		tweetRepository.save(tweet3);
+		
+		//when - behaviour that we want to test
+		List<Tweet> latest = tweetRepository.findLatest(PageRequest.of(0, 2));
+		List<Tweet> older = tweetRepository.findLatestBefore(tweet3.getId(), PageRequest.of(0, 2));
+		
+		//then - verify the output
+		Assertions.assertThat(latest).containsExactly(tweet3, tweet2);
+		Assertions.assertThat(older).containsExactly(tweet2, tweet);
+	}
+	
+	//JUnit test for insert all tweets operation
+	@Test
+	@DisplayName("JUnit test for insert all tweets operation")
+	public void givenTweetList_whenInsertAll_thenAssignIdsAndPersist() {
+		//given - precondition or setup
+		Tweet tweet2 = Tweet.builder()
+				.name("Oscar Umaña")
+				.username("oscar_umana")
+				.imgUrl("www.twitter.com")
+				.profileImgUrl("www.twitter.com")
+				.text("this is another tweet")
+				.createdAt(LocalDate.now())
+				.build();
+		
+		//when - behaviour that we want to test
+		tweetRepository.insertAll(List.of(tweet, tweet2));
+		
+		//then - verify the output
+		Assertions.assertThat(tweet.getId()).isNotNull();
+		Assertions.assertThat(tweet2.getId()).isNotNull();
+		Assertions.assertThat(tweetRepository.findAll().size()).isEqualTo(2);
+	}
+	
+	//JUnit test for find user timeline operation
+	@Test
+	@DisplayName("JUnit test for find user timeline operation")
+	public void givenTweets_whenFindTimeline_thenReturnUserTweetsNewestFirst() {
+		//given - precondition or setup
+		Tweet yesterday = Tweet.builder()
+				.name("Oscar Umaña")
+				.username("oscar_umana")
+				.text("this is an older tweet")
+				.createdAt(LocalDate.now().minusDays(1))
+				.build();
+		Tweet otherUser = Tweet.builder()
+				.name("Oscar Umaña")
+				.username("another_user")
+				.text("this is another user tweet")
+				.createdAt(LocalDate.now())
+				.build();
+		Tweet today = Tweet.builder()
+				.name("Oscar Umaña")
+				.username("oscar_umana")
+				.text("this is a newer tweet")
+				.createdAt(LocalDate.now())
+				.build();
+		
+		tweetRepository.save(tweet);
+		tweetRepository.save(yesterday);
+		tweetRepository.save(otherUser);
+		tweetRepository.save(today);
+		
+		//when - behaviour that we want to test
+		List<Tweet> firstPage = tweetRepository.findTimeline("oscar_umana", PageRequest.of(0, 2));
+		List<Tweet> nextPage = tweetRepository.findTimelineBefore("oscar_umana", tweet.getCreatedAt(), tweet.getId(),
+				PageRequest.of(0, 2));
+		
+		//then - verify the output
+		Assertions.assertThat(firstPage).containsExactly(today, tweet);
+		Assertions.assertThat(nextPage).containsExactly(yesterday);
+	}
+	
+	//JUnit test for version lookup operation
+	@Test
+	@DisplayName("JUnit test for version lookup operation")
+	public void givenUpdatedTweet_whenFindVersionById_thenReturnIncrementedVersion() {
+		//given - precondition or setup
+		Tweet savedTweet = tweetRepository.saveAndFlush(tweet);
+		long initialVersion = savedTweet.getVersion();
+		savedTweet.setText("this is an updated tweet");
+		tweetRepository.saveAndFlush(savedTweet);
+		
+		//when - behaviour that we want to test
+		Optional<TweetVersionEntry> version = tweetRepository.findVersionById(savedTweet.getId());
+		
+		//then - verify the output
+		Assertions.assertThat(version).map(TweetVersionEntry::getVersion).contains(initialVersion + 1);
+		Assertions.assertThat(version).map(TweetVersionEntry::getUsername).contains(savedTweet.getUsername());
+		Assertions.assertThat(tweetRepository.findVersionById(savedTweet.getId() + 1000)).isEmpty();
+	}
+	
+	//JUnit test for patch operation
+	@Test
+	@DisplayName("JUnit test for patch operation")
+	public void givenExpectedVersion_whenPatch_thenUpdateOnlyMatchingVersion() {
+		//given - precondition or setup
+		Tweet savedTweet = tweetRepository.saveAndFlush(tweet);
+		long version = savedTweet.getVersion();
+		TweetPatch patch = new TweetPatch();
+		patch.setText("this is a patched tweet");
+		
+		//when - behaviour that we want to test
+		int patched = tweetRepository.patch(savedTweet.getId(), patch, version);
+		int stale = tweetRepository.patch(savedTweet.getId(), patch, version);
+		
+		//then - verify the output
+		Assertions.assertThat(patched).isEqualTo(1);
+		Assertions.assertThat(stale).isZero();
+		Tweet patchedTweet = tweetRepository.findById(savedTweet.getId()).get();
+		Assertions.assertThat(patchedTweet.getText()).isEqualTo("this is a patched tweet");
+		Assertions.assertThat(patchedTweet.getImgUrl()).isEqualTo(tweet.getImgUrl());
+		Assertions.assertThat(patchedTweet.getVersion()).isEqualTo(version + 1);
+	}
+	
+	//JUnit test for bulk delete operation
+	@Test
+	@DisplayName("JUnit test for bulk delete operation")
+	public void givenTweets_whenBulkDeleteByIds_thenDeleteOnlyThoseTweets() {
+		//given - precondition or setup
+		Tweet first = tweetRepository.save(tweet);
+		Tweet second = tweetRepository.save(tweet.toBuilder().id(null).text("second").build());
+		Tweet kept = tweetRepository.save(tweet.toBuilder().id(null).text("kept").build());
+		
+		//when - behaviour that we want to test
+		int deleted = tweetRepository.bulkDeleteByIds(List.of(first.getId(), second.getId(), kept.getId() + 1000));
+		
+		//then - verify the output
+		Assertions.assertThat(deleted).isEqualTo(2);
+		Assertions.assertThat(tweetRepository.findAll()).extracting(Tweet::getId).containsExactly(kept.getId());
+	}
+	
+	//JUnit test for projected timeline operation
+	@Test
+	@DisplayName("JUnit test for projected timeline operation")
+	public void givenTweets_whenFindTimelineRows_thenReturnOnlySelectedFields() {
+		//given - precondition or setup
+		Tweet older = tweetRepository.save(tweet.toBuilder().createdAt(LocalDate.now().minusDays(1)).build());
+		Tweet newer = tweetRepository.save(tweet.toBuilder().id(null).text("newer").build());
+		tweetRepository.save(tweet.toBuilder().id(null).username("another_user").build());
+		Set<TweetField> fields = TweetField.parse("text,createdAt");
+		
+		//when - behaviour that we want to test
+		List<Map<String, Object>> firstPage = tweetRepository.findTimelineRows("oscar_umana", null, null, fields, 1);
+		List<Map<String, Object>> secondPage = tweetRepository.findTimelineRows("oscar_umana",
+				newer.getCreatedAt(), newer.getId(), fields, 10);
+		
+		//then - verify the output
+		Assertions.assertThat(firstPage).hasSize(1);
+		Assertions.assertThat(firstPage.get(0)).containsOnlyKeys("id", "createdAt", "text")
+			.containsEntry("id", newer.getId())
+			.containsEntry("text", "newer");
+		Assertions.assertThat(secondPage).extracting(row -> row.get("id")).containsExactly(older.getId());
+	}
 }
@@ -0,0 +1,127 @@
+package com.oumana.routing;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oumana.entity.Tweet;
+import com.oumana.repository.AuthorRepository;
+import com.oumana.service.TweetService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {
+		"tweets.datasource.routing.enabled=true",
+		"tweets.datasource.routing.sticky-window=1m",
+		"tweets.datasource.replica.jdbc-url=jdbc:h2:mem:routing-tests",
+		"tweets.datasource.replica.sync-interval=0s",
+		"tweets.async.threads=platform"
+})
+@AutoConfigureMockMvc
+public class ReadWriteRoutingDataSourceTests {
+
+	@Autowired
+	private TweetService tweetService;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private H2ReplicaSync h2ReplicaSync;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	//JUnit test for read only routing
+	@Test
+	@DisplayName("JUnit test for read only routing")
+	public void givenTweetNotYetReplicated_whenReadOnlyRead_thenServedByReplica() {
+		//given - precondition or setup
+		Tweet tweet = tweetService.saveTweet(Tweet.builder().username("oscar_umana").text("written to the primary")
+				.createdAt(LocalDate.now()).build());
+		double replicaReads = meterRegistry.get("tweets.datasource.routing").tag("target", "replica").functionCounter().count();
+
+		//when - behaviour that we want to test
+		List<Long> beforeSync = ids(tweetService.getTweetPage(null, 100).getTweets());
+		h2ReplicaSync.sync();
+		List<Long> afterSync = ids(tweetService.getTweetPage(null, 100).getTweets());
+
+		//then - verify the output
+		Assertions.assertThat(beforeSync).doesNotContain(tweet.getId());
+		Assertions.assertThat(afterSync).contains(tweet.getId());
+		Assertions.assertThat(meterRegistry.get("tweets.datasource.routing").tag("target", "replica").functionCounter().count())
+			.isEqualTo(replicaReads + 2);
+		Assertions.assertThat(meterRegistry.get("hikaricp.connections.usage").tag("pool", "replica").timer().count())
+			.isPositive();
+	}
+
+	//JUnit test for read your writes routing
+	@Test
+	@DisplayName("JUnit test for read your writes routing")
+	public void givenClientJustWrote_whenClientReads_thenServedByPrimary() throws Exception {
+		//given - precondition or setup
+		Tweet tweet = Tweet.builder().username("oscar_umana").text("read your own writes").createdAt(LocalDate.now())
+			.build();
+		long id = perform(MockMvcRequestBuilders.post("/v1/api/tweets").header("X-Client-Id", "writer")
+				.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(tweet)))
+			.get("id").asLong();
+
+		//when - behaviour that we want to test
+		JsonNode writerPage = perform(MockMvcRequestBuilders.get("/v1/api/tweets?limit=100").header("X-Client-Id", "writer"));
+		JsonNode readerPage = perform(MockMvcRequestBuilders.get("/v1/api/tweets?limit=100").header("X-Client-Id", "reader"));
+
+		//then - verify the output
+		Assertions.assertThat(writerPage.findValuesAsText("id")).contains(Long.toString(id));
+		Assertions.assertThat(readerPage.findValuesAsText("id")).doesNotContain(Long.toString(id));
+		Assertions.assertThat(meterRegistry.get("tweets.datasource.routing").tag("reason", "sticky").functionCounter().count())
+			.isPositive();
+	}
+
+	//JUnit test for author upsert with routing
+	@Test
+	@DisplayName("JUnit test for author upsert with routing")
+	public void givenAuthorNotYetReplicated_whenProfileChanges_thenUpdateAuthorOnPrimary() {
+		//given - precondition or setup
+		tweetService.saveTweet(Tweet.builder().username("routed_author").name("First Name").text("first")
+				.createdAt(LocalDate.now()).build());
+
+		//when - behaviour that we want to test
+		Tweet saved = tweetService.saveTweet(Tweet.builder().username("routed_author").name("Second Name")
+				.text("second").createdAt(LocalDate.now()).build());
+
+		//then - verify the output
+		Assertions.assertThat(saved.getName()).isEqualTo("Second Name");
+		Assertions.assertThat(authorRepository.findForUpdate("routed_author").orElseThrow().getName())
+			.isEqualTo("Second Name");
+	}
+
+	private JsonNode perform(RequestBuilder request) throws Exception {
+		MvcResult result = mockMvc.perform(request).andReturn();
+		MvcResult dispatched = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result)).andReturn();
+		return objectMapper.readTree(dispatched.getResponse().getContentAsString());
+	}
+
+	private static List<Long> ids(List<Tweet> tweets) {
+		return tweets.stream().map(Tweet::getId).collect(Collectors.toList());
+	}
+}
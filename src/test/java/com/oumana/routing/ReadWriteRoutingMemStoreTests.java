@@ -0,0 +1,45 @@
+package com.oumana.routing;
+
+import java.time.LocalDate;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oumana.entity.Tweet;
+import com.oumana.memstore.InMemoryTweetRepository;
+
+@SpringBootTest(properties = {
+		"tweets.datasource.routing.enabled=true",
+		"tweets.datasource.replica.jdbc-url=jdbc:h2:mem:routing-memstore-tests",
+		"tweets.datasource.replica.sync-interval=0s",
+		"tweets.memstore.enabled=true"
+})
+public class ReadWriteRoutingMemStoreTests {
+
+	@Autowired
+	private InMemoryTweetRepository inMemoryTweetRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	//JUnit test for in-memory store resync with routing
+	@Test
+	@DisplayName("JUnit test for in-memory store resync with routing")
+	public void givenTweetNotYetReplicated_whenSaveCommits_thenKeepItInMemory() {
+		//given - precondition or setup
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+		//when - behaviour that we want to test
+		// no client, as on the ingestion and archiver threads, so nothing is sticky
+		Long id = transaction.execute(status -> inMemoryTweetRepository.save(Tweet.builder().username("oscar_umana")
+				.text("written by a background thread").createdAt(LocalDate.now()).build()).getId());
+
+		//then - verify the output
+		Assertions.assertThat(inMemoryTweetRepository.findById(id)).isPresent();
+	}
+}
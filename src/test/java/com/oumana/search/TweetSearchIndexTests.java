@@ -0,0 +1,85 @@
+package com.oumana.search;
+
+import java.time.LocalDate;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.oumana.entity.Tweet;
+
+public class TweetSearchIndexTests {
+	private TweetSearchIndex tweetSearchIndex;
+
+	@BeforeEach
+	public void setup() {
+		tweetSearchIndex = new TweetSearchIndex(null, null);
+		tweetSearchIndex.index(tweet(1L, "Spring Boot makes REST easy"));
+		tweetSearchIndex.index(tweet(2L, "spring spring spring"));
+		tweetSearchIndex.index(tweet(3L, "Boot camp starts today"));
+	}
+
+	private Tweet tweet(long id, String text) {
+		return Tweet.builder().id(id).name("Oscar Umaña").username("oscar_umana").imgUrl("www.twitter.com")
+				.profileImgUrl("www.twitter.com").text(text).createdAt(LocalDate.now()).build();
+	}
+
+	//JUnit test for tokenize operation
+	@Test
+	@DisplayName("JUnit test for tokenize operation")
+	public void givenText_whenTokenize_thenReturnLowercaseTerms() {
+		//given - precondition or setup
+		String text = "Hello, World! #Spring_Boot";
+
+		//when - behaviour that we want to test
+		//then - verify the output
+		Assertions.assertThat(TweetSearchIndex.tokenize(text)).containsExactly("hello", "world", "spring_boot");
+	}
+
+	//JUnit test for search operation with AND
+	@Test
+	@DisplayName("JUnit test for search operation with AND")
+	public void givenTerms_whenSearchAll_thenReturnOnlyTweetsWithEveryTerm() {
+		//given - precondition or setup
+
+		//when - behaviour that we want to test
+		SearchHits hits = tweetSearchIndex.search("spring BOOT", true, 0, 10);
+
+		//then - verify the output
+		Assertions.assertThat(hits.getIds()).containsExactly(1L);
+		Assertions.assertThat(hits.getTotal()).isEqualTo(1);
+	}
+
+	//JUnit test for search operation with OR
+	@Test
+	@DisplayName("JUnit test for search operation with OR")
+	public void givenTerms_whenSearchAny_thenReturnRankedTweets() {
+		//given - precondition or setup
+
+		//when - behaviour that we want to test
+		SearchHits hits = tweetSearchIndex.search("spring boot", false, 0, 10);
+		SearchHits secondPage = tweetSearchIndex.search("spring boot", false, 2, 2);
+
+		//then - verify the output
+		Assertions.assertThat(hits.getIds()).containsExactly(2L, 1L, 3L);
+		Assertions.assertThat(secondPage.getIds()).containsExactly(3L);
+		Assertions.assertThat(secondPage.getTotal()).isEqualTo(3);
+	}
+
+	//JUnit test for index update and remove operations
+	@Test
+	@DisplayName("JUnit test for index update and remove operations")
+	public void givenIndexedTweet_whenUpdateAndRemove_thenPostingsFollow() {
+		//given - precondition or setup
+
+		//when - behaviour that we want to test
+		tweetSearchIndex.index(tweet(2L, "nothing to see"));
+		tweetSearchIndex.remove(3L);
+
+		//then - verify the output
+		Assertions.assertThat(tweetSearchIndex.search("spring", false, 0, 10).getIds()).containsExactly(1L);
+		Assertions.assertThat(tweetSearchIndex.search("camp", false, 0, 10).getIds()).isEmpty();
+		Assertions.assertThat(tweetSearchIndex.size()).isEqualTo(2);
+	}
+}
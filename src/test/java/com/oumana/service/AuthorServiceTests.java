@@ -0,0 +1,95 @@
+package com.oumana.service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import com.oumana.cache.AuthorCache;
+import com.oumana.dto.TweetField;
+import com.oumana.entity.Author;
+import com.oumana.entity.Tweet;
+import com.oumana.repository.AuthorRepository;
+
+@DataJpaTest
+@Import({ AuthorService.class, AuthorCache.class })
+public class AuthorServiceTests {
+
+	@Autowired
+	private AuthorService authorService;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	private Tweet tweet;
+
+	@BeforeEach
+	public void setup() {
+		tweet = Tweet.builder().name("Oscar Umaña").username("oscar_umana").profileImgUrl("www.twitter.com")
+				.text("this is a tweet").createdAt(LocalDate.now()).build();
+	}
+
+	//JUnit test for register and enrich operations
+	@Test
+	@DisplayName("JUnit test for register and enrich operations")
+	public void givenRegisteredAuthor_whenEnrich_thenReturnTweetWithProfile() {
+		//given - precondition or setup
+		authorService.register(List.of(tweet));
+		Tweet stored = Tweet.builder().username("oscar_umana").text("another tweet").build();
+		
+		//when - behaviour that we want to test
+		Tweet enriched = authorService.enrich(stored);
+		
+		//then - verify the output
+		Assertions.assertThat(enriched.getName()).isEqualTo("Oscar Umaña");
+		Assertions.assertThat(enriched.getProfileImgUrl()).isEqualTo("www.twitter.com");
+		Assertions.assertThat(authorRepository.count()).isEqualTo(1);
+	}
+	
+	//JUnit test for register operation
+	@Test
+	@DisplayName("JUnit test for register operation")
+	public void givenUnchangedThenChangedProfile_whenRegister_thenWriteOnlyOnChange() {
+		//given - precondition or setup
+		authorService.register(List.of(tweet));
+		long initialVersion = authorRepository.findById("oscar_umana").map(Author::getVersion).orElseThrow();
+		
+		//when - behaviour that we want to test
+		authorService.register(List.of(tweet, tweet.toBuilder().text("same profile").build()));
+		long unchangedVersion = authorRepository.findById("oscar_umana").map(Author::getVersion).orElseThrow();
+		authorService.register(List.of(tweet.toBuilder().profileImgUrl("www.twitter.com/new").name(null).build()));
+		Tweet enriched = authorService.enrich(Tweet.builder().username("oscar_umana").build());
+		
+		//then - verify the output
+		Assertions.assertThat(unchangedVersion).isEqualTo(initialVersion);
+		Assertions.assertThat(enriched.getAuthorVersion()).isEqualTo(initialVersion + 1);
+		Assertions.assertThat(enriched.getName()).isEqualTo("Oscar Umaña");
+		Assertions.assertThat(enriched.getProfileImgUrl()).isEqualTo("www.twitter.com/new");
+	}
+	
+	//JUnit test for enrichRows operation
+	@Test
+	@DisplayName("JUnit test for enrichRows operation")
+	public void givenRowsWithoutSelectedUsername_whenEnrichRows_thenFillNameAndDropUsername() {
+		//given - precondition or setup
+		authorService.register(List.of(tweet));
+		Map<String, Object> row = new LinkedHashMap<>();
+		row.put("id", 1L);
+		row.put("username", "oscar_umana");
+		
+		//when - behaviour that we want to test
+		List<Map<String, Object>> rows = authorService.enrichRows(List.of(row), Set.of(TweetField.ID, TweetField.NAME));
+		
+		//then - verify the output
+		Assertions.assertThat(rows.get(0)).containsEntry("name", "Oscar Umaña").doesNotContainKey("username");
+	}
+}
@@ -0,0 +1,139 @@
+package com.oumana.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oumana.archive.TweetArchive;
+import com.oumana.cache.AuthorCache;
+import com.oumana.entity.Tweet;
+import com.oumana.repository.TweetRepository;
+
+@DataJpaTest
+@Import({ TweetExportService.class, AuthorService.class, AuthorCache.class, JacksonAutoConfiguration.class })
+public class TweetExportServiceTests {
+
+	@Autowired
+	private TweetExportService tweetExportService;
+
+	@Autowired
+	private TweetRepository tweetRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private AuthorService authorService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@MockBean
+	private TweetArchive tweetArchive;
+
+	@TempDir
+	Path directory;
+
+	@BeforeEach
+	public void setup() {
+		List<Tweet> tweets = new ArrayList<>();
+		for (int i = 0; i < TweetExportService.CLEAR_INTERVAL + 5; i++) {
+			tweets.add(Tweet.builder().name("Oscar Umaña").username(i % 2 == 0 ? "oscar_umana" : "another_user")
+					.text("tweet " + i).createdAt(LocalDate.of(2022, 5, 1).plusDays(i % 10)).build());
+		}
+		tweetRepository.insertAll(tweets);
+	}
+
+	//JUnit test for exportTweets operation
+	@Test
+	@DisplayName("JUnit test for exportTweets operation")
+	public void givenTweets_whenExportTweets_thenWriteOneJsonLinePerTweet() throws Exception {
+		//given - precondition or setup
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		//when - behaviour that we want to test
+		long count = tweetExportService.exportTweets(null, null, null, out);
+
+		//then - verify the output
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		Assertions.assertThat(count).isEqualTo(TweetExportService.CLEAR_INTERVAL + 5);
+		Assertions.assertThat(lines).hasSize(TweetExportService.CLEAR_INTERVAL + 5);
+		Assertions.assertThat(objectMapper.readValue(lines[0], Tweet.class).getText()).isEqualTo("tweet 0");
+		Assertions.assertThat(lines[lines.length - 1]).startsWith("{").endsWith("}");
+	}
+
+	//JUnit test for exportTweets operation with filters
+	@Test
+	@DisplayName("JUnit test for exportTweets operation with filters")
+	public void givenFilters_whenExportTweets_thenWriteOnlyMatchingTweets() throws Exception {
+		//given - precondition or setup
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		//when - behaviour that we want to test
+		long count = tweetExportService.exportTweets("oscar_umana", LocalDate.of(2022, 5, 1), LocalDate.of(2022, 5, 1),
+				out);
+
+		//then - verify the output
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		Assertions.assertThat(count).isEqualTo(101);
+		for (String line : lines) {
+			Tweet tweet = objectMapper.readValue(line, Tweet.class);
+			Assertions.assertThat(tweet.getUsername()).isEqualTo("oscar_umana");
+			Assertions.assertThat(tweet.getCreatedAt()).isEqualTo(LocalDate.of(2022, 5, 1));
+		}
+	}
+
+	//JUnit test for exportTweets operation with archived tweets
+	@Test
+	@DisplayName("JUnit test for exportTweets operation with archived tweets")
+	public void givenArchivedTweets_whenExportTweets_thenAppendMatchingArchivedTweets() throws Exception {
+		//given - precondition or setup
+		TweetArchive archive = new TweetArchive(directory, 4);
+		Tweet live = tweetRepository.findAll().get(0);
+		archive.append(List.of(
+				Tweet.builder().id(1_000_001L).username("oscar_umana").text("archived in range")
+					.createdAt(LocalDate.of(2022, 5, 1)).build(),
+				Tweet.builder().id(1_000_002L).username("oscar_umana").text("archived out of range")
+					.createdAt(LocalDate.of(2021, 5, 1)).build(),
+				Tweet.builder().id(1_000_003L).username("another_user").text("archived by another user")
+					.createdAt(LocalDate.of(2022, 5, 1)).build(),
+				Tweet.builder().id(live.getId()).username(live.getUsername()).text("left in the table")
+					.createdAt(live.getCreatedAt()).build()));
+		TweetExportService exportService = new TweetExportService(tweetRepository, archive, authorService,
+				entityManager, objectMapper);
+		ByteArrayOutputStream all = new ByteArrayOutputStream();
+		ByteArrayOutputStream filtered = new ByteArrayOutputStream();
+
+		//when - behaviour that we want to test
+		long allCount = exportService.exportTweets(null, null, null, all);
+		long filteredCount = exportService.exportTweets("oscar_umana", LocalDate.of(2022, 5, 1),
+				LocalDate.of(2022, 5, 1), filtered);
+
+		//then - verify the output
+		String[] allLines = all.toString(StandardCharsets.UTF_8).split("\n");
+		String[] filteredLines = filtered.toString(StandardCharsets.UTF_8).split("\n");
+		Assertions.assertThat(allCount).isEqualTo(TweetExportService.CLEAR_INTERVAL + 5 + 3);
+		Assertions.assertThat(allLines).hasSize(TweetExportService.CLEAR_INTERVAL + 5 + 3);
+		Assertions.assertThat(allLines).noneMatch(line -> line.contains("left in the table"));
+		Assertions.assertThat(filteredCount).isEqualTo(102);
+		Assertions.assertThat(objectMapper.readValue(filteredLines[filteredLines.length - 1], Tweet.class).getText())
+			.isEqualTo("archived in range");
+	}
+}
@@ -0,0 +1,65 @@
+package com.oumana.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.oumana.entity.Tweet;
+import com.oumana.stats.TweetStatistics;
+
+@SpringBootTest
+public class TweetServiceConcurrencyTests {
+
+	@Autowired
+	private TweetService tweetService;
+
+	@Autowired
+	private TweetStatistics tweetStatistics;
+
+	//JUnit test for deleteTweets operation from two callers at once
+	@Test
+	@DisplayName("JUnit test for deleteTweets operation from two callers at once")
+	public void givenTweets_whenDeletedTwiceConcurrently_thenCountEachDeleteOnce() throws Exception {
+		//given - precondition or setup
+		String username = "double_delete";
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			ids.add(tweetService.saveTweet(Tweet.builder().name("Oscar Umaña").username(username)
+					.text("tweet " + i).createdAt(LocalDate.of(2022, 5, 1)).build()).getId());
+		}
+		long total = tweetStatistics.total();
+		CountDownLatch start = new CountDownLatch(1);
+		Callable<Integer> delete = () -> {
+			start.await();
+			return tweetService.deleteTweets(ids);
+		};
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		//when - behaviour that we want to test
+		int deleted;
+		try {
+			Future<Integer> first = executor.submit(delete);
+			Future<Integer> second = executor.submit(delete);
+			start.countDown();
+			deleted = first.get() + second.get();
+		} finally {
+			executor.shutdownNow();
+		}
+
+		//then - verify the output
+		Assertions.assertThat(deleted).isEqualTo(ids.size());
+		Assertions.assertThat(tweetStatistics.total()).isEqualTo(total - ids.size());
+		Assertions.assertThat(tweetStatistics.countByUsername(username)).isZero();
+	}
+}
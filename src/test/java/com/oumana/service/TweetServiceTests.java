@@ -1,31 +1,73 @@
 package com.oumana.service;
 
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.AdditionalAnswers;
+import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import com.oumana.archive.TweetArchive;
+import com.oumana.cache.RecentTimelineCache;
+import com.oumana.cache.TweetCache;
+import com.oumana.dto.TweetBatchItem;
+import com.oumana.dto.TweetBatchResult;
+import com.oumana.dto.TweetPage;
+import com.oumana.dto.TweetPatch;
+import com.oumana.dto.TweetSearchResult;
 import com.oumana.entity.Tweet;
+import com.oumana.exception.BadRequestException;
+import com.oumana.exception.ConflictException;
+import com.oumana.exception.PreconditionFailedException;
 import com.oumana.exception.ResourceNotFoundException;
+import com.oumana.event.TweetDeletedEvent;
+import com.oumana.event.TweetPatchedEvent;
+import com.oumana.event.TweetSavedEvent;
+import com.oumana.repository.TimelineEntry;
 import com.oumana.repository.TweetRepository;
+import com.oumana.repository.TweetVersionEntry;
+import com.oumana.search.SearchHits;
+import com.oumana.search.TweetSearchIndex;
 
 @ExtendWith(MockitoExtension.class)
 public class TweetServiceTests {
 	@Mock
 	private TweetRepository tweetRepository;
+	@Mock
+	private TweetSearchIndex tweetSearchIndex;
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+	@Mock
+	private RecentTimelineCache recentTimelineCache;
+	@Mock
+	private AuthorService authorService;
+	@Mock
+	private TweetArchive tweetArchive;
+	@Spy
+	private TweetCache tweetCache = new TweetCache(100, Duration.ofMinutes(1), Duration.ofMinutes(1));
 	@InjectMocks
 	private TweetService tweetService;
 
@@ -35,6 +77,9 @@ public class TweetServiceTests {
 	public void setup() {
 		tweet = Tweet.builder().id(1L).name("Oscar Umaña").username("oscar_umana").imgUrl("www.twitter.com")
 				.profileImgUrl("www.twitter.com").text("this is a tweet").createdAt(LocalDate.now()).build();
+		BDDMockito.lenient().when(authorService.enrich(ArgumentMatchers.any(Tweet.class))).then(AdditionalAnswers.returnsFirstArg());
+		BDDMockito.lenient().when(authorService.enrich(ArgumentMatchers.<List<Tweet>>any())).then(AdditionalAnswers.returnsFirstArg());
+		BDDMockito.lenient().when(authorService.enrichRows(ArgumentMatchers.any(), ArgumentMatchers.any())).then(AdditionalAnswers.returnsFirstArg());
 	}
 
 	// JUnit test for saveTweet operation
@@ -49,6 +94,61 @@ public class TweetServiceTests {
 
 		// then - verify the output
 		Assertions.assertThat(savedTweet).isNotNull();
+		verify(eventPublisher, times(1)).publishEvent(ArgumentMatchers.any(TweetSavedEvent.class));
+	}
+	
+	//JUnit test for saveTweets operation
+	@Test
+	@DisplayName("JUnit test for saveTweets operation")
+	public void givenTweetList_whenSaveTweets_thenInsertInOneBatch() {
+		// given - precondition or setup
+		Tweet tweet2 = Tweet.builder().name("Oscar Umaña").username("oscar_umana").imgUrl("www.twitter.com")
+				.profileImgUrl("www.twitter.com").text("this is another tweet").createdAt(LocalDate.now()).build();
+		tweet.setId(null);
+		BDDMockito.willAnswer(invocation -> {
+			List<Tweet> batch = invocation.getArgument(0);
+			long id = 1;
+			for (Tweet t : batch) {
+				t.setId(id++);
+			}
+			return null;
+		}).given(tweetRepository).insertAll(ArgumentMatchers.anyList());
+
+		// when - behaviour that we want to test
+		TweetBatchResult result = tweetService.saveTweets(List.of(tweet, tweet2));
+
+		// then - verify the output
+		Assertions.assertThat(result.getCreated()).isEqualTo(2);
+		Assertions.assertThat(result.getFailed()).isEqualTo(0);
+		Assertions.assertThat(result.getItems()).extracting(TweetBatchItem::getId).containsExactly(1L, 2L);
+		verify(tweetRepository, times(1)).insertAll(ArgumentMatchers.anyList());
+	}
+	
+	//JUnit test for saveTweets operation with a failing item
+	@Test
+	@DisplayName("JUnit test for saveTweets operation with a failing item")
+	public void givenBatchWithBadTweet_whenSaveTweets_thenReportPerItemResults() {
+		// given - precondition or setup
+		Tweet badTweet = Tweet.builder().name("Oscar Umaña").username("oscar_umana").text("bad").build();
+		Tweet presetId = Tweet.builder().id(7L).name("Oscar Umaña").username("oscar_umana").text("preset").build();
+		tweet.setId(null);
+		BDDMockito.willAnswer(invocation -> {
+			List<Tweet> batch = invocation.getArgument(0);
+			if (batch.contains(badTweet)) {
+				throw new DataIntegrityViolationException("value too long");
+			}
+			batch.forEach(t -> t.setId(1L));
+			return null;
+		}).given(tweetRepository).insertAll(ArgumentMatchers.anyList());
+
+		// when - behaviour that we want to test
+		TweetBatchResult result = tweetService.saveTweets(List.of(tweet, badTweet, presetId));
+
+		// then - verify the output
+		Assertions.assertThat(result.getCreated()).isEqualTo(1);
+		Assertions.assertThat(result.getFailed()).isEqualTo(2);
+		Assertions.assertThat(result.getItems()).extracting(TweetBatchItem::getStatus)
+			.containsExactly(TweetBatchItem.CREATED, TweetBatchItem.FAILED, TweetBatchItem.FAILED);
 	}
 	
 	//JUnit test for getAllTweets operation
@@ -84,6 +184,144 @@ public class TweetServiceTests {
 		Assertions.assertThat(tweets.size()).isEqualTo(0);
 	}
 	
+	//JUnit test for getTweetPage operation
+	@Test
+	@DisplayName("JUnit test for getTweetPage operation")
+	public void givenMoreTweetsThanLimit_whenGetTweetPage_thenReturnPageWithCursor() {
+		//given - precondition or setup
+		Tweet tweet2 = Tweet.builder().id(2L).name("Oscar Umaña").username("oscar_umana").imgUrl("www.twitter.com")
+				.profileImgUrl("www.twitter.com").text("this is another tweet").createdAt(LocalDate.now()).build();
+		Tweet tweet3 = Tweet.builder().id(3L).name("Oscar Umaña").username("oscar_umana").imgUrl("www.twitter.com")
+				.profileImgUrl("www.twitter.com").text("this is a third tweet").createdAt(LocalDate.now()).build();
+		
+		given(tweetRepository.findLatest(ArgumentMatchers.any())).willReturn(List.of(tweet3, tweet2, tweet));
+		given(tweetRepository.findLatestBefore(ArgumentMatchers.eq(2L), ArgumentMatchers.any())).willReturn(List.of(tweet));
+		
+		//when - behaviour that we want to test
+		TweetPage<Tweet> firstPage = tweetService.getTweetPage(null, 2);
+		TweetPage<Tweet> secondPage = tweetService.getTweetPage(firstPage.getNextCursor(), 2);
+		
+		//then - verify the output
+		Assertions.assertThat(firstPage.getTweets()).containsExactly(tweet3, tweet2);
+		Assertions.assertThat(firstPage.getNextCursor()).isNotNull();
+		Assertions.assertThat(secondPage.getTweets()).containsExactly(tweet);
+		Assertions.assertThat(secondPage.getNextCursor()).isNull();
+	}
+	
+	//JUnit test for getTweetPage operation with invalid cursor
+	@Test
+	@DisplayName("JUnit test for getTweetPage operation with invalid cursor")
+	public void givenInvalidCursor_whenGetTweetPage_thenThrowException() {
+		//given - precondition or setup
+		String cursor = "not-a-cursor";
+		
+		//when - behaviour that we want to test
+		//then - verify the output
+		org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> {
+			tweetService.getTweetPage(cursor, 10);
+		});
+	}
+	
+	//JUnit test for getUserTimeline operation
+	@Test
+	@DisplayName("JUnit test for getUserTimeline operation")
+	public void givenMoreTweetsThanLimit_whenGetUserTimeline_thenSeekFromLastTweet() {
+		//given - precondition or setup
+		Tweet tweet2 = Tweet.builder().id(2L).name("Oscar Umaña").username("oscar_umana").imgUrl("www.twitter.com")
+				.profileImgUrl("www.twitter.com").text("this is another tweet").createdAt(LocalDate.now()).build();
+		Tweet tweet3 = Tweet.builder().id(3L).name("Oscar Umaña").username("oscar_umana").imgUrl("www.twitter.com")
+				.profileImgUrl("www.twitter.com").text("this is a third tweet").createdAt(LocalDate.now()).build();
+		
+		given(tweetRepository.findTimeline(ArgumentMatchers.eq("oscar_umana"), ArgumentMatchers.any()))
+			.willReturn(List.of(tweet3, tweet2, tweet));
+		given(tweetRepository.findTimelineBefore(ArgumentMatchers.eq("oscar_umana"), ArgumentMatchers.eq(tweet2.getCreatedAt()),
+				ArgumentMatchers.eq(2L), ArgumentMatchers.any())).willReturn(List.of(tweet));
+		
+		//when - behaviour that we want to test
+		TweetPage<Tweet> firstPage = tweetService.getUserTimeline("oscar_umana", null, 2);
+		TweetPage<Tweet> secondPage = tweetService.getUserTimeline("oscar_umana", firstPage.getNextCursor(), 2);
+		
+		//then - verify the output
+		Assertions.assertThat(firstPage.getTweets()).containsExactly(tweet3, tweet2);
+		Assertions.assertThat(secondPage.getTweets()).containsExactly(tweet);
+		Assertions.assertThat(secondPage.getNextCursor()).isNull();
+	}
+	
+	//JUnit test for getUserTimeline operation served from the recent timeline cache
+	@Test
+	@DisplayName("JUnit test for getUserTimeline operation served from the recent timeline cache")
+	public void givenCachedTimeline_whenGetUserTimeline_thenLoadTweetsById() {
+		//given - precondition or setup
+		Tweet tweet2 = Tweet.builder().id(2L).name("Oscar Umaña").username("oscar_umana").imgUrl("www.twitter.com")
+				.profileImgUrl("www.twitter.com").text("this is another tweet").createdAt(LocalDate.now()).build();
+		
+		given(recentTimelineCache.page("oscar_umana", null, null, 3)).willReturn(new long[] { 2L, 1L });
+		given(tweetRepository.findAllById(List.of(2L, 1L))).willReturn(List.of(tweet, tweet2));
+		
+		//when - behaviour that we want to test
+		TweetPage<Tweet> page = tweetService.getUserTimeline("oscar_umana", null, 2);
+		
+		//then - verify the output
+		Assertions.assertThat(page.getTweets()).containsExactly(tweet2, tweet);
+		Assertions.assertThat(page.getNextCursor()).isNull();
+		verify(tweetRepository, times(0)).findTimeline(ArgumentMatchers.any(), ArgumentMatchers.any());
+	}
+	
+	//JUnit test for getUserTimeline operation with a deleted id left in the recent timeline cache
+	@Test
+	@DisplayName("JUnit test for getUserTimeline operation with a deleted id left in the recent timeline cache")
+	public void givenGhostIdInCachedTimeline_whenGetUserTimeline_thenEvictItAndKeepTheCursor() {
+		//given - precondition or setup
+		Tweet tweet2 = Tweet.builder().id(2L).username("oscar_umana").text("second").createdAt(LocalDate.now()).build();
+		Tweet tweet4 = Tweet.builder().id(4L).username("oscar_umana").text("fourth").createdAt(LocalDate.now()).build();
+		given(recentTimelineCache.page("oscar_umana", null, null, 3))
+			.willReturn(new long[] { 4L, 3L, 2L }, new long[] { 4L, 2L, 1L });
+		given(tweetRepository.findAllById(List.of(4L, 3L, 2L))).willReturn(List.of(tweet4, tweet2));
+		given(tweetRepository.findAllById(List.of(4L, 2L, 1L))).willReturn(List.of(tweet4, tweet2, tweet));
+		
+		//when - behaviour that we want to test
+		TweetPage<Tweet> page = tweetService.getUserTimeline("oscar_umana", null, 2);
+		
+		//then - verify the output
+		Assertions.assertThat(page.getTweets()).containsExactly(tweet4, tweet2);
+		Assertions.assertThat(page.getNextCursor()).isNotNull();
+		verify(recentTimelineCache).evict("oscar_umana", List.of(3L));
+	}
+	
+	//JUnit test for searchTweets operation
+	@Test
+	@DisplayName("JUnit test for searchTweets operation")
+	public void givenQuery_whenSearchTweets_thenReturnTweetsInRankOrder() {
+		//given - precondition or setup
+		Tweet tweet2 = Tweet.builder().id(2L).name("Oscar Umaña").username("oscar_umana").imgUrl("www.twitter.com")
+				.profileImgUrl("www.twitter.com").text("this is another tweet").createdAt(LocalDate.now()).build();
+		
+		given(tweetSearchIndex.search("tweet", true, 0, 1)).willReturn(new SearchHits(List.of(2L), 2));
+		given(tweetRepository.findAllById(List.of(2L))).willReturn(List.of(tweet2));
+		
+		//when - behaviour that we want to test
+		TweetSearchResult<Tweet> result = tweetService.searchTweets("tweet", null, 0, 1);
+		
+		//then - verify the output
+		Assertions.assertThat(result.getTweets()).containsExactly(tweet2);
+		Assertions.assertThat(result.getTotal()).isEqualTo(2);
+		Assertions.assertThat(result.getNextPage()).isEqualTo(1);
+	}
+	
+	//JUnit test for searchTweets operation with unknown operator
+	@Test
+	@DisplayName("JUnit test for searchTweets operation with unknown operator")
+	public void givenUnknownOperator_whenSearchTweets_thenThrowException() {
+		//given - precondition or setup
+		String operator = "xor";
+		
+		//when - behaviour that we want to test
+		//then - verify the output
+		org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> {
+			tweetService.searchTweets("tweet", operator, 0, 10);
+		});
+	}
+	
 	//JUnit test for getTweetById operation
 	@Test
 	@DisplayName("JUnit test for getTweetById operation")
@@ -99,6 +337,76 @@ public class TweetServiceTests {
 		Assertions.assertThat(tweetById).isNotNull();
 	}
 	
+	//JUnit test for getTweetById operation falling through to the archive
+	@Test
+	@DisplayName("JUnit test for getTweetById operation falling through to the archive")
+	public void givenArchivedTweet_whenGetTweetById_thenReturnArchivedTweet() {
+		//given - precondition or setup
+		long id = 1L;
+		given(tweetRepository.findById(id)).willReturn(Optional.empty());
+		given(tweetArchive.findById(id)).willReturn(Optional.of(tweet));
+		
+		//when - behaviour that we want to test
+		Tweet tweetById = tweetService.getTweetById(id);
+
+		//then - verify the output
+		Assertions.assertThat(tweetById.getText()).isEqualTo(tweet.getText());
+	}
+	
+	//JUnit test for getTweetPage operation merging archived tweets
+	@Test
+	@DisplayName("JUnit test for getTweetPage operation merging archived tweets")
+	public void givenLiveAndArchivedTweets_whenGetTweetPage_thenMergeNewestFirst() {
+		//given - precondition or setup
+		Tweet live = tweet.toBuilder().id(5L).build();
+		Tweet archivedNewer = tweet.toBuilder().id(7L).build();
+		Tweet archivedOlder = tweet.toBuilder().id(2L).build();
+		given(tweetRepository.findLatest(PageRequest.of(0, 3))).willReturn(List.of(live));
+		given(tweetArchive.findLatest(null, null, 3)).willReturn(List.of(archivedNewer, archivedOlder));
+		
+		//when - behaviour that we want to test
+		TweetPage<Tweet> page = tweetService.getTweetPage(null, 2);
+
+		//then - verify the output
+		Assertions.assertThat(page.getTweets()).extracting(Tweet::getId).containsExactly(7L, 5L);
+		Assertions.assertThat(page.getNextCursor()).isNotNull();
+	}
+	
+	@Test
+	@DisplayName("JUnit test for getTweetById operation served from cache")
+	public void givenCachedTweet_whenGetTweetByIdTwice_thenLoadOnce() {
+		//given - precondition or setup
+		long id = 1L;
+		given(tweetRepository.findById(id)).willReturn(Optional.of(tweet));
+		
+		//when - behaviour that we want to test
+		Tweet first = tweetService.getTweetById(id);
+		Tweet second = tweetService.getTweetById(id);
+		
+		//then - verify the output
+		Assertions.assertThat(second.getText()).isEqualTo(first.getText());
+		verify(tweetRepository, times(1)).findById(id);
+	}
+	
+	//JUnit test for getTweetById operation after updateTweet
+	@Test
+	@DisplayName("JUnit test for getTweetById operation after updateTweet")
+	public void givenUpdatedTweet_whenGetTweetById_thenReturnUpdatedTweetWithoutLoading() {
+		//given - precondition or setup
+		given(tweetRepository.save(tweet)).willReturn(tweet);
+		given(tweetRepository.findTimelineEntriesByIds(List.of(tweet.getId())))
+			.willReturn(List.of(BDDMockito.mock(TimelineEntry.class)));
+		tweet.setText("Updated tweet content.");
+		tweetService.updateTweet(tweet);
+		
+		//when - behaviour that we want to test
+		Tweet tweetById = tweetService.getTweetById(tweet.getId());
+		
+		//then - verify the output
+		Assertions.assertThat(tweetById.getText()).isEqualTo("Updated tweet content.");
+		verify(tweetRepository, times(0)).findById(tweet.getId());
+	}
+	
 	//JUnit test for getTweetById operation with not existing id
 	@Test
 	@DisplayName("JUnit test for getTweetById operation with not existing id")
@@ -120,6 +428,8 @@ public class TweetServiceTests {
 	public void givenTweetObject_whenUpdateTweet_thenReturnUpdatedTweetObject() {
 		// given - precondition or setup
 		given(tweetRepository.save(tweet)).willReturn(tweet);
+		given(tweetRepository.findTimelineEntriesByIds(List.of(tweet.getId())))
+			.willReturn(List.of(BDDMockito.mock(TimelineEntry.class)));
 		tweet.setText("Updated tweet content.");
 
 		// when - behaviour that we want to test
@@ -135,12 +445,74 @@ public class TweetServiceTests {
 	public void givenTweetId_whenDeleteTweet_thenNothing() {
 		//given - precondition or setup
 		long tweetId = 1L;
-		BDDMockito.willDoNothing().given(tweetRepository).deleteById(tweetId);
+		TimelineEntry entry = BDDMockito.mock(TimelineEntry.class);
+		given(entry.getId()).willReturn(tweetId);
+		given(entry.getUsername()).willReturn("oscar_umana");
+		given(tweetRepository.deleteTimelineEntriesByIds(List.of(tweetId))).willReturn(List.of(entry));
 		
 		//when - behaviour that we want to test
 		tweetService.deleteTweet(tweetId);
 		
 		//then - verify the output
-		verify(tweetRepository, times(1)).deleteById(tweetId);
+		verify(tweetRepository, times(1)).deleteTimelineEntriesByIds(List.of(tweetId));
+		verify(tweetRepository, never()).findById(tweetId);
+		verify(eventPublisher, times(1)).publishEvent(ArgumentMatchers.any(TweetDeletedEvent.class));
+	}
+	
+	//JUnit test for deleteTweets operation naming an archived tweet
+	@Test
+	@DisplayName("JUnit test for deleteTweets operation naming an archived tweet")
+	public void givenArchivedId_whenDeleteTweets_thenThrowConflictWithoutEvents() {
+		//given - precondition or setup
+		TimelineEntry entry = BDDMockito.mock(TimelineEntry.class);
+		given(entry.getId()).willReturn(1L);
+		given(tweetRepository.deleteTimelineEntriesByIds(List.of(1L, 2L))).willReturn(List.of(entry));
+		given(tweetArchive.findAllById(Set.of(2L))).willReturn(List.of(Tweet.builder().id(2L).build()));
+		
+		//when - behaviour that we want to test
+		Assertions.assertThatThrownBy(() -> tweetService.deleteTweets(List.of(1L, 2L)))
+		
+		//then - verify the output
+			.isInstanceOf(ConflictException.class);
+		verify(eventPublisher, never()).publishEvent(ArgumentMatchers.any(TweetDeletedEvent.class));
+	}
+	
+	//JUnit test for patchTweet operation
+	@Test
+	@DisplayName("JUnit test for patchTweet operation")
+	public void givenStaleVersion_whenPatchTweet_thenThrowPreconditionFailed() {
+		//given - precondition or setup
+		TweetPatch patch = new TweetPatch();
+		patch.setText("patched");
+		given(tweetRepository.patch(1L, patch, 2L)).willReturn(0);
+		TweetVersionEntry current = BDDMockito.mock(TweetVersionEntry.class);
+		given(tweetRepository.findVersionById(1L)).willReturn(Optional.of(current));
+		
+		//when - behaviour that we want to test
+		Assertions.assertThatThrownBy(() -> tweetService.patchTweet(1L, patch, 2L))
+		
+		//then - verify the output
+			.isInstanceOf(PreconditionFailedException.class);
+		verify(eventPublisher, never()).publishEvent(ArgumentMatchers.any(TweetPatchedEvent.class));
+	}
+	
+	//JUnit test for getUserTimeline operation with selected fields
+	@Test
+	@DisplayName("JUnit test for getUserTimeline operation with selected fields")
+	public void givenFields_whenGetUserTimeline_thenReturnRowsWithOnlySelectedFields() {
+		//given - precondition or setup
+		Map<String, Object> first = new LinkedHashMap<>(Map.of("id", 3L, "text", "third", "createdAt", LocalDate.now()));
+		Map<String, Object> second = new LinkedHashMap<>(Map.of("id", 2L, "text", "second", "createdAt", LocalDate.now()));
+		given(tweetRepository.findTimelineRows(ArgumentMatchers.eq("oscar_umana"), ArgumentMatchers.isNull(),
+				ArgumentMatchers.isNull(), ArgumentMatchers.anySet(), ArgumentMatchers.eq(2)))
+			.willReturn(new ArrayList<>(List.of(first, second)));
+		
+		//when - behaviour that we want to test
+		TweetPage<Map<String, Object>> page = tweetService.getUserTimeline("oscar_umana", null, 1, "text");
+		
+		//then - verify the output
+		Assertions.assertThat(page.getTweets()).hasSize(1);
+		Assertions.assertThat(page.getTweets().get(0)).containsOnlyKeys("id", "text");
+		Assertions.assertThat(page.getNextCursor()).isNotNull();
 	}
 }
@@ -0,0 +1,167 @@
+package com.oumana.stats;
+
+import static org.mockito.BDDMockito.given;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import com.oumana.archive.TweetArchive;
+import com.oumana.entity.Tweet;
+import com.oumana.event.TweetDeletedEvent;
+import com.oumana.event.TweetSavedEvent;
+import com.oumana.repository.TimelineEntry;
+import com.oumana.repository.TweetRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class TweetStatisticsTests {
+
+	@Mock
+	private TweetRepository tweetRepository;
+
+	@Mock
+	private TweetArchive tweetArchive;
+
+	@TempDir
+	Path directory;
+
+	//JUnit test for tweet events
+	@Test
+	@DisplayName("JUnit test for tweet events")
+	public void givenCountedTweets_whenTweetsSavedMovedAndDeleted_thenUpdateCounts() {
+		//given - precondition or setup
+		LocalDate day = LocalDate.of(2022, 5, 1);
+		List<TimelineEntry> entries = List.of(entry(1L, "oscar_umana", day), entry(2L, "john_doe", day));
+		given(tweetRepository.findTimelineEntriesAfter(ArgumentMatchers.eq(Long.MIN_VALUE), ArgumentMatchers.any(Pageable.class)))
+			.willReturn(entries);
+		TweetStatistics statistics = statistics();
+		statistics.start();
+		Tweet moved = Tweet.builder().id(2L).username("oscar_umana").createdAt(day.plusDays(1)).build();
+		TimelineEntry previous = entry(2L, "john_doe", day);
+
+		//when - behaviour that we want to test
+		statistics.onTweetSaved(new TweetSavedEvent(Tweet.builder().id(3L).username("oscar_umana").build(), true));
+		statistics.onTweetSaved(new TweetSavedEvent(moved, false, previous));
+		statistics.onTweetDeleted(new TweetDeletedEvent(1L, "oscar_umana", day));
+		statistics.stop();
+
+		//then - verify the output
+		Assertions.assertThat(statistics.total()).isEqualTo(2);
+		Assertions.assertThat(statistics.undated()).isEqualTo(1);
+		Assertions.assertThat(statistics.countByUsername("oscar_umana")).isEqualTo(2);
+		Assertions.assertThat(statistics.countByUsername("john_doe")).isZero();
+		Assertions.assertThat(statistics.countsByDay()).containsOnlyKeys(day.plusDays(1));
+	}
+
+	//JUnit test for checkpoint restore
+	@Test
+	@DisplayName("JUnit test for checkpoint restore")
+	public void givenCheckpoint_whenRestart_thenScanOnlyNewerTweets() throws Exception {
+		//given - precondition or setup
+		LocalDate day = LocalDate.of(2022, 5, 1);
+		List<TimelineEntry> entries = List.of(entry(1L, "oscar_umana", day), entry(2L, "john_doe", day));
+		given(tweetRepository.findTimelineEntriesAfter(ArgumentMatchers.eq(Long.MIN_VALUE), ArgumentMatchers.any(Pageable.class)))
+			.willReturn(entries);
+		TweetStatistics first = statistics();
+		first.start();
+		first.stop();
+		List<TimelineEntry> newer = List.of(entry(5L, "oscar_umana", day));
+		given(tweetRepository.findTimelineEntriesAfter(ArgumentMatchers.eq(2L), ArgumentMatchers.any(Pageable.class)))
+			.willReturn(newer);
+		given(tweetRepository.count()).willReturn(3L);
+		given(tweetRepository.findById(2L)).willReturn(Optional.of(Tweet.builder().id(2L).build()));
+
+		//when - behaviour that we want to test
+		TweetStatistics restarted = statistics();
+		restarted.start();
+
+		//then - verify the output
+		Assertions.assertThat(restarted.total()).isEqualTo(3);
+		Assertions.assertThat(restarted.countByUsername("oscar_umana")).isEqualTo(2);
+		Assertions.assertThat(restarted.countByDay(day)).isEqualTo(3);
+		BDDMockito.verify(tweetRepository, BDDMockito.times(1))
+			.findTimelineEntriesAfter(ArgumentMatchers.eq(Long.MIN_VALUE), ArgumentMatchers.any(Pageable.class));
+		restarted.stop();
+	}
+
+	//JUnit test for stale checkpoint
+	@Test
+	@DisplayName("JUnit test for stale checkpoint")
+	public void givenTweetsDeletedAfterCheckpoint_whenRestart_thenRecount() throws Exception {
+		//given - precondition or setup
+		LocalDate day = LocalDate.of(2022, 5, 1);
+		List<TimelineEntry> entries = List.of(entry(1L, "oscar_umana", day), entry(2L, "john_doe", day));
+		List<TimelineEntry> remaining = List.of(entry(2L, "john_doe", day));
+		given(tweetRepository.findTimelineEntriesAfter(ArgumentMatchers.eq(Long.MIN_VALUE), ArgumentMatchers.any(Pageable.class)))
+			.willReturn(entries)
+			.willReturn(remaining);
+		TweetStatistics first = statistics();
+		first.start();
+		first.stop();
+		given(tweetRepository.count()).willReturn(1L);
+
+		//when - behaviour that we want to test
+		TweetStatistics restarted = statistics();
+		restarted.start();
+
+		//then - verify the output
+		Assertions.assertThat(restarted.total()).isEqualTo(1);
+		Assertions.assertThat(restarted.countByUsername("oscar_umana")).isZero();
+		restarted.stop();
+	}
+
+	//JUnit test for checkpoint of another database
+	@Test
+	@DisplayName("JUnit test for checkpoint of another database")
+	public void givenCheckpointTotalMatchingByChance_whenHighestTweetMissing_thenRecount() throws Exception {
+		//given - precondition or setup
+		LocalDate day = LocalDate.of(2022, 5, 1);
+		List<TimelineEntry> entries = List.of(entry(1L, "oscar_umana", day), entry(2L, "oscar_umana", day));
+		List<TimelineEntry> reseeded = List.of(entry(1L, "john_doe", day), entry(2L, "john_doe", day));
+		given(tweetRepository.findTimelineEntriesAfter(ArgumentMatchers.eq(Long.MIN_VALUE), ArgumentMatchers.any(Pageable.class)))
+			.willReturn(entries)
+			.willReturn(reseeded);
+		TweetStatistics first = statistics();
+		first.start();
+		first.onTweetSaved(new TweetSavedEvent(Tweet.builder().id(3L).username("oscar_umana").createdAt(day).build(), true));
+		first.onTweetDeleted(new TweetDeletedEvent(1L, "oscar_umana", day));
+		first.stop();
+		given(tweetRepository.count()).willReturn(2L);
+
+		//when - behaviour that we want to test
+		TweetStatistics restarted = statistics();
+		restarted.start();
+
+		//then - verify the output
+		Assertions.assertThat(restarted.total()).isEqualTo(2);
+		Assertions.assertThat(restarted.countByUsername("oscar_umana")).isZero();
+		Assertions.assertThat(restarted.countByUsername("john_doe")).isEqualTo(2);
+		restarted.stop();
+	}
+
+	private TweetStatistics statistics() {
+		return new TweetStatistics(tweetRepository, tweetArchive, directory.resolve("stats.checkpoint"),
+				Duration.ofHours(1));
+	}
+
+	private static TimelineEntry entry(long id, String username, LocalDate createdAt) {
+		TimelineEntry entry = BDDMockito.mock(TimelineEntry.class);
+		BDDMockito.lenient().when(entry.getId()).thenReturn(id);
+		BDDMockito.lenient().when(entry.getUsername()).thenReturn(username);
+		BDDMockito.lenient().when(entry.getCreatedAt()).thenReturn(createdAt);
+		return entry;
+	}
+}
@@ -0,0 +1,191 @@
+package com.oumana.stream;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.oumana.entity.Tweet;
+import com.oumana.event.TweetSavedEvent;
+import com.oumana.exception.SubscriptionRejectedException;
+
+public class TweetStreamBroadcasterTests {
+
+	private final List<Runnable> pendingDrains = new ArrayList<>();
+
+	private RecordingEmitter emitter;
+
+	@BeforeEach
+	public void setup() {
+		emitter = new RecordingEmitter();
+	}
+
+	private TweetSavedEvent created(long id, String username, String text) {
+		Tweet tweet = Tweet.builder().id(id).name("Oscar Umaña").username(username).text(text).build();
+		return new TweetSavedEvent(tweet, true);
+	}
+
+	private void runDrains() {
+		List<Runnable> drains = new ArrayList<>(pendingDrains);
+		pendingDrains.clear();
+		drains.forEach(Runnable::run);
+	}
+
+	//JUnit test for filtered fan-out
+	@Test
+	@DisplayName("JUnit test for filtered fan-out")
+	public void givenFilteredSubscriber_whenTweetsCreated_thenSendOnlyMatchingTweets() {
+		//given - precondition or setup
+		TweetStreamBroadcaster broadcaster = new TweetStreamBroadcaster(pendingDrains::add, 10, 10,
+				TweetStreamBroadcaster.DROP_OLDEST, Duration.ofMinutes(1), Duration.ofSeconds(10));
+		broadcaster.register(emitter, "oscar_umana", "Spring");
+
+		//when - behaviour that we want to test
+		broadcaster.onTweetSaved(created(1L, "oscar_umana", "I like spring boot"));
+		broadcaster.onTweetSaved(created(2L, "another_user", "spring again"));
+		broadcaster.onTweetSaved(created(3L, "oscar_umana", "nothing here"));
+		broadcaster.onTweetSaved(new TweetSavedEvent(created(1L, "oscar_umana", "spring edit").getTweet(), false));
+		runDrains();
+
+		//then - verify the output
+		Assertions.assertThat(emitter.sent).isEqualTo(1);
+	}
+
+	//JUnit test for slow subscriber with drop-oldest policy
+	@Test
+	@DisplayName("JUnit test for slow subscriber with drop-oldest policy")
+	public void givenSlowSubscriber_whenQueueOverflows_thenDropOldest() {
+		//given - precondition or setup
+		TweetStreamBroadcaster broadcaster = new TweetStreamBroadcaster(pendingDrains::add, 2, 10,
+				TweetStreamBroadcaster.DROP_OLDEST, Duration.ofMinutes(1), Duration.ofSeconds(10));
+		broadcaster.register(emitter, null, null);
+
+		//when - behaviour that we want to test
+		for (long id = 1; id <= 5; id++) {
+			broadcaster.onTweetSaved(created(id, "oscar_umana", "tweet " + id));
+		}
+		runDrains();
+
+		//then - verify the output
+		Assertions.assertThat(emitter.sent).isEqualTo(2);
+		Assertions.assertThat(broadcaster.subscribers()).isEqualTo(1);
+	}
+
+	//JUnit test for slow subscriber with disconnect policy
+	@Test
+	@DisplayName("JUnit test for slow subscriber with disconnect policy")
+	public void givenSlowSubscriber_whenQueueOverflows_thenDisconnect() {
+		//given - precondition or setup
+		TweetStreamBroadcaster broadcaster = new TweetStreamBroadcaster(pendingDrains::add, 2, 10,
+				TweetStreamBroadcaster.DISCONNECT, Duration.ofMinutes(1), Duration.ofSeconds(10));
+		broadcaster.register(emitter, null, null);
+
+		//when - behaviour that we want to test
+		for (long id = 1; id <= 3; id++) {
+			broadcaster.onTweetSaved(created(id, "oscar_umana", "tweet " + id));
+		}
+		runDrains();
+
+		//then - verify the output
+		Assertions.assertThat(emitter.sent).isEqualTo(0);
+		Assertions.assertThat(broadcaster.subscribers()).isEqualTo(0);
+	}
+
+	//JUnit test for drain batch
+	@Test
+	@DisplayName("JUnit test for drain batch")
+	public void givenBacklog_whenDrain_thenSendOneBatchAndReschedule() {
+		//given - precondition or setup
+		TweetStreamBroadcaster broadcaster = new TweetStreamBroadcaster(pendingDrains::add, 100, 10,
+				TweetStreamBroadcaster.DROP_OLDEST, Duration.ofMinutes(1), Duration.ofSeconds(10));
+		broadcaster.register(emitter, null, null);
+		for (long id = 1; id <= TweetSubscriber.DRAIN_BATCH + 1; id++) {
+			broadcaster.onTweetSaved(created(id, "oscar_umana", "tweet " + id));
+		}
+
+		//when - behaviour that we want to test
+		runDrains();
+
+		//then - verify the output
+		Assertions.assertThat(emitter.sent).isEqualTo(TweetSubscriber.DRAIN_BATCH);
+		Assertions.assertThat(pendingDrains).hasSize(1);
+		runDrains();
+		Assertions.assertThat(emitter.sent).isEqualTo(TweetSubscriber.DRAIN_BATCH + 1);
+	}
+
+	//JUnit test for stalled subscriber
+	@Test
+	@DisplayName("JUnit test for stalled subscriber")
+	public void givenBlockedSend_whenSendTimesOut_thenDisconnectAndFreeSender() throws Exception {
+		//given - precondition or setup
+		ExecutorService sender = Executors.newSingleThreadExecutor();
+		TweetStreamBroadcaster broadcaster = new TweetStreamBroadcaster(sender, 10, 10,
+				TweetStreamBroadcaster.DROP_OLDEST, Duration.ofMinutes(1), Duration.ofMillis(50));
+		BlockingEmitter stalled = new BlockingEmitter();
+		broadcaster.register(stalled, "stalled_user", null);
+		broadcaster.register(emitter, "oscar_umana", null);
+		broadcaster.onTweetSaved(created(1L, "stalled_user", "never leaves"));
+		broadcaster.onTweetSaved(created(2L, "oscar_umana", "stuck behind the stalled send"));
+		Assertions.assertThat(stalled.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+		//when - behaviour that we want to test
+		Thread.sleep(100);
+		broadcaster.expireStalledSends();
+		sender.shutdown();
+
+		//then - verify the output
+		Assertions.assertThat(sender.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+		Assertions.assertThat(emitter.sent).isEqualTo(1);
+		Assertions.assertThat(broadcaster.subscribers()).isEqualTo(1);
+	}
+
+	//JUnit test for subscriber limit
+	@Test
+	@DisplayName("JUnit test for subscriber limit")
+	public void givenFullBroadcaster_whenSubscribe_thenReject() {
+		//given - precondition or setup
+		TweetStreamBroadcaster broadcaster = new TweetStreamBroadcaster(pendingDrains::add, 2, 1,
+				TweetStreamBroadcaster.DROP_OLDEST, Duration.ofMinutes(1), Duration.ofSeconds(10));
+		broadcaster.register(emitter, null, null);
+
+		//when - behaviour that we want to test
+		//then - verify the output
+		org.junit.jupiter.api.Assertions.assertThrows(SubscriptionRejectedException.class, () -> {
+			broadcaster.subscribe(null, null);
+		});
+	}
+
+	private static class BlockingEmitter extends SseEmitter {
+		private final CountDownLatch entered = new CountDownLatch(1);
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			entered.countDown();
+			try {
+				new CountDownLatch(1).await();
+			} catch (InterruptedException e) {
+				throw new InterruptedIOException();
+			}
+		}
+	}
+
+	private static class RecordingEmitter extends SseEmitter {
+		private int sent;
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			sent++;
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package com.oumana.trends;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.oumana.dto.Trend;
+import com.oumana.exception.BadRequestException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TrendTrackerTests {
+
+	private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+
+	//JUnit test for extract operation
+	@Test
+	@DisplayName("JUnit test for extract operation")
+	public void givenText_whenExtract_thenReturnHashtagsAndMentions() {
+		//given - precondition or setup
+		String text = "Hello @Oscar_Umana, #Java and #java again! mail me at oscar@example.com # @";
+
+		//when - behaviour that we want to test
+		var terms = TrendTracker.extract(text);
+
+		//then - verify the output
+		Assertions.assertThat(terms).containsExactlyInAnyOrder("@oscar_umana", "#java");
+	}
+
+	//JUnit test for top operation
+	@Test
+	@DisplayName("JUnit test for top operation")
+	public void givenTweets_whenTop_thenReturnTermsByCount() {
+		//given - precondition or setup
+		TrendTracker tracker = tracker(3);
+		long now = 10 * MINUTE;
+		for (int i = 0; i < 5; i++) {
+			tracker.record("#spring boot release", now);
+		}
+		for (int i = 0; i < 3; i++) {
+			tracker.record("coffee with @oscar_umana #java", now);
+		}
+		tracker.record("#news", now);
+
+		//when - behaviour that we want to test
+		tracker.refresh(now);
+		List<Trend> trends = tracker.top("5m");
+
+		//then - verify the output
+		Assertions.assertThat(trends).extracting(Trend::getTerm).containsExactly("#spring", "#java", "@oscar_umana");
+		Assertions.assertThat(trends).extracting(Trend::getCount).containsExactly(5L, 3L, 3L);
+		Assertions.assertThat(tracker.top(null)).extracting(Trend::getTerm).first().isEqualTo("#spring");
+	}
+
+	//JUnit test for top operation after the window slides
+	@Test
+	@DisplayName("JUnit test for top operation after the window slides")
+	public void givenOldTweets_whenWindowSlides_thenDropThem() {
+		//given - precondition or setup
+		TrendTracker tracker = tracker(3);
+		long start = 10 * MINUTE;
+		tracker.record("#old", start);
+		tracker.record("#old #new", start + 3 * MINUTE);
+
+		//when - behaviour that we want to test
+		tracker.refresh(start + 6 * MINUTE);
+
+		//then - verify the output
+		Assertions.assertThat(tracker.top("5m")).extracting(Trend::getTerm).containsExactly("#new", "#old");
+		Assertions.assertThat(tracker.top("5m")).extracting(Trend::getCount).containsExactly(1L, 1L);
+		Assertions.assertThat(tracker.top("1h")).extracting(Trend::getCount).containsExactly(2L, 1L);
+		tracker.refresh(start + 9 * MINUTE);
+		Assertions.assertThat(tracker.top("5m")).isEmpty();
+	}
+
+	//JUnit test for top operation with a long tail of terms
+	@Test
+	@DisplayName("JUnit test for top operation with a long tail of terms")
+	public void givenManyDistinctTerms_whenTop_thenKeepHeavyHittersInBoundedMemory() {
+		//given - precondition or setup
+		TrendTracker tracker = tracker(3);
+		long now = 10 * MINUTE;
+		for (int i = 0; i < 50_000; i++) {
+			tracker.record("#tail" + i, now);
+			if (i % 100 == 0) {
+				tracker.record("#heavy", now);
+			}
+			if (i % 250 == 0) {
+				tracker.record("@second", now);
+			}
+		}
+
+		//when - behaviour that we want to test
+		tracker.refresh(now);
+		List<Trend> trends = tracker.top("PT5M");
+
+		//then - verify the output
+		Assertions.assertThat(trends).extracting(Trend::getTerm).startsWith("#heavy", "@second");
+		Assertions.assertThat(trends.get(0).getCount()).isBetween(500L, 600L);
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		tracker.bindTo(meterRegistry);
+		Assertions.assertThat(meterRegistry.get("tweets.trends.candidates").tag("window", "5m").gauge().value())
+			.isLessThanOrEqualTo(30);
+	}
+
+	//JUnit test for top operation with an unknown window
+	@Test
+	@DisplayName("JUnit test for top operation with an unknown window")
+	public void givenUnknownWindow_whenTop_thenThrowBadRequest() {
+		//given - precondition or setup
+		TrendTracker tracker = tracker(3);
+
+		//when - behaviour that we want to test
+		//then - verify the output
+		org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> tracker.top("2h"));
+		org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> tracker.top("soon"));
+	}
+
+	private static TrendTracker tracker(int top) {
+		return new TrendTracker(new String[] { "5m", "1h" }, 5, 2048, 4, top, Duration.ofSeconds(1));
+	}
+}